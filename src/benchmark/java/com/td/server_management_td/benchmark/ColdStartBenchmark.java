@@ -0,0 +1,209 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.ServerManagementTdApplication;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.service.ServerService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Cold-start and crash-recovery times of the {@code prod} profile (file-backed H2 with Flyway).
+ *
+ * <p>Every measured start runs in a fresh JVM so class loading and JIT are as cold as in production.
+ * The benchmark seeds a database with {@code --rows} servers, restarts it {@code --starts} times after a
+ * clean shutdown, then kills a JVM with {@code destroyForcibly} while it is writing and measures the
+ * start that has to recover the store. Reported times run from JVM start to application ready and to
+ * the first answered HTTP request.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -Dbenchmark.main=com.td.server_management_td.benchmark.ColdStartBenchmark \
+ *     -Dbenchmark.args="--rows=1000000"
+ * </pre>
+ */
+public final class ColdStartBenchmark {
+
+    private static final String RESULT_PREFIX = "RESULT ";
+
+    private ColdStartBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        String role = options.getOrDefault("role", "driver");
+        Path dataDir = Path.of(options.getOrDefault("data-dir", "target/cold-start"));
+        switch (role) {
+            case "driver" -> drive(dataDir, Integer.parseInt(options.getOrDefault("rows", "1000000")),
+                    Integer.parseInt(options.getOrDefault("starts", "3")));
+            case "seed" -> seed(dataDir, Integer.parseInt(options.get("rows")));
+            case "start" -> start(dataDir);
+            case "churn" -> churn(dataDir);
+            default -> throw new IllegalArgumentException("Unknown role " + role);
+        }
+    }
+
+    private static void drive(Path dataDir, int rows, int starts) throws Exception {
+        deleteRecursively(dataDir);
+        Map<String, String> seed = child(dataDir, "seed", "--rows=" + rows);
+        System.out.printf("Seeded %d rows in %s ms (first start with migrations: %s ms ready)%n",
+                rows, seed.get("seedMillis"), seed.get("readyMillis"));
+
+        List<Map<String, String>> cold = new ArrayList<>();
+        for (int i = 0; i < starts; i++) {
+            cold.add(child(dataDir, "start"));
+        }
+
+        Process churn = spawn(dataDir, "churn");
+        BufferedReader output = new BufferedReader(new InputStreamReader(churn.getInputStream()));
+        String line;
+        while ((line = output.readLine()) != null && !line.startsWith(RESULT_PREFIX)) {
+            // Wait until the child is writing
+        }
+        Thread.sleep(2000);
+        churn.destroyForcibly().waitFor();
+        Map<String, String> recovery = child(dataDir, "start");
+
+        System.out.printf("%n%-22s %12s %16s %12s%n", "start", "ready ms", "first request ms", "rows");
+        for (int i = 0; i < cold.size(); i++) {
+            print("clean shutdown #" + (i + 1), cold.get(i));
+        }
+        print("after kill -9", recovery);
+        System.out.printf("Database files: %.1f MB%n", sizeOf(dataDir) / 1024.0 / 1024.0);
+    }
+
+    private static void print(String label, Map<String, String> result) {
+        System.out.printf("%-22s %12s %16s %12s%n", label, result.get("readyMillis"), result.get("firstRequestMillis"),
+                result.get("rows"));
+    }
+
+    private static void seed(Path dataDir, int rows) {
+        try (ConfigurableApplicationContext context = boot(dataDir)) {
+            long readyMillis = sinceJvmStart();
+            long begin = System.nanoTime();
+            context.getBean(JdbcTemplate.class).update("insert into servers (name, ip_address, ip_numeric, status, version) "
+                    + "select 'srv-' || x, '10.' || (x / 65536) || '.' || mod(x / 256, 256) || '.' || mod(x, 256), 167772160 + x, 'STOPPED', 0 "
+                    + "from system_range(1, ?)", rows);
+            report("readyMillis", readyMillis, "seedMillis", (System.nanoTime() - begin) / 1_000_000);
+        }
+    }
+
+    private static void start(Path dataDir) throws Exception {
+        try (ConfigurableApplicationContext context = boot(dataDir)) {
+            long readyMillis = sinceJvmStart();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:"
+                            + context.getEnvironment().getProperty("local.server.port") + "/api/servers?limit=1")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            long firstRequestMillis = sinceJvmStart();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("First request failed: " + response.statusCode());
+            }
+            Long rows = context.getBean(JdbcTemplate.class).queryForObject("select count(*) from servers", Long.class);
+            report("readyMillis", readyMillis, "firstRequestMillis", firstRequestMillis, "rows", rows);
+        }
+    }
+
+    private static void churn(Path dataDir) {
+        ConfigurableApplicationContext context = boot(dataDir);
+        ServerService serverService = context.getBean(ServerService.class);
+        long rows = context.getBean(JdbcTemplate.class).queryForObject("select max(id) from servers", Long.class);
+        report("churning", 1);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            long id = random.nextLong(1, rows + 1);
+            serverService.transitionServer(id, random.nextBoolean() ? ServerStatus.RUNNING : ServerStatus.STOPPED, null);
+        }
+    }
+
+    private static ConfigurableApplicationContext boot(Path dataDir) {
+        return new SpringApplicationBuilder(ServerManagementTdApplication.class)
+                .profiles("prod")
+                .run("--server-management.data-dir=" + dataDir.toAbsolutePath(),
+                        "--server.port=0",
+                        "--logging.level.root=WARN");
+    }
+
+    private static long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    private static void report(Object... keyValues) {
+        StringBuilder line = new StringBuilder(RESULT_PREFIX);
+        for (int i = 0; i < keyValues.length; i += 2) {
+            line.append(keyValues[i]).append('=').append(keyValues[i + 1]).append(' ');
+        }
+        System.out.println(line.toString().trim());
+        System.out.flush();
+    }
+
+    private static Map<String, String> child(Path dataDir, String role, String... args) throws Exception {
+        Process process = spawn(dataDir, role, args);
+        Map<String, String> result = new HashMap<>();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    for (String pair : line.substring(RESULT_PREFIX.length()).split(" ")) {
+                        result.put(pair.substring(0, pair.indexOf('=')), pair.substring(pair.indexOf('=') + 1));
+                    }
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result.isEmpty()) {
+            throw new IllegalStateException(role + " run failed with exit code " + process.exitValue());
+        }
+        return result;
+    }
+
+    private static Process spawn(Path dataDir, String role, String... args) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path"),
+                ColdStartBenchmark.class.getName(),
+                "--role=" + role,
+                "--data-dir=" + dataDir.toAbsolutePath()));
+        command.addAll(List.of(args));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectInput(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private static long sizeOf(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.map(Path::toFile).filter(File::isFile).mapToLong(File::length).sum();
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
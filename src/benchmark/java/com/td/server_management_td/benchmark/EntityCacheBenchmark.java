@@ -0,0 +1,140 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSortField;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.service.ServerService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * SQL statements Hibernate sends for a read-heavy mix, with the second-level and query cache off
+ * and on, at several shares of writes.
+ *
+ * <p>Reads are 40% list pages (one of the first {@code pages} pages of 50), 10% searches for
+ * RUNNING servers by name, 20% {@code findById}, 15% {@code findByIpAddress} and 15%
+ * {@code findByName}, the lookups spread over the first {@code hot} servers. Writes start or stop
+ * one of those servers. Each configuration boots its own application against a fresh database,
+ * runs {@code warmup} operations, then counts over {@code operations} more on one thread. The
+ * statements a write issues through plain JDBC (fleet version, outbox, history) are not counted;
+ * they are the same with and without the cache.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -Dbenchmark.main=com.td.server_management_td.benchmark.EntityCacheBenchmark \
+ *     -Dbenchmark.args="--writes=0,0.01,0.05"
+ * </pre>
+ *
+ * Options: {@code --servers=10000 --hot=1000 --pages=20 --writes=0,0.01,0.05 --warmup=20000 --operations=100000}.
+ */
+public final class EntityCacheBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final ServerSearchCriteria RUNNING_BY_NAME =
+            new ServerSearchCriteria(ServerStatus.RUNNING, null, null, ServerSortField.NAME, Sort.Direction.ASC);
+
+    private EntityCacheBenchmark() {
+    }
+
+    private record Result(boolean cache, double writes, long operations, long statements, double seconds,
+                          long entityHits, long entityMisses, long queryHits, long queryMisses) {
+
+        double statementsPerOperation() {
+            return (double) statements / operations;
+        }
+
+        static double percent(long hits, long misses) {
+            return hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses);
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int servers = Integer.parseInt(options.getOrDefault("servers", "10000"));
+        int hot = Integer.parseInt(options.getOrDefault("hot", "1000"));
+        int pages = Integer.parseInt(options.getOrDefault("pages", "20"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "20000"));
+        int operations = Integer.parseInt(options.getOrDefault("operations", "100000"));
+
+        List<Result> results = new ArrayList<>();
+        for (String writes : options.getOrDefault("writes", "0,0.01,0.05").split(",")) {
+            for (boolean cache : new boolean[] {false, true}) {
+                results.add(run(cache, Double.parseDouble(writes), servers, hot, pages, warmup, operations));
+            }
+        }
+
+        System.out.printf("%n%-6s %7s %13s %10s %9s %12s %11s%n",
+                "cache", "writes", "statements", "stmt/op", "ops/s", "entity hit%", "query hit%");
+        for (Result result : results) {
+            System.out.printf("%-6s %6.0f%% %13d %10.3f %9.0f %12.1f %11.1f%n",
+                    result.cache ? "on" : "off", result.writes * 100, result.statements,
+                    result.statementsPerOperation(), result.operations / result.seconds,
+                    Result.percent(result.entityHits, result.entityMisses),
+                    Result.percent(result.queryHits, result.queryMisses));
+        }
+    }
+
+    private static Result run(boolean cache, double writes, int servers, int hot, int pages, int warmup, int operations) {
+        System.out.printf("Running with the cache %s, %.0f%% writes%n", cache ? "on" : "off", writes * 100);
+        try (ConfigurableApplicationContext context = SeededApplication.start("entity-cache-" + cache + "-" + writes,
+                servers, "--server-management.entity-cache.enabled=" + cache,
+                "--spring.jpa.properties.hibernate.generate_statistics=true")) {
+            ServerService serverService = context.getBean(ServerService.class);
+            ServerRepository serverRepository = context.getBean(ServerRepository.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            // Same sequence of operations for every configuration
+            SplittableRandom random = new SplittableRandom(42);
+
+            for (int n = 0; n < warmup; n++) {
+                operation(random, writes, hot, pages, serverService, serverRepository);
+            }
+            statistics.clear();
+            long started = System.nanoTime();
+            for (int n = 0; n < operations; n++) {
+                operation(random, writes, hot, pages, serverService, serverRepository);
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            return new Result(cache, writes, operations, statistics.getPrepareStatementCount(), seconds,
+                    statistics.getSecondLevelCacheHitCount() + statistics.getNaturalIdCacheHitCount(),
+                    statistics.getSecondLevelCacheMissCount() + statistics.getNaturalIdCacheMissCount(),
+                    statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+        }
+    }
+
+    private static void operation(SplittableRandom random, double writes, int hot, int pages,
+                                  ServerService serverService, ServerRepository serverRepository) {
+        long server = random.nextLong(1, hot + 1);
+        if (random.nextDouble() < writes) {
+            if (random.nextBoolean()) {
+                serverService.startServer(server);
+            } else {
+                serverService.stopServer(server);
+            }
+            return;
+        }
+        int read = random.nextInt(100);
+        if (read < 40) {
+            serverService.listServers((long) random.nextInt(pages) * PAGE_SIZE, PAGE_SIZE);
+        } else if (read < 50) {
+            serverService.searchServers(RUNNING_BY_NAME, null, PAGE_SIZE);
+        } else if (read < 70) {
+            serverRepository.findById(server);
+        } else if (read < 85) {
+            serverRepository.findByIpAddress(SeededApplication.ipAddress(server));
+        } else {
+            serverRepository.findByName(SeededApplication.name(server));
+        }
+    }
+}
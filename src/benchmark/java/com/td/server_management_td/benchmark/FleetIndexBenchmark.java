@@ -0,0 +1,144 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.fleet.FleetIndex;
+import com.td.server_management_td.fleet.FleetIndexer;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.service.ServerService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Lookups answered by the {@link FleetIndex} against the same lookups through Hibernate and H2,
+ * and the heap the index takes against the {@link Server} entities of the same fleet.
+ *
+ * <p>Every lookup is timed on one thread over names and addresses drawn up front, and the bytes
+ * the thread allocates are read from the JVM, so the figures show whether a lookup allocates at
+ * all. The footprint is the heap still in use after a full collection, measured around building
+ * a second index and around holding every server as a detached entity.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -Dbenchmark.main=com.td.server_management_td.benchmark.FleetIndexBenchmark \
+ *     -Dbenchmark.args="--servers=1000000"
+ * </pre>
+ *
+ * Options: {@code --servers=1000000 --lookups=1000000 --queries=10000 --scans=100}; index
+ * lookups run {@code lookups} times, database lookups {@code queries} times, prefix scans and
+ * database counts {@code scans} times.
+ */
+public final class FleetIndexBenchmark {
+
+    private static final int INPUTS = 4096;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private FleetIndexBenchmark() {
+    }
+
+    private record Result(String operation, int operations, double nanos, long bytes) {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int servers = Integer.parseInt(options.getOrDefault("servers", "1000000"));
+        int lookups = Integer.parseInt(options.getOrDefault("lookups", "1000000"));
+        int queries = Integer.parseInt(options.getOrDefault("queries", "10000"));
+        int scans = Integer.parseInt(options.getOrDefault("scans", "100"));
+
+        try (ConfigurableApplicationContext context = SeededApplication.start("fleet-index", servers,
+                "--server-management.fleet-index.enabled=true",
+                "--server-management.entity-cache.enabled=false")) {
+            // Seeded after the index loaded on startup
+            FleetIndexer indexer = context.getBean(FleetIndexer.class);
+            indexer.load();
+            FleetIndex index = indexer.index();
+            ServerRepository serverRepository = context.getBean(ServerRepository.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            SplittableRandom random = new SplittableRandom(42);
+            String[] names = new String[INPUTS];
+            String[] addresses = new String[INPUTS];
+            for (int i = 0; i < INPUTS; i++) {
+                long server = random.nextLong(1, servers + 1);
+                names[i] = SeededApplication.name(server);
+                addresses[i] = SeededApplication.ipAddress(server);
+            }
+            ServerStatus[] statuses = ServerStatus.values();
+
+            List<Result> results = new ArrayList<>();
+            results.add(run("index findByName", lookups, i -> index.findByName(names[i & (INPUTS - 1)])));
+            results.add(run("index findByIpAddress", lookups, i -> index.findByIpAddress(addresses[i & (INPUTS - 1)])));
+            results.add(run("index findByName miss", lookups, i -> index.findByName("missing")));
+            results.add(run("index count", lookups, i -> index.count(statuses[i % statuses.length])));
+            results.add(run("db findIdentityByName", queries,
+                    i -> serverRepository.findIdentityByName(names[i & (INPUTS - 1)]).orElseThrow().id()));
+            results.add(run("db findIdentityByIpAddress", queries,
+                    i -> serverRepository.findIdentityByIpAddress(addresses[i & (INPUTS - 1)]).orElseThrow().id()));
+            results.add(run("db countGroupedByStatus", scans, i -> serverRepository.countGroupedByStatus().size()));
+
+            System.out.printf("%n%-36s %12s %12s %14s%n", "operation", "operations", "ns/op", "bytes/op");
+            for (Result result : results) {
+                System.out.printf("%-36s %12d %12.0f %14.1f%n", result.operation, result.operations,
+                        result.nanos / result.operations, (double) result.bytes / result.operations);
+            }
+
+            // A second index, so the first one's heap is part of both measurements
+            long before = usedHeap();
+            FleetIndex copy = new FleetIndex(servers);
+            jdbcTemplate.query("select id, name, ip_address, status from servers", (RowCallbackHandler) row ->
+                    copy.put(row.getLong(1), row.getString(2), row.getString(3), ServerStatus.valueOf(row.getString(4))));
+            long indexHeap = usedHeap() - before;
+
+            before = usedHeap();
+            List<Server> entities = new ArrayList<>(servers);
+            context.getBean(ServerService.class).streamServers(entities::add);
+            long entityHeap = usedHeap() - before;
+
+            System.out.printf("%n%-36s %14s %12s%n", "footprint of " + copy.size() + " servers", "bytes", "bytes/server");
+            System.out.printf("%-36s %14d %12.1f%n", "fleet index (memoryBytes)", copy.memoryBytes(), (double) copy.memoryBytes() / servers);
+            System.out.printf("%-36s %14d %12.1f%n", "fleet index (heap)", indexHeap, (double) indexHeap / servers);
+            System.out.printf("%-36s %14d %12.1f%n", "detached Server entities (heap)", entityHeap, (double) entityHeap / entities.size());
+        }
+    }
+
+    private static Result run(String operation, int operations, IntToLongFunction lookup) {
+        // Warm up with the same number of operations, then measure
+        long sink = 0;
+        for (int i = 0; i < operations; i++) {
+            sink += lookup.applyAsLong(i);
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            sink += lookup.applyAsLong(i);
+        }
+        long nanos = System.nanoTime() - started;
+        long bytes = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+        if (sink == Long.MIN_VALUE) {
+            System.out.println(sink);
+        }
+        return new Result(operation, operations, nanos, bytes);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
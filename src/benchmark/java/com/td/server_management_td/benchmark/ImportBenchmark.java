@@ -0,0 +1,95 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.inventory.ImportJob;
+import com.td.server_management_td.inventory.InventoryExporter;
+import com.td.server_management_td.inventory.InventoryFormat;
+import com.td.server_management_td.inventory.InventoryImporter;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Imports a generated inventory file of {@code --rows} servers into an empty in-memory database,
+ * printing progress as a poller would see it, then exports the result again. Every hundredth line
+ * duplicates an earlier name so the per-row duplicate reporting is part of the measurement.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -Dbenchmark.main=com.td.server_management_td.benchmark.ImportBenchmark \
+ *     -Dbenchmark.args="--rows=1000000 --format=csv"
+ * </pre>
+ */
+public final class ImportBenchmark {
+
+    private ImportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int rows = Integer.parseInt(options.getOrDefault("rows", "1000000"));
+        InventoryFormat format = InventoryFormat.fromName(options.getOrDefault("format", "csv"));
+
+        Path file = Files.createTempFile("servers-", "." + format.name().toLowerCase());
+        try (ConfigurableApplicationContext context = SeededApplication.start("import", 0)) {
+            write(file, format, rows);
+            System.out.printf("Generated %d lines (%.1f MB) of %s%n", rows, Files.size(file) / 1024.0 / 1024.0, format);
+
+            InventoryImporter importer = context.getBean(InventoryImporter.class);
+            long begin = System.nanoTime();
+            ImportJob job;
+            try (InputStream in = Files.newInputStream(file)) {
+                job = importer.submit(format, in);
+            }
+            while (!job.isFinished()) {
+                Thread.sleep(1000);
+                ImportJob.Status status = job.status();
+                System.out.printf("  %5.1f%%  %,d rows processed%n",
+                        100.0 * status.bytesRead() / Math.max(1, status.bytesTotal()), status.processed());
+            }
+            double importSeconds = (System.nanoTime() - begin) / 1e9;
+            ImportJob.Status status = job.status();
+            if (status.state() == ImportJob.State.FAILED) {
+                throw new IllegalStateException("Import failed: " + status.failure());
+            }
+            System.out.printf("Imported %,d and rejected %,d rows in %.1f s (%,.0f rows/s)%n",
+                    status.imported(), status.rejected(), importSeconds, status.processed() / importSeconds);
+
+            begin = System.nanoTime();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                context.getBean(InventoryExporter.class).export(format, out);
+            }
+            double exportSeconds = (System.nanoTime() - begin) / 1e9;
+            System.out.printf("Exported %,d rows (%.1f MB) in %.1f s%n",
+                    status.imported(), Files.size(file) / 1024.0 / 1024.0, exportSeconds);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void write(Path file, InventoryFormat format, int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (format == InventoryFormat.CSV) {
+                writer.write("name,ipAddress\n");
+            }
+            for (long n = 1; n <= rows; n++) {
+                String name = n % 100 == 0 ? SeededApplication.name(n - 1) : SeededApplication.name(n);
+                String ipAddress = SeededApplication.ipAddress(n);
+                if (format == InventoryFormat.CSV) {
+                    writer.write(name + "," + ipAddress + "\n");
+                } else {
+                    writer.write("{\"name\":\"" + name + "\",\"ipAddress\":\"" + ipAddress + "\"}\n");
+                }
+            }
+        }
+    }
+}
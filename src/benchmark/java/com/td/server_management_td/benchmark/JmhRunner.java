@@ -0,0 +1,100 @@
+package com.td.server_management_td.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the JMH benchmarks and writes the results to {@code target/jmh-result.json}.
+ *
+ * <p>Accepts the usual JMH command line, e.g. {@code -Dbenchmark.args="-p rows=10000 ServerLookup"}.
+ * When {@code -Dbenchmark.baseline=<file>} points at the result file of an earlier run, every benchmark
+ * is compared against it and the run fails if any got worse by more than 10% beyond the measurement error.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify
+ * cp target/jmh-result.json jmh-baseline.json
+ * mvn -Pbenchmark verify -Dbenchmark.baseline=../jmh-baseline.json
+ * </pre>
+ */
+public final class JmhRunner {
+
+    private static final String DEFAULT_RESULT = "target/jmh-result.json";
+    private static final double REGRESSION_THRESHOLD = 0.10;
+
+    private JmhRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        String resultFile = commandLine.getResult().orElse(DEFAULT_RESULT);
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT).resultFormat(ResultFormatType.JSON);
+        }
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        String baseline = System.getProperty("benchmark.baseline", "");
+        if (!baseline.isBlank() && !results.isEmpty()) {
+            int regressions = compare(new File(baseline), new File(resultFile));
+            if (regressions > 0) {
+                System.err.println(regressions + " benchmark(s) regressed against " + baseline);
+                System.exit(1);
+            }
+        }
+    }
+
+    private static int compare(File baselineFile, File currentFile) throws Exception {
+        Map<String, Score> baseline = read(baselineFile);
+        Map<String, Score> current = read(currentFile);
+        int regressions = 0;
+        System.out.printf("%nComparison with %s%n%-80s %14s %14s %9s%n", baselineFile, "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s%n", entry.getKey(), "-", after.value, "new");
+                continue;
+            }
+            double change = (after.value - before.value) / before.value;
+            // Positive "worse" means slower for time modes and fewer ops for throughput
+            double worse = after.higherIsBetter ? -change : change;
+            double noise = (before.error + after.error) / before.value;
+            boolean regressed = worse > Math.max(REGRESSION_THRESHOLD, noise);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.value, after.value,
+                    change * 100, regressed ? "  REGRESSION" : "");
+        }
+        return regressions;
+    }
+
+    private static Map<String, Score> read(File file) throws Exception {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String key = result.get("benchmark").asText().replaceFirst("^.*\\.benchmark\\.", "")
+                    + (params.isEmpty() ? "" : " " + params);
+            JsonNode metric = result.get("primaryMetric");
+            double error = metric.path("scoreError").asDouble();
+            scores.put(key, new Score(metric.get("score").asDouble(), Double.isNaN(error) ? 0 : error,
+                    result.get("mode").asText().equals("thrpt")));
+        }
+        return scores;
+    }
+
+    private record Score(double value, double error, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.ServerManagementTdApplication;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load test of the REST endpoints, once per thread mode.
+ *
+ * <p>Each mode boots the application on a random port against its own in-memory database, seeds it,
+ * then runs {@code concurrency} clients that each send the next request as soon as the previous one
+ * returns: 60% status reads, 30% list pages and 10% start/stop toggles. Latencies recorded after
+ * the warmup are reported as throughput and percentiles.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -Dbenchmark.main=com.td.server_management_td.benchmark.LoadBenchmark
+ * mvn -Pjava21,benchmark verify -Dbenchmark.main=com.td.server_management_td.benchmark.LoadBenchmark \
+ *     -Dbenchmark.args="--concurrency=800 --duration=60s"
+ * </pre>
+ *
+ * Options: {@code --modes=platform,virtual --concurrency=400 --servers=1000 --warmup=10s --duration=30s}.
+ */
+public final class LoadBenchmark {
+
+    private LoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Devtools is on the test classpath; its restart class loader would relaunch every context
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> options = parseOptions(args);
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "platform,virtual").split(","));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        int servers = Integer.parseInt(options.getOrDefault("servers", "1000"));
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            if (mode.equals("virtual") && Runtime.version().feature() < 21) {
+                System.out.println("Skipping virtual mode: requires Java 21, running on " + Runtime.version());
+                continue;
+            }
+            results.add(run(mode, concurrency, servers, warmup, duration));
+        }
+
+        System.out.printf("%n%-9s %11s %10s %9s %9s %9s %9s %8s %9s%n",
+                "mode", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "threads");
+        for (Result result : results) {
+            System.out.printf("%-9s %11d %10.0f %9.2f %9.2f %9.2f %9.2f %8d %9d%n",
+                    result.mode, result.requests, result.throughput(),
+                    result.percentile(50), result.percentile(99), result.percentile(99.9), result.percentile(100),
+                    result.errors, result.peakPlatformThreads);
+        }
+    }
+
+    private static Result run(String mode, int concurrency, int servers, Duration warmup, Duration duration)
+            throws InterruptedException {
+        System.out.printf("Running %s mode: %d clients, %d servers, %s warmup, %s measured%n",
+                mode, concurrency, servers, warmup, duration);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ServerManagementTdApplication.class);
+        if (mode.equals("virtual")) {
+            builder.profiles("virtual");
+        }
+
+        // Command-line arguments so they win over application.properties
+        try (ConfigurableApplicationContext context = builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--spring.devtools.restart.enabled=false",
+                // Every client connects from localhost and would share one token bucket
+                "--server-management.rate-limit.enabled=false",
+                "--logging.level.root=WARN")) {
+            List<Long> ids = seed(context.getBean(ServerRepository.class), servers);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/servers";
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            long measureFrom = System.nanoTime() + warmup.toNanos();
+            long deadline = measureFrom + duration.toNanos();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+
+            List<Client> clients = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                Client worker = new Client(client, baseUrl, ids, measureFrom, deadline);
+                worker.thread.start();
+                clients.add(worker);
+            }
+            for (Client worker : clients) {
+                worker.thread.join();
+            }
+
+            Result result = new Result(mode, duration, threads.getPeakThreadCount() - concurrency);
+            clients.forEach(result::add);
+            return result;
+        }
+    }
+
+    private static List<Long> seed(ServerRepository repository, int count) {
+        List<Server> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(new Server(null, "bench-" + i, "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255),
+                    ServerStatus.STOPPED));
+        }
+        return repository.saveAll(batch).stream().map(Server::getId).toList();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static final class Client implements Runnable {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final List<Long> ids;
+        private final long measureFrom;
+        private final long deadline;
+        private final Thread thread;
+        private long[] latencies = new long[1 << 14];
+        private int count;
+        private long errors;
+
+        Client(HttpClient client, String baseUrl, List<Long> ids, long measureFrom, long deadline) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.ids = ids;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+            this.thread = new Thread(this, "load-client");
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.nanoTime()) < deadline) {
+                HttpRequest request = nextRequest(random);
+                boolean ok;
+                try {
+                    ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 300;
+                } catch (Exception e) {
+                    ok = false;
+                }
+                long end = System.nanoTime();
+                if (now >= measureFrom) {
+                    record(end - now, ok);
+                }
+            }
+        }
+
+        private HttpRequest nextRequest(ThreadLocalRandom random) {
+            long id = ids.get(random.nextInt(ids.size()));
+            int pick = random.nextInt(100);
+            if (pick < 60) {
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/" + id + "/status")).GET().build();
+            }
+            if (pick < 90) {
+                long after = ids.get(random.nextInt(ids.size())) - 1;
+                return HttpRequest.newBuilder(URI.create(baseUrl + "?after=" + after + "&limit=50")).GET().build();
+            }
+            String action = random.nextBoolean() ? "start" : "stop";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/" + id + "/" + action))
+                    .PUT(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+
+        private void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private static final class Result {
+
+        private final String mode;
+        private final Duration duration;
+        private final int peakPlatformThreads;
+        private long[] latencies = new long[0];
+        private long requests;
+        private long errors;
+
+        Result(String mode, Duration duration, int peakPlatformThreads) {
+            this.mode = mode;
+            this.duration = duration;
+            this.peakPlatformThreads = peakPlatformThreads;
+        }
+
+        void add(Client client) {
+            int from = latencies.length;
+            latencies = Arrays.copyOf(latencies, from + client.count);
+            System.arraycopy(client.latencies, 0, latencies, from, client.count);
+            requests += client.count;
+            errors += client.errors;
+        }
+
+        double throughput() {
+            return requests / (duration.toNanos() / 1e9);
+        }
+
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.td.server_management_td.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.td.server_management_td.controller.GlobalExceptionHandler;
+import com.td.server_management_td.service.ServerNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The error path of a request for a missing server: throwing from {@code depth} frames down (a
+ * Spring MVC request with transaction and repository proxies is well over a hundred), handling and
+ * serializing the body. {@code runtimeException} reproduces the earlier handling, a plain
+ * {@link RuntimeException} answered with a map holding a {@link LocalDateTime}, for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotFoundBenchmark {
+
+    @Param({"20", "150"})
+    int depth;
+
+    private ObjectMapper objectMapper;
+    private GlobalExceptionHandler handler;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        handler = new GlobalExceptionHandler();
+    }
+
+    @Benchmark
+    public byte[] runtimeException() throws Exception {
+        try {
+            throwAt(depth, true);
+            return null;
+        } catch (RuntimeException ex) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("timestamp", LocalDateTime.now());
+            body.put("status", 404);
+            body.put("message", ex.getMessage());
+            return objectMapper.writeValueAsBytes(body);
+        }
+    }
+
+    @Benchmark
+    public byte[] problemDetail() throws Exception {
+        try {
+            throwAt(depth, false);
+            return null;
+        } catch (ServerNotFoundException ex) {
+            return objectMapper.writeValueAsBytes(handler.handleNotFound(ex).getBody());
+        }
+    }
+
+    private static void throwAt(int frames, boolean legacy) {
+        if (frames > 0) {
+            throwAt(frames - 1, legacy);
+            return;
+        }
+        long id = ThreadLocalRandom.current().nextLong(1_000_000);
+        throw legacy ? new RuntimeException("Server not found with id: " + id) : new ServerNotFoundException(id);
+    }
+}
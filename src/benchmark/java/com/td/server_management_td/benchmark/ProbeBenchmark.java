@@ -0,0 +1,87 @@
+package com.td.server_management_td.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sustained probe rate of the {@code server-management.probe} engine on one node.
+ *
+ * <p>Seeds {@code --targets} servers on distinct 127.x.y.z addresses (all of 127.0.0.0/8 is
+ * loopback on Linux) and answers them with one wildcard listener, then samples the probe counters
+ * once the scheduler has picked the targets up. With {@code --interval} shorter than a minute the
+ * required rate is {@code targets / interval}; the run reports whether the engine keeps up.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -Dbenchmark.main=com.td.server_management_td.benchmark.ProbeBenchmark \
+ *     -Dbenchmark.args="--targets=100000 --interval=20s --duration=60s"
+ * </pre>
+ */
+public final class ProbeBenchmark {
+
+    private ProbeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int targets = Integer.parseInt(options.getOrDefault("targets", "100000"));
+        Duration interval = Duration.parse("PT" + options.getOrDefault("interval", "20s"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "60s"));
+
+        try (ServerSocketChannel listener = ServerSocketChannel.open().bind(new InetSocketAddress(0), 4096)) {
+            Thread acceptor = new Thread(() -> {
+                while (listener.isOpen()) {
+                    try (SocketChannel ignored = listener.accept()) {
+                        // Accept and close
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            }, "probe-benchmark-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            System.setProperty("server-management.probe.enabled", "true");
+            System.setProperty("server-management.probe.ports", String.valueOf(((InetSocketAddress) listener.getLocalAddress()).getPort()));
+            System.setProperty("server-management.probe.interval", interval.toMillis() + "ms");
+            try (ConfigurableApplicationContext context = SeededApplication.start("probe", targets)) {
+                JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+                // 10.a.b.c -> 127.a.b.c
+                jdbc.update("update servers set ip_address = '127.' || substring(ip_address, 4)");
+                MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+                // The scheduler picks the rows up at its next reload, one interval after startup
+                Thread.sleep(interval.toMillis() * 2);
+                double startProbes = probes(registry);
+                long start = System.nanoTime();
+                Thread.sleep(duration.toMillis());
+                double seconds = (System.nanoTime() - start) / 1e9;
+                double perMinute = (probes(registry) - startProbes) / seconds * 60;
+                double required = targets * 60.0 / interval.toSeconds();
+
+                System.out.printf("Targets: %,d, interval %s%n", targets, interval);
+                System.out.printf("Probes: %,.0f/min (required %,.0f/min), unreachable %,.0f, backlog %,.0f%n",
+                        perMinute, required,
+                        registry.get("server.probes").tag("result", "unreachable").functionCounter().count(),
+                        registry.get("server.probe.backlog").gauge().value());
+                Long seen = jdbc.queryForObject("select count(*) from servers where last_seen_at is not null", Long.class);
+                System.out.printf("Servers with last_seen_at: %,d%n", seen);
+            }
+        }
+    }
+
+    private static double probes(MeterRegistry registry) {
+        return registry.get("server.probes").functionCounters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+}
@@ -0,0 +1,59 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.ratelimit.TokenBuckets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rate-limit decision, for many clients spread over the table and for a single client
+ * hammering one bucket (every call after the burst is a refusal). Run with {@code -t} to see
+ * contention between request threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimitBenchmark {
+
+    @Param({"10000"})
+    int clients;
+
+    private TokenBuckets buckets;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        buckets = new TokenBuckets(65536, 200, 100);
+        addresses = new String[clients];
+        for (int n = 0; n < clients; n++) {
+            addresses[n] = SeededApplication.ipAddress(n + 1);
+        }
+    }
+
+    @Benchmark
+    public Duration manyClients() {
+        return buckets.tryAcquire(addresses[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+
+    @Benchmark
+    public Duration singleClient() {
+        return buckets.tryAcquire(addresses[0]);
+    }
+}
@@ -0,0 +1,60 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.ServerManagementTdApplication;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server against a private in-memory database holding
+ * {@code rows} STOPPED servers with ids {@code 1..rows}; server {@code n} is named {@link #name(long)}
+ * and has address {@link #ipAddress(long)}.
+ */
+final class SeededApplication {
+
+    private SeededApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String database, int rows) {
+        return start(database, rows, new String[0]);
+    }
+
+    /**
+     * As {@link #start(String, int)}, with further {@code --name=value} arguments.
+     */
+    static ConfigurableApplicationContext start(String database, int rows, String... args) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        arguments.addAll(List.of(args));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ServerManagementTdApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(String[]::new));
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        // Drop the DataInit sample rows so every run sees exactly the same data
+        jdbc.update("delete from servers");
+        jdbc.update("alter table servers alter column id restart with 1");
+        // Generated inside H2 in one statement; going through JPA would dominate setup at 1M rows
+        jdbc.update("insert into servers (name, ip_address, ip_numeric, status, version) "
+                + "select 'srv-' || x, '10.' || (x / 65536) || '.' || mod(x / 256, 256) || '.' || mod(x, 256), 167772160 + x, 'STOPPED', 0 "
+                + "from system_range(1, ?)", rows);
+        // The sample rows' ids now belong to other servers
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+        return context;
+    }
+
+    static String name(long n) {
+        return "srv-" + n;
+    }
+
+    static String ipAddress(long n) {
+        return "10." + (n / 65536) + "." + (n / 256 % 256) + "." + (n % 256);
+    }
+}
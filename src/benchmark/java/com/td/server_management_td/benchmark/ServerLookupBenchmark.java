@@ -0,0 +1,71 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.repository.ServerRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ServerRepository} natural-key lookups; both columns carry a unique index, so the time
+ * should stay flat as the table grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ServerLookupBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private ServerRepository serverRepository;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededApplication.start("lookup-" + rows, rows);
+        serverRepository = context.getBean(ServerRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Server> findByName() {
+        return serverRepository.findByName(SeededApplication.name(randomRow()));
+    }
+
+    @Benchmark
+    public Optional<Server> findByIpAddress() {
+        return serverRepository.findByIpAddress(SeededApplication.ipAddress(randomRow()));
+    }
+
+    @Benchmark
+    public Optional<Server> findByNameMiss() {
+        return serverRepository.findByName("missing-" + randomRow());
+    }
+
+    private long randomRow() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+}
@@ -0,0 +1,104 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSortField;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.model.Ipv4Range;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.service.ServerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtered {@code GET /api/servers} queries pushed down to SQL against the same filters applied
+ * on the client to {@code findAll()}, the only option before the list took filters. Every tenth
+ * seeded server is RUNNING. Setup prints H2's plan for each filter so a lost index shows up as a
+ * {@code tableScan} next to the numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ServerSearchBenchmark {
+
+    private static final int LIMIT = 100;
+
+    private static final ServerSearchCriteria RUNNING_IN_CIDR = new ServerSearchCriteria(
+            ServerStatus.RUNNING, null, Ipv4Range.parseCidr("10.0.0.0/16"), ServerSortField.ID, Sort.Direction.ASC);
+
+    private static final ServerSearchCriteria NAME_PREFIX = new ServerSearchCriteria(
+            null, "srv-99", null, ServerSortField.NAME, Sort.Direction.ASC);
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private ServerService serverService;
+    private ServerRepository serverRepository;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededApplication.start("search-" + rows, rows);
+        serverService = context.getBean(ServerService.class);
+        serverRepository = context.getBean(ServerRepository.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("update servers set status = 'RUNNING' where mod(id, 10) = 0");
+        jdbc.execute("analyze");
+        explain(jdbc, "select * from servers where status = 'RUNNING' and ip_numeric between "
+                + RUNNING_IN_CIDR.ipRange().first() + " and " + RUNNING_IN_CIDR.ipRange().last() + " order by id limit " + LIMIT);
+        explain(jdbc, "select * from servers where name like 'srv-99%' escape '\\' order by name, id limit " + LIMIT);
+        explain(jdbc, "select * from servers where ip_numeric between "
+                + RUNNING_IN_CIDR.ipRange().first() + " and " + RUNNING_IN_CIDR.ipRange().last() + " order by id limit " + LIMIT);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ServerSummary> runningInCidr() {
+        return serverService.searchServers(RUNNING_IN_CIDR, null, LIMIT);
+    }
+
+    @Benchmark
+    public List<ServerSummary> namePrefix() {
+        return serverService.searchServers(NAME_PREFIX, null, LIMIT);
+    }
+
+    @Benchmark
+    public List<Server> runningInCidrClientSide() {
+        return serverRepository.findAll().stream()
+                .filter(server -> server.getStatus() == ServerStatus.RUNNING)
+                .filter(server -> server.getIpNumeric() != null
+                        && server.getIpNumeric() >= RUNNING_IN_CIDR.ipRange().first()
+                        && server.getIpNumeric() <= RUNNING_IN_CIDR.ipRange().last())
+                .limit(LIMIT)
+                .toList();
+    }
+
+    private static void explain(JdbcTemplate jdbc, String sql) {
+        System.out.println(jdbc.queryForObject("explain " + sql, String.class));
+    }
+}
@@ -0,0 +1,125 @@
+package com.td.server_management_td.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.td.server_management_td.dto.ServerColumns;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of a server list page in every encoding {@code GET /api/servers} offers, using
+ * mappers configured the way Spring MVC configures its message converters. The payload size of
+ * each encoding is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServerSerializationBenchmark {
+
+    @Param({"100", "1000", "100000"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private ObjectWriter summaryWriter;
+    private ObjectWriter cborWriter;
+    private ObjectWriter smileWriter;
+    private List<Server> servers;
+    private List<ServerSummary> summaries;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(new TypeReference<List<Server>>() { });
+        TypeReference<List<ServerSummary>> summaryList = new TypeReference<>() { };
+        summaryWriter = objectMapper.writerFor(summaryList);
+        cborWriter = Jackson2ObjectMapperBuilder.cbor().build().writerFor(summaryList);
+        smileWriter = Jackson2ObjectMapperBuilder.smile().build().writerFor(summaryList);
+        servers = new ArrayList<>(size);
+        ServerStatus[] statuses = ServerStatus.values();
+        for (int n = 1; n <= size; n++) {
+            Server server = new Server((long) n, SeededApplication.name(n), SeededApplication.ipAddress(n),
+                    statuses[n % statuses.length]);
+            server.setVersion((long) n % 7);
+            servers.add(server);
+        }
+        summaries = servers.stream().map(ServerSummary::of).toList();
+
+        System.out.printf("%nPayload for %,d servers: json %,d B, gzip %,d B, columnar %,d B, columnar gzip %,d B, "
+                        + "cbor %,d B, cbor gzip %,d B, smile %,d B, smile gzip %,d B%n",
+                size, summaryJson().length, gzipJson().length, columnarJson().length, gzip(columnarJson()).length,
+                cbor().length, gzip(cbor()).length, smile().length, gzip(smile()).length);
+    }
+
+    @Benchmark
+    public byte[] objectMapper() throws Exception {
+        return objectMapper.writeValueAsBytes(servers);
+    }
+
+    @Benchmark
+    public byte[] typedWriter() throws Exception {
+        return listWriter.writeValueAsBytes(servers);
+    }
+
+    @Benchmark
+    public byte[] summaryJson() throws IOException {
+        return summaryWriter.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public byte[] columnarJson() throws IOException {
+        return objectMapper.writeValueAsBytes(ServerColumns.of(summaries));
+    }
+
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        return cborWriter.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public byte[] smile() throws IOException {
+        return smileWriter.writeValueAsBytes(summaries);
+    }
+
+    // What server.compression adds on top of the JSON encoding, at Tomcat's default deflate level
+    @Benchmark
+    public byte[] gzipJson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            summaryWriter.writeValue(gzip, summaries);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+}
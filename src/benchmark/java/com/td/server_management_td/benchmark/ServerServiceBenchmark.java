@@ -0,0 +1,91 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.service.ServerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ServerService} operations through the transactional proxy against H2 at three inventory sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ServerServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private ServerService serverService;
+    private final AtomicLong created = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededApplication.start("service-" + rows, rows);
+        serverService = context.getBean(ServerService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public ServerStatus getServerStatus() {
+        return serverService.getServerStatus(randomId());
+    }
+
+    @Benchmark
+    public List<ServerSummary> listServersPage() {
+        return serverService.listServers(randomId(), 100);
+    }
+
+    @Benchmark
+    public Server startThenStop() {
+        long id = randomId();
+        serverService.startServer(id);
+        return serverService.stopServer(id);
+    }
+
+    @Benchmark
+    public Server renameServer() {
+        long id = randomId();
+        return serverService.renameServer(id, SeededApplication.name(id));
+    }
+
+    @Benchmark
+    public Server createThenDelete() {
+        long n = rows + created.incrementAndGet();
+        Server server = new Server(null, SeededApplication.name(n), SeededApplication.ipAddress(n), null);
+        Server saved = serverService.createServer(server);
+        serverService.deleteServer(saved.getId());
+        return saved;
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+}
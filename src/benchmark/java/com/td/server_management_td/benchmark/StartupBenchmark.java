@@ -0,0 +1,191 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.ServerManagementTdApplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Time to first request and idle heap of each way to start the application, every start in a fresh JVM.
+ *
+ * <p>The time runs from launching the JVM to the first {@code 200} on {@code GET /api/servers}. The
+ * heap is read from {@code jvm.memory.used} after the first request, a {@code jcmd GC.run} and a
+ * short pause. Variants:
+ * <ul>
+ *     <li>{@code default}: no Spring profile, as in development (run with {@code -Pdev,benchmark} to
+ *     include devtools)</li>
+ *     <li>{@code prod}: the prod profile from the build classpath</li>
+ *     <li>{@code prod-jar}, {@code prod-aot}, {@code prod-aot-cds}: the extracted jar built by
+ *     {@code mvn -Pprod package}, plain, with AOT bean definitions and with AOT plus the CDS archive.
+ *     Skipped when the build has not been made.</li>
+ * </ul>
+ *
+ * <pre>
+ * ./mvnw -Pprod package -DskipTests
+ * ./mvnw -Pbenchmark verify -Dbenchmark.main=com.td.server_management_td.benchmark.StartupBenchmark \
+ *     -Dbenchmark.args="--runs=5"
+ * </pre>
+ *
+ * Options: {@code --variants=default,prod,prod-jar,prod-aot,prod-aot-cds --runs=3 --jar-dir=target/server-management-td}.
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.E]+)");
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+        Path jarDir = Path.of(options.getOrDefault("jar-dir", "target/server-management-td")).toAbsolutePath();
+        String[] variants = options.getOrDefault("variants", "default,prod,prod-jar,prod-aot,prod-aot-cds").split(",");
+
+        Map<String, List<long[]>> results = new LinkedHashMap<>();
+        for (String variant : variants) {
+            List<String> command = command(variant, jarDir);
+            if (command == null) {
+                System.out.printf("Skipping %s: no jar in %s, build it with ./mvnw -Pprod package%n", variant, jarDir);
+                continue;
+            }
+            List<long[]> samples = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                samples.add(measure(command));
+            }
+            results.put(variant, samples);
+        }
+
+        System.out.printf("%n%-14s %22s %22s%n", "variant", "first request ms", "idle heap MB");
+        results.forEach((variant, samples) -> System.out.printf("%-14s %22s %22s%n", variant,
+                summary(samples, 0, 1), summary(samples, 1, 1024 * 1024)));
+    }
+
+    private static List<String> command(String variant, Path jarDir) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>(List.of(java));
+        switch (variant) {
+            case "default", "prod" -> command.addAll(List.of(
+                    "-cp", System.getProperty("java.class.path"), ServerManagementTdApplication.class.getName()));
+            case "prod-jar", "prod-aot", "prod-aot-cds" -> {
+                Path jar;
+                try (Stream<Path> files = Files.exists(jarDir) ? Files.list(jarDir) : Stream.empty()) {
+                    jar = files.filter(file -> file.toString().endsWith(".jar")).findFirst().orElse(null);
+                }
+                if (jar == null) {
+                    return null;
+                }
+                if (!variant.equals("prod-jar")) {
+                    command.add("-Dspring.aot.enabled=true");
+                }
+                if (variant.equals("prod-aot-cds")) {
+                    command.add("-XX:SharedArchiveFile=" + jarDir.resolve("app.jsa"));
+                    command.add("-Xlog:cds=off");
+                }
+                command.addAll(List.of("-jar", jar.toString()));
+            }
+            default -> throw new IllegalArgumentException("Unknown variant " + variant);
+        }
+        if (!variant.equals("default")) {
+            command.add("--spring.profiles.active=prod");
+        }
+        command.addAll(List.of(
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN"));
+        return command;
+    }
+
+    // {time to first request in ms, idle heap in bytes}
+    private static long[] measure(List<String> baseCommand) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Path dataDir = Files.createTempDirectory("startup-benchmark");
+        List<String> command = new ArrayList<>(baseCommand);
+        command.add("--server.port=" + port);
+        command.add("--server-management.data-dir=" + dataDir);
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest firstRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/servers?limit=1")).build();
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long firstRequestMillis = -1;
+            while (firstRequestMillis < 0) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + process.exitValue() + ": " + command);
+                }
+                if (System.nanoTime() - launched > START_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("Application did not answer within " + START_TIMEOUT);
+                }
+                try {
+                    if (client.send(firstRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        firstRequestMillis = (System.nanoTime() - launched) / 1_000_000;
+                    }
+                } catch (ConnectException e) {
+                    Thread.sleep(5);
+                }
+            }
+
+            new ProcessBuilder(jcmd(), Long.toString(process.pid()), "GC.run")
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start()
+                    .waitFor();
+            Thread.sleep(500);
+            String metric = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                            + "/actuator/metrics/jvm.memory.used?tag=area:heap")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher value = METRIC_VALUE.matcher(metric);
+            long heap = value.find() ? (long) Double.parseDouble(value.group(1)) : -1;
+            return new long[] {firstRequestMillis, heap};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            deleteRecursively(dataDir);
+        }
+    }
+
+    private static String jcmd() {
+        return Path.of(System.getProperty("java.home"), "bin", "jcmd").toString();
+    }
+
+    private static String summary(List<long[]> samples, int index, long unit) {
+        long[] values = samples.stream().mapToLong(sample -> sample[index]).sorted().toArray();
+        return String.format("%d (min %d, max %d)", values[values.length / 2] / unit, values[0] / unit,
+                values[values.length - 1] / unit);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
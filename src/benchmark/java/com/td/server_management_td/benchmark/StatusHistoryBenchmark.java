@@ -0,0 +1,116 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.history.StatusHistory;
+import com.td.server_management_td.history.UptimeReport;
+import com.td.server_management_td.model.StatusTransition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uptime and timeline queries over {@code days} of status history for {@code rows} servers, each
+ * created during the month before the window and flipping between RUNNING and STOPPED every ~3 days
+ * (3M transitions at the defaults). Setup reports
+ * how long the rollup of every hour of the history takes; the measured fleet
+ * query then reads the hourly rollups plus the two partial hours at the edges of its window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StatusHistoryBenchmark {
+
+    @Param({"100000"})
+    int rows;
+
+    @Param({"90"})
+    int days;
+
+    private ConfigurableApplicationContext context;
+    private StatusHistory statusHistory;
+    private Instant from;
+    private Instant to;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededApplication.start("history-" + rows, rows);
+        statusHistory = context.getBean(StatusHistory.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        to = Instant.now();
+        from = to.minus(Duration.ofDays(days));
+        int flips = days / 3;
+        jdbc.update("delete from server_status_history");
+        // Bulk-loading without the indexes and building them afterwards is several times faster
+        jdbc.execute("drop index idx_status_history_server_time");
+        jdbc.execute("drop index idx_status_history_time");
+        // Servers were created during the month before the window
+        jdbc.update("insert into server_status_history (server_id, changed_at, from_status, to_status) "
+                + "select id, dateadd(second, -rand() * 2592000, cast(? as timestamp with time zone)), null, 'STOPPED' from servers",
+                from.atOffset(ZoneOffset.UTC));
+        // Flip n of every server lands at a random second of its 3-day slot
+        jdbc.update("insert into server_status_history (server_id, changed_at, from_status, to_status) "
+                        + "select s.id, dateadd(second, (f.x - 1) * 259200 + rand() * 259200, cast(? as timestamp with time zone)), "
+                        + "case when mod(f.x, 2) = 1 then 'STOPPED' else 'RUNNING' end, "
+                        + "case when mod(f.x, 2) = 1 then 'RUNNING' else 'STOPPED' end "
+                        + "from servers s cross join system_range(1, ?) f",
+                from.atOffset(ZoneOffset.UTC), flips);
+        jdbc.execute("create index idx_status_history_server_time on server_status_history (server_id, changed_at)");
+        jdbc.execute("create index idx_status_history_time on server_status_history (changed_at)");
+        jdbc.execute("analyze");
+        explain(jdbc, "select * from server_status_history where server_id = 42 and changed_at <= now() "
+                + "order by changed_at desc, id desc limit 1");
+        explain(jdbc, "select * from server_status_history where server_id = 42 and changed_at >= now() - interval '90' day "
+                + "and changed_at < now() order by changed_at, id");
+        Long transitions = jdbc.queryForObject("select count(*) from server_status_history", Long.class);
+        long start = System.nanoTime();
+        statusHistory.rollUp();
+        System.out.printf("%n%,d transitions; rolled up %,d hours in %,d ms%n", transitions,
+                jdbc.queryForObject("select count(distinct hour_start) from fleet_status_hourly", Long.class),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public UptimeReport fleetUptime() {
+        return statusHistory.fleetUptime(from, to);
+    }
+
+    @Benchmark
+    public UptimeReport serverUptime() {
+        return statusHistory.serverUptime(ThreadLocalRandom.current().nextLong(1, rows + 1), from, to);
+    }
+
+    @Benchmark
+    public List<StatusTransition> serverTimeline() {
+        return statusHistory.timeline(ThreadLocalRandom.current().nextLong(1, rows + 1), from, to, 1000);
+    }
+
+    private static void explain(JdbcTemplate jdbc, String sql) {
+        System.out.println(jdbc.queryForObject("explain " + sql, String.class));
+    }
+}
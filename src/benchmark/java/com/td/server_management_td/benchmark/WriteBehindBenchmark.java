@@ -0,0 +1,88 @@
+package com.td.server_management_td.benchmark;
+
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.service.ServerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Start/stop flapping on a small set of hot servers, synchronously and with the
+ * {@code server-management.write-behind} buffer in both durability modes.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -Dbenchmark.args="WriteBehindBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class WriteBehindBenchmark {
+
+    @Param({"off", "BUFFERED", "COMMITTED"})
+    String mode;
+
+    @Param({"100"})
+    int hotServers;
+
+    private ConfigurableApplicationContext context;
+    private ServerService serverService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // Every coalesced step is still appended to the outbox, which the relay cannot drain at these rates
+        System.setProperty("server-management.outbox.enabled", "false");
+        System.setProperty("server-management.write-behind.enabled", String.valueOf(!mode.equals("off")));
+        if (!mode.equals("off")) {
+            System.setProperty("server-management.write-behind.durability", mode);
+        }
+        context = SeededApplication.start("write-behind-" + mode, 10_000);
+        serverService = context.getBean(ServerService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Each thread flaps its own servers: concurrent flaps of one id race in the synchronous service
+    @State(Scope.Thread)
+    public static class Flapper {
+        int thread;
+        int threads;
+
+        @Setup(Level.Trial)
+        public void start(ThreadParams params) {
+            thread = params.getThreadIndex();
+            threads = params.getThreadCount();
+        }
+    }
+
+    @Benchmark
+    public Server flap(Flapper flapper) {
+        int perThread = Math.max(1, hotServers / flapper.threads);
+        long id = 1 + flapper.thread + (long) ThreadLocalRandom.current().nextInt(perThread) * flapper.threads;
+        serverService.startServer(id);
+        return serverService.stopServer(id);
+    }
+}
@@ -2,8 +2,10 @@ package com.td.server_management_td;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ServerManagementTdApplication {
 
 	public static void main(String[] args) {
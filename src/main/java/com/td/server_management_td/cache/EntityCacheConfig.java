@@ -0,0 +1,90 @@
+package com.td.server_management_td.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.replica.ReplicaProperties;
+import com.td.server_management_td.shard.ShardingProperties;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Turns on Hibernate's second-level and query cache, held in Caffeine through JCache. The regions
+ * are created here, bounded and with statistics on, and Hibernate is told to fail rather than
+ * create an unbounded one for any region it finds missing.
+ *
+ * <p>Hit and miss counts per region come from Hibernate's statistics, which Spring Boot exports as
+ * {@code hibernate.*} metrics; evictions come from the JCache statistics as {@code cache.*}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "server-management.entity-cache", name = "enabled", havingValue = "true")
+public class EntityCacheConfig {
+
+    static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+    static final List<String> BOUNDED_REGIONS = List.of(Server.CACHE_REGION, Server.NATURAL_ID_CACHE_REGION, QUERY_RESULTS_REGION);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(EntityCacheProperties properties, ShardingProperties sharding,
+                                           ReplicaProperties replicas) {
+        // Cached rows and query results are keyed by id and parameters only: neither says which shard they
+        // came from, nor whether a replica had caught up when they were read
+        if (sharding.enabled()) {
+            throw new IllegalStateException("server-management.entity-cache cannot be combined with sharding");
+        }
+        if (replicas.enabled()) {
+            throw new IllegalStateException("server-management.entity-cache cannot be combined with read replicas");
+        }
+        // A URI of its own, so application contexts sharing a JVM never share regions or statistics MBeans
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:server-management:entity-cache:" + UUID.randomUUID()),
+                        EntityCacheConfig.class.getClassLoader());
+        cacheManager.createCache(Server.CACHE_REGION, region(properties.maximumEntities(), properties));
+        cacheManager.createCache(Server.NATURAL_ID_CACHE_REGION, region(properties.maximumEntities(), properties));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(properties.maximumQueryResults(), properties));
+        // Never bounded: a query result is only known to be stale while its tables' timestamps are kept.
+        // There is one entry per table, so it cannot grow
+        cacheManager.createCache(TIMESTAMPS_REGION, new CaffeineConfiguration<>().setStoreByValue(false));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(CacheManager entityCacheManager) {
+        return hibernate -> {
+            hibernate.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernate.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernate.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            hibernate.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            hibernate.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernate.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> BOUNDED_REGIONS.forEach(name -> JCacheMetrics.monitor(registry, entityCacheManager.getCache(name)));
+    }
+
+    // By reference: Hibernate caches its own disassembled copy of the state, so copying it again buys nothing
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, EntityCacheProperties properties) {
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maximumSize))
+                .setExpireAfterWrite(OptionalLong.of(properties.ttl().toNanos()))
+                .setStatisticsEnabled(true)
+                .setStoreByValue(false);
+    }
+}
@@ -0,0 +1,19 @@
+package com.td.server_management_td.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Hibernate second-level cache of {@code Server} entities, their natural ids and cacheable query
+ * results. Every region is bounded by entry count and expires entries {@code ttl} after they were
+ * written, which also caps how long a write made outside this application can go unseen.
+ */
+@ConfigurationProperties(prefix = "server-management.entity-cache")
+public record EntityCacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100000") long maximumEntities,
+        @DefaultValue("10000") long maximumQueryResults,
+        @DefaultValue("10m") Duration ttl) {
+}
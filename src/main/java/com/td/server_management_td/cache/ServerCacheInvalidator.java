@@ -0,0 +1,60 @@
+package com.td.server_management_td.cache;
+
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.event.TransactionBuffer;
+import com.td.server_management_td.model.Server;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the second-level cache in step with writes to {@code servers} that bypass Hibernate: the
+ * write-behind status flush and the inventory import, which publish {@link ServerChangeEvent}s,
+ * and the probe results, which hand their ids in directly. Once the transaction commits, those
+ * servers are evicted from the entity region and every cached query result is dropped. Writes
+ * Hibernate makes itself invalidate the cache on their own; their events cost one more eviction.
+ *
+ * <p>A read that loaded a row just before the commit can still put it back after the eviction;
+ * the region's time to live bounds how long such an entry survives.
+ */
+@Component
+public class ServerCacheInvalidator {
+
+    private final Cache cache;
+    private final boolean enabled;
+    private final TransactionBuffer<Set<Long>> evictions = TransactionBuffer.afterCommit(LinkedHashSet::new, this::evict);
+
+    public ServerCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        SessionFactoryOptions options = sessionFactory.getSessionFactoryOptions();
+        this.cache = sessionFactory.getCache();
+        this.enabled = options.isSecondLevelCacheEnabled() || options.isQueryCacheEnabled();
+    }
+
+    @EventListener
+    public void onServerChange(ServerChangeEvent event) {
+        evictAfterCommit(List.of(event.serverId()));
+    }
+
+    public void evictAfterCommit(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        evictions.add(pending -> pending.addAll(ids));
+    }
+
+    private void evict(Collection<Long> ids) {
+        for (Long id : ids) {
+            cache.evictEntityData(Server.class, id);
+        }
+        cache.evictQueryRegions();
+    }
+}
@@ -4,33 +4,25 @@ import com.td.server_management_td.model.Server;
 import com.td.server_management_td.model.ServerStatus;
 import com.td.server_management_td.repository.ServerRepository;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @Configuration
+@ConditionalOnProperty(name = "server-management.seed-data.enabled", havingValue = "true", matchIfMissing = true)
 public class DataInit {
 
     @Bean
     CommandLineRunner initDatabase(ServerRepository serverRepository) {
         return args -> {
             if (serverRepository.count() == 0) {
-                Server server1 = new Server();
-                server1.setName("Web Server 1");
-                server1.setIpAddress("192.168.1.10");
-                server1.setStatus(ServerStatus.STOPPED);
-                serverRepository.save(server1);
-
-                Server server2 = new Server();
-                server2.setName("Database Server");
-                server2.setIpAddress("192.168.1.20");
-                server2.setStatus(ServerStatus.STOPPED);
-                serverRepository.save(server2);
-
-                Server server3 = new Server();
-                server3.setName("Application Server");
-                server3.setIpAddress("192.168.1.30");
-                server3.setStatus(ServerStatus.STOPPED);
-                serverRepository.save(server3);
+                // One transaction for the whole seed instead of one per server
+                serverRepository.saveAll(List.of(
+                        new Server(null, "Web Server 1", "192.168.1.10", ServerStatus.STOPPED),
+                        new Server(null, "Database Server", "192.168.1.20", ServerStatus.STOPPED),
+                        new Server(null, "Application Server", "192.168.1.30", ServerStatus.STOPPED)));
             }
         };
     }
@@ -3,12 +3,47 @@ package com.td.server_management_td.config;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import org.springdoc.core.models.GroupedOpenApi;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.MethodMetadata;
 
 @Configuration
 public class OpenApiConfig {
 
+    /**
+     * Defers every springdoc bean, and the API description below, until {@code /v3/api-docs} or
+     * Swagger UI is first requested, so the scan and model building are not paid for at startup.
+     * Request mappings are still detected at startup from the bean types.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "server-management.api-docs.lazy", havingValue = "true")
+    static BeanFactoryPostProcessor lazyApiDocs() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isApiDocs(definition)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isApiDocs(BeanDefinition definition) {
+        String declaringClass = definition.getBeanClassName();
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                declaringClass = factoryMethod.getDeclaringClassName();
+            }
+        }
+        return declaringClass != null
+                && (declaringClass.startsWith("org.springdoc.") || declaringClass.equals(OpenApiConfig.class.getName()));
+    }
+
     @Bean
     public OpenAPI customOpenAPI() {
         return new OpenAPI()
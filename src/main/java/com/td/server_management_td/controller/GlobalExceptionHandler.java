@@ -1,52 +1,116 @@
 package com.td.server_management_td.controller;
 
+import com.td.server_management_td.ratelimit.RateLimitExceededException;
+import com.td.server_management_td.service.DuplicateServerException;
+import com.td.server_management_td.service.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.net.URI;
 
+/**
+ * Turns exceptions into RFC 7807 problem responses ({@code application/problem+json}) with
+ * {@code type}, {@code title}, {@code status} and {@code detail}. Spring MVC's own exceptions
+ * (unreadable bodies, missing or mistyped parameters, unsupported methods) keep the statuses
+ * {@link ResponseEntityExceptionHandler} gives them.
+ *
+ * <p>Not-found and conflict responses are on hot paths for clients probing ids, so their
+ * exceptions carry no stack trace and the type URIs are built once.
+ */
 @RestControllerAdvice
-public class GlobalExceptionHandler {
+public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    static final URI NOT_FOUND = URI.create("/problems/not-found");
+    static final URI DUPLICATE = URI.create("/problems/duplicate-server");
+    static final URI INVALID_REQUEST = URI.create("/problems/invalid-request");
+    static final URI STALE_VERSION = URI.create("/problems/stale-version");
+    static final URI TOO_MANY_REQUESTS = URI.create("/problems/too-many-requests");
+    static final URI UNAVAILABLE = URI.create("/problems/unavailable");
+    static final URI IDEMPOTENCY_KEY_REUSED = URI.create("/problems/idempotency-key-reused");
+
+    private static final String OVERLOADED = "Service temporarily overloaded, retry later";
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleNotFound(NotFoundException ex) {
+        return problem(HttpStatus.NOT_FOUND, NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(DuplicateServerException.class)
+    public ResponseEntity<ProblemDetail> handleDuplicateServer(DuplicateServerException ex) {
+        ProblemDetail problem = problemDetail(HttpStatus.CONFLICT, DUPLICATE, ex.getMessage());
+        problem.setProperty("field", ex.getField());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problem);
+    }
+
+    @ExceptionHandler({IllegalStateException.class, IllegalArgumentException.class})
+    public ResponseEntity<ProblemDetail> handleInvalidRequest(RuntimeException ex) {
+        return problem(HttpStatus.BAD_REQUEST, INVALID_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return problem(HttpStatus.PRECONDITION_FAILED, STALE_VERSION, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ProblemDetail> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return problem(HttpStatus.UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY_REUSED, ex.getMessage());
+    }
+
+    // No database connection became free within the pool's connection timeout
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ProblemDetail> handleConnectionUnavailable(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problemDetail(HttpStatus.SERVICE_UNAVAILABLE, UNAVAILABLE, OVERLOADED));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ProblemDetail> handleRateLimitExceeded(RateLimitExceededException ex) {
+        // Whole seconds, rounded up so a client retrying on time finds a token
+        long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body(problemDetail(HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS, ex.getMessage()));
+    }
 
     @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.NOT_FOUND.value());
-        body.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
-    }
-
-    @ExceptionHandler(IllegalStateException.class)
-    public ResponseEntity<Map<String, Object>> handleIllegalStateException(IllegalStateException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        body.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
-    }
-
-    @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        body.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
-    }
-
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, Object>> handleValidationException(MethodArgumentNotValidException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        body.put("message", "Validation failed: " + ex.getBindingResult().getFieldErrors().get(0).getDefaultMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    public ResponseEntity<ProblemDetail> handleUnexpected(RuntimeException ex) {
+        log.error("Unhandled exception", ex);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected server error");
+        return ResponseEntity.internalServerError().body(problem);
     }
-}
 
+    @Override
+    protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpHeaders headers,
+                                                                  HttpStatusCode status, WebRequest request) {
+        String detail = "Validation failed: " + ex.getBindingResult().getFieldErrors().get(0).getDefaultMessage();
+        return ResponseEntity.badRequest().body(problemDetail(HttpStatus.BAD_REQUEST, INVALID_REQUEST, detail));
+    }
+
+    private static ResponseEntity<ProblemDetail> problem(HttpStatus status, URI type, String detail) {
+        return ResponseEntity.status(status).body(problemDetail(status, type, detail));
+    }
+
+    private static ProblemDetail problemDetail(HttpStatus status, URI type, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setType(type);
+        problem.setTitle(status.getReasonPhrase());
+        return problem;
+    }
+}
@@ -0,0 +1,12 @@
+package com.td.server_management_td.controller;
+
+/**
+ * An {@code Idempotency-Key} was sent again with a different request than the one it was first
+ * used for. Answered with {@code 422 Unprocessable Entity}.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key '" + key + "' was already used for a different request", null, false, false);
+    }
+}
@@ -0,0 +1,129 @@
+package com.td.server_management_td.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response of mutations sent with an {@code Idempotency-Key} header so that a
+ * retried request replays the first outcome instead of applying the change again.
+ * Entries are kept in memory for a bounded time and count; failed attempts are not remembered.
+ * An attempt still running weighs nothing, so the bound never evicts it while duplicates may wait on it.
+ * Each entry records the {@link #fingerprint} of the request that created it, and a key sent again
+ * with a different request is refused rather than answered with the other request's response.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Cache<String, Entry> cache;
+    private final ConcurrentMap<String, Entry> entries;
+
+    @Autowired
+    public IdempotencyStore(@Value("${server-management.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${server-management.idempotency.max-entries:100000}") int maxEntries) {
+        this(ttl, maxEntries, Clock.systemUTC());
+    }
+
+    IdempotencyStore(Duration ttl, int maxEntries, Clock clock) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxEntries)
+                .weigher((String key, Entry entry) -> entry.response.isDone() ? 1 : 0)
+                .expireAfterWrite(ttl)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .executor(Runnable::run)
+                .build();
+        this.entries = cache.asMap();
+    }
+
+    /**
+     * Identifies a request by its method, path and a SHA-256 hash of its body, given as the values
+     * it was bound to.
+     */
+    public static String fingerprint(String method, String path, Object... body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Object value : body) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return method + ' ' + path + ' ' + HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Runs {@code action} once per key. Concurrent duplicates wait for the first attempt; a key
+     * first used with another {@code fingerprint} fails with {@link IdempotencyKeyReusedException}.
+     */
+    public <T> ResponseEntity<T> execute(String key, String fingerprint, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        Entry candidate = new Entry(new CompletableFuture<>(), fingerprint);
+        Entry existing = entries.putIfAbsent(key, candidate);
+
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(key);
+            }
+            return replay(existing);
+        }
+        try {
+            ResponseEntity<T> response = action.get();
+            candidate.response.complete(response);
+            // Written again so that the finished entry is weighed, and expires a ttl after the response
+            entries.replace(key, candidate, new Entry(candidate.response, fingerprint));
+            return response;
+        } catch (Throwable e) {
+            // Whatever went wrong, waiting duplicates are released and the key can be retried
+            entries.remove(key, candidate);
+            candidate.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(Entry entry) {
+        ResponseEntity<T> original;
+        try {
+            original = (ResponseEntity<T>) entry.response.join();
+        } catch (CompletionException e) {
+            // The first attempt failed while we waited; surface the same error
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private record Entry(CompletableFuture<ResponseEntity<?>> response, String fingerprint) {}
+}
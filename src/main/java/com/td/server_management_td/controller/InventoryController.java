@@ -0,0 +1,67 @@
+package com.td.server_management_td.controller;
+
+import com.td.server_management_td.inventory.ImportJob;
+import com.td.server_management_td.inventory.InventoryExporter;
+import com.td.server_management_td.inventory.InventoryFormat;
+import com.td.server_management_td.inventory.InventoryImporter;
+import com.td.server_management_td.service.NotFoundException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/servers")
+@Tag(name = "Server Inventory", description = "Bulk import and export of the server inventory")
+public class InventoryController {
+
+    private final InventoryImporter inventoryImporter;
+    private final InventoryExporter inventoryExporter;
+
+    public InventoryController(InventoryImporter inventoryImporter, InventoryExporter inventoryExporter) {
+        this.inventoryImporter = inventoryImporter;
+        this.inventoryExporter = inventoryExporter;
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import servers", description = "Upload a CSV (name,ipAddress columns) or NDJSON file. The import runs in the "
+            + "background; poll the returned Location for progress and per-line duplicate or validation errors")
+    public ResponseEntity<ImportJob.Status> importServers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        ImportJob job = inventoryImporter.submit(InventoryFormat.fromMediaType(contentType), body);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}").build(job.id()))
+                .body(job.status());
+    }
+
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Get import progress", description = "Progress, counts and rejected lines of an import job")
+    public ResponseEntity<ImportJob.Status> getImportJob(@PathVariable String jobId) {
+        ImportJob job = inventoryImporter.findJob(jobId)
+                .orElseThrow(() -> new NotFoundException("Import job not found with id: " + jobId));
+        return ResponseEntity.ok(job.status());
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export servers", description = "Stream every server as CSV or NDJSON, ordered by id. The file can be imported again")
+    public ResponseEntity<StreamingResponseBody> exportServers(@RequestParam(defaultValue = "csv") String format) {
+        InventoryFormat inventoryFormat = InventoryFormat.fromName(format);
+        StreamingResponseBody body = out -> inventoryExporter.export(inventoryFormat, out);
+        return ResponseEntity.ok()
+                .contentType(inventoryFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("servers." + inventoryFormat.name().toLowerCase())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
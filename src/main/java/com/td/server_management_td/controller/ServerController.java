@@ -1,16 +1,44 @@
 package com.td.server_management_td.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.td.server_management_td.dto.BulkOperationResult;
+import com.td.server_management_td.dto.BulkServerRequest;
+import com.td.server_management_td.dto.ServerColumns;
+import com.td.server_management_td.dto.ServerDelta;
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSortField;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.event.ServerEventBroadcaster;
+import com.td.server_management_td.event.ServerEventFilter;
+import com.td.server_management_td.fleet.FleetVersion;
+import com.td.server_management_td.model.Ipv4Range;
 import com.td.server_management_td.model.Server;
 import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.service.NotFoundException;
 import com.td.server_management_td.service.ServerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/servers")
@@ -18,62 +46,320 @@ import java.util.List;
 public class ServerController {
 
     private final ServerService serverService;
+    private final IdempotencyStore idempotencyStore;
+    private final ServerEventBroadcaster eventBroadcaster;
+    private final ObjectWriter ndjsonWriter;
 
-    public ServerController(ServerService serverService) {
+    public ServerController(ServerService serverService, IdempotencyStore idempotencyStore,
+                            ServerEventBroadcaster eventBroadcaster, ObjectMapper objectMapper) {
         this.serverService = serverService;
+        this.idempotencyStore = idempotencyStore;
+        this.eventBroadcaster = eventBroadcaster;
+        this.ndjsonWriter = objectMapper.writerFor(Server.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping
-    @Operation(summary = "List all servers", description = "Retrieve a list of all servers")
-    public ResponseEntity<List<Server>> listServers() {
-        return ResponseEntity.ok(serverService.listServers());
+    @Operation(summary = "List servers", description = "Retrieve a page of servers, optionally filtered by status, name prefix and IPv4 CIDR range "
+            + "and sorted by id, name, ipAddress or status (e.g. sort=name,desc). Follow the Link header, or pass the cursor of the last row as 'after'. "
+            + "Besides JSON, Accept: application/cbor or application/x-jackson-smile returns a binary encoding")
+    public ResponseEntity<List<ServerSummary>> listServers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) ServerStatus status,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) String cidr,
+            @RequestParam(defaultValue = "id") String sort,
+            WebRequest request) {
+        ServerSearchCriteria criteria = parseCriteria(status, namePrefix, cidr, sort);
+        FleetVersion.Snapshot version = serverService.fleetVersion();
+        if (notModified(request, version)) {
+            return null;
+        }
+        List<ServerSummary> page = findPage(criteria, after, limit);
+        return withVersion(withNextLink(page, criteria, limit), version).body(page);
+    }
+
+    @GetMapping(params = {"layout=columnar", "!since"})
+    @Operation(summary = "List servers in columns", description = "The same page as the plain list, laid out as one array per field")
+    public ResponseEntity<ServerColumns> listServerColumns(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) ServerStatus status,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) String cidr,
+            @RequestParam(defaultValue = "id") String sort,
+            WebRequest request) {
+        ServerSearchCriteria criteria = parseCriteria(status, namePrefix, cidr, sort);
+        FleetVersion.Snapshot version = serverService.fleetVersion();
+        if (notModified(request, version)) {
+            return null;
+        }
+        List<ServerSummary> page = findPage(criteria, after, limit);
+        return withVersion(withNextLink(page, criteria, limit), version).body(ServerColumns.of(page));
+    }
+
+    @GetMapping(params = "since")
+    @Operation(summary = "List server changes", description = "Servers changed or deleted after the fleet version 'since', taken from the "
+            + "'version' of the previous delta or the ETag of a full list. Filters and paging do not apply; "
+            + "a delta with 'reset' set means the full list must be reloaded")
+    public ResponseEntity<ServerDelta> listServerChanges(@RequestParam long since, WebRequest request) {
+        FleetVersion.Snapshot version = serverService.fleetVersion();
+        if (notModified(request, version)) {
+            return null;
+        }
+        return withVersion(ResponseEntity.ok(), version).body(serverService.changesSince(since));
+    }
+
+    @GetMapping(value = "/lookup", params = "name")
+    @Operation(summary = "Find a server by name", description = "Id, name, address and status of the server with exactly this name")
+    public ResponseEntity<ServerIdentity> findServerByName(@RequestParam String name) {
+        return ResponseEntity.ok(serverService.findServerByName(name)
+                .orElseThrow(() -> new NotFoundException("Server not found with name: " + name)));
+    }
+
+    @GetMapping(value = "/lookup", params = "ipAddress")
+    @Operation(summary = "Find a server by IP address", description = "Id, name, address and status of the server with exactly this address")
+    public ResponseEntity<ServerIdentity> findServerByIpAddress(@RequestParam String ipAddress) {
+        return ResponseEntity.ok(serverService.findServerByIpAddress(ipAddress)
+                .orElseThrow(() -> new NotFoundException("Server not found with IP address: " + ipAddress)));
+    }
+
+    @GetMapping(value = "/lookup", params = "namePrefix")
+    @Operation(summary = "Find servers by name prefix", description = "Id, name, address and status of the servers whose name starts with the prefix, "
+            + "lowest ids first")
+    public ResponseEntity<List<ServerIdentity>> findServersByNamePrefix(
+            @RequestParam String namePrefix,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(serverService.findServersByNamePrefix(namePrefix, limit));
+    }
+
+    @GetMapping("/counts")
+    @Operation(summary = "Count servers by status", description = "Number of servers in every status, including those with none")
+    public ResponseEntity<Map<ServerStatus, Long>> countServersByStatus() {
+        return ResponseEntity.ok(serverService.countServersByStatus());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all servers", description = "Stream every server as newline-delimited JSON, ordered by id")
+    public ResponseEntity<StreamingResponseBody> streamServers() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = ndjsonWriter.createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                serverService.streamServers(server -> writeLine(generator, server));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to server changes", description = "Server-sent events for every create, rename, status change and delete. Resume with Last-Event-ID or 'since'")
+    public SseEmitter subscribeToEvents(
+            @RequestParam(required = false) ServerStatus status,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(eventBroadcaster.emitterTimeout().toMillis());
+        ServerEventBroadcaster.Subscription subscription = eventBroadcaster.subscribe(
+                new ServerEventFilter(status, namePrefix),
+                lastEventId != null ? lastEventId : since,
+                new SseEventSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
     }
 
     @PostMapping
     @Operation(summary = "Create a new server", description = "Create a new server with STOPPED status")
-    public ResponseEntity<Server> createServer(@Valid @RequestBody Server server) {
-        Server created = serverService.createServer(server);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    public ResponseEntity<Server> createServer(
+            @Valid @RequestBody Server server,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey,
+                IdempotencyStore.fingerprint("POST", "/api/servers", server.getName(), server.getIpAddress()),
+                () -> withETag(ResponseEntity.status(HttpStatus.CREATED), serverService.createServer(server)));
     }
 
     @PutMapping("/{id}/rename")
-    @Operation(summary = "Rename a server", description = "Update the name of an existing server")
+    @Operation(summary = "Rename a server", description = "Update the name of an existing server. Honours If-Match with the server version")
     public ResponseEntity<Server> renameServer(
             @PathVariable Long id,
-            @RequestParam String name) {
-        Server updated = serverService.renameServer(id, name);
-        return ResponseEntity.ok(updated);
+            @RequestParam String name,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        Long expectedVersion = parseIfMatch(ifMatch);
+        return idempotencyStore.execute(idempotencyKey,
+                IdempotencyStore.fingerprint("PUT", "/api/servers/" + id + "/rename", name, expectedVersion),
+                () -> withETag(ResponseEntity.ok(), serverService.renameServer(id, name, expectedVersion)));
     }
 
     @GetMapping("/{id}/status")
     @Operation(summary = "Get server status", description = "Retrieve the current status of a server")
-    public ResponseEntity<ServerStatusResponse> getServerStatus(@PathVariable Long id) {
+    public ResponseEntity<ServerStatusResponse> getServerStatus(@PathVariable Long id, WebRequest request) {
         ServerStatus status = serverService.getServerStatus(id);
-        return ResponseEntity.ok(new ServerStatusResponse(status));
+        // Tagged with the status itself, which also covers changes still in the write-behind buffer
+        String eTag = "\"" + status.name() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(new ServerStatusResponse(status));
+    }
+
+    @PutMapping("/{id}/status")
+    @Operation(summary = "Change server status", description = "Move a server to another status. Only transitions allowed by the status state machine are accepted")
+    public ResponseEntity<Server> transitionServer(
+            @PathVariable Long id,
+            @Valid @RequestBody StatusTransitionRequest request,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        Long expectedVersion = parseIfMatch(ifMatch);
+        return idempotencyStore.execute(idempotencyKey,
+                IdempotencyStore.fingerprint("PUT", "/api/servers/" + id + "/status", request.status(), expectedVersion),
+                () -> withETag(ResponseEntity.ok(), serverService.transitionServer(id, request.status(), expectedVersion)));
     }
 
     @PutMapping("/{id}/start")
-    @Operation(summary = "Start a server", description = "Change server status to RUNNING")
-    public ResponseEntity<Server> startServer(@PathVariable Long id) {
-        Server updated = serverService.startServer(id);
-        return ResponseEntity.ok(updated);
+    @Operation(summary = "Start a server", description = "Change server status to RUNNING. Honours If-Match with the server version")
+    public ResponseEntity<Server> startServer(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        Long expectedVersion = parseIfMatch(ifMatch);
+        return idempotencyStore.execute(idempotencyKey,
+                IdempotencyStore.fingerprint("PUT", "/api/servers/" + id + "/start", expectedVersion),
+                () -> withETag(ResponseEntity.ok(), serverService.startServer(id, expectedVersion)));
     }
 
     @PutMapping("/{id}/stop")
-    @Operation(summary = "Stop a server", description = "Change server status to STOPPED")
-    public ResponseEntity<Server> stopServer(@PathVariable Long id) {
-        Server updated = serverService.stopServer(id);
-        return ResponseEntity.ok(updated);
+    @Operation(summary = "Stop a server", description = "Change server status to STOPPED. Honours If-Match with the server version")
+    public ResponseEntity<Server> stopServer(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        Long expectedVersion = parseIfMatch(ifMatch);
+        return idempotencyStore.execute(idempotencyKey,
+                IdempotencyStore.fingerprint("PUT", "/api/servers/" + id + "/stop", expectedVersion),
+                () -> withETag(ResponseEntity.ok(), serverService.stopServer(id, expectedVersion)));
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete a server", description = "Delete a server. Only allowed if status is STOPPED")
-    public ResponseEntity<Void> deleteServer(@PathVariable Long id) {
-        serverService.deleteServer(id);
-        return ResponseEntity.noContent().build();
+    @Operation(summary = "Delete a server", description = "Delete a server. Only allowed if status is STOPPED. Honours If-Match with the server version")
+    public ResponseEntity<Void> deleteServer(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        Long expectedVersion = parseIfMatch(ifMatch);
+        return idempotencyStore.execute(idempotencyKey,
+                IdempotencyStore.fingerprint("DELETE", "/api/servers/" + id, expectedVersion), () -> {
+            serverService.deleteServer(id, expectedVersion);
+            return ResponseEntity.noContent().build();
+        });
+    }
+
+    @PostMapping("/bulk/start")
+    @Operation(summary = "Start servers in bulk", description = "Change the status of the selected servers to RUNNING with one set-based update")
+    public ResponseEntity<BulkOperationResult> startServers(@RequestBody BulkServerRequest request) {
+        return ResponseEntity.ok(serverService.startServers(request));
+    }
+
+    @PostMapping("/bulk/stop")
+    @Operation(summary = "Stop servers in bulk", description = "Change the status of the selected servers to STOPPED with one set-based update")
+    public ResponseEntity<BulkOperationResult> stopServers(@RequestBody BulkServerRequest request) {
+        return ResponseEntity.ok(serverService.stopServers(request));
+    }
+
+    @PostMapping("/bulk/delete")
+    @Operation(summary = "Delete servers in bulk", description = "Delete the selected servers. Running servers are reported as failures")
+    public ResponseEntity<BulkOperationResult> deleteServers(@RequestBody BulkServerRequest request) {
+        return ResponseEntity.ok(serverService.deleteServers(request));
+    }
+
+    private List<ServerSummary> findPage(ServerSearchCriteria criteria, String after, int limit) {
+        return criteria.isDefault()
+                ? serverService.listServers(after == null ? null : parseIdCursor(after), limit)
+                : serverService.searchServers(criteria, after, limit);
+    }
+
+    private static ResponseEntity.BodyBuilder withNextLink(List<ServerSummary> page, ServerSearchCriteria criteria, int limit) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == limit) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", criteria.sortField().cursorOf(page.get(page.size() - 1)))
+                    .replaceQueryParam("limit", limit)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response;
+    }
+
+    // Fleet-versioned responses carry a weak ETag: the same version is served in several encodings
+    private static boolean notModified(WebRequest request, FleetVersion.Snapshot version) {
+        return request.checkNotModified(fleetETag(version), version.modifiedAt().toEpochMilli());
+    }
+
+    private static ResponseEntity.BodyBuilder withVersion(ResponseEntity.BodyBuilder response, FleetVersion.Snapshot version) {
+        return response.eTag(fleetETag(version)).lastModified(version.modifiedAt());
+    }
+
+    private static String fleetETag(FleetVersion.Snapshot version) {
+        return "W/\"" + version.version() + "\"";
+    }
+
+    private static ResponseEntity<Server> withETag(ResponseEntity.BodyBuilder response, Server server) {
+        if (server.getVersion() != null) {
+            response.eTag(String.valueOf(server.getVersion()));
+        }
+        return response.body(server);
+    }
+
+    // sort is "<field>" or "<field>,<asc|desc>"
+    private static ServerSearchCriteria parseCriteria(ServerStatus status, String namePrefix, String cidr, String sort) {
+        int comma = sort.indexOf(',');
+        ServerSortField field = ServerSortField.fromProperty(comma < 0 ? sort : sort.substring(0, comma));
+        Sort.Direction direction = comma < 0 ? Sort.Direction.ASC : Sort.Direction.fromString(sort.substring(comma + 1));
+        return new ServerSearchCriteria(status, namePrefix, cidr == null ? null : Ipv4Range.parseCidr(cidr), field, direction);
+    }
+
+    private static Long parseIdCursor(String after) {
+        try {
+            return Long.valueOf(after);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + after);
+        }
+    }
+
+    // Accepts "3", "\"3\"" or W/"3"; "*" matches any version
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must carry a server version ETag, got: " + ifMatch);
+        }
+    }
+
+    private void writeLine(JsonGenerator generator, Server server) {
+        try {
+            ndjsonWriter.writeValue(generator, server);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     // DTO for status response
     public record ServerStatusResponse(ServerStatus status) {}
+
+    // DTO for status transition request
+    public record StatusTransitionRequest(@NotNull(message = "Target status is required") ServerStatus status) {}
 }
 
@@ -0,0 +1,42 @@
+package com.td.server_management_td.controller;
+
+import com.td.server_management_td.event.SequencedServerEvent;
+import com.td.server_management_td.event.ServerEventBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Writes server events to an SSE connection. The event id is the stream sequence, so browsers
+ * resume automatically through the Last-Event-ID header after a reconnect.
+ */
+class SseEventSink implements ServerEventBroadcaster.EventSink {
+
+    private final SseEmitter emitter;
+
+    SseEventSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(SequencedServerEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(event.sequence()))
+                .name(event.event().type().name())
+                .data(event.event(), MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void sendReset(long currentSequence) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(currentSequence))
+                .name("RESET")
+                .data("{\"sequence\":" + currentSequence + "}", MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
@@ -0,0 +1,60 @@
+package com.td.server_management_td.controller;
+
+import com.td.server_management_td.history.StatusHistory;
+import com.td.server_management_td.history.UptimeReport;
+import com.td.server_management_td.model.StatusTransition;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/servers")
+@Tag(name = "Server Status History", description = "Status timelines and uptime of servers and of the fleet")
+public class StatusHistoryController {
+
+    // Window used when 'from' is omitted
+    private static final Duration DEFAULT_WINDOW = Duration.ofDays(30);
+
+    private final StatusHistory statusHistory;
+
+    public StatusHistoryController(StatusHistory statusHistory) {
+        this.statusHistory = statusHistory;
+    }
+
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get a server's status timeline", description = "Creation, status changes and deletion of a server between 'from' "
+            + "and 'to' (ISO-8601 instants, default the last 30 days), oldest first")
+    public ResponseEntity<List<StatusTransition>> getTimeline(
+            @PathVariable Long id,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        Instant end = to != null ? to : Instant.now();
+        return ResponseEntity.ok(statusHistory.timeline(id, from != null ? from : end.minus(DEFAULT_WINDOW), end, limit));
+    }
+
+    @GetMapping("/{id}/uptime")
+    @Operation(summary = "Get a server's uptime", description = "Seconds spent in each status between 'from' and 'to' and the RUNNING share")
+    public ResponseEntity<UptimeReport> getServerUptime(
+            @PathVariable Long id,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        return ResponseEntity.ok(statusHistory.serverUptime(id, from != null ? from : end.minus(DEFAULT_WINDOW), end));
+    }
+
+    @GetMapping("/uptime")
+    @Operation(summary = "Get fleet uptime", description = "Server-seconds spent in each status across all servers between 'from' and 'to' "
+            + "and the RUNNING share")
+    public ResponseEntity<UptimeReport> getFleetUptime(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        return ResponseEntity.ok(statusHistory.fleetUptime(from != null ? from : end.minus(DEFAULT_WINDOW), end));
+    }
+}
@@ -0,0 +1,11 @@
+package com.td.server_management_td.dto;
+
+import java.util.List;
+
+/**
+ * Per-id outcome of a bulk operation.
+ */
+public record BulkOperationResult(List<Long> succeeded, List<Failure> failed) {
+
+    public record Failure(Long id, String reason) {}
+}
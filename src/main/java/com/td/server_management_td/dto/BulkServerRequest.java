@@ -0,0 +1,23 @@
+package com.td.server_management_td.dto;
+
+import com.td.server_management_td.model.ServerStatus;
+
+import java.util.List;
+
+/**
+ * Selects the servers a bulk operation applies to. Exactly one selector must be set.
+ */
+public record BulkServerRequest(List<Long> ids, ServerStatus status, String namePrefix) {
+
+    public static BulkServerRequest ofIds(List<Long> ids) {
+        return new BulkServerRequest(ids, null, null);
+    }
+
+    public static BulkServerRequest ofStatus(ServerStatus status) {
+        return new BulkServerRequest(null, status, null);
+    }
+
+    public static BulkServerRequest ofNamePrefix(String namePrefix) {
+        return new BulkServerRequest(null, null, namePrefix);
+    }
+}
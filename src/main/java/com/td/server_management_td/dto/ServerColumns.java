@@ -0,0 +1,39 @@
+package com.td.server_management_td.dto;
+
+import com.td.server_management_td.model.ServerHealth;
+import com.td.server_management_td.model.ServerStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Columnar layout of a server list page ({@code GET /api/servers?layout=columnar}): one array per
+ * field, index {@code i} of every array describing the same server. Field names are written once
+ * per page instead of once per server.
+ */
+public record ServerColumns(
+        long[] id,
+        String[] name,
+        String[] ipAddress,
+        ServerStatus[] status,
+        long[] version,
+        ServerHealth[] health,
+        Instant[] lastSeenAt) {
+
+    public static ServerColumns of(List<ServerSummary> servers) {
+        int size = servers.size();
+        ServerColumns columns = new ServerColumns(new long[size], new String[size], new String[size],
+                new ServerStatus[size], new long[size], new ServerHealth[size], new Instant[size]);
+        for (int i = 0; i < size; i++) {
+            ServerSummary server = servers.get(i);
+            columns.id[i] = server.id();
+            columns.name[i] = server.name();
+            columns.ipAddress[i] = server.ipAddress();
+            columns.status[i] = server.status();
+            columns.version[i] = server.version() == null ? 0 : server.version();
+            columns.health[i] = server.health();
+            columns.lastSeenAt[i] = server.lastSeenAt();
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,16 @@
+package com.td.server_management_td.dto;
+
+import java.util.List;
+
+/**
+ * Servers changed or deleted after a fleet version ({@code GET /api/servers?since=}). Pass
+ * {@code version} as {@code since} on the next poll. When {@code reset} is set the delta cannot be
+ * served (the version is unknown to this fleet, or too much changed) and the client should reload
+ * the full list instead.
+ */
+public record ServerDelta(long version, boolean reset, List<ServerSummary> changed, List<Long> deleted) {
+
+    public static ServerDelta reset(long version) {
+        return new ServerDelta(version, true, List.of(), List.of());
+    }
+}
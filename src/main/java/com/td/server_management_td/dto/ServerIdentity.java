@@ -0,0 +1,14 @@
+package com.td.server_management_td.dto;
+
+import com.td.server_management_td.model.ServerStatus;
+
+/**
+ * What a lookup by name, address or name prefix answers with: the fields the fleet index holds,
+ * so the answer is the same whether it came from the index or from the database.
+ */
+public record ServerIdentity(
+        Long id,
+        String name,
+        String ipAddress,
+        ServerStatus status) {
+}
@@ -0,0 +1,34 @@
+package com.td.server_management_td.dto;
+
+import com.td.server_management_td.model.Ipv4Range;
+import com.td.server_management_td.model.ServerStatus;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Filters and ordering for the server list. Null filters match every server.
+ */
+public record ServerSearchCriteria(
+        ServerStatus status,
+        String namePrefix,
+        Ipv4Range ipRange,
+        ServerSortField sortField,
+        Sort.Direction direction) {
+
+    public static final ServerSearchCriteria DEFAULT =
+            new ServerSearchCriteria(null, null, null, ServerSortField.ID, Sort.Direction.ASC);
+
+    public ServerSearchCriteria {
+        if (namePrefix != null && namePrefix.isBlank()) {
+            throw new IllegalArgumentException("namePrefix must not be blank");
+        }
+        sortField = sortField == null ? ServerSortField.ID : sortField;
+        direction = direction == null ? Sort.Direction.ASC : direction;
+    }
+
+    /**
+     * True when this is a plain id-ordered listing that the primary key alone can serve.
+     */
+    public boolean isDefault() {
+        return equals(DEFAULT);
+    }
+}
@@ -0,0 +1,78 @@
+package com.td.server_management_td.dto;
+
+import com.td.server_management_td.model.ServerStatus;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Fields the server list can be ordered by. Ties are broken by id, so a page cursor is the
+ * last row's sort value plus its id ({@code <id>:<value>}; just {@code <id>} when sorting by id).
+ */
+public enum ServerSortField {
+    ID("id", ServerSummary::id, Long::valueOf),
+    NAME("name", ServerSummary::name, value -> value),
+    IP_ADDRESS("ipAddress", ServerSummary::ipAddress, value -> value),
+    STATUS("status", ServerSummary::status, ServerStatus::valueOf);
+
+    private final String property;
+    private final Function<ServerSummary, Comparable<?>> extractor;
+    private final Function<String, Comparable<?>> parser;
+
+    ServerSortField(String property, Function<ServerSummary, Comparable<?>> extractor, Function<String, Comparable<?>> parser) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public static ServerSortField fromProperty(String property) {
+        for (ServerSortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Cannot sort by '" + property + "'; use id, name, ipAddress or status");
+    }
+
+    /**
+     * Orders rows as the database does for this field and direction: enums by their stored name,
+     * ties by id in the same direction.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<ServerSummary> comparator(Sort.Direction direction) {
+        Comparator<ServerSummary> ascending = Comparator.comparing(ServerSummary::id);
+        if (this != ID) {
+            Function<ServerSummary, Comparable> value = server -> extractor.apply(server) instanceof Enum<?> constant
+                    ? constant.name() : extractor.apply(server);
+            ascending = Comparator.comparing(value).thenComparing(ascending);
+        }
+        return direction.isAscending() ? ascending : ascending.reversed();
+    }
+
+    public String cursorOf(ServerSummary server) {
+        return this == ID ? server.id().toString() : server.id() + ":" + extractor.apply(server);
+    }
+
+    public Cursor parseCursor(String cursor) {
+        try {
+            if (this == ID) {
+                return new Cursor(Long.valueOf(cursor), null);
+            }
+            int separator = cursor.indexOf(':');
+            return new Cursor(Long.valueOf(cursor.substring(0, separator)), parser.apply(cursor.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor for sort by " + property + ": " + cursor);
+        }
+    }
+
+    /**
+     * Position after which the next page starts; {@code value} is null when sorting by id.
+     */
+    public record Cursor(Long id, Comparable<?> value) {
+    }
+}
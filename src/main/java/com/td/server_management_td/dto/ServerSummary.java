@@ -0,0 +1,26 @@
+package com.td.server_management_td.dto;
+
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerHealth;
+import com.td.server_management_td.model.ServerStatus;
+
+import java.time.Instant;
+
+/**
+ * Read-only row of the server list, selected with a constructor expression so list queries never
+ * enter the persistence context. Serializes to the same JSON as {@link Server}.
+ */
+public record ServerSummary(
+        Long id,
+        String name,
+        String ipAddress,
+        ServerStatus status,
+        Long version,
+        ServerHealth health,
+        Instant lastSeenAt) {
+
+    public static ServerSummary of(Server server) {
+        return new ServerSummary(server.getId(), server.getName(), server.getIpAddress(), server.getStatus(),
+                server.getVersion(), server.getHealth(), server.getLastSeenAt());
+    }
+}
@@ -0,0 +1,23 @@
+package com.td.server_management_td.event;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "server-management.events")
+public record EventStreamProperties(
+        @DefaultValue("256") int subscriberBufferSize,
+        @DefaultValue("10000") int replaySize,
+        @DefaultValue("DROP_OLDEST") OverflowPolicy overflowPolicy,
+        @DefaultValue("30m") Duration emitterTimeout,
+        @DefaultValue("8") int sendThreads,
+        @DefaultValue("10s") Duration sendTimeout) {
+
+    public enum OverflowPolicy {
+        /** Discard the oldest buffered event and keep the subscriber connected. */
+        DROP_OLDEST,
+        /** Close the subscriber; it can reconnect and resume from its last event id. */
+        DISCONNECT
+    }
+}
@@ -0,0 +1,7 @@
+package com.td.server_management_td.event;
+
+/**
+ * A committed change with its position in the event stream, used as the resume token.
+ */
+public record SequencedServerEvent(long sequence, ServerChangeEvent event) {
+}
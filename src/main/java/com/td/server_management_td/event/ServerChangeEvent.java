@@ -0,0 +1,36 @@
+package com.td.server_management_td.event;
+
+import com.td.server_management_td.model.ServerStatus;
+
+import java.time.Instant;
+
+/**
+ * Published by the service layer inside the transaction of every server mutation.
+ * {@code name} is null when the writing statement did not load it (bulk writes and deletes).
+ * {@code ipAddress} is only carried by CREATED: an address never changes once a server exists.
+ */
+public record ServerChangeEvent(
+        ServerChangeType type,
+        Long serverId,
+        String name,
+        String ipAddress,
+        ServerStatus status,
+        ServerStatus previousStatus,
+        Instant occurredAt) {
+
+    public static ServerChangeEvent created(Long serverId, String name, String ipAddress, ServerStatus status) {
+        return new ServerChangeEvent(ServerChangeType.CREATED, serverId, name, ipAddress, status, null, Instant.now());
+    }
+
+    public static ServerChangeEvent renamed(Long serverId, String name, ServerStatus status) {
+        return new ServerChangeEvent(ServerChangeType.RENAMED, serverId, name, null, status, status, Instant.now());
+    }
+
+    public static ServerChangeEvent statusChanged(Long serverId, String name, ServerStatus previousStatus, ServerStatus status) {
+        return new ServerChangeEvent(ServerChangeType.STATUS_CHANGED, serverId, name, null, status, previousStatus, Instant.now());
+    }
+
+    public static ServerChangeEvent deleted(Long serverId, ServerStatus previousStatus) {
+        return new ServerChangeEvent(ServerChangeType.DELETED, serverId, null, null, null, previousStatus, Instant.now());
+    }
+}
@@ -0,0 +1,8 @@
+package com.td.server_management_td.event;
+
+public enum ServerChangeType {
+    CREATED,
+    RENAMED,
+    STATUS_CHANGED,
+    DELETED
+}
@@ -0,0 +1,373 @@
+package com.td.server_management_td.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fans committed server changes out to stream subscribers.
+ *
+ * <p>Every change gets a sequence number and is kept in a fixed-size replay ring so a reconnecting
+ * subscriber can resume after the last sequence it saw; the missed events are read from the ring as
+ * the subscriber's drain gets to them, however many there are. Each subscriber has its own bounded
+ * buffer of new events that is drained by the broadcaster's own {@code send-threads} only while it
+ * has events, so idle connections hold no thread and the application's task executor is never
+ * taken. When a buffer is full the configured {@link EventStreamProperties.OverflowPolicy} applies;
+ * events dropped from it are followed by a reset notice, so the subscriber knows it missed them.
+ *
+ * <p>A write that blocks for longer than {@code send-timeout}, because the client stopped reading,
+ * disconnects its subscriber: the sink is closed and the sending thread interrupted. A write the
+ * container cannot interrupt still returns at the connector's own write timeout, but the subscriber
+ * no longer buffers events meanwhile.
+ */
+@Component
+public class ServerEventBroadcaster implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerEventBroadcaster.class);
+
+    /**
+     * Transport for one subscriber, for example an SSE connection.
+     */
+    public interface EventSink {
+        void send(SequencedServerEvent event) throws IOException;
+
+        /**
+         * Tells the subscriber that events before the next one it gets were lost, either no longer retained
+         * or dropped from its full buffer, and it must resync.
+         */
+        void sendReset(long currentSequence) throws IOException;
+
+        void close();
+    }
+
+    @FunctionalInterface
+    public interface Subscription {
+        void cancel();
+    }
+
+    private final EventStreamProperties properties;
+    private final Executor executor;
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "server-events-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object lock = new Object();
+    private final SequencedServerEvent[] replay;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong disconnected = new AtomicLong();
+    private long sequence;
+
+    @Autowired
+    public ServerEventBroadcaster(EventStreamProperties properties) {
+        this(properties, sendExecutor(properties.sendThreads()));
+    }
+
+    ServerEventBroadcaster(EventStreamProperties properties, Executor executor) {
+        this.properties = properties;
+        this.executor = executor;
+        this.replay = new SequencedServerEvent[properties.replaySize()];
+    }
+
+    // Each subscriber queues at most one drain, so the queue is bounded by the subscriber count
+    private static ExecutorService sendExecutor(int threads) {
+        AtomicInteger created = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "server-events-" + created.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = Math.max(1, properties.sendTimeout().toMillis() / 2);
+        watchdog.scheduleWithFixedDelay(this::scheduledEviction, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onServerChange(ServerChangeEvent event) {
+        publish(event);
+    }
+
+    long publish(ServerChangeEvent event) {
+        synchronized (lock) {
+            SequencedServerEvent sequenced = new SequencedServerEvent(++sequence, event);
+            replay[slot(sequenced.sequence())] = sequenced;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(sequenced);
+            }
+            return sequenced.sequence();
+        }
+    }
+
+    /**
+     * Registers a subscriber. With {@code lastSequence} set, retained events after it are replayed first;
+     * if they are no longer retained a reset is sent instead.
+     */
+    public Subscription subscribe(ServerEventFilter filter, Long lastSequence, EventSink sink) {
+        Subscriber subscriber = new Subscriber(filter, sink);
+        synchronized (lock) {
+            if (lastSequence != null && lastSequence != sequence) {
+                if (lastSequence < oldestRetained() - 1 || lastSequence > sequence) {
+                    subscriber.reset(sequence);
+                } else {
+                    subscriber.replay(lastSequence + 1, sequence);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return subscriber::cancel;
+    }
+
+    public Duration emitterTimeout() {
+        return properties.emitterTimeout();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("server.events.subscribers", subscribers, Set::size)
+                .description("Connected server event stream subscribers")
+                .register(registry);
+        FunctionCounter.builder("server.events.dropped", dropped, AtomicLong::get)
+                .description("Events dropped because a subscriber buffer was full")
+                .register(registry);
+        FunctionCounter.builder("server.events.disconnected", disconnected, AtomicLong::get)
+                .description("Subscribers disconnected as slow consumers")
+                .register(registry);
+    }
+
+    /**
+     * Disconnects every subscriber whose current write has been blocked for longer than
+     * {@code send-timeout}.
+     */
+    void evictStuckSubscribers() {
+        long now = System.nanoTime();
+        long timeout = properties.sendTimeout().toNanos();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.evictIfStuck(now, timeout);
+        }
+    }
+
+    private void scheduledEviction() {
+        try {
+            evictStuckSubscribers();
+        } catch (RuntimeException e) {
+            // An exception would cancel the fixed-delay schedule
+            log.warn("Evicting stuck event subscribers failed", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        watchdog.shutdownNow();
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+            service.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % replay.length);
+    }
+
+    // Called with the lock held
+    private long oldestRetained() {
+        return Math.max(1, sequence - replay.length + 1);
+    }
+
+    private final class Subscriber {
+
+        private final ServerEventFilter filter;
+        private final EventSink sink;
+        // Guarded by this: new events, at most subscriberBufferSize of them
+        private final ArrayDeque<SequencedServerEvent> buffer = new ArrayDeque<>();
+        // Guarded by this: a reset notice (a null event) due before the buffered events
+        private SequencedServerEvent reset;
+        // Guarded by the broadcaster lock: retained events still to be replayed ahead of the buffer
+        private long replayNext = 1;
+        private long replayLast;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Set while a write is in progress: the thread writing, and System.nanoTime() when it started
+        private final AtomicReference<Thread> sender = new AtomicReference<>();
+        private volatile long sendingSince;
+
+        Subscriber(ServerEventFilter filter, EventSink sink) {
+            this.filter = filter;
+            this.sink = sink;
+        }
+
+        // Called with the broadcaster lock held
+        void replay(long first, long last) {
+            replayNext = first;
+            replayLast = last;
+            scheduleDrain();
+        }
+
+        void reset(long currentSequence) {
+            synchronized (this) {
+                reset = new SequencedServerEvent(currentSequence, null);
+            }
+            scheduleDrain();
+        }
+
+        // Called with the broadcaster lock held, so offers arrive in sequence order
+        void offer(SequencedServerEvent event) {
+            if (closed.get() || !filter.matches(event.event())) {
+                return;
+            }
+            boolean full;
+            synchronized (this) {
+                full = buffer.size() >= properties.subscriberBufferSize();
+                if (full && properties.overflowPolicy() == EventStreamProperties.OverflowPolicy.DROP_OLDEST) {
+                    // Events are only ever dropped from the head, so the reset goes right before what is left
+                    SequencedServerEvent oldest = buffer.pollFirst();
+                    if (oldest != null) {
+                        reset = new SequencedServerEvent(oldest.sequence(), null);
+                    }
+                    dropped.incrementAndGet();
+                    full = false;
+                }
+                if (!full) {
+                    buffer.addLast(event);
+                }
+            }
+            if (full) {
+                disconnected.incrementAndGet();
+                cancel();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        // Replayed events come first, then a reset notice, then the buffer
+        private SequencedServerEvent next() {
+            synchronized (lock) {
+                while (replayNext <= replayLast) {
+                    long next = replayNext++;
+                    if (next < oldestRetained()) {
+                        // Overwritten before this subscriber caught up
+                        replayNext = replayLast + 1;
+                        return new SequencedServerEvent(replayLast, null);
+                    }
+                    SequencedServerEvent event = replay[slot(next)];
+                    if (filter.matches(event.event())) {
+                        return event;
+                    }
+                }
+            }
+            synchronized (this) {
+                if (reset != null) {
+                    SequencedServerEvent notice = reset;
+                    reset = null;
+                    return notice;
+                }
+                return buffer.pollFirst();
+            }
+        }
+
+        private boolean hasPending() {
+            synchronized (lock) {
+                if (replayNext <= replayLast) {
+                    return true;
+                }
+            }
+            synchronized (this) {
+                return reset != null || !buffer.isEmpty();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    cancel();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SequencedServerEvent next;
+                while (!closed.get() && (next = next()) != null) {
+                    sendingSince = System.nanoTime();
+                    sender.set(Thread.currentThread());
+                    if (next.event() == null) {
+                        sink.sendReset(next.sequence());
+                    } else {
+                        sink.send(next);
+                    }
+                    sender.set(null);
+                }
+            } catch (IOException | RuntimeException e) {
+                // The client went away or the connection broke; it can resume from its last event id
+                cancel();
+            } finally {
+                sender.set(null);
+                draining.set(false);
+            }
+            if (!closed.get() && hasPending()) {
+                scheduleDrain();
+            }
+        }
+
+        void evictIfStuck(long now, long timeout) {
+            Thread stuck = sender.get();
+            if (stuck == null || now - sendingSince <= timeout || closed.get()) {
+                return;
+            }
+            disconnected.incrementAndGet();
+            cancel();
+            // Only while that write is still in progress, never a later task of the same pool thread
+            if (sender.compareAndSet(stuck, null)) {
+                stuck.interrupt();
+            }
+        }
+
+        void cancel() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                synchronized (this) {
+                    buffer.clear();
+                    reset = null;
+                }
+                sink.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.td.server_management_td.event;
+
+import com.td.server_management_td.model.ServerStatus;
+
+/**
+ * Subscriber-side filter. A status filter matches the state a server enters or leaves;
+ * a name prefix filter lets through events whose name is unknown (bulk writes and deletes).
+ */
+public record ServerEventFilter(ServerStatus status, String namePrefix) {
+
+    public static final ServerEventFilter ALL = new ServerEventFilter(null, null);
+
+    public boolean matches(ServerChangeEvent event) {
+        if (status != null && event.status() != status && event.previousStatus() != status) {
+            return false;
+        }
+        return namePrefix == null || event.name() == null || event.name().startsWith(namePrefix);
+    }
+}
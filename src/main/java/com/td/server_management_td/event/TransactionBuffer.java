@@ -0,0 +1,104 @@
+package com.td.server_management_td.event;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Collects what a listener of {@link ServerChangeEvent}s has to do for the current transaction
+ * into one batch, so it can be written once just before commit or applied once after completion.
+ *
+ * <p>The batch is bound to the transaction, not the thread: while a {@code REQUIRES_NEW}
+ * transaction suspends it, that transaction collects a batch of its own. Without an active
+ * transaction each addition is a batch of its own, completed at once as if it had committed.
+ *
+ * @param <B> what is collected per transaction
+ */
+public final class TransactionBuffer<B> {
+
+    private final Supplier<B> batches;
+    private final Consumer<? super B> beforeCommit;
+    private final ObjIntConsumer<? super B> afterCompletion;
+
+    /**
+     * @param beforeCommit    runs inside the transaction, before it commits
+     * @param afterCompletion runs once the transaction has ended, with its
+     *                        {@link TransactionSynchronization} completion status
+     */
+    public TransactionBuffer(Supplier<B> batches, Consumer<? super B> beforeCommit,
+                             ObjIntConsumer<? super B> afterCompletion) {
+        this.batches = batches;
+        this.beforeCommit = beforeCommit;
+        this.afterCompletion = afterCompletion;
+    }
+
+    public TransactionBuffer(Supplier<B> batches, Consumer<? super B> beforeCommit) {
+        this(batches, beforeCommit, (batch, status) -> {
+        });
+    }
+
+    /**
+     * A buffer whose batch is applied once its transaction has committed, and dropped on rollback.
+     */
+    public static <B> TransactionBuffer<B> afterCommit(Supplier<B> batches, Consumer<? super B> action) {
+        return new TransactionBuffer<>(batches, batch -> {
+        }, (batch, status) -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                action.accept(batch);
+            }
+        });
+    }
+
+    /**
+     * Adds to the current transaction's batch, starting one on first use.
+     */
+    public void add(Consumer<? super B> addition) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            B batch = batches.get();
+            addition.accept(batch);
+            beforeCommit.accept(batch);
+            afterCompletion.accept(batch, TransactionSynchronization.STATUS_COMMITTED);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Batch current = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (current == null) {
+            current = new Batch(batches.get());
+            TransactionSynchronizationManager.bindResource(this, current);
+            TransactionSynchronizationManager.registerSynchronization(current);
+        }
+        addition.accept(current.batch);
+    }
+
+    private final class Batch implements TransactionSynchronization {
+        final B batch;
+
+        Batch(B batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(TransactionBuffer.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(TransactionBuffer.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            beforeCommit.accept(batch);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TransactionBuffer.this);
+            afterCompletion.accept(batch, status);
+        }
+    }
+}
@@ -0,0 +1,549 @@
+package com.td.server_management_td.fleet;
+
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.model.ServerStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Id, name, address and status of every server, held in a handful of primitive arrays instead of
+ * one object graph per server.
+ *
+ * <p>Each server takes one slot: its id in a {@code long[]}, its status in a {@code byte[]}, its
+ * IPv4 address in an {@code int[]} and the offset of its name in a shared byte pool, where names
+ * are stored as Latin-1 unless they need UTF-16. Addresses that are not canonical dotted quads
+ * (host names, IPv6, {@code 010.0.0.1}) are pooled like names. Three open-addressing tables of
+ * {@code int} slot numbers find a server by id, by name and by address.
+ *
+ * <p>Lookups by id, name and address and {@link #count(ServerStatus)} allocate nothing: they
+ * compare the given string with the pooled bytes in place and answer with primitives. Names are not
+ * sorted, so prefix searches are left to the database's index on {@code name}. Readers share a read lock; writes, which
+ * follow committed changes, take the write lock. Slots freed by deletes and pool bytes freed by
+ * renames are reclaimed when the arrays would otherwise grow.
+ */
+public final class FleetIndex {
+
+    public static final long NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final ServerStatus[] STATUSES = ServerStatus.values();
+    // Set in a slot's state when its address is a pool offset rather than an IPv4 address
+    private static final byte POOLED_ADDRESS = (byte) 0x80;
+    private static final byte STATUS_MASK = 0x7F;
+
+    private final StampedLock lock = new StampedLock();
+    private final long[] counts = new long[STATUSES.length];
+
+    // Per slot; a slot whose id is 0 is free
+    private long[] ids;
+    private int[] names;
+    private int[] addresses;
+    private byte[] states;
+    private int used;
+    private int size;
+
+    // Slot + 1 per entry, 0 for an empty entry; twice the slot capacity, so never more than half full
+    private int[] byId;
+    private int[] byName;
+    private int[] byAddress;
+
+    private byte[] pool;
+    private int poolUsed;
+    private int poolGarbage;
+
+    public FleetIndex() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public FleetIndex(int expectedServers) {
+        int slots = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, expectedServers - 1)) << 1);
+        // Room for a short name per server; longer names or host names grow the pool on demand
+        allocate(slots, slots * 16);
+    }
+
+    /**
+     * Adds a server, or replaces everything known about a server with the same id.
+     */
+    public void put(long id, String name, String ipAddress, ServerStatus status) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Server ids are positive, got " + id);
+        }
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOfId(id);
+            if (slot >= 0) {
+                release(slot);
+            }
+            store(id, name, ipAddress, status);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void rename(long id, String name) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOfId(id);
+            if (slot < 0) {
+                return;
+            }
+            // Stored afresh in a new slot, so the name is entered in the tables under its new hash
+            String ipAddress = address(slot);
+            ServerStatus status = status(slot);
+            release(slot);
+            store(id, name, ipAddress, status);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void setStatus(long id, ServerStatus status) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOfId(id);
+            if (slot >= 0) {
+                counts[states[slot] & STATUS_MASK]--;
+                counts[status.ordinal()]++;
+                states[slot] = (byte) ((states[slot] & POOLED_ADDRESS) | status.ordinal());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOfId(id);
+            if (slot >= 0) {
+                release(slot);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Id of the server with this name, or {@link #NOT_FOUND}.
+     */
+    public long findByName(String name) {
+        long stamp = lock.readLock();
+        try {
+            int[] table = byName;
+            int mask = table.length - 1;
+            for (int i = mix(name.hashCode()) & mask; table[i] != 0; i = (i + 1) & mask) {
+                int slot = table[i] - 1;
+                if (pooledEquals(names[slot], name)) {
+                    return ids[slot];
+                }
+            }
+            return NOT_FOUND;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Id of the server with this address, compared as written, or {@link #NOT_FOUND}.
+     */
+    public long findByIpAddress(String ipAddress) {
+        long address = canonicalIpv4(ipAddress);
+        long stamp = lock.readLock();
+        try {
+            int[] table = byAddress;
+            int mask = table.length - 1;
+            int hash = address >= 0 ? mix((int) address) : mix(ipAddress.hashCode());
+            for (int i = hash & mask; table[i] != 0; i = (i + 1) & mask) {
+                int slot = table[i] - 1;
+                boolean pooled = (states[slot] & POOLED_ADDRESS) != 0;
+                if (address >= 0 ? !pooled && addresses[slot] == (int) address
+                        : pooled && pooledEquals(addresses[slot], ipAddress)) {
+                    return ids[slot];
+                }
+            }
+            return NOT_FOUND;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Status of the server with this id, or null if there is none.
+     */
+    public ServerStatus findStatus(long id) {
+        long stamp = lock.readLock();
+        try {
+            int slot = slotOfId(id);
+            return slot < 0 ? null : status(slot);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Everything indexed about the server with this id, or null if there is none. Unlike the
+     * lookups this builds the strings, so it is meant for answering a request, not for searching.
+     */
+    public ServerIdentity get(long id) {
+        long stamp = lock.readLock();
+        try {
+            int slot = slotOfId(id);
+            return slot < 0 ? null : new ServerIdentity(id, string(names[slot]), address(slot), status(slot));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long count(ServerStatus status) {
+        long stamp = lock.readLock();
+        try {
+            return counts[status.ordinal()];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Bytes held by the arrays behind the index, including the free room kept for growth.
+     */
+    public long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return array(ids.length, Long.BYTES) + array(names.length, Integer.BYTES)
+                    + array(addresses.length, Integer.BYTES) + array(states.length, Byte.BYTES)
+                    + 3 * array(byId.length, Integer.BYTES) + array(pool.length, Byte.BYTES)
+                    + array(counts.length, Long.BYTES);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // 16-byte array header, padded to 8 bytes as with compressed oops
+    private static long array(int length, int elementBytes) {
+        return (16 + (long) length * elementBytes + 7) & ~7L;
+    }
+
+    private int slotOfId(long id) {
+        int[] table = byId;
+        int mask = table.length - 1;
+        for (int i = mix(Long.hashCode(id)) & mask; table[i] != 0; i = (i + 1) & mask) {
+            if (ids[table[i] - 1] == id) {
+                return table[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private void store(long id, String name, String ipAddress, ServerStatus status) {
+        ensureCapacity(pooledLength(name) + pooledLength(ipAddress));
+        int slot = used++;
+        ids[slot] = id;
+        names[slot] = pooled(name);
+        long address = canonicalIpv4(ipAddress);
+        if (address >= 0) {
+            addresses[slot] = (int) address;
+            states[slot] = (byte) status.ordinal();
+        } else {
+            addresses[slot] = pooled(ipAddress);
+            states[slot] = (byte) (status.ordinal() | POOLED_ADDRESS);
+        }
+        insert(byId, slot, mix(Long.hashCode(id)));
+        insert(byName, slot, mix(name.hashCode()));
+        insert(byAddress, slot, addressHash(slot));
+        counts[status.ordinal()]++;
+        size++;
+    }
+
+    private void release(int slot) {
+        delete(byId, slot);
+        delete(byName, slot);
+        delete(byAddress, slot);
+        poolGarbage += entryLength(names[slot]);
+        if ((states[slot] & POOLED_ADDRESS) != 0) {
+            poolGarbage += entryLength(addresses[slot]);
+        }
+        counts[states[slot] & STATUS_MASK]--;
+        ids[slot] = 0;
+        size--;
+    }
+
+    private ServerStatus status(int slot) {
+        return STATUSES[states[slot] & STATUS_MASK];
+    }
+
+    private String address(int slot) {
+        if ((states[slot] & POOLED_ADDRESS) != 0) {
+            return string(addresses[slot]);
+        }
+        int address = addresses[slot];
+        return (address >>> 24) + "." + ((address >>> 16) & 0xFF) + "." + ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
+    }
+
+    private int addressHash(int slot) {
+        return mix((states[slot] & POOLED_ADDRESS) != 0 ? pooledHash(addresses[slot]) : addresses[slot]);
+    }
+
+    private int tableHash(int[] table, int slot) {
+        if (table == byId) {
+            return mix(Long.hashCode(ids[slot]));
+        }
+        return table == byName ? mix(pooledHash(names[slot])) : addressHash(slot);
+    }
+
+    private static void insert(int[] table, int slot, int hash) {
+        int mask = table.length - 1;
+        int i = hash & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = slot + 1;
+    }
+
+    // Backward-shift deletion: later entries of the probe run move up, so lookups never need tombstones
+    private void delete(int[] table, int slot) {
+        int mask = table.length - 1;
+        int i = tableHash(table, slot) & mask;
+        while (table[i] != slot + 1) {
+            i = (i + 1) & mask;
+        }
+        int hole = i;
+        for (int next = (hole + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+            int home = tableHash(table, table[next] - 1) & mask;
+            // The entry may fill the hole unless its home lies cyclically after the hole, up to where it sits
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private void ensureCapacity(int poolBytes) {
+        boolean slotsFull = used == ids.length;
+        boolean poolFull = poolUsed + poolBytes > pool.length;
+        if (!slotsFull && !poolFull) {
+            return;
+        }
+        // Compact in place when at least a quarter of what is held is dead; grow otherwise
+        int slotCapacity = ids.length;
+        if (slotsFull && size > slotCapacity - slotCapacity / 4) {
+            slotCapacity *= 2;
+        }
+        long livePool = (long) poolUsed - poolGarbage + poolBytes;
+        long poolCapacity = pool.length;
+        while (livePool > poolCapacity - poolCapacity / 4) {
+            poolCapacity *= 2;
+        }
+        if (poolCapacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Fleet index name pool is full");
+        }
+        rebuild(slotCapacity, (int) poolCapacity);
+    }
+
+    private void allocate(int slotCapacity, int poolCapacity) {
+        ids = new long[slotCapacity];
+        names = new int[slotCapacity];
+        addresses = new int[slotCapacity];
+        states = new byte[slotCapacity];
+        byId = new int[slotCapacity * 2];
+        byName = new int[slotCapacity * 2];
+        byAddress = new int[slotCapacity * 2];
+        pool = new byte[poolCapacity];
+        used = 0;
+        poolUsed = 0;
+        poolGarbage = 0;
+    }
+
+    private void rebuild(int slotCapacity, int poolCapacity) {
+        long[] oldIds = ids;
+        int[] oldNames = names;
+        int[] oldAddresses = addresses;
+        byte[] oldStates = states;
+        byte[] oldPool = pool;
+        int oldUsed = used;
+        allocate(slotCapacity, poolCapacity);
+        for (int old = 0; old < oldUsed; old++) {
+            if (oldIds[old] == 0) {
+                continue;
+            }
+            int slot = used++;
+            ids[slot] = oldIds[old];
+            states[slot] = oldStates[old];
+            names[slot] = copy(oldPool, oldNames[old]);
+            addresses[slot] = (oldStates[old] & POOLED_ADDRESS) != 0 ? copy(oldPool, oldAddresses[old]) : oldAddresses[old];
+            insert(byId, slot, mix(Long.hashCode(ids[slot])));
+            insert(byName, slot, mix(pooledHash(names[slot])));
+            insert(byAddress, slot, addressHash(slot));
+        }
+    }
+
+    private int copy(byte[] from, int offset) {
+        int length = entryLength(from, offset);
+        System.arraycopy(from, offset, pool, poolUsed, length);
+        poolUsed += length;
+        return poolUsed - length;
+    }
+
+    // Pool entry: a varint header of (length << 1 | utf16), then the chars as Latin-1 or big-endian UTF-16
+
+    private static int pooledLength(String value) {
+        int length = value.length();
+        int header = headerLength(length << 1);
+        return header + (isLatin1(value) ? length : length * 2);
+    }
+
+    private int pooled(String value) {
+        int offset = poolUsed;
+        boolean latin1 = isLatin1(value);
+        int length = value.length();
+        int header = (length << 1) | (latin1 ? 0 : 1);
+        int at = offset;
+        while ((header & ~0x7F) != 0) {
+            pool[at++] = (byte) ((header & 0x7F) | 0x80);
+            header >>>= 7;
+        }
+        pool[at++] = (byte) header;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (latin1) {
+                pool[at++] = (byte) c;
+            } else {
+                pool[at++] = (byte) (c >>> 8);
+                pool[at++] = (byte) c;
+            }
+        }
+        poolUsed = at;
+        return offset;
+    }
+
+    private static boolean isLatin1(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int headerLength(int header) {
+        int bytes = 1;
+        while ((header & ~0x7F) != 0) {
+            header >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private int entryLength(int offset) {
+        return entryLength(pool, offset);
+    }
+
+    private static int entryLength(byte[] pool, int offset) {
+        int header = header(pool, offset);
+        int chars = header >>> 1;
+        return headerLength(header) + ((header & 1) == 0 ? chars : chars * 2);
+    }
+
+    private static int header(byte[] pool, int offset) {
+        int header = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = pool[offset++];
+            header |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return header;
+            }
+        }
+    }
+
+    private boolean pooledEquals(int offset, String value) {
+        int header = header(pool, offset);
+        return header >>> 1 == value.length() && pooledStartsWith(offset, header, value);
+    }
+
+    private boolean pooledStartsWith(int offset, int header, String prefix) {
+        int at = offset + headerLength(header);
+        boolean utf16 = (header & 1) != 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (pooledChar(at, i, utf16) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private char pooledChar(int at, int index, boolean utf16) {
+        if (utf16) {
+            return (char) (((pool[at + 2 * index] & 0xFF) << 8) | (pool[at + 2 * index + 1] & 0xFF));
+        }
+        return (char) (pool[at + index] & 0xFF);
+    }
+
+    // Same as String.hashCode(), so a lookup can hash the string it was given
+    private int pooledHash(int offset) {
+        int header = header(pool, offset);
+        int at = offset + headerLength(header);
+        boolean utf16 = (header & 1) != 0;
+        int hash = 0;
+        for (int i = 0; i < header >>> 1; i++) {
+            hash = 31 * hash + pooledChar(at, i, utf16);
+        }
+        return hash;
+    }
+
+    private String string(int offset) {
+        int header = header(pool, offset);
+        int at = offset + headerLength(header);
+        int chars = header >>> 1;
+        if ((header & 1) == 0) {
+            return new String(pool, at, chars, StandardCharsets.ISO_8859_1);
+        }
+        return new String(pool, at, chars * 2, StandardCharsets.UTF_16BE);
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The address as an unsigned 32-bit number if it is a dotted quad exactly as it would be
+     * printed back (no leading zeros), otherwise -1.
+     */
+    static long canonicalIpv4(String address) {
+        long value = 0;
+        int octets = 0;
+        int digits = 0;
+        int octet = 0;
+        for (int i = 0; i <= address.length(); i++) {
+            char c = i < address.length() ? address.charAt(i) : '.';
+            if (c >= '0' && c <= '9') {
+                if (digits > 0 && octet == 0) {
+                    return -1;
+                }
+                octet = octet * 10 + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+                digits++;
+            } else if (c == '.' && digits > 0 && octets < 4) {
+                value = (value << 8) | octet;
+                octets++;
+                octet = 0;
+                digits = 0;
+            } else {
+                return -1;
+            }
+        }
+        return octets == 4 ? value : -1;
+    }
+}
@@ -0,0 +1,14 @@
+package com.td.server_management_td.fleet;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * In-memory {@link FleetIndex} answering lookups by name, address and name prefix, and counts by
+ * status. Off by default: it holds the whole fleet on the heap of every instance.
+ */
+@ConfigurationProperties(prefix = "server-management.fleet-index")
+public record FleetIndexProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1000") int fetchSize) {
+}
@@ -0,0 +1,123 @@
+package com.td.server_management_td.fleet;
+
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.shard.ShardingProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the {@link FleetIndex} once the application is ready and keeps it in step with committed
+ * {@link ServerChangeEvent}s. Changes committed while the load is running are held back and
+ * applied once it is done; each is idempotent, so it does not matter whether the load already saw
+ * it. Until then, and whenever {@code server-management.fleet-index} is disabled,
+ * {@link #index()} is null and lookups go to the database.
+ *
+ * <p>Like the status counters, the index only sees writes that publish a change event; rows
+ * written into the database by anything else stay invisible until the next start.
+ */
+@Component
+public class FleetIndexer implements MeterBinder {
+
+    private static final String SELECT_ALL = "select id, name, ip_address, status from servers";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FleetIndexProperties properties;
+    private volatile FleetIndex index;
+    // Guarded by this; non-null while the initial load runs
+    private List<ServerChangeEvent> pending;
+
+    public FleetIndexer(JdbcTemplate jdbcTemplate, FleetIndexProperties properties, ShardingProperties sharding) {
+        // Names are only unique within a shard, and the load would read a single one
+        if (properties.enabled() && sharding.enabled()) {
+            throw new IllegalStateException("server-management.fleet-index cannot be combined with sharding");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * The loaded index, or null while it is disabled or still loading.
+     */
+    public FleetIndex index() {
+        return index;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.enabled()) {
+            return;
+        }
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from servers", Integer.class);
+        FleetIndex loaded = new FleetIndex(rows == null ? 0 : rows);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL);
+            statement.setFetchSize(properties.fetchSize());
+            return statement;
+        }, (RowCallbackHandler) row -> loaded.put(row.getLong(1), row.getString(2), row.getString(3),
+                ServerStatus.valueOf(row.getString(4))));
+        synchronized (this) {
+            pending.forEach(event -> apply(loaded, event));
+            pending = null;
+            index = loaded;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onServerChange(ServerChangeEvent event) {
+        if (!properties.enabled()) {
+            return;
+        }
+        FleetIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    // Changes before the load starts are already part of its result
+                    if (pending != null) {
+                        pending.add(event);
+                    }
+                    return;
+                }
+                current = index;
+            }
+        }
+        apply(current, event);
+    }
+
+    private static void apply(FleetIndex index, ServerChangeEvent event) {
+        switch (event.type()) {
+            case CREATED -> index.put(event.serverId(), event.name(), event.ipAddress(), event.status());
+            case RENAMED -> index.rename(event.serverId(), event.name());
+            case STATUS_CHANGED -> index.setStatus(event.serverId(), event.status());
+            case DELETED -> index.remove(event.serverId());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!properties.enabled()) {
+            return;
+        }
+        Gauge.builder("server.fleet.index.size", this, indexer -> indexer.index == null ? 0 : indexer.index.size())
+                .description("Servers held by the in-memory fleet index")
+                .register(registry);
+        Gauge.builder("server.fleet.index.memory", this, indexer -> indexer.index == null ? 0 : indexer.index.memoryBytes())
+                .description("Heap held by the arrays of the in-memory fleet index")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
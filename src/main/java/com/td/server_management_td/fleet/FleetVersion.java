@@ -0,0 +1,154 @@
+package com.td.server_management_td.fleet;
+
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.event.ServerChangeType;
+import com.td.server_management_td.event.TransactionBuffer;
+import com.td.server_management_td.replica.ReplicaContext;
+import com.td.server_management_td.shard.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Monotonically increasing version of the whole fleet, advanced by every committed server change.
+ *
+ * <p>The listener runs inside the service transaction, like the status history. Just before
+ * commit the transaction takes the next version and stamps it on every server it changed
+ * ({@code servers.change_version}), or on a tombstone for each server it deleted
+ * ({@code server_tombstones}). A transaction may take a version and then commit after a later one.
+ * {@link #current()} therefore only reports versions below the oldest transaction still
+ * committing. A client holding version {@code v} has then seen every change stamped {@code <= v},
+ * and {@code change_version > v} finds everything it has not seen.
+ *
+ * <p>Probe results ({@code health}, {@code lastSeenAt}) are written without a change event and do
+ * not advance the version. Tombstones are kept, so deltas work from any version.
+ */
+@Component
+public class FleetVersion implements MeterBinder {
+
+    public record Snapshot(long version, Instant modifiedAt) {
+    }
+
+    /**
+     * Latest fleet version stamped in a database, for comparing a replica with the primary.
+     */
+    public static final String LATEST_VERSION = "select greatest("
+            + "(select coalesce(max(change_version), 0) from servers), "
+            + "(select coalesce(max(change_version), 0) from server_tombstones))";
+
+    private static final String STAMP = "update servers set change_version = ? where id = ?";
+    private static final String TOMBSTONE = "insert into server_tombstones (server_id, change_version) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionBuffer<Changes> changes;
+    // Guarded by this
+    private boolean loaded;
+    private long allocated;
+    private final TreeSet<Long> committing = new TreeSet<>();
+    private Snapshot current;
+
+    public FleetVersion(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changes = new TransactionBuffer<>(Changes::new, Changes::stamp, (batch, status) -> batch.complete());
+    }
+
+    /**
+     * Latest version whose changes, and all changes before it, are committed.
+     */
+    public synchronized Snapshot current() {
+        load();
+        return current;
+    }
+
+    @EventListener
+    public void onServerChange(ServerChangeEvent event) {
+        changes.add(batch -> batch.add(event));
+    }
+
+    private synchronized long allocate() {
+        load();
+        allocated++;
+        committing.add(allocated);
+        return allocated;
+    }
+
+    private synchronized void release(long version) {
+        committing.remove(version);
+        long visible = committing.isEmpty() ? allocated : committing.first() - 1;
+        if (visible > current.version()) {
+            current = new Snapshot(visible, Instant.now());
+        }
+    }
+
+    // Lazily, so the tables exist however early the first change is made. Sharded, every shard is
+    // read through its own pool: a transaction in progress holds a connection to one shard only
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        List<JdbcTemplate> shards = jdbcTemplate.getDataSource() instanceof ShardRoutingDataSource routing
+                ? routing.getShards().stream().map(JdbcTemplate::new).toList()
+                : List.of(jdbcTemplate);
+        allocated = 0;
+        for (JdbcTemplate shard : shards) {
+            // Never from a replica: a version it has not seen yet would be handed out again
+            Long max = ReplicaContext.onPrimary(() -> shard.queryForObject(LATEST_VERSION, Long.class));
+            allocated = Math.max(allocated, max == null ? 0 : max);
+        }
+        current = new Snapshot(allocated, Instant.now());
+        loaded = true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("server.fleet.version", this, fleetVersion -> fleetVersion.current().version())
+                .description("Fleet version of the latest committed server change")
+                .register(registry);
+    }
+
+    private final class Changes {
+        final Set<Long> changed = new LinkedHashSet<>();
+        final Set<Long> deleted = new LinkedHashSet<>();
+        long version;
+
+        void add(ServerChangeEvent event) {
+            if (event.type() == ServerChangeType.DELETED) {
+                changed.remove(event.serverId());
+                deleted.add(event.serverId());
+            } else {
+                changed.add(event.serverId());
+            }
+        }
+
+        void stamp() {
+            version = allocate();
+            List<Object[]> stamps = new ArrayList<>(changed.size());
+            changed.forEach(id -> stamps.add(new Object[] {version, id}));
+            List<Object[]> tombstones = new ArrayList<>(deleted.size());
+            deleted.forEach(id -> tombstones.add(new Object[] {id, version}));
+            if (!stamps.isEmpty()) {
+                jdbcTemplate.batchUpdate(STAMP, stamps);
+            }
+            if (!tombstones.isEmpty()) {
+                jdbcTemplate.batchUpdate(TOMBSTONE, tombstones);
+            }
+        }
+
+        void complete() {
+            if (version != 0) {
+                // A rolled back version is never stamped anywhere and simply leaves a gap
+                release(version);
+            }
+        }
+    }
+}
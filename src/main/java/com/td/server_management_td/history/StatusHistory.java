@@ -0,0 +1,341 @@
+package com.td.server_management_td.history;
+
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.model.StatusTransition;
+import com.td.server_management_td.repository.StatusTransitionRepository;
+import com.td.server_management_td.shard.ShardContext;
+import com.td.server_management_td.shard.ShardRoutingDataSource;
+import com.td.server_management_td.shard.SnowflakeIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timeline and uptime queries over the status history.
+ *
+ * <p>A single server's queries are range scans of its own transitions. Fleet-wide uptime would
+ * have to replay every transition in the window, so completed hours are rolled up into
+ * {@code fleet_status_hourly}: the time spent per status during the hour, its running total since
+ * the history began and the number of servers in each status at the start of the hour. A window
+ * then costs two reads of the running totals plus one aggregate over the transitions of each
+ * partial hour at its edges. The
+ * rollup runs in the background every {@link #ROLLUP_INTERVAL}; an hour is rolled up
+ * {@link #ROLLUP_DELAY} after it ends, leaving transactions that recorded a transition near its end
+ * time to commit. Queries never roll up themselves: whatever the rollup has not reached yet is read
+ * from the transitions like a partial hour, so a query is only slower, not blocked, while it catches up.
+ *
+ * <p>With sharding, a server's history lives on its shard, and every shard rolls up its own
+ * servers; fleet uptime is the sum over the shards.
+ */
+@Service
+public class StatusHistory implements DisposableBean {
+
+    static final Duration ROLLUP_DELAY = Duration.ofMinutes(1);
+    static final Duration ROLLUP_INTERVAL = Duration.ofMinutes(1);
+
+    private static final Logger log = LoggerFactory.getLogger(StatusHistory.class);
+
+    private static final Duration HOUR = Duration.ofHours(1);
+    private static final ServerStatus[] STATUSES = ServerStatus.values();
+
+    private final StatusTransitionRepository transitionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int shards;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "status-history-rollup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StatusHistory(StatusTransitionRepository transitionRepository, JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager) {
+        this.transitionRepository = transitionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = ShardRoutingDataSource.shardCount(jdbcTemplate.getDataSource());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = ROLLUP_INTERVAL.toMillis();
+        executor.scheduleWithFixedDelay(this::scheduledRollUp, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Rolls up, on every shard, each hour that ended at least {@link #ROLLUP_DELAY} ago.
+     */
+    public void rollUp() {
+        Instant until = floorHour(Instant.now().minus(ROLLUP_DELAY));
+        for (int shard = 0; shard < shards; shard++) {
+            ShardContext.run(shard, () -> rollUp(until));
+        }
+    }
+
+    private void scheduledRollUp() {
+        try {
+            rollUp();
+        } catch (RuntimeException e) {
+            // Queries stay correct without it; the next run continues from the last rolled-up hour
+            log.warn("Status history rollup failed: {}", e.getMessage());
+        }
+    }
+
+    public List<StatusTransition> timeline(long serverId, Instant from, Instant to, int limit) {
+        checkWindow(from, to);
+        return onShardOf(serverId, () -> transitionRepository.findTimeline(serverId, from, to, Limit.of(limit)), List.of());
+    }
+
+    public UptimeReport serverUptime(long serverId, Instant from, Instant to) {
+        checkWindow(from, to);
+        Instant end = min(to, Instant.now());
+        long[] millis = new long[STATUSES.length];
+        return onShardOf(serverId, () -> serverUptime(serverId, from, end, millis), UptimeReport.of(from, end, millis));
+    }
+
+    private UptimeReport serverUptime(long serverId, Instant from, Instant end, long[] millis) {
+        ServerStatus current = jdbcTemplate.query("select to_status from server_status_history "
+                        + "where server_id = ? and changed_at <= ? order by changed_at desc, id desc fetch first row only",
+                resultSet -> resultSet.next() && resultSet.getString(1) != null ? ServerStatus.valueOf(resultSet.getString(1)) : null,
+                serverId, utc(from));
+        Instant cursor = from;
+        if (from.isBefore(end)) {
+            for (StatusTransition transition : transitionRepository.findTimeline(serverId, from, end, Limit.unlimited())) {
+                if (current != null) {
+                    millis[current.ordinal()] += Duration.between(cursor, transition.getChangedAt()).toMillis();
+                }
+                cursor = transition.getChangedAt();
+                current = transition.getToStatus();
+            }
+            if (current != null) {
+                millis[current.ordinal()] += Duration.between(cursor, end).toMillis();
+            }
+        }
+        return UptimeReport.of(from, end, millis);
+    }
+
+    public UptimeReport fleetUptime(Instant from, Instant to) {
+        checkWindow(from, to);
+        Instant end = min(to, Instant.now());
+        long[] millis = new long[STATUSES.length];
+        for (int shard = 0; shard < shards; shard++) {
+            ShardContext.run(shard, () -> addFleetTime(from, end, millis));
+        }
+        return UptimeReport.of(from, end, millis);
+    }
+
+    // Adds the server-time of the current shard's servers during [from, end) to millis
+    private void addFleetTime(Instant from, Instant end, long[] millis) {
+        Instant rolledUntil = rolledUntil();
+        if (!from.isBefore(end)) {
+            return;
+        }
+        Instant fullStart = ceilHour(from);
+        Instant fullEnd = rolledUntil == null ? fullStart : min(floorHour(end), rolledUntil);
+        if (fullStart.isBefore(fullEnd)) {
+            // Two point reads of the running totals, however many hours lie in between
+            HourRollup first = hour(fullStart);
+            HourRollup last = hour(fullEnd.minus(HOUR));
+            for (int i = 0; i < millis.length; i++) {
+                millis[i] += last.cumulativeMillis[i] + last.millis[i] - first.cumulativeMillis[i];
+            }
+            if (from.isBefore(fullStart)) {
+                addPartialHour(from, fullStart, rolledUntil, millis);
+            }
+            if (fullEnd.isBefore(end)) {
+                addPartialHour(fullEnd, end, rolledUntil, millis);
+            }
+        } else {
+            addPartialHour(from, end, rolledUntil, millis);
+        }
+    }
+
+    // End of the hours rolled up so far on the current shard, or null before the first one
+    private Instant rolledUntil() {
+        OffsetDateTime last = jdbcTemplate.queryForObject("select max(hour_start) from fleet_status_hourly", OffsetDateTime.class);
+        return last == null ? null : last.toInstant().plus(HOUR);
+    }
+
+    /**
+     * Rolls up every hour that ends at or before {@code until} and returns the end of the rolled-up
+     * range (no history precedes it when nothing was rolled up yet), or null while the history is empty.
+     */
+    synchronized Instant rollUp(Instant until) {
+        OffsetDateTime last = jdbcTemplate.queryForObject("select max(hour_start) from fleet_status_hourly", OffsetDateTime.class);
+        Instant next;
+        long[] counts;
+        long[] cumulative = new long[STATUSES.length];
+        if (last == null) {
+            OffsetDateTime first = jdbcTemplate.queryForObject("select min(changed_at) from server_status_history", OffsetDateTime.class);
+            if (first == null) {
+                return null;
+            }
+            next = floorHour(first.toInstant());
+            counts = new long[STATUSES.length];
+        } else {
+            HourRollup previous = hour(last.toInstant());
+            next = last.toInstant().plus(HOUR);
+            counts = previous.serversAtStart;
+            applyTransitions(last.toInstant(), next, counts);
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] = previous.cumulativeMillis[i] + previous.millis[i];
+            }
+        }
+        while (!next.plus(HOUR).isAfter(until)) {
+            Instant hourStart = next;
+            Instant hourEnd = hourStart.plus(HOUR);
+            long[] millis = new long[STATUSES.length];
+            addServerTime(hourStart, counts, hourStart, hourEnd, millis);
+            List<Object[]> rows = new ArrayList<>(STATUSES.length);
+            for (ServerStatus status : STATUSES) {
+                int i = status.ordinal();
+                rows.add(new Object[] {utc(hourStart), status.name(), counts[i], millis[i], cumulative[i]});
+                cumulative[i] += millis[i];
+            }
+            transactionTemplate.executeWithoutResult(transaction -> jdbcTemplate.batchUpdate(
+                    "insert into fleet_status_hourly (hour_start, status, servers_at_start, server_millis, cumulative_millis) "
+                            + "values (?, ?, ?, ?, ?)",
+                    rows));
+            applyTransitions(hourStart, hourEnd, counts);
+            next = hourEnd;
+        }
+        return next;
+    }
+
+    // Adds the server-time of [from, to) to millis; [from, to) lies within one hour unless the rollup is behind
+    private void addPartialHour(Instant from, Instant to, Instant rolledUntil, long[] millis) {
+        Instant hourStart = floorHour(from);
+        long[] counts;
+        if (rolledUntil != null && hourStart.isBefore(rolledUntil)) {
+            // Hours before the first rollup hold no history and have no row
+            counts = hour(hourStart).serversAtStart;
+        } else if (rolledUntil != null) {
+            Instant lastRolled = rolledUntil.minus(HOUR);
+            counts = hour(lastRolled).serversAtStart;
+            applyTransitions(lastRolled, hourStart, counts);
+        } else {
+            // Nothing rolled up yet: the whole history is recent
+            counts = new long[STATUSES.length];
+            applyTransitions(Instant.EPOCH, hourStart, counts);
+        }
+        addServerTime(hourStart, counts, from, to, millis);
+    }
+
+    /**
+     * Adds the server-time spent in each status during {@code [from, to)} to {@code millis}, given
+     * the {@code counts} per status at {@code since <= from}. Each transition in {@code [since, to)}
+     * adds one server to its target status and removes one from its source status for the part of
+     * the window that follows it, so the whole sum is one aggregate query.
+     */
+    private void addServerTime(Instant since, long[] counts, Instant from, Instant to, long[] millis) {
+        long window = Duration.between(from, to).toMillis();
+        for (int i = 0; i < counts.length; i++) {
+            millis[i] += counts[i] * window;
+        }
+        String remaining = "datediff(millisecond, greatest(changed_at, cast(? as timestamp with time zone)), cast(? as timestamp with time zone))";
+        jdbcTemplate.query("select status, sum(millis) from ("
+                        + "select to_status as status, " + remaining + " as millis from server_status_history "
+                        + "where changed_at >= ? and changed_at < ? and to_status is not null "
+                        + "union all "
+                        + "select from_status, -" + remaining + " from server_status_history "
+                        + "where changed_at >= ? and changed_at < ? and from_status is not null"
+                        + ") group by status",
+                resultSet -> {
+                    millis[ServerStatus.valueOf(resultSet.getString(1)).ordinal()] += resultSet.getLong(2);
+                },
+                utc(from), utc(to), utc(since), utc(to), utc(from), utc(to), utc(since), utc(to));
+    }
+
+    // Applies the transitions in [from, to) to the counts per status
+    private void applyTransitions(Instant from, Instant to, long[] counts) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        jdbcTemplate.query("select status, sum(delta) from ("
+                        + "select to_status as status, 1 as delta from server_status_history "
+                        + "where changed_at >= ? and changed_at < ? and to_status is not null "
+                        + "union all "
+                        + "select from_status, -1 from server_status_history "
+                        + "where changed_at >= ? and changed_at < ? and from_status is not null"
+                        + ") group by status",
+                resultSet -> {
+                    counts[ServerStatus.valueOf(resultSet.getString(1)).ordinal()] += resultSet.getLong(2);
+                },
+                utc(from), utc(to), utc(from), utc(to));
+    }
+
+    private record HourRollup(long[] serversAtStart, long[] millis, long[] cumulativeMillis) {
+    }
+
+    // All zero for an hour without a row
+    private HourRollup hour(Instant hourStart) {
+        HourRollup rollup = new HourRollup(new long[STATUSES.length], new long[STATUSES.length], new long[STATUSES.length]);
+        jdbcTemplate.query("select status, servers_at_start, server_millis, cumulative_millis from fleet_status_hourly "
+                        + "where hour_start = ?",
+                resultSet -> {
+                    int i = ServerStatus.valueOf(resultSet.getString(1)).ordinal();
+                    rollup.serversAtStart[i] = resultSet.getLong(2);
+                    rollup.millis[i] = resultSet.getLong(3);
+                    rollup.cumulativeMillis[i] = resultSet.getLong(4);
+                },
+                utc(hourStart));
+        return rollup;
+    }
+
+    // Runs a query about one server on its shard; an id no shard can hold has no history
+    private <T> T onShardOf(long serverId, Supplier<T> work, T none) {
+        if (shards == 1) {
+            return work.get();
+        }
+        int shard = SnowflakeIdGenerator.shardOf(serverId);
+        return shard < shards ? ShardContext.get(shard, work) : none;
+    }
+
+    private static void checkWindow(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+
+    static Instant floorHour(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static Instant ceilHour(Instant instant) {
+        Instant floor = floorHour(instant);
+        return floor.equals(instant) ? floor : floor.plus(HOUR);
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,79 @@
+package com.td.server_management_td.history;
+
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.event.ServerChangeType;
+import com.td.server_management_td.event.TransactionBuffer;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.shard.ShardContext;
+import com.td.server_management_td.shard.ShardRoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends every creation, status change and deletion to {@code server_status_history}.
+ *
+ * <p>The listener runs synchronously inside the service transaction, so a history row commits or
+ * rolls back together with the change it records. Rows are buffered per transaction and inserted
+ * as one JDBC batch just before commit, so a bulk operation or an import batch costs one round
+ * trip rather than one insert per server.
+ */
+@Component
+public class StatusHistoryRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusHistoryRecorder.class);
+
+    private static final String INSERT = "insert into server_status_history (server_id, changed_at, from_status, to_status) "
+            + "values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionBuffer<List<Object[]>> pendingRows;
+
+    public StatusHistoryRecorder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pendingRows = new TransactionBuffer<>(ArrayList::new, rows -> jdbcTemplate.batchUpdate(INSERT, rows));
+    }
+
+    /**
+     * Gives servers that predate the history (an upgraded database, or rows inserted without the
+     * service layer such as the sample data) a starting entry, once, while the history is empty.
+     * With sharding, each shard's history starts on its own.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordBaseline() {
+        for (int shard = 0; shard < ShardRoutingDataSource.shardCount(jdbcTemplate.getDataSource()); shard++) {
+            ShardContext.run(shard, this::recordShardBaseline);
+        }
+    }
+
+    private void recordShardBaseline() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("select exists (select 1 from server_status_history)", Boolean.class))) {
+            return;
+        }
+        int servers = jdbcTemplate.update("insert into server_status_history (server_id, changed_at, from_status, to_status) "
+                + "select id, current_timestamp, null, status from servers");
+        if (servers > 0) {
+            log.info("Started the status history of {} existing servers", servers);
+        }
+    }
+
+    @EventListener
+    public void onServerChange(ServerChangeEvent event) {
+        if (event.type() == ServerChangeType.RENAMED) {
+            return;
+        }
+        Object[] row = {event.serverId(), event.occurredAt().atOffset(ZoneOffset.UTC), name(event.previousStatus()), name(event.status())};
+        pendingRows.add(rows -> rows.add(row));
+    }
+
+    private static String name(ServerStatus status) {
+        return status == null ? null : status.name();
+    }
+}
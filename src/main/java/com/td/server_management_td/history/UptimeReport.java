@@ -0,0 +1,27 @@
+package com.td.server_management_td.history;
+
+import com.td.server_management_td.model.ServerStatus;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Time spent per status within {@code [from, to)}. For the fleet the seconds are server-seconds,
+ * summed over every server that existed. {@code uptime} is the RUNNING share of the observed time,
+ * null when nothing was observed.
+ */
+public record UptimeReport(Instant from, Instant to, Map<ServerStatus, Double> secondsByStatus, Double uptime) {
+
+    static UptimeReport of(Instant from, Instant to, long[] millisByStatus) {
+        Map<ServerStatus, Double> seconds = new EnumMap<>(ServerStatus.class);
+        long total = 0;
+        for (ServerStatus status : ServerStatus.values()) {
+            long millis = millisByStatus[status.ordinal()];
+            seconds.put(status, millis / 1000.0);
+            total += millis;
+        }
+        Double uptime = total == 0 ? null : (double) millisByStatus[ServerStatus.RUNNING.ordinal()] / total;
+        return new UptimeReport(from, to, seconds, uptime);
+    }
+}
@@ -0,0 +1,104 @@
+package com.td.server_management_td.inventory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 style CSV: comma separated, fields optionally quoted with {@code "} and quotes doubled
+ * inside them. A first line naming {@code name} and {@code ipAddress} columns is taken as the header;
+ * without one the first two columns are name and IP address. Quoted fields cannot span lines.
+ */
+class CsvRowReader implements InventoryRowReader {
+
+    private final BufferedReader reader;
+    private int nameColumn = 0;
+    private int ipAddressColumn = 1;
+    private long lineNumber;
+    private boolean started;
+
+    CsvRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public InventoryRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields;
+            try {
+                fields = split(line);
+            } catch (IllegalArgumentException e) {
+                started = true;
+                return InventoryRow.invalid(lineNumber, e.getMessage());
+            }
+            if (!started) {
+                started = true;
+                if (readHeader(fields)) {
+                    continue;
+                }
+            }
+            if (fields.size() <= Math.max(nameColumn, ipAddressColumn)) {
+                return InventoryRow.invalid(lineNumber, "Expected " + (Math.max(nameColumn, ipAddressColumn) + 1)
+                        + " columns, found " + fields.size());
+            }
+            return InventoryRow.of(lineNumber, fields.get(nameColumn).trim(), fields.get(ipAddressColumn).trim());
+        }
+        return null;
+    }
+
+    private boolean readHeader(List<String> fields) {
+        int name = -1;
+        int ipAddress = -1;
+        for (int i = 0; i < fields.size(); i++) {
+            String column = fields.get(i).trim();
+            if (column.equalsIgnoreCase("name")) {
+                name = i;
+            } else if (column.equalsIgnoreCase("ipAddress") || column.equalsIgnoreCase("ip_address")) {
+                ipAddress = i;
+            }
+        }
+        if (name < 0 || ipAddress < 0) {
+            return false;
+        }
+        nameColumn = name;
+        ipAddressColumn = ipAddress;
+        return true;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
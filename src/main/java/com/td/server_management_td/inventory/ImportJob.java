@@ -0,0 +1,127 @@
+package com.td.server_management_td.inventory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one inventory import. Updated by the importing thread and read through
+ * {@link #status()} by pollers.
+ */
+public class ImportJob {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * A line that was not imported, with its 1-based line number in the uploaded file.
+     */
+    public record RowError(long line, String name, String ipAddress, String reason) {
+    }
+
+    public record Status(
+            String id,
+            InventoryFormat format,
+            State state,
+            long bytesTotal,
+            long bytesRead,
+            long processed,
+            long imported,
+            long rejected,
+            List<RowError> errors,
+            boolean errorsTruncated,
+            String failure,
+            Instant submittedAt,
+            Instant startedAt,
+            Instant finishedAt) {
+    }
+
+    private final String id;
+    private final InventoryFormat format;
+    private final long bytesTotal;
+    private final int maxReportedErrors;
+    private final Instant submittedAt = Instant.now();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile State state = State.QUEUED;
+    private volatile String failure;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    ImportJob(String id, InventoryFormat format, long bytesTotal, int maxReportedErrors) {
+        this.id = id;
+        this.format = format;
+        this.bytesTotal = bytesTotal;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public InventoryFormat format() {
+        return format;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    public Status status() {
+        List<RowError> reported;
+        synchronized (errors) {
+            reported = errors.stream().sorted(Comparator.comparingLong(RowError::line)).toList();
+        }
+        return new Status(id, format, state, bytesTotal, bytesRead.get(), processed.get(), imported.get(),
+                rejected.get(), reported, rejected.get() > reported.size(), failure, submittedAt, startedAt, finishedAt);
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    void addBytesRead(long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    void imported(int rows) {
+        imported.addAndGet(rows);
+        processed.addAndGet(rows);
+    }
+
+    void reject(InventoryRow row, String reason) {
+        rejected.incrementAndGet();
+        processed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(row.line(), row.name(), row.ipAddress(), reason));
+            }
+        }
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        state = State.COMPLETED;
+    }
+
+    void fail(String reason) {
+        failure = reason;
+        finishedAt = Instant.now();
+        state = State.FAILED;
+    }
+}
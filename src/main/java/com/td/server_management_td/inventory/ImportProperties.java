@@ -0,0 +1,11 @@
+package com.td.server_management_td.inventory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "server-management.import")
+public record ImportProperties(
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("1000") int maxReportedErrors,
+        @DefaultValue("100") int retainedJobs) {
+}
@@ -0,0 +1,90 @@
+package com.td.server_management_td.inventory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.service.ServerService;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the whole fleet in an {@link InventoryFormat}, streaming rows from the database as they
+ * are read. The output can be imported again; the extra {@code id} and {@code status} columns are
+ * ignored on import.
+ */
+@Component
+public class InventoryExporter {
+
+    static final String CSV_HEADER = "id,name,ipAddress,status";
+
+    private final ServerService serverService;
+    private final ObjectWriter ndjsonWriter;
+
+    public InventoryExporter(ServerService serverService, ObjectMapper objectMapper) {
+        this.serverService = serverService;
+        this.ndjsonWriter = objectMapper.writerFor(Server.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void export(InventoryFormat format, OutputStream out) throws IOException {
+        try {
+            switch (format) {
+                case CSV -> exportCsv(out);
+                case NDJSON -> exportNdjson(out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        serverService.streamServers(server -> {
+            try {
+                writer.write(String.valueOf(server.getId()));
+                writer.write(',');
+                writer.write(csvField(server.getName()));
+                writer.write(',');
+                writer.write(csvField(server.getIpAddress()));
+                writer.write(',');
+                writer.write(server.getStatus().name());
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void exportNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = ndjsonWriter.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            serverService.streamServers(server -> {
+                try {
+                    ndjsonWriter.writeValue(generator, server);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
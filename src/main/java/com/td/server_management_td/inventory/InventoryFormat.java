@@ -0,0 +1,41 @@
+package com.td.server_management_td.inventory;
+
+import org.springframework.http.MediaType;
+
+/**
+ * File formats accepted by the inventory import and produced by the export. Both carry one server
+ * per line; on import only {@code name} and {@code ipAddress} are read, other columns are ignored.
+ */
+public enum InventoryFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    InventoryFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static InventoryFormat fromMediaType(MediaType contentType) {
+        for (InventoryFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported inventory content type: " + contentType
+                + ". Use text/csv or application/x-ndjson");
+    }
+
+    public static InventoryFormat fromName(String name) {
+        for (InventoryFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported inventory format: " + name + ". Use csv or ndjson");
+    }
+}
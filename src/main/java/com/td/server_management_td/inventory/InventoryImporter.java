@@ -0,0 +1,309 @@
+package com.td.server_management_td.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.model.Ipv4Range;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.service.DuplicateServerException;
+import com.td.server_management_td.service.ServerService;
+import com.td.server_management_td.shard.ShardRoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongConsumer;
+
+/**
+ * Imports servers from CSV or NDJSON uploads as background jobs.
+ *
+ * <p>The upload is spooled to a temporary file so the request returns as soon as it is received;
+ * the job then parses the file line by line and inserts rows in JDBC batches of
+ * {@code server-management.import.batch-size}, one transaction per batch. Each insert carries its
+ * own uniqueness check ({@code INSERT ... SELECT ... WHERE NOT EXISTS} on the unique name and IP
+ * indexes), so a duplicate only skips its own row and is reported with its line number instead of
+ * failing the batch. Imported servers are STOPPED, like servers created through the API, and a
+ * CREATED event is published for each.
+ *
+ * <p>With sharding, every row is created through the {@link ServerService} instead, which gives it
+ * a shard and checks the other shards for its name and address; such imports run row by row.
+ */
+@Service
+public class InventoryImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryImporter.class);
+
+    // Matches the servers.name and servers.ip_address column length
+    static final int MAX_COLUMN_LENGTH = 255;
+
+    private static final String INSERT_IF_ABSENT = "insert into servers (name, ip_address, ip_numeric, status, version) "
+            + "select ?, ?, ?, 'STOPPED', 0 "
+            + "where not exists (select 1 from servers where name = ?) "
+            + "and not exists (select 1 from servers where ip_address = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ServerService serverService;
+    private final boolean sharded;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final ImportProperties properties;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public InventoryImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             ServerService serverService, ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                             @Qualifier("applicationTaskExecutor") Executor executor, ImportProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.serverService = serverService;
+        this.sharded = jdbcTemplate.getDataSource() instanceof ShardRoutingDataSource;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.properties = properties;
+    }
+
+    /**
+     * Spools {@code upload} to disk and queues the import. Returns once the upload has been read.
+     */
+    public ImportJob submit(InventoryFormat format, InputStream upload) throws IOException {
+        Path spool = Files.createTempFile("server-import-", "." + format.name().toLowerCase());
+        try {
+            Files.copy(upload, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format, Files.size(spool), properties.maxReportedErrors());
+        evictFinishedJobs();
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job, spool));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ImportJob> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    void run(ImportJob job, Path spool) {
+        job.start();
+        try (InputStream in = new CountingInputStream(Files.newInputStream(spool), job::addBytesRead);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            InventoryRowReader rows = InventoryRowReader.open(job.format(), reader, objectMapper);
+            List<InventoryRow> batch = new ArrayList<>(properties.batchSize());
+            InventoryRow row;
+            while ((row = rows.next()) != null) {
+                String error = row.error() != null ? row.error() : validate(row);
+                if (error != null) {
+                    job.reject(row, error);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == properties.batchSize()) {
+                    insert(job, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                insert(job, batch);
+            }
+            job.complete();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Import job {} failed", job.id(), e);
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}", spool, e);
+            }
+        }
+    }
+
+    private void insert(ImportJob job, List<InventoryRow> batch) {
+        if (sharded) {
+            createEach(job, batch);
+            return;
+        }
+        List<InventoryRow> duplicates;
+        try {
+            duplicates = transactionTemplate.execute(status -> insertBatch(batch));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer claimed a name or address between the check and the insert; settle row by row
+            duplicates = new ArrayList<>();
+            for (InventoryRow row : batch) {
+                try {
+                    duplicates.addAll(transactionTemplate.execute(status -> insertBatch(List.of(row))));
+                } catch (DataIntegrityViolationException rowViolation) {
+                    duplicates.add(row);
+                }
+            }
+        }
+        job.imported(batch.size() - duplicates.size());
+        if (!duplicates.isEmpty()) {
+            Set<String> takenNames = existingNames(duplicates);
+            for (InventoryRow duplicate : duplicates) {
+                job.reject(duplicate, duplicateReason(duplicate, takenNames.contains(duplicate.name())));
+            }
+        }
+    }
+
+    // Ids are handed out by the shard router, and only the service checks uniqueness across shards
+    private void createEach(ImportJob job, List<InventoryRow> batch) {
+        for (InventoryRow row : batch) {
+            try {
+                serverService.createServer(new Server(null, row.name(), row.ipAddress(), null));
+                job.imported(1);
+            } catch (DuplicateServerException e) {
+                job.reject(row, duplicateReason(row, "name".equals(e.getField())));
+            }
+        }
+    }
+
+    private static String duplicateReason(InventoryRow row, boolean nameTaken) {
+        return nameTaken
+                ? "A server named '" + row.name() + "' already exists"
+                : "IP address " + row.ipAddress() + " is already in use";
+    }
+
+    // Returns the rows skipped as duplicates; the rest are inserted and announced
+    private List<InventoryRow> insertBatch(List<InventoryRow> batch) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_IF_ABSENT, new String[] {"id"})) {
+                for (InventoryRow row : batch) {
+                    bind(statement, row);
+                    statement.addBatch();
+                }
+                int[] counts = statement.executeBatch();
+                List<InventoryRow> duplicates = new ArrayList<>();
+                // Keys come back in batch order, one per inserted row
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        InventoryRow row = batch.get(i);
+                        if (counts[i] == 0) {
+                            duplicates.add(row);
+                        } else if (keys.next()) {
+                            eventPublisher.publishEvent(ServerChangeEvent.created(keys.getLong(1), row.name(), row.ipAddress(), ServerStatus.STOPPED));
+                        }
+                    }
+                }
+                return duplicates;
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement statement, InventoryRow row) throws SQLException {
+        statement.setString(1, row.name());
+        statement.setString(2, row.ipAddress());
+        Long ipNumeric = Ipv4Range.toNumeric(row.ipAddress());
+        if (ipNumeric == null) {
+            statement.setNull(3, Types.BIGINT);
+        } else {
+            statement.setLong(3, ipNumeric);
+        }
+        statement.setString(4, row.name());
+        statement.setString(5, row.ipAddress());
+    }
+
+    private Set<String> existingNames(List<InventoryRow> rows) {
+        List<String> names = rows.stream().map(InventoryRow::name).toList();
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "select name from servers where name in (:names)", Map.of("names", names), String.class));
+    }
+
+    private static String validate(InventoryRow row) {
+        if (row.name() == null || row.name().isEmpty()) {
+            return "Server name is required";
+        }
+        if (row.ipAddress() == null || row.ipAddress().isEmpty()) {
+            return "IP address is required";
+        }
+        if (row.name().length() > MAX_COLUMN_LENGTH || row.ipAddress().length() > MAX_COLUMN_LENGTH) {
+            return "Name and IP address must be at most " + MAX_COLUMN_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    // Keeps memory bounded by forgetting the oldest finished jobs; running jobs are never evicted
+    private void evictFinishedJobs() {
+        int excess = jobs.size() - properties.retainedJobs() + 1;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(ImportJob::isFinished)
+                .sorted(Comparator.comparing(ImportJob::finishedAt))
+                .limit(excess)
+                .toList()
+                .forEach(job -> jobs.remove(job.id()));
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final LongConsumer counter;
+
+        CountingInputStream(InputStream in, LongConsumer counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.accept(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                counter.accept(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.td.server_management_td.inventory;
+
+/**
+ * One server read from an import file. {@code error} is set when the line could not be parsed.
+ */
+record InventoryRow(long line, String name, String ipAddress, String error) {
+
+    static InventoryRow of(long line, String name, String ipAddress) {
+        return new InventoryRow(line, name, ipAddress, null);
+    }
+
+    static InventoryRow invalid(long line, String error) {
+        return new InventoryRow(line, null, null, error);
+    }
+}
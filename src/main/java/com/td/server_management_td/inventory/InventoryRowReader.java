@@ -0,0 +1,25 @@
+package com.td.server_management_td.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads an import file one line at a time, so memory use does not depend on the file size.
+ * A malformed line yields an {@link InventoryRow#invalid invalid} row and reading continues.
+ */
+interface InventoryRowReader {
+
+    /**
+     * Returns the next row, or null at the end of the input. Blank lines are skipped.
+     */
+    InventoryRow next() throws IOException;
+
+    static InventoryRowReader open(InventoryFormat format, BufferedReader reader, ObjectMapper objectMapper) {
+        return switch (format) {
+            case CSV -> new CsvRowReader(reader);
+            case NDJSON -> new NdjsonRowReader(reader, objectMapper);
+        };
+    }
+}
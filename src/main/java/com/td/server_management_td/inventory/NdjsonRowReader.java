@@ -0,0 +1,51 @@
+package com.td.server_management_td.inventory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * One JSON object per line, as written by the NDJSON export and {@code GET /api/servers/stream}.
+ * Each line is parsed on its own so a malformed line is reported without losing the rest of the file.
+ */
+class NdjsonRowReader implements InventoryRowReader {
+
+    private record Fields(String name, String ipAddress) {
+    }
+
+    private final BufferedReader reader;
+    private final ObjectReader fieldsReader;
+    private long lineNumber;
+
+    NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.fieldsReader = objectMapper.readerFor(Fields.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public InventoryRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Fields fields = fieldsReader.readValue(line);
+                return InventoryRow.of(lineNumber, trim(fields.name()), trim(fields.ipAddress()));
+            } catch (JsonProcessingException e) {
+                return InventoryRow.invalid(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+}
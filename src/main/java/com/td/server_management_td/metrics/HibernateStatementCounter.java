@@ -0,0 +1,36 @@
+package com.td.server_management_td.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is active.
+ * Registered as Hibernate's statement inspector; it never rewrites the SQL. Statements sent through
+ * {@code JdbcTemplate} or plain JDBC (history, outbox, write-behind flushes, imports) bypass
+ * Hibernate and are not counted.
+ */
+public class HibernateStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> current = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = current.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        current.set(new int[1]);
+    }
+
+    /**
+     * Ends the count on this thread and returns it, or -1 if none was active.
+     */
+    public int stop() {
+        int[] count = current.get();
+        current.remove();
+        return count == null ? -1 : count[0];
+    }
+}
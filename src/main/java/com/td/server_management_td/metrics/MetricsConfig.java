@@ -0,0 +1,34 @@
+package com.td.server_management_td.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires per-request SQL statement counting. Endpoint latency, repository timers and Hikari pool
+ * metrics come from Spring Boot's auto-configuration; see {@code management.metrics.*} in
+ * application.properties for their histograms.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    HibernateStatementCounter statementCounter() {
+        return new HibernateStatementCounter();
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer statementCounterCustomizer(HibernateStatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    StatementMetricsInterceptor statementMetricsInterceptor(
+            HibernateStatementCounter statementCounter, MeterRegistry meterRegistry,
+            @Value("${server-management.metrics.statement-warn-threshold:20}") int warnThreshold) {
+        return new StatementMetricsInterceptor(statementCounter, meterRegistry, warnThreshold);
+    }
+}
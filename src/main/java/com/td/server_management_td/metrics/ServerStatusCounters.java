@@ -0,0 +1,109 @@
+package com.td.server_management_td.metrics;
+
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.repository.StatusCount;
+import com.td.server_management_td.shard.ShardContext;
+import com.td.server_management_td.shard.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number of servers per status, published as the {@code servers} gauge tagged with {@code status}.
+ *
+ * <p>The counts are loaded with a single group-by query per shard once the application is ready
+ * (after the sample data is seeded) and from then on maintained from committed {@link ServerChangeEvent}s,
+ * so a scrape never touches the database. Changes that arrive while the counts load are held back and
+ * applied after them. Rows written outside the service layer are not seen.
+ */
+@Component
+public class ServerStatusCounters implements MeterBinder {
+
+    private final ServerRepository serverRepository;
+    private final int shards;
+    private final Map<ServerStatus, AtomicLong> counts = new EnumMap<>(ServerStatus.class);
+    private volatile boolean initialized;
+    // Guarded by this; non-null while the initial load runs
+    private List<ServerChangeEvent> pending;
+
+    public ServerStatusCounters(ServerRepository serverRepository, DataSource dataSource) {
+        this.serverRepository = serverRepository;
+        this.shards = ShardRoutingDataSource.shardCount(dataSource);
+        for (ServerStatus status : ServerStatus.values()) {
+            counts.put(status, new AtomicLong());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        Map<ServerStatus, Long> loaded = new EnumMap<>(ServerStatus.class);
+        for (int shard = 0; shard < shards; shard++) {
+            for (StatusCount count : ShardContext.get(shard, serverRepository::countGroupedByStatus)) {
+                loaded.merge(count.getStatus(), count.getCount(), Long::sum);
+            }
+        }
+        synchronized (this) {
+            loaded.forEach((status, count) -> counts.get(status).addAndGet(count));
+            pending.forEach(this::apply);
+            pending = null;
+            initialized = true;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onServerChange(ServerChangeEvent event) {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    // Changes before the load starts are already part of its result
+                    if (pending != null) {
+                        pending.add(event);
+                    }
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    private void apply(ServerChangeEvent event) {
+        switch (event.type()) {
+            case CREATED -> counts.get(event.status()).incrementAndGet();
+            case STATUS_CHANGED -> {
+                counts.get(event.previousStatus()).decrementAndGet();
+                counts.get(event.status()).incrementAndGet();
+            }
+            case DELETED -> counts.get(event.previousStatus()).decrementAndGet();
+            case RENAMED -> {
+            }
+        }
+    }
+
+    public long count(ServerStatus status) {
+        return counts.get(status).get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counts.forEach((status, count) -> Gauge.builder("servers", count, AtomicLong::get)
+                .description("Registered servers by status")
+                .tag("status", status.name())
+                .register(registry));
+    }
+}
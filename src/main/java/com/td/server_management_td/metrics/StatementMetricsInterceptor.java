@@ -0,0 +1,67 @@
+package com.td.server_management_td.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records how many SQL statements Hibernate issued for each request as
+ * {@code http.server.requests.hibernate.statements}, tagged like {@code http.server.requests}, and
+ * logs requests above a threshold as likely N+1 queries. Only ORM statements are counted; see
+ * {@link HibernateStatementCounter}.
+ * Work done by an async request after the handler returns (streaming responses) is not counted.
+ */
+public class StatementMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementMetricsInterceptor.class);
+
+    private final HibernateStatementCounter statementCounter;
+    private final MeterRegistry registry;
+    private final int warnThreshold;
+
+    public StatementMetricsInterceptor(HibernateStatementCounter statementCounter, MeterRegistry registry, int warnThreshold) {
+        this.statementCounter = statementCounter;
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            statementCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statementCounter.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int statements = statementCounter.stop();
+        if (statements < 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.hibernate.statements")
+                .description("SQL statements issued through Hibernate per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 50)
+                .register(registry)
+                .record(statements);
+        if (statements > warnThreshold) {
+            log.warn("{} {} issued {} SQL statements through Hibernate", request.getMethod(), uri, statements);
+        }
+    }
+}
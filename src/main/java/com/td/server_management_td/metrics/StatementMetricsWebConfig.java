@@ -0,0 +1,22 @@
+package com.td.server_management_td.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Kept apart from MetricsConfig so web slices without a meter registry can still load it
+@Configuration
+public class StatementMetricsWebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<StatementMetricsInterceptor> interceptor;
+
+    public StatementMetricsWebConfig(ObjectProvider<StatementMetricsInterceptor> interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        interceptor.ifAvailable(statementMetrics -> registry.addInterceptor(statementMetrics).addPathPatterns("/api/**"));
+    }
+}
@@ -0,0 +1,18 @@
+package com.td.server_management_td.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identity column id that keeps a value assigned before persisting. Unsharded, the database
+ * numbers new rows; sharded, ids come from the application so they are unique across shards.
+ */
+@IdGeneratorType(AssignableIdentityGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface AssignableIdentity {
+}
@@ -0,0 +1,34 @@
+package com.td.server_management_td.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.IdentityGenerator;
+
+/**
+ * {@link IdentityGenerator} that lets an id set on the entity through: such rows are inserted with
+ * the id column, all others leave it to the identity column.
+ */
+public class AssignableIdentityGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return true;
+    }
+
+    @Override
+    public boolean generatedOnExecution(Object owner, SharedSessionContractImplementor session) {
+        return session.getEntityPersister(null, owner).getIdentifier(owner, session) == null;
+    }
+
+    // Only called for entities that arrive with an id
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return currentValue;
+    }
+}
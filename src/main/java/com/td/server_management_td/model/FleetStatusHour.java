@@ -0,0 +1,48 @@
+package com.td.server_management_td.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Fleet-wide time spent in one status during one completed hour, rolled up from the status
+ * history so uptime over months reads a few thousand rows instead of every transition.
+ * {@code serversAtStart} is the number of servers in the status when the hour began.
+ */
+@Entity
+@Table(name = "fleet_status_hourly")
+@IdClass(FleetStatusHour.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetStatusHour {
+
+    @Id
+    private Instant hourStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private ServerStatus status;
+
+    @Column(nullable = false)
+    private long serversAtStart;
+
+    @Column(nullable = false)
+    private long serverMillis;
+
+    // Server-time spent in the status from the start of the history up to hourStart
+    @Column(nullable = false)
+    private long cumulativeMillis;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Instant hourStart;
+        private ServerStatus status;
+    }
+}
@@ -0,0 +1,59 @@
+package com.td.server_management_td.model;
+
+/**
+ * An inclusive range of IPv4 addresses in their numeric (unsigned 32-bit) form, as stored in
+ * {@code servers.ip_numeric}. Addresses that are not dotted-quad IPv4 have no numeric form.
+ */
+public record Ipv4Range(long first, long last) {
+
+    /**
+     * Parses CIDR notation such as {@code 10.2.0.0/16}; a bare address is a /32.
+     */
+    public static Ipv4Range parseCidr(String cidr) {
+        int slash = cidr.indexOf('/');
+        Long address = toNumeric(slash < 0 ? cidr : cidr.substring(0, slash));
+        if (address == null) {
+            throw new IllegalArgumentException("Invalid IPv4 CIDR range: " + cidr);
+        }
+        int prefixLength;
+        try {
+            prefixLength = slash < 0 ? 32 : Integer.parseInt(cidr.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid IPv4 CIDR range: " + cidr);
+        }
+        if (prefixLength < 0 || prefixLength > 32) {
+            throw new IllegalArgumentException("Invalid IPv4 CIDR range: " + cidr);
+        }
+        long hostMask = (1L << (32 - prefixLength)) - 1;
+        long first = address & ~hostMask & 0xFFFFFFFFL;
+        return new Ipv4Range(first, first | hostMask);
+    }
+
+    /**
+     * Returns the numeric form of a dotted-quad IPv4 address, or null for anything else.
+     */
+    public static Long toNumeric(String address) {
+        if (address == null) {
+            return null;
+        }
+        long value = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = 0; i <= address.length(); i++) {
+            char c = i < address.length() ? address.charAt(i) : '.';
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return null;
+                }
+            } else if (c == '.' && octet >= 0 && octets < 4) {
+                value = (value << 8) | octet;
+                octets++;
+                octet = -1;
+            } else {
+                return null;
+            }
+        }
+        return octets == 4 ? value : null;
+    }
+}
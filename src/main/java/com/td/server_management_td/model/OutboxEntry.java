@@ -0,0 +1,38 @@
+package com.td.server_management_td.model;
+
+import com.td.server_management_td.event.ServerChangeType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A server change event waiting in the transactional outbox. Rows are written with plain JDBC by
+ * {@code OutboxWriter} and deleted by {@code OutboxRelay} once every sink has accepted them; the
+ * entity only describes the table.
+ */
+@Entity
+@Table(name = "server_outbox")
+@Data
+@NoArgsConstructor
+public class OutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long serverId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ServerChangeType eventType;
+
+    // The ServerChangeEvent as JSON
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -1,32 +1,134 @@
 package com.td.server_management_td.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "servers")
-@Data
+@Table(name = "servers", indexes = {
+        @Index(name = "idx_servers_status_id", columnList = "status, id"),
+        @Index(name = "idx_servers_ip_numeric", columnList = "ip_numeric"),
+        @Index(name = "idx_servers_change_version", columnList = "change_version")
+}, uniqueConstraints = {
+        // Named as in V1, so duplicates are recognised whichever way the schema was created
+        @UniqueConstraint(name = Server.NAME_CONSTRAINT, columnNames = "name"),
+        @UniqueConstraint(name = Server.IP_ADDRESS_CONSTRAINT, columnNames = "ip_address")
+})
+// In the second-level cache when server-management.entity-cache is enabled. ipAddress is the natural id
+// because it never changes once created; a rename would have to move the name's cache entry too
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Server.CACHE_REGION)
+@NaturalIdCache(region = Server.NATURAL_ID_CACHE_REGION)
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
-@AllArgsConstructor
 public class Server {
 
+    public static final String NAME_CONSTRAINT = "uk_servers_name";
+    public static final String IP_ADDRESS_CONSTRAINT = "uk_servers_ip_address";
+    public static final String CACHE_REGION = "servers";
+    public static final String NATURAL_ID_CACHE_REGION = "servers-by-ip-address";
+
+    // Read-only so that only the sharding layer, never a client, chooses the id of a new server
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableIdentity
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    // Spelled out because Hibernate only marks the column identity for @GeneratedValue(IDENTITY); matches V1
+    @Column(columnDefinition = "bigint generated by default as identity")
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     @NotBlank(message = "Server name is required")
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @NaturalId
+    @Column(nullable = false)
     @NotBlank(message = "IP address is required")
     private String ipAddress;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ServerStatus status;
+
+    @Version
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    // Numeric form of an IPv4 ipAddress so CIDR filters become index range scans; null for other addresses
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "ip_numeric")
+    private Long ipNumeric;
+
+    // Probe results are written with plain JDBC by the probe engine; Hibernate never writes these columns
+    @Enumerated(EnumType.STRING)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Setter(AccessLevel.NONE)
+    @Column(insertable = false, updatable = false)
+    private ServerHealth health;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Setter(AccessLevel.NONE)
+    @Column(insertable = false, updatable = false)
+    private Instant lastSeenAt;
+
+    // Fleet version of the last change, stamped with plain JDBC by FleetVersion when a change commits
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long changeVersion;
+
+    public Server(Long id, String name, String ipAddress, ServerStatus status) {
+        this.id = id;
+        this.name = name;
+        this.ipAddress = ipAddress;
+        this.status = status;
+    }
+
+    /**
+     * Detached copy with another status and version, describing a write that is not flushed yet.
+     */
+    public Server withStatus(ServerStatus status, Long version) {
+        Server copy = new Server(id, name, ipAddress, status);
+        copy.version = version;
+        copy.ipNumeric = ipNumeric;
+        copy.health = health;
+        copy.lastSeenAt = lastSeenAt;
+        return copy;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void deriveIpNumeric() {
+        ipNumeric = Ipv4Range.toNumeric(ipAddress);
+    }
+
+    // Entity identity: equal when both carry the same id. The hash ignores the id so that it does not
+    // change when persisting assigns one, and neither method reads every column as Lombok's would.
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof Server server && id != null && id.equals(server.id));
+    }
+
+    @Override
+    public int hashCode() {
+        return Server.class.hashCode();
+    }
 }
 
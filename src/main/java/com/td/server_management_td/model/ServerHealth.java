@@ -0,0 +1,11 @@
+package com.td.server_management_td.model;
+
+/**
+ * Result of the latest TCP probe of a server's address, independent of its operator-set {@link ServerStatus}.
+ */
+public enum ServerHealth {
+    /** A configured port accepted a connection. */
+    REACHABLE,
+    /** No configured port accepted a connection within the connect timeout. */
+    UNREACHABLE
+}
@@ -1,7 +1,45 @@
 package com.td.server_management_td.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 public enum ServerStatus {
+    // Stored by name, never by ordinal; a new state also needs a migration of the servers.status enum column
     STOPPED,
-    RUNNING
-}
+    RUNNING,
+    STARTING,
+    STOPPING;
+
+    private static final Map<ServerStatus, List<ServerStatus>> SOURCES = new EnumMap<>(ServerStatus.class);
 
+    static {
+        for (ServerStatus target : values()) {
+            List<ServerStatus> sources = new ArrayList<>();
+            for (ServerStatus source : values()) {
+                if (source.canTransitionTo(target)) {
+                    sources.add(source);
+                }
+            }
+            SOURCES.put(target, Collections.unmodifiableList(sources));
+        }
+    }
+
+    public boolean canTransitionTo(ServerStatus target) {
+        return switch (this) {
+            case STOPPED -> target == STARTING || target == RUNNING;
+            case STARTING -> target == RUNNING || target == STOPPED;
+            case RUNNING -> target == STOPPING || target == STOPPED;
+            case STOPPING -> target == STOPPED || target == RUNNING;
+        };
+    }
+
+    /**
+     * States from which {@code target} can be reached, stable states first.
+     */
+    public static List<ServerStatus> sourcesOf(ServerStatus target) {
+        return SOURCES.get(target);
+    }
+}
@@ -0,0 +1,24 @@
+package com.td.server_management_td.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marks a deleted server with the fleet version of its deletion, for {@code GET /api/servers?since=}
+ * deltas. Written with plain JDBC by {@code FleetVersion}; the entity only describes the table.
+ */
+@Entity
+@Table(name = "server_tombstones", indexes = @Index(name = "idx_server_tombstones_change_version", columnList = "change_version"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServerTombstone {
+
+    @Id
+    private Long serverId;
+
+    @Column(nullable = false)
+    private Long changeVersion;
+}
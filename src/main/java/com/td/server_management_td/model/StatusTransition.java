@@ -0,0 +1,40 @@
+package com.td.server_management_td.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One entry of the append-only status history. {@code fromStatus} is null when the server was
+ * created and {@code toStatus} when it was deleted. Rows are only ever inserted, by
+ * {@code StatusHistoryRecorder} in the transaction that made the change.
+ */
+@Entity
+@Table(name = "server_status_history", indexes = {
+        @Index(name = "idx_status_history_server_time", columnList = "server_id, changed_at"),
+        @Index(name = "idx_status_history_time", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusTransition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long serverId;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    @Enumerated(EnumType.STRING)
+    private ServerStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    private ServerStatus toStatus;
+}
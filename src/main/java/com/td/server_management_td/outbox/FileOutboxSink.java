@@ -0,0 +1,71 @@
+package com.td.server_management_td.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends outbox messages as NDJSON to {@code server-management.outbox.file}. A batch is forced to
+ * disk before it is acknowledged, so a message removed from the outbox is never only in the page
+ * cache. A batch that fails part-way is cut off again before the relay retries it; a batch that was
+ * written but whose acknowledgement was lost appears again with the same ids.
+ */
+@Component
+@ConditionalOnProperty(prefix = "server-management.outbox", name = "sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink, DisposableBean {
+
+    private final Path file;
+    private final ObjectWriter messageWriter;
+    private FileChannel channel;
+
+    public FileOutboxSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        this.file = properties.file();
+        this.messageWriter = objectMapper.writerFor(OutboxMessage.class);
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> messages) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (OutboxMessage message : messages) {
+            lines.write(messageWriter.writeValueAsBytes(message));
+            lines.write('\n');
+        }
+        if (channel == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Drop a partly written batch so the retry does not follow a torn line
+            channel.truncate(size);
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.td.server_management_td.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Logs every outbox message as one JSON line on the {@code server-outbox} logger.
+ */
+@Component
+@ConditionalOnProperty(prefix = "server-management.outbox", name = "sink", havingValue = "log", matchIfMissing = true)
+public class LogOutboxSink implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger("server-outbox");
+
+    private final ObjectWriter messageWriter;
+
+    public LogOutboxSink(ObjectMapper objectMapper) {
+        this.messageWriter = objectMapper.writerFor(OutboxMessage.class);
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> messages) throws Exception {
+        for (OutboxMessage message : messages) {
+            log.info("{}", messageWriter.writeValueAsString(message));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.td.server_management_td.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.td.server_management_td.event.ServerChangeType;
+
+import java.time.Instant;
+
+/**
+ * One outbox row as handed to an {@link OutboxSink}. {@code id} increases with every message and
+ * identifies redeliveries; {@code payload} is the {@code ServerChangeEvent} as JSON.
+ */
+public record OutboxMessage(long id, long serverId, ServerChangeType type, @JsonRawValue String payload, Instant createdAt) {
+}
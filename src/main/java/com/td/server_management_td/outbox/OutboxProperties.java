@@ -0,0 +1,26 @@
+package com.td.server_management_td.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "server-management.outbox")
+public record OutboxProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("log") Sink sink,
+        @DefaultValue("./data/outbox.ndjson") Path file,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("500ms") Duration pollInterval,
+        @DefaultValue("30s") Duration maxBackoff) {
+
+    /**
+     * Built-in sink to register. NONE leaves delivery to application-provided {@link OutboxSink} beans.
+     */
+    public enum Sink {
+        LOG,
+        FILE,
+        NONE
+    }
+}
@@ -0,0 +1,175 @@
+package com.td.server_management_td.outbox;
+
+import com.td.server_management_td.event.ServerChangeType;
+import com.td.server_management_td.shard.ShardRoutingDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Drains {@code server_outbox} to every {@link OutboxSink} on one background thread.
+ *
+ * <p>The oldest {@code batch-size} messages are read in id order, handed to each sink in turn and
+ * deleted only after all of them returned, so a crash or a failing sink leads to redelivery rather
+ * than loss. A failed batch is retried with a back-off doubling up to {@code max-backoff} and
+ * blocks the ones behind it, which keeps every server's messages in order. A full batch is followed
+ * by the next one immediately; otherwise the relay polls every {@code poll-interval}. Only one relay
+ * may run per database. With sharding, the outbox of every shard is drained in turn.
+ */
+@Component
+@ConditionalOnProperty(prefix = "server-management.outbox", name = "enabled", havingValue = "true")
+public class OutboxRelay implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final List<JdbcTemplate> shards;
+    private final List<OutboxSink> sinks;
+    private final OutboxProperties properties;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    // Relay thread only
+    private int consecutiveFailures;
+    // Per shard, creation time of the oldest undelivered message as of the last poll, null when none was pending
+    private final AtomicReferenceArray<Instant> oldestPending;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, ObjectProvider<OutboxSink> sinks, OutboxProperties properties) {
+        this.shards = jdbcTemplate.getDataSource() instanceof ShardRoutingDataSource routing
+                ? routing.getShards().stream().map(JdbcTemplate::new).toList()
+                : List.of(jdbcTemplate);
+        this.oldestPending = new AtomicReferenceArray<>(shards.size());
+        this.sinks = sinks.orderedStream().toList();
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (sinks.isEmpty()) {
+            log.warn("No outbox sinks are configured; server change events accumulate in server_outbox");
+        }
+        executor.execute(this::run);
+    }
+
+    private void run() {
+        long delayMillis;
+        try {
+            int relayed = relayBatch();
+            consecutiveFailures = 0;
+            delayMillis = relayed == properties.batchSize() ? 0 : properties.pollInterval().toMillis();
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            consecutiveFailures++;
+            delayMillis = backoffMillis(properties.pollInterval(), properties.maxBackoff(), consecutiveFailures);
+            log.warn("Outbox delivery failed {} time(s) in a row, retrying in {} ms", consecutiveFailures, delayMillis, e);
+        }
+        if (!executor.isShutdown()) {
+            executor.schedule(this::run, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Delivers the oldest pending batch to every sink and deletes it. Returns the number of
+     * messages relayed.
+     */
+    int relayBatch() throws Exception {
+        int relayed = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            relayed = Math.max(relayed, relayBatch(shard));
+        }
+        return relayed;
+    }
+
+    private int relayBatch(int shard) throws Exception {
+        JdbcTemplate jdbcTemplate = shards.get(shard);
+        List<OutboxMessage> batch = jdbcTemplate.query(
+                "select id, server_id, event_type, payload, created_at from server_outbox order by id fetch first ? rows only",
+                (resultSet, rowNum) -> new OutboxMessage(
+                        resultSet.getLong(1),
+                        resultSet.getLong(2),
+                        ServerChangeType.valueOf(resultSet.getString(3)),
+                        resultSet.getString(4),
+                        resultSet.getObject(5, OffsetDateTime.class).toInstant()),
+                properties.batchSize());
+        oldestPending.set(shard, batch.isEmpty() ? null : batch.get(0).createdAt());
+        if (batch.isEmpty() || sinks.isEmpty()) {
+            return 0;
+        }
+        for (OutboxSink sink : sinks) {
+            sink.deliver(batch);
+        }
+        jdbcTemplate.batchUpdate("delete from server_outbox where id = ?",
+                batch.stream().map(message -> new Object[] {message.id()}).toList());
+        delivered.addAndGet(batch.size());
+        if (batch.size() < properties.batchSize()) {
+            oldestPending.set(shard, null);
+        }
+        return batch.size();
+    }
+
+    static long backoffMillis(Duration pollInterval, Duration maxBackoff, int failures) {
+        long cap = Math.max(pollInterval.toMillis(), maxBackoff.toMillis());
+        long delay = Math.max(1, pollInterval.toMillis());
+        for (int i = 1; i < failures && delay < cap; i++) {
+            delay = Math.min(cap, delay * 2);
+        }
+        return Math.min(cap, delay);
+    }
+
+    /**
+     * Age of the oldest undelivered message, zero when the outbox was empty at the last poll.
+     */
+    public Duration lag() {
+        Instant oldest = null;
+        for (int shard = 0; shard < oldestPending.length(); shard++) {
+            Instant pending = oldestPending.get(shard);
+            if (pending != null && (oldest == null || pending.isBefore(oldest))) {
+                oldest = pending;
+            }
+        }
+        return oldest == null ? Duration.ZERO : Duration.between(oldest, Instant.now());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("server.outbox.lag", this, relay -> relay.lag().toMillis() / 1000.0)
+                .description("Age of the oldest server change event not yet delivered by the outbox relay")
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("server.outbox.delivered", delivered, AtomicLong::get)
+                .description("Server change events delivered to every outbox sink")
+                .register(registry);
+        FunctionCounter.builder("server.outbox.failures", failures, AtomicLong::get)
+                .description("Failed outbox delivery attempts")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
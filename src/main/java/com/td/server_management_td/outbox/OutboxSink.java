@@ -0,0 +1,20 @@
+package com.td.server_management_td.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of outbox messages, such as a CMDB sync or an alerting hook. Every {@code OutboxSink}
+ * bean receives every message.
+ *
+ * <p>Delivery is at-least-once: a batch is retried until every sink accepts it, so a sink can see a
+ * message again after a failure (its own or another sink's) or a restart and should skip ids it
+ * has already handled. Messages of one server always arrive in the order they were written.
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers a batch, ordered by id. Returning normally acknowledges the whole batch; throwing
+     * makes the relay retry it after a back-off.
+     */
+    void deliver(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,51 @@
+package com.td.server_management_td.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.event.TransactionBuffer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes every {@link ServerChangeEvent} to {@code server_outbox} in the transaction that made the
+ * change, so a committed change always has its message and a rolled-back one never does.
+ *
+ * <p>Rows are buffered per transaction and inserted as one JDBC batch just before commit. While
+ * that runs the transaction still holds the changed servers' row locks, so a later change of the
+ * same server always gets a higher id: the relay's id order is the per-server change order.
+ */
+@Component
+@ConditionalOnProperty(prefix = "server-management.outbox", name = "enabled", havingValue = "true")
+public class OutboxWriter {
+
+    private static final String INSERT = "insert into server_outbox (server_id, event_type, payload, created_at) values (?, ?, ?, ?)";
+
+    private final ObjectWriter eventWriter;
+    private final TransactionBuffer<List<Object[]>> pendingRows;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.eventWriter = objectMapper.writerFor(ServerChangeEvent.class);
+        this.pendingRows = new TransactionBuffer<>(ArrayList::new, rows -> jdbcTemplate.batchUpdate(INSERT, rows));
+    }
+
+    @EventListener
+    public void onServerChange(ServerChangeEvent event) {
+        Object[] row;
+        try {
+            row = new Object[] {event.serverId(), event.type().name(), eventWriter.writeValueAsString(event),
+                    event.occurredAt().atOffset(ZoneOffset.UTC)};
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        pendingRows.add(rows -> rows.add(row));
+    }
+}
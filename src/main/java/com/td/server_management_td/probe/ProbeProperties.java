@@ -0,0 +1,20 @@
+package com.td.server_management_td.probe;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "server-management.probe")
+public record ProbeProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("22") List<Integer> ports,
+        @DefaultValue("1m") Duration interval,
+        @DefaultValue("0.1") double jitter,
+        @DefaultValue("30m") Duration maxBackoff,
+        @DefaultValue("1s") Duration connectTimeout,
+        @DefaultValue("2000") int maxInFlight,
+        @DefaultValue("1000") int writeBatchSize,
+        @DefaultValue("5s") Duration flushInterval) {
+}
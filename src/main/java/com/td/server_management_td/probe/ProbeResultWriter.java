@@ -0,0 +1,103 @@
+package com.td.server_management_td.probe;
+
+import com.td.server_management_td.cache.ServerCacheInvalidator;
+import com.td.server_management_td.model.ServerHealth;
+import com.td.server_management_td.shard.ShardContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Buffers probe results and writes them in JDBC batches, one transaction per flush.
+ *
+ * <p>A reachable result refreshes {@code last_seen_at}; an unreachable one is only handed in when
+ * the health changes, so a dead host costs one write rather than one per probe. Several results
+ * for the same server within a flush collapse into the latest. The writes bypass Hibernate and do
+ * not bump {@code version}, so probing never invalidates a client's ETag; they do evict the
+ * servers from Hibernate's second-level cache. With sharding, a flush commits once per shard.
+ */
+class ProbeResultWriter {
+
+    private record Result(int shard, ServerHealth health, Instant seenAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final ServerCacheInvalidator cacheInvalidator;
+    private final Map<Long, Result> pending = new LinkedHashMap<>();
+
+    ProbeResultWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, int batchSize,
+                      ServerCacheInvalidator cacheInvalidator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    void reachable(int shard, long serverId, Instant seenAt) {
+        add(serverId, new Result(shard, ServerHealth.REACHABLE, seenAt));
+    }
+
+    void unreachable(int shard, long serverId) {
+        add(serverId, new Result(shard, ServerHealth.UNREACHABLE, null));
+    }
+
+    int pending() {
+        return pending.size();
+    }
+
+    /**
+     * Writes all buffered results and returns how many servers were updated.
+     */
+    int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, Map<Long, Result>> byShard = new TreeMap<>();
+        pending.forEach((id, result) -> byShard.computeIfAbsent(result.shard(), shard -> new LinkedHashMap<>()).put(id, result));
+        pending.clear();
+        int written = 0;
+        for (Map.Entry<Integer, Map<Long, Result>> shard : byShard.entrySet()) {
+            written += ShardContext.get(shard.getKey(), () -> write(shard.getValue()));
+        }
+        return written;
+    }
+
+    private int write(Map<Long, Result> results) {
+        List<Object[]> seen = new ArrayList<>();
+        List<Object[]> lost = new ArrayList<>();
+        List<Long> ids = new ArrayList<>(results.keySet());
+        results.forEach((id, result) -> {
+            if (result.health() == ServerHealth.REACHABLE) {
+                seen.add(new Object[] {result.seenAt().atOffset(ZoneOffset.UTC), id});
+            } else {
+                lost.add(new Object[] {id});
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!seen.isEmpty()) {
+                jdbcTemplate.batchUpdate("update servers set health = 'REACHABLE', last_seen_at = ? where id = ?", seen);
+            }
+            if (!lost.isEmpty()) {
+                jdbcTemplate.batchUpdate("update servers set health = 'UNREACHABLE' where id = ?", lost);
+            }
+            cacheInvalidator.evictAfterCommit(ids);
+        });
+        return seen.size() + lost.size();
+    }
+
+    private void add(long serverId, Result result) {
+        pending.put(serverId, result);
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+}
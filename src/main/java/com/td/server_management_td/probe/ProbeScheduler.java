@@ -0,0 +1,284 @@
+package com.td.server_management_td.probe;
+
+import com.td.server_management_td.cache.ServerCacheInvalidator;
+import com.td.server_management_td.model.Ipv4Range;
+import com.td.server_management_td.model.ServerHealth;
+import com.td.server_management_td.shard.ShardContext;
+import com.td.server_management_td.shard.ShardRoutingDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Probes every registered server's {@code ipAddress} with TCP connects on the configured ports and
+ * records the result in {@code servers.health} and {@code servers.last_seen_at}.
+ *
+ * <p>All scheduling state is owned by one scheduler thread that ticks every {@value #TICK_MILLIS} ms:
+ * it reloads the target list once per interval, launches due probes on the {@link TcpProber} and
+ * applies finished ones. First probes are spread evenly over one interval and later ones are
+ * jittered, so the load stays flat instead of arriving in waves. A target that fails is probed
+ * again after an exponentially growing delay capped at {@code max-backoff}. Addresses that are not
+ * IP literals are skipped rather than resolved, so DNS never blocks the scheduler. With sharding,
+ * the targets of every shard are probed and each result is written to the shard it came from.
+ */
+@Component
+@ConditionalOnProperty(prefix = "server-management.probe", name = "enabled", havingValue = "true")
+public class ProbeScheduler implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ProbeScheduler.class);
+
+    static final long TICK_MILLIS = 50;
+
+    private static final class Target {
+        final int shard;
+        final long id;
+        final InetAddress address;
+        ServerHealth health;
+        int failures;
+        long nextProbeAt;
+        boolean removed;
+
+        Target(int shard, long id, InetAddress address, ServerHealth health) {
+            this.shard = shard;
+            this.id = id;
+            this.address = address;
+            this.health = health;
+        }
+    }
+
+    private record Outcome(Target target, boolean reachable, Instant finishedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int shards;
+    private final ProbeProperties properties;
+    private final TcpProber prober;
+    private final ProbeResultWriter writer;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "probe-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Queue<Outcome> outcomes = new ConcurrentLinkedQueue<>();
+    private final AtomicLong reachableProbes = new AtomicLong();
+    private final AtomicLong unreachableProbes = new AtomicLong();
+    // Scheduler thread only
+    private final Map<Long, Target> targets = new HashMap<>();
+    private final PriorityQueue<Target> due = new PriorityQueue<>(Comparator.comparingLong(target -> target.nextProbeAt));
+    private long nextReloadAt;
+    private long nextFlushAt;
+    private volatile int targetCount;
+
+    public ProbeScheduler(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          ProbeProperties properties, ServerCacheInvalidator cacheInvalidator) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = ShardRoutingDataSource.shardCount(jdbcTemplate.getDataSource());
+        this.properties = properties;
+        this.prober = new TcpProber(properties.maxInFlight(), properties.connectTimeout());
+        this.writer = new ProbeResultWriter(jdbcTemplate, new TransactionTemplate(transactionManager),
+                properties.writeBatchSize(), cacheInvalidator);
+        long now = System.nanoTime();
+        this.nextReloadAt = now;
+        this.nextFlushAt = now + properties.flushInterval().toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Probing servers on ports {} every {}", properties.ports(), properties.interval());
+        executor.scheduleWithFixedDelay(this::tick, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    void tick() {
+        try {
+            long now = System.nanoTime();
+            if (now - nextReloadAt >= 0) {
+                reloadTargets(now);
+                nextReloadAt = now + properties.interval().toNanos();
+            }
+            applyOutcomes(now);
+            launchDue(now);
+            if (now - nextFlushAt >= 0) {
+                writer.flush();
+                nextFlushAt = now + properties.flushInterval().toNanos();
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the fixed-delay schedule; the next tick retries
+            log.warn("Server probe tick failed", e);
+        }
+    }
+
+    /**
+     * Writes buffered results now instead of at the next flush interval.
+     */
+    void flush() {
+        writer.flush();
+    }
+
+    int targetCount() {
+        return targetCount;
+    }
+
+    /**
+     * Delay before the next probe of a target after {@code failures} consecutive failures:
+     * the interval doubled per failure up to {@code maxBackoff}, scaled by a random factor within
+     * {@code ±jitter}. {@code random} is uniform in [0, 1).
+     */
+    static long nextDelayNanos(Duration interval, Duration maxBackoff, double jitter, int failures, double random) {
+        long cap = Math.max(interval.toNanos(), maxBackoff.toNanos());
+        long delay = interval.toNanos();
+        for (int i = 0; i < failures && delay < cap; i++) {
+            delay = Math.min(cap, delay * 2);
+        }
+        return (long) (delay * (1 + jitter * (2 * random - 1)));
+    }
+
+    private void reloadTargets(long now) {
+        Set<Long> present = new HashSet<>(targets.size());
+        long interval = properties.interval().toNanos();
+        for (int shard = 0; shard < shards; shard++) {
+            int source = shard;
+            ShardContext.run(shard, () -> jdbcTemplate.query("select id, ip_address, health from servers", resultSet -> {
+                long id = resultSet.getLong(1);
+                present.add(id);
+                if (targets.containsKey(id)) {
+                    return;
+                }
+                InetAddress address = parseLiteral(resultSet.getString(2));
+                if (address == null) {
+                    return;
+                }
+                String health = resultSet.getString(3);
+                Target target = new Target(source, id, address, health == null ? null : ServerHealth.valueOf(health));
+                // New targets are spread over one interval
+                target.nextProbeAt = now + (long) (ThreadLocalRandom.current().nextDouble() * interval);
+                targets.put(id, target);
+                due.add(target);
+            }));
+        }
+        targets.values().removeIf(target -> {
+            target.removed = !present.contains(target.id);
+            return target.removed;
+        });
+        targetCount = targets.size();
+    }
+
+    private void applyOutcomes(long now) {
+        Outcome outcome;
+        while ((outcome = outcomes.poll()) != null) {
+            Target target = outcome.target();
+            if (target.removed) {
+                continue;
+            }
+            if (outcome.reachable()) {
+                reachableProbes.incrementAndGet();
+                target.failures = 0;
+                target.health = ServerHealth.REACHABLE;
+                writer.reachable(target.shard, target.id, outcome.finishedAt());
+            } else {
+                unreachableProbes.incrementAndGet();
+                target.failures++;
+                if (target.health != ServerHealth.UNREACHABLE) {
+                    target.health = ServerHealth.UNREACHABLE;
+                    writer.unreachable(target.shard, target.id);
+                }
+            }
+            target.nextProbeAt = now + nextDelayNanos(properties.interval(), properties.maxBackoff(),
+                    properties.jitter(), target.failures, ThreadLocalRandom.current().nextDouble());
+            due.add(target);
+        }
+    }
+
+    private void launchDue(long now) {
+        // Leave the rest due rather than queueing without bound inside the prober
+        int limit = properties.maxInFlight() * 2;
+        Target target;
+        while (prober.backlog() < limit && (target = due.peek()) != null && target.nextProbeAt - now <= 0) {
+            due.poll();
+            if (target.removed) {
+                continue;
+            }
+            Target probed = target;
+            probePorts(probed, 0).thenAccept(reachable -> outcomes.add(new Outcome(probed, reachable, Instant.now())));
+        }
+    }
+
+    // Ports are tried in order until one accepts
+    private CompletableFuture<Boolean> probePorts(Target target, int index) {
+        List<Integer> ports = properties.ports();
+        return prober.probe(new InetSocketAddress(target.address, ports.get(index)))
+                .thenCompose(reachable -> reachable || index + 1 == ports.size()
+                        ? CompletableFuture.completedFuture(reachable)
+                        : probePorts(target, index + 1));
+    }
+
+    static InetAddress parseLiteral(String address) {
+        if (address == null || (Ipv4Range.toNumeric(address) == null && address.indexOf(':') < 0)) {
+            return null;
+        }
+        try {
+            // Literals are parsed without a lookup
+            return InetAddress.getByName(address);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("server.probes", reachableProbes, AtomicLong::get)
+                .description("TCP probes of server addresses")
+                .tag("result", "reachable")
+                .register(registry);
+        FunctionCounter.builder("server.probes", unreachableProbes, AtomicLong::get)
+                .description("TCP probes of server addresses")
+                .tag("result", "unreachable")
+                .register(registry);
+        Gauge.builder("server.probe.targets", this, ProbeScheduler::targetCount)
+                .description("Servers with a probeable address")
+                .register(registry);
+        Gauge.builder("server.probe.backlog", prober, TcpProber::backlog)
+                .description("Probes queued or connecting")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        prober.close();
+        writer.flush();
+    }
+}
@@ -0,0 +1,201 @@
+package com.td.server_management_td.probe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking TCP connect probes on a single selector thread.
+ *
+ * <p>Up to {@code maxInFlight} connects are outstanding at once; further probes wait in a queue.
+ * Because every probe has the same timeout, outstanding connects expire in the order they were
+ * started, so deadlines are checked from the head of a FIFO instead of scanning all channels.
+ * Channels are closed with {@code SO_LINGER=0} so a node probing a large fleet does not pile up
+ * TIME_WAIT sockets and run out of ephemeral ports.
+ *
+ * <p>Result futures complete on the selector thread; dependent actions must be short.
+ */
+public class TcpProber implements Closeable {
+
+    private static final class Attempt {
+        final InetSocketAddress address;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        SocketChannel channel;
+        long deadline;
+        boolean connecting;
+        boolean done;
+
+        Attempt(InetSocketAddress address) {
+            this.address = address;
+        }
+    }
+
+    private final int maxInFlight;
+    private final long timeoutNanos;
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Attempt> queued = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+    // Selector thread only; completed attempts stay in the deque until they reach its head
+    private final ArrayDeque<Attempt> inFlight = new ArrayDeque<>();
+    private int connecting;
+    private volatile boolean running = true;
+
+    public TcpProber(int maxInFlight, Duration connectTimeout) throws IOException {
+        this.maxInFlight = maxInFlight;
+        this.timeoutNanos = connectTimeout.toNanos();
+        this.selector = Selector.open();
+        this.thread = new Thread(this::loop, "tcp-prober");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Completes with true if a connection to {@code address} is established within the connect timeout.
+     */
+    public CompletableFuture<Boolean> probe(InetSocketAddress address) {
+        Attempt attempt = new Attempt(address);
+        if (!running) {
+            attempt.result.complete(false);
+            return attempt.result;
+        }
+        backlog.incrementAndGet();
+        queued.add(attempt);
+        selector.wakeup();
+        return attempt.result;
+    }
+
+    /**
+     * Probes submitted but not yet completed, queued or connecting.
+     */
+    public int backlog() {
+        return backlog.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(Duration.ofSeconds(5).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Probes submitted while the loop was shutting down
+        Attempt attempt;
+        while ((attempt = queued.poll()) != null) {
+            attempt.done = true;
+            backlog.decrementAndGet();
+            attempt.result.complete(false);
+        }
+    }
+
+    private void loop() {
+        try {
+            while (running) {
+                startQueued();
+                long timeoutMillis = 0;
+                Attempt oldest = oldestInFlight();
+                if (oldest != null) {
+                    timeoutMillis = Math.max(1, (oldest.deadline - System.nanoTime()) / 1_000_000 + 1);
+                }
+                selector.select(timeoutMillis);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Attempt attempt = (Attempt) key.attachment();
+                    boolean connected;
+                    try {
+                        connected = attempt.channel.finishConnect();
+                    } catch (IOException e) {
+                        connected = false;
+                    }
+                    finish(attempt, connected);
+                }
+                expire(System.nanoTime());
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            running = false;
+        } finally {
+            inFlight.forEach(attempt -> finish(attempt, false));
+            Attempt attempt;
+            while ((attempt = queued.poll()) != null) {
+                finish(attempt, false);
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    private void startQueued() {
+        Attempt attempt;
+        while (connecting < maxInFlight && (attempt = queued.poll()) != null) {
+            try {
+                SocketChannel channel = SocketChannel.open();
+                attempt.channel = channel;
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+                if (channel.connect(attempt.address)) {
+                    finish(attempt, true);
+                } else {
+                    channel.register(selector, SelectionKey.OP_CONNECT, attempt);
+                    attempt.deadline = System.nanoTime() + timeoutNanos;
+                    attempt.connecting = true;
+                    connecting++;
+                    inFlight.add(attempt);
+                }
+            } catch (IOException | RuntimeException e) {
+                finish(attempt, false);
+            }
+        }
+    }
+
+    private Attempt oldestInFlight() {
+        while (!inFlight.isEmpty() && inFlight.peekFirst().done) {
+            inFlight.pollFirst();
+        }
+        return inFlight.peekFirst();
+    }
+
+    private void expire(long now) {
+        Attempt oldest;
+        while ((oldest = oldestInFlight()) != null && oldest.deadline - now <= 0) {
+            finish(oldest, false);
+        }
+    }
+
+    private void finish(Attempt attempt, boolean connected) {
+        if (attempt.done) {
+            return;
+        }
+        attempt.done = true;
+        if (attempt.connecting) {
+            connecting--;
+        }
+        backlog.decrementAndGet();
+        if (attempt.channel != null) {
+            try {
+                attempt.channel.close();
+            } catch (IOException ignored) {
+                // The probe result is already known
+            }
+        }
+        attempt.result.complete(connected);
+    }
+}
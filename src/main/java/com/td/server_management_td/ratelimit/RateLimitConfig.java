@@ -0,0 +1,65 @@
+package com.td.server_management_td.ratelimit;
+
+import com.td.server_management_td.replica.ReplicaRoutingDataSource;
+import com.td.server_management_td.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+@Configuration
+@ConditionalOnProperty(prefix = "server-management.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    RateLimitInterceptor rateLimitInterceptor(RateLimitProperties properties, DataSource dataSource,
+                                              MeterRegistry meterRegistry) {
+        return new RateLimitInterceptor(
+                new TokenBuckets(properties.buckets(), properties.readBurst(), properties.readsPerSecond()),
+                new TokenBuckets(properties.buckets(), properties.mutationBurst(), properties.mutationsPerSecond()),
+                threadsAwaitingConnection(dataSource),
+                properties.shedPendingConnections(),
+                meterRegistry);
+    }
+
+    // Hikari keeps the waiter count in an atomic, so reading it on every request is cheap
+    private static IntSupplier threadsAwaitingConnection(DataSource dataSource) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        addPools(dataSource, pools);
+        return () -> {
+            int waiting = 0;
+            for (HikariDataSource hikari : pools) {
+                // Null until the pool has been started by its first connection
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                waiting += pool != null ? pool.getThreadsAwaitingConnection() : 0;
+            }
+            return waiting;
+        };
+    }
+
+    // A routing datasource would only unwrap to the pool it currently routes to, so its pools are listed one by one
+    private static void addPools(DataSource dataSource, List<HikariDataSource> pools) {
+        if (dataSource instanceof ShardRoutingDataSource sharded) {
+            sharded.getShards().forEach(shard -> addPools(shard, pools));
+        } else if (dataSource instanceof ReplicaRoutingDataSource replicated) {
+            addPools(replicated.getPrimary(), pools);
+            replicated.getReplicas().forEach(replica -> addPools(replica, pools));
+        } else {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    pools.add(dataSource.unwrap(HikariDataSource.class));
+                }
+            } catch (SQLException e) {
+                // Not a Hikari pool, so its waiters are not counted
+            }
+        }
+    }
+}
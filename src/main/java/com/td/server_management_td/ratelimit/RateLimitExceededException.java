@@ -0,0 +1,21 @@
+package com.td.server_management_td.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * A request was refused before reaching its handler, either because its client ran out of tokens
+ * or because the application is shedding load. Answered with {@code 429 Too Many Requests}.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,77 @@
+package com.td.server_management_td.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+/**
+ * Refuses API requests with {@link RateLimitExceededException} before they take a request thread's
+ * time or a database connection.
+ *
+ * <p>While more requests are waiting for a pooled connection than the threshold, every request is
+ * shed. Otherwise each client, identified by its remote address, gets one token bucket for reads
+ * ({@code GET}, {@code HEAD}, {@code OPTIONS}) and one for mutations. Behind a proxy, set
+ * {@code server.forward-headers-strategy} so the remote address is the client's. Rejections are
+ * counted as {@code server.requests.rejected}, tagged by {@code reason} and {@code endpoint}.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    static final Duration SHED_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final TokenBuckets reads;
+    private final TokenBuckets mutations;
+    private final IntSupplier pendingConnections;
+    private final int shedThreshold;
+    private final Counter rateLimitedReads;
+    private final Counter rateLimitedMutations;
+    private final Counter shedReads;
+    private final Counter shedMutations;
+
+    public RateLimitInterceptor(TokenBuckets reads, TokenBuckets mutations, IntSupplier pendingConnections,
+                                int shedThreshold, MeterRegistry registry) {
+        this.reads = reads;
+        this.mutations = mutations;
+        this.pendingConnections = pendingConnections;
+        this.shedThreshold = shedThreshold;
+        this.rateLimitedReads = rejections(registry, "rate_limit", "read");
+        this.rateLimitedMutations = rejections(registry, "rate_limit", "mutation");
+        this.shedReads = rejections(registry, "overload", "read");
+        this.shedMutations = rejections(registry, "overload", "mutation");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        boolean read = isRead(request.getMethod());
+        if (pendingConnections.getAsInt() > shedThreshold) {
+            (read ? shedReads : shedMutations).increment();
+            throw new RateLimitExceededException("Service temporarily overloaded, retry later", SHED_RETRY_AFTER);
+        }
+        Duration wait = (read ? reads : mutations).tryAcquire(request.getRemoteAddr());
+        if (!wait.isZero()) {
+            (read ? rateLimitedReads : rateLimitedMutations).increment();
+            throw new RateLimitExceededException("Rate limit exceeded, retry later", wait);
+        }
+        return true;
+    }
+
+    private static boolean isRead(String method) {
+        return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS");
+    }
+
+    private static Counter rejections(MeterRegistry registry, String reason, String endpoint) {
+        return Counter.builder("server.requests.rejected")
+                .description("API requests refused by the rate limiter or load shedding")
+                .tag("reason", reason)
+                .tag("endpoint", endpoint)
+                .register(registry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.td.server_management_td.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "server-management.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("65536") int buckets,
+        @DefaultValue("200") int readBurst,
+        @DefaultValue("100") double readsPerSecond,
+        @DefaultValue("20") int mutationBurst,
+        @DefaultValue("10") double mutationsPerSecond,
+        @DefaultValue("10") int shedPendingConnections) {
+}
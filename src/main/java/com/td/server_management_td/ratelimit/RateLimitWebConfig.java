@@ -0,0 +1,26 @@
+package com.td.server_management_td.ratelimit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Kept apart from RateLimitConfig so web slices without a data source can still load it
+@Configuration
+public class RateLimitWebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<RateLimitInterceptor> interceptor;
+
+    public RateLimitWebConfig(ObjectProvider<RateLimitInterceptor> interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First, so a refused request costs no other interceptor any work
+        interceptor.ifAvailable(rateLimit -> registry.addInterceptor(rateLimit)
+                .addPathPatterns("/api/**")
+                .order(Ordered.HIGHEST_PRECEDENCE));
+    }
+}
@@ -0,0 +1,73 @@
+package com.td.server_management_td.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-size table of token buckets sharing one capacity and refill rate, indexed by a hash of the
+ * client key.
+ *
+ * <p>Each bucket is a single {@code long}: the time at which it will be full again (the
+ * "theoretical arrival time" of the generic cell rate algorithm). Taking a token is one read and
+ * one compare-and-set, a rejected request writes nothing, and the table never grows no matter how
+ * many clients show up. Clients whose keys hash to the same bucket share its tokens, so the table
+ * should be a few times larger than the number of clients expected at once.
+ */
+public class TokenBuckets {
+
+    private final AtomicLongArray fullAt;
+    private final int mask;
+    private final long refillNanos;
+    private final long toleranceNanos;
+    private final LongSupplier nanoTime;
+    private final long origin;
+
+    public TokenBuckets(int buckets, int capacity, double tokensPerSecond) {
+        this(buckets, capacity, tokensPerSecond, System::nanoTime);
+    }
+
+    TokenBuckets(int buckets, int capacity, double tokensPerSecond, LongSupplier nanoTime) {
+        if (buckets < 1 || capacity < 1 || !(tokensPerSecond > 0)) {
+            throw new IllegalArgumentException("Buckets, capacity and rate must be positive");
+        }
+        int size = Integer.highestOneBit(Math.min(buckets, 1 << 30));
+        this.fullAt = new AtomicLongArray(size < buckets ? size << 1 : size);
+        this.mask = fullAt.length() - 1;
+        this.refillNanos = Math.max(1, Math.round(1e9 / tokensPerSecond));
+        this.toleranceNanos = (capacity - 1) * refillNanos;
+        this.nanoTime = nanoTime;
+        // Times are kept relative to creation so an empty bucket (0) is always full
+        this.origin = nanoTime.getAsLong();
+    }
+
+    /**
+     * Takes a token from the bucket of {@code key}.
+     *
+     * @return {@link Duration#ZERO} if a token was taken, otherwise how long until the next one
+     */
+    public Duration tryAcquire(String key) {
+        int bucket = bucket(key);
+        while (true) {
+            long now = nanoTime.getAsLong() - origin;
+            long current = fullAt.get(bucket);
+            long start = Math.max(current, now);
+            long wait = start - now - toleranceNanos;
+            if (wait > 0) {
+                return Duration.ofNanos(wait);
+            }
+            if (fullAt.compareAndSet(bucket, current, start + refillNanos)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    int size() {
+        return fullAt.length();
+    }
+
+    private int bucket(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
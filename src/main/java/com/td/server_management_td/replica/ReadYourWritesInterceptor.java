@@ -0,0 +1,52 @@
+package com.td.server_management_td.replica;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Sends the reads of a client that wrote within the last {@code max-lag} to the primary, so it
+ * always sees its own changes. Any replica it could otherwise be routed to is at most that far
+ * behind. Clients are told apart by remote address, as for rate limiting.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final RecentWriters recentWriters;
+    private final Duration window;
+
+    public ReadYourWritesInterceptor(RecentWriters recentWriters, Duration window) {
+        this.recentWriters = recentWriters;
+        this.window = window;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST && !isMutation(request.getMethod())
+                && recentWriters.wroteWithin(request.getRemoteAddr(), window)) {
+            ReplicaContext.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaContext.clear();
+        // Taken once the write has committed, so the window covers its replication
+        if (request.getDispatcherType() == DispatcherType.REQUEST && isMutation(request.getMethod())) {
+            recentWriters.recordWrite(request.getRemoteAddr());
+        }
+    }
+
+    // The request thread is released here; afterCompletion runs later, on another thread
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReplicaContext.clear();
+    }
+
+    private static boolean isMutation(String method) {
+        return !(method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.td.server_management_td.replica;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Time of each client's last write, in a fixed table indexed by a hash of the client key. Clients
+ * sharing a slot see each other's writes, which only sends a few more reads to the primary.
+ */
+public class RecentWriters {
+
+    private final AtomicLongArray lastWrite;
+    private final int mask;
+    private final LongSupplier nanoTime;
+    private final long origin;
+
+    public RecentWriters(int slots) {
+        this(slots, System::nanoTime);
+    }
+
+    RecentWriters(int slots, LongSupplier nanoTime) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("Slots must be positive");
+        }
+        int size = Integer.highestOneBit(Math.min(slots, 1 << 30));
+        this.lastWrite = new AtomicLongArray(size < slots ? size << 1 : size);
+        this.mask = lastWrite.length() - 1;
+        this.nanoTime = nanoTime;
+        // Zero means never written
+        this.origin = nanoTime.getAsLong() - 1;
+    }
+
+    public void recordWrite(String client) {
+        lastWrite.set(slot(client), nanoTime.getAsLong() - origin);
+    }
+
+    public boolean wroteWithin(String client, Duration window) {
+        long written = lastWrite.get(slot(client));
+        return written != 0 && nanoTime.getAsLong() - origin - written < window.toNanos();
+    }
+
+    private int slot(String client) {
+        int hash = client.hashCode() * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
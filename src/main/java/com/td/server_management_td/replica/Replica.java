@@ -0,0 +1,27 @@
+package com.td.server_management_td.replica;
+
+import javax.sql.DataSource;
+
+/**
+ * One read replica and what the lag checks and failed connections have found out about it.
+ */
+final class Replica {
+
+    final String name;
+    final DataSource dataSource;
+    // Highest fleet version the replica has applied, -1 until the first lag check
+    volatile long appliedVersion = -1;
+    volatile long lagNanos;
+    // System.nanoTime() before which the replica is skipped; 0 when it is available
+    volatile long pausedUntil;
+
+    Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    boolean isPaused(long now) {
+        long until = pausedUntil;
+        return until != 0 && now - until < 0;
+    }
+}
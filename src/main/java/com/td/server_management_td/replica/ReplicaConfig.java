@@ -0,0 +1,71 @@
+package com.td.server_management_td.replica;
+
+import com.td.server_management_td.shard.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts the primary pool behind a {@link LazyConnectionDataSourceProxy}, which takes the physical
+ * connection only at a transaction's first statement. By then the transaction has marked the
+ * connection read-only or not, and read-only ones come from the {@link ReplicaRoutingDataSource}.
+ * Replicas are read, never migrated: their schema comes from replication.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "server-management.replicas", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(ReplicaProperties properties, ShardingProperties sharding,
+                                                             DataSourceProperties dataSourceProperties, Environment environment) {
+        if (properties.urls().isEmpty()) {
+            throw new IllegalStateException("server-management.replicas.urls must list at least one replica");
+        }
+        if (sharding.enabled()) {
+            throw new IllegalStateException("server-management.replicas cannot be combined with sharding");
+        }
+        HikariDataSource primary = pool(dataSourceProperties, environment, dataSourceProperties.determineUrl(), "primary");
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : properties.urls()) {
+            HikariDataSource replica = pool(dataSourceProperties, environment, url, "replica-" + replicas.size());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, properties.balancing(), properties.maxLag(),
+                properties.failoverPause());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing.getPrimary());
+        dataSource.setReadOnlyDataSource(routing);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesInterceptor readYourWritesInterceptor(ReplicaProperties properties) {
+        return new ReadYourWritesInterceptor(new RecentWriters(properties.recentWriters()), properties.maxLag());
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+}
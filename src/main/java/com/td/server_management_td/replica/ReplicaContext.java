@@ -0,0 +1,53 @@
+package com.td.server_management_td.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Consistency the current thread needs from a read-only connection: the fleet version a replica
+ * must have applied, or {@link #PRIMARY} for the primary itself. Like the read-only flag, it is
+ * read when a transaction takes its first connection. Nothing is required by default.
+ */
+public final class ReplicaContext {
+
+    public static final long PRIMARY = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Long> MINIMUM_VERSION = new ThreadLocal<>();
+
+    private ReplicaContext() {
+    }
+
+    public static long minimumVersion() {
+        Long version = MINIMUM_VERSION.get();
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Runs {@code work} reading only from replicas that have applied {@code version}, or from the primary.
+     */
+    public static <T> T atLeast(long version, Supplier<T> work) {
+        Long previous = MINIMUM_VERSION.get();
+        MINIMUM_VERSION.set(Math.max(version, minimumVersion()));
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                MINIMUM_VERSION.remove();
+            } else {
+                MINIMUM_VERSION.set(previous);
+            }
+        }
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        return atLeast(PRIMARY, work);
+    }
+
+    // For the request lifecycle, where set and clear happen in different callbacks
+    static void pinToPrimary() {
+        MINIMUM_VERSION.set(PRIMARY);
+    }
+
+    static void clear() {
+        MINIMUM_VERSION.remove();
+    }
+}
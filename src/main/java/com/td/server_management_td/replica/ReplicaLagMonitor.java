@@ -0,0 +1,98 @@
+package com.td.server_management_td.replica;
+
+import com.td.server_management_td.fleet.FleetVersion;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every {@code lag-check-interval} how far each replica is behind the primary.
+ *
+ * <p>A replica's position is the highest fleet version stamped in its tables. Each check also notes
+ * the primary's fleet version, so the lag is the time since the primary first reached a version the
+ * replica still lacks. Replication is assumed to apply transactions in commit order. A replica that
+ * fails the check is paused; one that passes it is available again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "server-management.replicas", name = "enabled", havingValue = "true")
+public class ReplicaLagMonitor implements DisposableBean {
+
+    // Covers a minute of history at the default interval; anything older counts as the oldest sample
+    private static final int SAMPLES = 256;
+
+    private final ReplicaRoutingDataSource routing;
+    private final FleetVersion fleetVersion;
+    private final ReplicaProperties properties;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Primary fleet version at each check, oldest first from sampleStart; monitor thread only
+    private final long[] sampleTimes = new long[SAMPLES];
+    private final long[] sampleVersions = new long[SAMPLES];
+    private int sampleStart;
+    private int sampleCount;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routing, FleetVersion fleetVersion, ReplicaProperties properties) {
+        this.routing = routing;
+        this.fleetVersion = fleetVersion;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.lagCheckInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::check, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void check() {
+        long now = System.nanoTime();
+        long primaryVersion = fleetVersion.current().version();
+        if (sampleCount == SAMPLES) {
+            sampleStart = (sampleStart + 1) % SAMPLES;
+            sampleCount--;
+        }
+        int last = (sampleStart + sampleCount) % SAMPLES;
+        sampleTimes[last] = now;
+        sampleVersions[last] = primaryVersion;
+        sampleCount++;
+
+        for (Replica replica : routing.replicas()) {
+            try {
+                Long applied = new JdbcTemplate(replica.dataSource).queryForObject(FleetVersion.LATEST_VERSION, Long.class);
+                long version = applied == null ? 0 : applied;
+                replica.lagNanos = lagNanos(version, now);
+                replica.appliedVersion = version;
+                replica.pausedUntil = 0;
+            } catch (DataAccessException e) {
+                routing.pause(replica, e);
+            }
+        }
+    }
+
+    // Time since the first sampled primary version above what the replica has applied
+    private long lagNanos(long applied, long now) {
+        for (int n = 0; n < sampleCount; n++) {
+            int index = (sampleStart + n) % SAMPLES;
+            if (sampleVersions[index] > applied) {
+                return now - sampleTimes[index];
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
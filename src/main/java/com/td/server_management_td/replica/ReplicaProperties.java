@@ -0,0 +1,27 @@
+package com.td.server_management_td.replica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "server-management.replicas")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        // One JDBC URL per read replica; credentials and pool settings come from spring.datasource
+        @DefaultValue List<String> urls,
+        @DefaultValue("ROUND_ROBIN") Balancing balancing,
+        // Replicas further behind are skipped, and clients read from the primary this long after a write
+        @DefaultValue("1s") Duration maxLag,
+        @DefaultValue("250ms") Duration lagCheckInterval,
+        // A replica that refused a connection is skipped this long, or until the next successful lag check
+        @DefaultValue("5s") Duration failoverPause,
+        @DefaultValue("65536") int recentWriters) {
+
+    public enum Balancing {
+        ROUND_ROBIN,
+        // Fewest connections in use, from the replica's pool
+        LEAST_CONNECTIONS
+    }
+}
@@ -0,0 +1,193 @@
+package com.td.server_management_td.replica;
+
+import com.td.server_management_td.replica.ReplicaProperties.Balancing;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of the connections of read-only transactions: a replica that is available, no further
+ * behind than {@code max-lag} and has applied {@link ReplicaContext#minimumVersion()}, or the
+ * primary when there is none.
+ *
+ * <p>Replicas are tried in round-robin order or by fewest connections in use. A replica that refuses
+ * a connection is paused for {@code failover-pause} and the next one is tried, so losing a replica
+ * costs the reads in flight on it and nothing after. Connections handed out are counted as
+ * {@code server.replica.connections{target}}, failovers as {@code server.replica.failovers{replica}}.
+ * Connections asked for with explicit credentials are routed the same way and the credentials are
+ * passed on to the chosen datasource.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Balancing balancing;
+    private final long maxLagNanos;
+    private final long failoverPauseNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong primaryConnections = new AtomicLong();
+    private final List<AtomicLong> replicaConnections = new ArrayList<>();
+    private final List<AtomicLong> failovers = new ArrayList<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Balancing balancing,
+                                    Duration maxLag, Duration failoverPause) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+        for (int n = 0; n < replicas.size(); n++) {
+            this.replicas.add(new Replica("replica-" + n, replicas.get(n)));
+            replicaConnections.add(new AtomicLong());
+            failovers.add(new AtomicLong());
+        }
+        this.balancing = balancing;
+        this.maxLagNanos = maxLag.toNanos();
+        this.failoverPauseNanos = failoverPause.toNanos();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas.stream().map(replica -> replica.dataSource).toList();
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        long required = ReplicaContext.minimumVersion();
+        if (required != ReplicaContext.PRIMARY) {
+            for (int index : candidates(required)) {
+                Replica replica = replicas.get(index);
+                try {
+                    Connection connection = connector.connect(replica.dataSource);
+                    replicaConnections.get(index).incrementAndGet();
+                    return connection;
+                } catch (SQLFeatureNotSupportedException e) {
+                    // A pool that only hands out its configured user says so for every replica, healthy or not
+                    throw e;
+                } catch (SQLException e) {
+                    pause(replica, e);
+                    failovers.get(index).incrementAndGet();
+                }
+            }
+        }
+        primaryConnections.incrementAndGet();
+        return connector.connect(primary);
+    }
+
+    // Indexes of the replicas that may serve the read, in the order they should be tried
+    private List<Integer> candidates(long requiredVersion) {
+        long now = System.nanoTime();
+        List<Integer> eligible = new ArrayList<>(replicas.size());
+        for (int index = 0; index < replicas.size(); index++) {
+            Replica replica = replicas.get(index);
+            if (!replica.isPaused(now) && replica.appliedVersion >= 0 && replica.appliedVersion >= requiredVersion
+                    && replica.lagNanos <= maxLagNanos) {
+                eligible.add(index);
+            }
+        }
+        if (eligible.size() > 1) {
+            if (balancing == Balancing.ROUND_ROBIN) {
+                // Rotated over the eligible replicas only, so a skipped one's turn is not all given to its neighbour
+                Collections.rotate(eligible, -Math.floorMod(next.getAndIncrement(), eligible.size()));
+            } else {
+                eligible.sort(Comparator.comparingInt(index -> activeConnections(replicas.get(index))));
+            }
+        }
+        return eligible;
+    }
+
+    void pause(Replica replica, Exception cause) {
+        if (!replica.isPaused(System.nanoTime())) {
+            log.warn("Read replica {} failed, reading elsewhere for {} ms: {}", replica.name,
+                    failoverPauseNanos / 1_000_000, cause.getMessage());
+        }
+        replica.pausedUntil = System.nanoTime() + failoverPauseNanos;
+    }
+
+    private static int activeConnections(Replica replica) {
+        if (replica.dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+        return 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        connections(registry, "primary", primaryConnections);
+        for (int n = 0; n < replicas.size(); n++) {
+            Replica replica = replicas.get(n);
+            connections(registry, replica.name, replicaConnections.get(n));
+            FunctionCounter.builder("server.replica.failovers", failovers.get(n), AtomicLong::get)
+                    .description("Reads moved away from a replica that refused a connection")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("server.replica.lag", replica, r -> r.lagNanos / 1e9)
+                    .description("How far the replica is behind the primary, as of the last lag check")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+    }
+
+    private static void connections(MeterRegistry registry, String target, AtomicLong count) {
+        FunctionCounter.builder("server.replica.connections", count, AtomicLong::get)
+                .description("Connections handed to read-only transactions")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    // The pools are not beans of their own, so nothing else would close them
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+        close(primary);
+    }
+
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.td.server_management_td.replica;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Kept apart from ReplicaConfig so web slices without a data source can still load it
+@Configuration
+public class ReplicaWebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ReadYourWritesInterceptor> interceptor;
+
+    public ReplicaWebConfig(ObjectProvider<ReadYourWritesInterceptor> interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        interceptor.ifAvailable(readYourWrites -> registry.addInterceptor(readYourWrites).addPathPatterns("/api/**"));
+    }
+}
@@ -0,0 +1,15 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.model.Server;
+
+import java.util.Optional;
+
+/**
+ * Lookups that go through Hibernate's session API rather than a derived query, so they can be
+ * answered from the second-level cache.
+ */
+public interface ServerLookup {
+
+    // By natural id: resolved through the natural id cache, then the entity cache, before any select
+    Optional<Server> findByIpAddress(String ipAddress);
+}
@@ -0,0 +1,24 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.model.Server;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Read-only like SimpleJpaRepository's methods: outside a transaction the session would close before the load
+@Transactional(readOnly = true)
+class ServerLookupImpl implements ServerLookup {
+
+    private final EntityManager entityManager;
+
+    ServerLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Server> findByIpAddress(String ipAddress) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Server.class).loadOptional(ipAddress);
+    }
+}
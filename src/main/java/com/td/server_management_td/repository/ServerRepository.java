@@ -1,14 +1,71 @@
 package com.td.server_management_td.repository;
 
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.dto.ServerSummary;
 import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ServerRepository extends JpaRepository<Server, Long> {
+public interface ServerRepository extends JpaRepository<Server, Long>, JpaSpecificationExecutor<Server>, ServerLookup,
+        ServerWrites {
+    // The name is not the natural id, so a hit in the query cache is what saves the select
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Server> findByName(String name);
-    Optional<Server> findByIpAddress(String ipAddress);
-}
 
+    Optional<VersionedStatus> findVersionedStatusById(Long id);
+
+    // Keyset page: the primary key index seeks straight to the cursor instead of skipping rows.
+    // Selected as DTOs, so the rows are never managed by the persistence context. Cacheable: pages are read far
+    // more often than the fleet changes, and any write to servers invalidates them
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<ServerSummary> findSummariesByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Delta since a fleet version, served by idx_servers_change_version
+    List<ServerSummary> findSummariesByChangeVersionGreaterThanOrderByChangeVersionAscIdAsc(long version, Limit limit);
+
+    // Must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Server> streamAllByOrderByIdAsc();
+
+    // Guarded single-statement delete: the returned row count tells whether the guard matched.
+    // A null expectedVersion skips the optimistic version check. Status and name changes are in ServerWrites.
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Server s "
+            + "where s.id = :id and s.status = :status and (:expectedVersion is null or s.version = :expectedVersion)")
+    int deleteByIdAndStatus(Long id, ServerStatus status, Long expectedVersion);
+
+    @Query("select s.status as status, count(s) as count from Server s group by s.status")
+    List<StatusCount> countGroupedByStatus();
+
+    // Lookups answered by the fleet index when it is loaded
+    Optional<ServerIdentity> findIdentityByName(String name);
+    Optional<ServerIdentity> findIdentityByIpAddress(String ipAddress);
+    List<ServerIdentity> findIdentitiesByNameStartingWithOrderByIdAsc(String namePrefix, Limit limit);
+
+    List<ServerStatusView> findByIdIn(Collection<Long> ids);
+    List<ServerStatusView> findByStatus(ServerStatus status);
+    List<ServerStatusView> findByNameStartingWith(String namePrefix);
+
+    // Set-based writes for bulk operations, guarded on the state each row was selected in
+    @Modifying(clearAutomatically = true)
+    @Query("update Server s set s.status = :target, s.version = s.version + 1 where s.id in :ids and s.status = :source")
+    int compareAndSetStatusByIdIn(Collection<Long> ids, ServerStatus source, ServerStatus target);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Server s where s.id in :ids and s.status = :status")
+    int deleteByIdInAndStatus(Collection<Long> ids, ServerStatus status);
+}
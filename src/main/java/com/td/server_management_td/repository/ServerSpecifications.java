@@ -0,0 +1,64 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSortField;
+import com.td.server_management_td.model.Server;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the WHERE clause of a server search. Each filter maps to an indexed column:
+ * status to {@code idx_servers_status_id}, the name prefix to the unique name index (a LIKE with
+ * a fixed prefix is a range scan) and the IP range to {@code idx_servers_ip_numeric}.
+ */
+public final class ServerSpecifications {
+
+    private ServerSpecifications() {
+    }
+
+    public static Specification<Server> matching(ServerSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.status() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.status()));
+            }
+            if (criteria.namePrefix() != null) {
+                predicates.add(cb.like(root.get("name"), escapeLike(criteria.namePrefix()) + "%", '\\'));
+            }
+            if (criteria.ipRange() != null) {
+                predicates.add(cb.between(root.get("ipNumeric"), criteria.ipRange().first(), criteria.ipRange().last()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Keyset condition for the page after {@code cursor}: rows past the cursor's sort value,
+     * or with the same value and an id past the cursor's id.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Server> after(ServerSortField field, Sort.Direction direction, ServerSortField.Cursor cursor) {
+        boolean ascending = direction.isAscending();
+        return (root, query, cb) -> {
+            Predicate idAfter = ascending
+                    ? cb.greaterThan(root.get("id"), cursor.id())
+                    : cb.lessThan(root.get("id"), cursor.id());
+            if (field == ServerSortField.ID) {
+                return idAfter;
+            }
+            Expression<Comparable> value = root.get(field.property());
+            Comparable bound = cursor.value();
+            Predicate valueAfter = ascending ? cb.greaterThan(value, bound) : cb.lessThan(value, bound);
+            return cb.or(valueAfter, cb.and(cb.equal(value, bound), idAfter));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,11 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.model.ServerStatus;
+
+/**
+ * Closed projection used when only the id and status of a server are needed.
+ */
+public interface ServerStatusView {
+    Long getId();
+    ServerStatus getStatus();
+}
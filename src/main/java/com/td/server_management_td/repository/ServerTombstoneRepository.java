@@ -0,0 +1,16 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.model.ServerTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ServerTombstoneRepository extends JpaRepository<ServerTombstone, Long> {
+
+    @Query("select t.serverId from ServerTombstone t where t.changeVersion > :version order by t.changeVersion, t.serverId")
+    List<Long> findServerIdsDeletedAfter(long version, Limit limit);
+}
@@ -0,0 +1,18 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+
+import java.util.Optional;
+
+/**
+ * Guarded single-statement writes that return the row as the write left it, so a mutation that
+ * answers with the server costs one round trip instead of an update and a select. Empty when the
+ * guard did not match. A null expectedVersion skips the optimistic version check.
+ */
+public interface ServerWrites {
+
+    Optional<Server> compareAndSetStatusReturning(Long id, ServerStatus source, ServerStatus target, Long expectedVersion);
+
+    Optional<Server> updateNameByIdReturning(Long id, String name, Long expectedVersion);
+}
@@ -0,0 +1,48 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+// H2's data change delta table: the select reads the rows of the update it wraps, after the update
+class ServerWritesImpl implements ServerWrites {
+
+    private final EntityManager entityManager;
+
+    ServerWritesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Server> compareAndSetStatusReturning(Long id, ServerStatus source, ServerStatus target, Long expectedVersion) {
+        return updateReturning("set status = ?1, version = version + 1 where id = ?2 and status = ?3",
+                expectedVersion, target.name(), id, source.name());
+    }
+
+    @Override
+    public Optional<Server> updateNameByIdReturning(Long id, String name, Long expectedVersion) {
+        return updateReturning("set name = ?1, version = version + 1 where id = ?2", expectedVersion, name, id);
+    }
+
+    private Optional<Server> updateReturning(String update, Long expectedVersion, Object... parameters) {
+        // As with @Modifying(clearAutomatically = true): no stale copy of the row may shadow the one returned
+        entityManager.flush();
+        entityManager.clear();
+        String sql = "select * from final table (update servers " + update
+                + (expectedVersion == null ? "" : " and version = ?" + (parameters.length + 1)) + ")";
+        Query query = entityManager.createNativeQuery(sql, Server.class);
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter(i + 1, parameters[i]);
+        }
+        if (expectedVersion != null) {
+            query.setParameter(parameters.length + 1, expectedVersion);
+        }
+        @SuppressWarnings("unchecked")
+        List<Server> rows = query.getResultList();
+        return rows.stream().findFirst();
+    }
+}
@@ -0,0 +1,11 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.model.ServerStatus;
+
+/**
+ * Number of servers in one status, as returned by a group-by query.
+ */
+public interface StatusCount {
+    ServerStatus getStatus();
+    long getCount();
+}
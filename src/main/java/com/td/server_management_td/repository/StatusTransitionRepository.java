@@ -0,0 +1,19 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.model.StatusTransition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StatusTransitionRepository extends JpaRepository<StatusTransition, Long> {
+
+    // Range scan of idx_status_history_server_time
+    @Query("select t from StatusTransition t where t.serverId = :serverId and t.changedAt >= :from and t.changedAt < :to "
+            + "order by t.changedAt, t.id")
+    List<StatusTransition> findTimeline(Long serverId, Instant from, Instant to, Limit limit);
+}
@@ -0,0 +1,14 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.model.ServerStatus;
+
+/**
+ * Status of a server together with the row version that carries it, so that of two statuses of the
+ * same server the newer one can be told apart.
+ */
+public record VersionedStatus(ServerStatus status, Long version) {
+
+    public boolean isNewerThan(VersionedStatus other) {
+        return version != null && (other.version == null || version > other.version);
+    }
+}
@@ -0,0 +1,24 @@
+package com.td.server_management_td.service;
+
+/**
+ * Another server already has the given name or IP address. Answered with {@code 409 Conflict}.
+ */
+public class DuplicateServerException extends RuntimeException {
+
+    private final String field;
+    private final String value;
+
+    public DuplicateServerException(String field, String value) {
+        super("A server with " + field + " '" + value + "' already exists", null, false, false);
+        this.field = field;
+        this.value = value;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,14 @@
+package com.td.server_management_td.service;
+
+/**
+ * A requested resource does not exist. Answered with {@code 404 Not Found}.
+ *
+ * <p>Missing ids are an expected outcome, often from scanners probing the API, so the exception
+ * carries no stack trace: filling one in would cost more than the rest of the request.
+ */
+public class NotFoundException extends RuntimeException {
+
+    public NotFoundException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,21 @@
+package com.td.server_management_td.service;
+
+public class ServerNotFoundException extends NotFoundException {
+
+    private final Long serverId;
+
+    public ServerNotFoundException(Long serverId) {
+        super(null);
+        this.serverId = serverId;
+    }
+
+    public Long getServerId() {
+        return serverId;
+    }
+
+    // Built when read, so callers that only catch the exception never concatenate it
+    @Override
+    public String getMessage() {
+        return "Server not found with id: " + serverId;
+    }
+}
@@ -1,17 +1,60 @@
 package com.td.server_management_td.service;
 
+import com.td.server_management_td.dto.BulkOperationResult;
+import com.td.server_management_td.dto.BulkServerRequest;
+import com.td.server_management_td.dto.ServerDelta;
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.fleet.FleetVersion;
 import com.td.server_management_td.model.Server;
 import com.td.server_management_td.model.ServerStatus;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+// Covers the default overloads below: they are not declared on ServerServiceImpl, so its class-level
+// annotation does not apply to them and their self-invocation would otherwise run without a transaction
+@Transactional
 public interface ServerService {
-    List<Server> listServers();
+    List<ServerSummary> listServers(Long after, int limit);
+    List<ServerSummary> searchServers(ServerSearchCriteria criteria, String after, int limit);
+    void streamServers(Consumer<Server> consumer);
+    Optional<ServerIdentity> findServerByName(String name);
+    Optional<ServerIdentity> findServerByIpAddress(String ipAddress);
+    List<ServerIdentity> findServersByNamePrefix(String namePrefix, int limit);
+    Map<ServerStatus, Long> countServersByStatus();
     Server createServer(Server server);
-    Server renameServer(Long id, String newName);
+    Server renameServer(Long id, String newName, Long expectedVersion);
     ServerStatus getServerStatus(Long id);
-    Server startServer(Long id);
-    Server stopServer(Long id);
-    void deleteServer(Long id);
+    Server startServer(Long id, Long expectedVersion);
+    Server stopServer(Long id, Long expectedVersion);
+    Server transitionServer(Long id, ServerStatus target, Long expectedVersion);
+    void deleteServer(Long id, Long expectedVersion);
+    BulkOperationResult startServers(BulkServerRequest request);
+    BulkOperationResult stopServers(BulkServerRequest request);
+    BulkOperationResult deleteServers(BulkServerRequest request);
+    FleetVersion.Snapshot fleetVersion();
+    ServerDelta changesSince(long version);
+
+    // Unversioned variants: the write applies whatever the current version is
+    default Server renameServer(Long id, String newName) {
+        return renameServer(id, newName, null);
+    }
+
+    default Server startServer(Long id) {
+        return startServer(id, null);
+    }
+
+    default Server stopServer(Long id) {
+        return stopServer(id, null);
+    }
+
+    default void deleteServer(Long id) {
+        deleteServer(id, null);
+    }
 }
 
@@ -1,75 +1,490 @@
 package com.td.server_management_td.service;
 
+import com.td.server_management_td.dto.BulkOperationResult;
+import com.td.server_management_td.dto.BulkServerRequest;
+import com.td.server_management_td.dto.ServerDelta;
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSortField;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.fleet.FleetIndex;
+import com.td.server_management_td.fleet.FleetIndexer;
+import com.td.server_management_td.fleet.FleetVersion;
 import com.td.server_management_td.model.Server;
 import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.replica.ReplicaContext;
 import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.repository.ServerSpecifications;
+import com.td.server_management_td.repository.ServerStatusView;
+import com.td.server_management_td.repository.ServerTombstoneRepository;
+import com.td.server_management_td.repository.StatusCount;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ServerServiceImpl implements ServerService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    // Keeps IN lists within a size the database can plan and bind cheaply
+    static final int BULK_CHUNK_SIZE = 1000;
+    // Larger deltas are answered with a reset: reloading the list pages is cheaper than one huge response
+    public static final int MAX_DELTA_SIZE = 10_000;
+
     private final ServerRepository serverRepository;
+    private final ServerTombstoneRepository tombstoneRepository;
+    private final EntityManager entityManager;
+    private final ServerStatusCache statusCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FleetVersion fleetVersion;
+    private final FleetIndexer fleetIndexer;
 
-    public ServerServiceImpl(ServerRepository serverRepository) {
+    public ServerServiceImpl(ServerRepository serverRepository, ServerTombstoneRepository tombstoneRepository,
+                             EntityManager entityManager, ServerStatusCache statusCache,
+                             ApplicationEventPublisher eventPublisher, FleetVersion fleetVersion,
+                             FleetIndexer fleetIndexer) {
         this.serverRepository = serverRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.entityManager = entityManager;
+        this.statusCache = statusCache;
+        this.eventPublisher = eventPublisher;
+        this.fleetVersion = fleetVersion;
+        this.fleetIndexer = fleetIndexer;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Server> listServers() {
-        return serverRepository.findAll();
+    public List<ServerSummary> listServers(Long after, int limit) {
+        checkLimit(limit);
+        long cursor = after == null ? 0L : after;
+        return serverRepository.findSummariesByIdGreaterThanOrderByIdAsc(cursor, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ServerSummary> searchServers(ServerSearchCriteria criteria, String after, int limit) {
+        checkLimit(limit);
+        ServerSortField field = criteria.sortField();
+        Specification<Server> specification = ServerSpecifications.matching(criteria);
+        if (after != null) {
+            specification = specification.and(ServerSpecifications.after(field, criteria.direction(), field.parseCursor(after)));
+        }
+        Sort sort = Sort.by(criteria.direction(), field.property());
+        if (field != ServerSortField.ID) {
+            sort = sort.and(Sort.by(criteria.direction(), "id"));
+        }
+        // A plain limited select of DTOs: no count query, and nothing for the persistence context to track
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ServerSummary> query = cb.createQuery(ServerSummary.class);
+        Root<Server> root = query.from(Server.class);
+        query.select(cb.construct(ServerSummary.class, root.get("id"), root.get("name"), root.get("ipAddress"),
+                root.get("status"), root.get("version"), root.get("health"), root.get("lastSeenAt")));
+        query.where(specification.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public FleetVersion.Snapshot fleetVersion() {
+        return fleetVersion.current();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ServerDelta changesSince(long version) {
+        // Taken before the reads: every change up to this version is committed, so none can be missed
+        long current = fleetVersion.current().version();
+        if (version <= 0 || version > current) {
+            return ServerDelta.reset(current);
+        }
+        // From a replica only once it has every change up to current, or the client would skip the missing ones for good
+        return ReplicaContext.atLeast(current, () -> {
+            Limit limit = Limit.of(MAX_DELTA_SIZE + 1);
+            List<ServerSummary> changed = serverRepository.findSummariesByChangeVersionGreaterThanOrderByChangeVersionAscIdAsc(version, limit);
+            List<Long> deleted = tombstoneRepository.findServerIdsDeletedAfter(version, limit);
+            if (changed.size() + deleted.size() > MAX_DELTA_SIZE) {
+                return ServerDelta.reset(current);
+            }
+            return new ServerDelta(current, false, changed, deleted);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamServers(Consumer<Server> consumer) {
+        try (Stream<Server> servers = serverRepository.streamAllByOrderByIdAsc()) {
+            servers.forEach(server -> {
+                consumer.accept(server);
+                // Detach once written so the persistence context does not grow with the fleet
+                entityManager.detach(server);
+            });
+        }
+    }
+
+    // The lookups below open no transaction: answered from the fleet index they never touch Hibernate or the
+    // connection pool, and the repository fallbacks run in a read-only transaction of their own
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<ServerIdentity> findServerByName(String name) {
+        FleetIndex index = fleetIndexer.index();
+        if (index == null) {
+            return serverRepository.findIdentityByName(name);
+        }
+        return identity(index, index.findByName(name));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<ServerIdentity> findServerByIpAddress(String ipAddress) {
+        FleetIndex index = fleetIndexer.index();
+        if (index == null) {
+            return serverRepository.findIdentityByIpAddress(ipAddress);
+        }
+        return identity(index, index.findByIpAddress(ipAddress));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ServerIdentity> findServersByNamePrefix(String namePrefix, int limit) {
+        checkLimit(limit);
+        if (namePrefix == null || namePrefix.isBlank()) {
+            throw new IllegalArgumentException("namePrefix must not be blank");
+        }
+        // Not asked of the fleet index: its names are unsorted, and the unique index on name answers faster
+        return serverRepository.findIdentitiesByNameStartingWithOrderByIdAsc(namePrefix, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<ServerStatus, Long> countServersByStatus() {
+        Map<ServerStatus, Long> counts = new EnumMap<>(ServerStatus.class);
+        FleetIndex index = fleetIndexer.index();
+        for (ServerStatus status : ServerStatus.values()) {
+            counts.put(status, index == null ? 0L : index.count(status));
+        }
+        if (index == null) {
+            for (StatusCount count : serverRepository.countGroupedByStatus()) {
+                counts.put(count.getStatus(), count.getCount());
+            }
+        }
+        return counts;
+    }
+
+    private static Optional<ServerIdentity> identity(FleetIndex index, long id) {
+        return id == FleetIndex.NOT_FOUND ? Optional.empty() : Optional.ofNullable(index.get(id));
     }
 
     @Override
     public Server createServer(Server server) {
         server.setStatus(ServerStatus.STOPPED);
-        return serverRepository.save(server);
+        Server created;
+        try {
+            created = serverRepository.saveAndFlush(server);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateOr(e, server.getName(), server.getIpAddress());
+        }
+        statusCache.putAfterCommit(created.getId(), created.getStatus(), created.getVersion());
+        eventPublisher.publishEvent(ServerChangeEvent.created(created.getId(), created.getName(), created.getIpAddress(),
+                created.getStatus()));
+        return created;
     }
 
     @Override
-    public Server renameServer(Long id, String newName) {
-        Server server = getServerOrThrow(id);
-        server.setName(newName);
-        return serverRepository.save(server);
+    public Server renameServer(Long id, String newName, Long expectedVersion) {
+        Optional<Server> updated;
+        try {
+            updated = serverRepository.updateNameByIdReturning(id, newName, expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateOr(e, newName, null);
+        }
+        if (updated.isEmpty()) {
+            checkVersion(getServerOrThrow(id), expectedVersion);
+        }
+        // Still empty when the row was deleted between the update and the check
+        Server renamed = updated.orElseThrow(() -> new ServerNotFoundException(id));
+        eventPublisher.publishEvent(ServerChangeEvent.renamed(id, renamed.getName(), renamed.getStatus()));
+        return renamed;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ServerStatus getServerStatus(Long id) {
-        Server server = getServerOrThrow(id);
-        return server.getStatus();
+        // No transaction is opened here: cache hits never touch Hibernate or the connection pool
+        ServerStatus status = statusCache.get(id, serverRepository::findVersionedStatusById);
+        if (status == null) {
+            throw new ServerNotFoundException(id);
+        }
+        return status;
     }
 
     @Override
-    public Server startServer(Long id) {
-        Server server = getServerOrThrow(id);
-        server.setStatus(ServerStatus.RUNNING);
-        return serverRepository.save(server);
+    public Server startServer(Long id, Long expectedVersion) {
+        return transitionServer(id, ServerStatus.RUNNING, expectedVersion);
     }
 
     @Override
-    public Server stopServer(Long id) {
-        Server server = getServerOrThrow(id);
-        server.setStatus(ServerStatus.STOPPED);
-        return serverRepository.save(server);
+    public Server stopServer(Long id, Long expectedVersion) {
+        return transitionServer(id, ServerStatus.STOPPED, expectedVersion);
     }
 
     @Override
-    public void deleteServer(Long id) {
-        Server server = getServerOrThrow(id);
-        if (server.getStatus() == ServerStatus.RUNNING) {
-            throw new IllegalStateException("Cannot delete a running server. Stop the server first.");
+    public Server transitionServer(Long id, ServerStatus target, Long expectedVersion) {
+        // One compare-and-set per legal source state; the common case matches on the first statement
+        for (ServerStatus source : sourceOrder(id, target)) {
+            Optional<Server> updated = serverRepository.compareAndSetStatusReturning(id, source, target, expectedVersion);
+            if (updated.isPresent()) {
+                statusCache.putAfterCommit(id, target, updated.get().getVersion());
+                eventPublisher.publishEvent(ServerChangeEvent.statusChanged(id, updated.get().getName(), source, target));
+                return updated.get();
+            }
+        }
+        Server current = getServerOrThrow(id);
+        checkVersion(current, expectedVersion);
+        if (current.getStatus() == target) {
+            // Repeating a transition that already happened is a no-op, so clients can retry safely
+            return current;
         }
-        serverRepository.delete(server);
+        throw new IllegalStateException("Cannot change server status from " + current.getStatus() + " to " + target);
+    }
+
+    @Override
+    public void deleteServer(Long id, Long expectedVersion) {
+        // The status guard is part of the DELETE, so a concurrent start cannot slip in between check and delete
+        if (serverRepository.deleteByIdAndStatus(id, ServerStatus.STOPPED, expectedVersion) == 0) {
+            Server current = getServerOrThrow(id);
+            checkVersion(current, expectedVersion);
+            throw new IllegalStateException(deleteRejection(current.getStatus()));
+        }
+        statusCache.evictAfterCommit(id);
+        eventPublisher.publishEvent(ServerChangeEvent.deleted(id, ServerStatus.STOPPED));
+    }
+
+    @Override
+    public BulkOperationResult startServers(BulkServerRequest request) {
+        return changeStatus(request, ServerStatus.RUNNING);
+    }
+
+    @Override
+    public BulkOperationResult stopServers(BulkServerRequest request) {
+        return changeStatus(request, ServerStatus.STOPPED);
+    }
+
+    @Override
+    public BulkOperationResult deleteServers(BulkServerRequest request) {
+        List<BulkOperationResult.Failure> failed = new ArrayList<>();
+        List<ServerStatusView> targets = selectTargets(request, failed);
+
+        List<Long> deletable = new ArrayList<>();
+        for (ServerStatusView target : targets) {
+            if (target.getStatus() != ServerStatus.STOPPED) {
+                failed.add(new BulkOperationResult.Failure(target.getId(), deleteRejection(target.getStatus())));
+            } else {
+                deletable.add(target.getId());
+            }
+        }
+        int deleted = inChunks(deletable, chunk -> serverRepository.deleteByIdInAndStatus(chunk, ServerStatus.STOPPED));
+
+        Set<Long> succeeded = new LinkedHashSet<>(deletable);
+        if (deleted != deletable.size()) {
+            // Some rows were started concurrently between the select and the guarded delete
+            for (List<Long> chunk : chunks(deletable)) {
+                for (ServerStatusView survivor : serverRepository.findByIdIn(chunk)) {
+                    succeeded.remove(survivor.getId());
+                    failed.add(new BulkOperationResult.Failure(survivor.getId(), deleteRejection(survivor.getStatus())));
+                }
+            }
+        }
+        for (Long id : succeeded) {
+            statusCache.evictAfterCommit(id);
+            eventPublisher.publishEvent(ServerChangeEvent.deleted(id, ServerStatus.STOPPED));
+        }
+        return new BulkOperationResult(new ArrayList<>(succeeded), failed);
+    }
+
+    private BulkOperationResult changeStatus(BulkServerRequest request, ServerStatus target) {
+        List<BulkOperationResult.Failure> failed = new ArrayList<>();
+        List<ServerStatusView> targets = selectTargets(request, failed);
+
+        Set<Long> succeeded = new LinkedHashSet<>();
+        Map<ServerStatus, List<Long>> bySource = new EnumMap<>(ServerStatus.class);
+        for (ServerStatusView view : targets) {
+            if (view.getStatus() == target) {
+                succeeded.add(view.getId());
+            } else if (view.getStatus().canTransitionTo(target)) {
+                succeeded.add(view.getId());
+                bySource.computeIfAbsent(view.getStatus(), status -> new ArrayList<>()).add(view.getId());
+            } else {
+                failed.add(new BulkOperationResult.Failure(view.getId(),
+                        "Cannot change server status from " + view.getStatus() + " to " + target));
+            }
+        }
+
+        // One guarded update per source state, so a row changed concurrently since the select is never overwritten
+        for (Map.Entry<ServerStatus, List<Long>> group : bySource.entrySet()) {
+            ServerStatus source = group.getKey();
+            Set<Long> changed = new LinkedHashSet<>(group.getValue());
+            int updated = inChunks(group.getValue(), chunk -> serverRepository.compareAndSetStatusByIdIn(chunk, source, target));
+            if (updated != changed.size()) {
+                for (List<Long> chunk : chunks(group.getValue())) {
+                    for (ServerStatusView current : serverRepository.findByIdIn(chunk)) {
+                        if (current.getStatus() != target) {
+                            changed.remove(current.getId());
+                            succeeded.remove(current.getId());
+                            failed.add(new BulkOperationResult.Failure(current.getId(),
+                                    "Server was modified concurrently and is now " + current.getStatus()));
+                        }
+                    }
+                }
+            }
+            for (Long id : changed) {
+                // The set-based update does not tell which version each row reached
+                statusCache.evictAfterCommit(id);
+                eventPublisher.publishEvent(ServerChangeEvent.statusChanged(id, null, source, target));
+            }
+        }
+        return new BulkOperationResult(new ArrayList<>(succeeded), failed);
+    }
+
+    private List<ServerStatusView> selectTargets(BulkServerRequest request, List<BulkOperationResult.Failure> failed) {
+        int selectors = (request.ids() != null ? 1 : 0)
+                + (request.status() != null ? 1 : 0)
+                + (request.namePrefix() != null ? 1 : 0);
+        if (selectors != 1) {
+            throw new IllegalArgumentException("Exactly one of ids, status or namePrefix must be provided");
+        }
+        if (request.status() != null) {
+            return serverRepository.findByStatus(request.status());
+        }
+        if (request.namePrefix() != null) {
+            if (request.namePrefix().isBlank()) {
+                throw new IllegalArgumentException("namePrefix must not be blank");
+            }
+            return serverRepository.findByNameStartingWith(request.namePrefix());
+        }
+
+        Set<Long> requested = new LinkedHashSet<>(request.ids());
+        List<ServerStatusView> found = new ArrayList<>(requested.size());
+        for (List<Long> chunk : chunks(requested)) {
+            found.addAll(serverRepository.findByIdIn(chunk));
+        }
+        found.forEach(view -> requested.remove(view.getId()));
+        for (Long missing : requested) {
+            failed.add(new BulkOperationResult.Failure(missing, "Server not found with id: " + missing));
+        }
+        return found;
+    }
+
+    private static int inChunks(List<Long> ids, ToIntFunction<List<Long>> statement) {
+        int affected = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            affected += statement.applyAsInt(chunk);
+        }
+        return affected;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + BULK_CHUNK_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    // Tries the cached status first when it is a legal source, so transitions out of transitional states stay one statement
+    private List<ServerStatus> sourceOrder(Long id, ServerStatus target) {
+        List<ServerStatus> sources = ServerStatus.sourcesOf(target);
+        ServerStatus cached = statusCache.peek(id);
+        if (cached == null || cached == sources.get(0) || !sources.contains(cached)) {
+            return sources;
+        }
+        List<ServerStatus> ordered = new ArrayList<>(sources.size());
+        ordered.add(cached);
+        for (ServerStatus source : sources) {
+            if (source != cached) {
+                ordered.add(source);
+            }
+        }
+        return ordered;
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static void checkVersion(Server server, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(server.getVersion())) {
+            throw new OptimisticLockingFailureException("Server " + server.getId() + " is at version "
+                    + server.getVersion() + ", expected " + expectedVersion);
+        }
+    }
+
+    private static String deleteRejection(ServerStatus status) {
+        if (status == ServerStatus.RUNNING) {
+            return "Cannot delete a running server. Stop the server first.";
+        }
+        return "Cannot delete a server that is " + status + ". Stop the server first.";
     }
 
     private Server getServerOrThrow(Long id) {
         return serverRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Server not found with id: " + id));
+                .orElseThrow(() -> new ServerNotFoundException(id));
+    }
+
+    // The unique constraints are named on the entity and in V1, so the violated one can be told apart
+    private static RuntimeException duplicateOr(DataIntegrityViolationException e, String name, String ipAddress) {
+        String constraint = constraintName(e).toLowerCase(Locale.ROOT);
+        if (constraint.contains(Server.NAME_CONSTRAINT)) {
+            return new DuplicateServerException("name", name);
+        }
+        if (constraint.contains(Server.IP_ADDRESS_CONSTRAINT)) {
+            return new DuplicateServerException("ipAddress", ipAddress);
+        }
+        return e;
+    }
+
+    private static String constraintName(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName();
+            }
+        }
+        return String.valueOf(e.getMostSpecificCause().getMessage());
     }
 }
 
@@ -0,0 +1,103 @@
+package com.td.server_management_td.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.replica.ReplicaContext;
+import com.td.server_management_td.repository.VersionedStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, write-through cache of server statuses keyed by id.
+ * Writers update it only after their transaction commits, so a rolled back write never becomes visible.
+ * Each status is kept with its row version and only replaced by a newer one, since the after-commit
+ * callbacks of two writers of the same server can run in either order.
+ * Hit rate and evictions are published as {@code cache.*} metrics tagged {@code cache=server-status}.
+ */
+@Component
+public class ServerStatusCache implements MeterBinder {
+
+    private final Cache<Long, VersionedStatus> cache;
+    // Advanced by every eviction, so a load that overlapped one is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ServerStatusCache(StatusCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached status, loading it on a miss. Loads run outside the cache's locks: a load
+     * waits for a pooled connection, and a writer holding one must never wait for the load to
+     * update the cache. A loaded status is kept only if no newer version was cached and nothing was
+     * evicted meanwhile. Loads read the primary: a status read from a lagging replica would be stale.
+     */
+    public ServerStatus get(Long id, Function<Long, Optional<VersionedStatus>> loader) {
+        VersionedStatus cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.status();
+        }
+        long evictionsBefore = evictions.get();
+        VersionedStatus loaded = ReplicaContext.onPrimary(() -> loader.apply(id)).orElse(null);
+        if (loaded == null) {
+            return null;
+        }
+        cache.asMap().compute(id, (key, current) -> evictions.get() != evictionsBefore ? current : newer(current, loaded));
+        return loaded.status();
+    }
+
+    public ServerStatus peek(Long id) {
+        VersionedStatus cached = cache.getIfPresent(id);
+        return cached == null ? null : cached.status();
+    }
+
+    /**
+     * Caches the status written at {@code version} once the transaction commits, unless a newer
+     * version of the server is cached by then.
+     */
+    public void putAfterCommit(Long id, ServerStatus status, Long version) {
+        VersionedStatus written = new VersionedStatus(status, version);
+        afterCommit(() -> cache.asMap().merge(id, written, ServerStatusCache::newer));
+    }
+
+    public void evictAfterCommit(Long id) {
+        afterCommit(() -> {
+            evictions.incrementAndGet();
+            cache.invalidate(id);
+        });
+    }
+
+    private static VersionedStatus newer(VersionedStatus cached, VersionedStatus candidate) {
+        return cached == null || candidate.isNewerThan(cached) ? candidate : cached;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "server-status");
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.td.server_management_td.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "server-management.status-cache")
+public record StatusCacheProperties(
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("5m") Duration ttl) {
+}
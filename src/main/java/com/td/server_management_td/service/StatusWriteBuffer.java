@@ -0,0 +1,358 @@
+package com.td.server_management_td.service;
+
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for unversioned status changes ({@code server-management.write-behind.*}).
+ *
+ * <p>Changes are validated against the state machine and recorded per server id in one of
+ * {@code stripes} lock-striped maps; repeated changes of the same server collapse into one pending
+ * entry that remembers the status it started from and every transition accepted since. Every
+ * {@code flush-interval} a single thread swaps the maps out and writes all entries in one
+ * transaction, one guarded {@code update} per server in a JDBC batch, then publishes each accepted
+ * transition's {@link ServerChangeEvent} in that transaction so history, outbox and subscribers
+ * still see every step. Entries being flushed stay readable until the commit, which gives readers
+ * read-your-writes through {@link #status(Long)}.
+ *
+ * <p>A server whose row is no longer at the version the entry started from was changed behind the
+ * buffer's back (another node, or SQL outside the service), even if it has since returned to the
+ * same status; its buffered changes are dropped, counted as conflicts and, with {@code COMMITTED}
+ * durability, fail their callers with an {@link OptimisticLockingFailureException}. A flush that
+ * fails is merged back and retried with the next one.
+ */
+@Component
+@ConditionalOnProperty(prefix = "server-management.write-behind", name = "enabled", havingValue = "true")
+public class StatusWriteBuffer implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusWriteBuffer.class);
+
+    private static final class Pending {
+        // Row as it will be before this entry is written
+        final Server snapshot;
+        final long version;
+        final List<ServerChangeEvent> events = new ArrayList<>();
+        // Completed once the entry is written, or failed once it turns out to be a conflict
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+        ServerStatus status;
+        boolean conflict;
+
+        Pending(Server snapshot) {
+            this.snapshot = snapshot;
+            this.version = snapshot.getVersion() == null ? 0 : snapshot.getVersion();
+            this.status = snapshot.getStatus();
+        }
+
+        long writtenVersion() {
+            return version + 1;
+        }
+    }
+
+    private static final class Stripe {
+        Map<Long, Pending> pending = new HashMap<>();
+        Map<Long, Pending> flushing = Map.of();
+        // Completed flushes; a row loaded before a flush committed may be stale
+        long flushes;
+    }
+
+    private final ServerRepository serverRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ServerStatusCache statusCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WriteBehindProperties properties;
+    private final Stripe[] stripes;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "status-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Not a monitor: flushes run JDBC, which would pin the carrier of a virtual thread waiting here
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+
+    public StatusWriteBuffer(ServerRepository serverRepository, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager, ServerStatusCache statusCache,
+                             ApplicationEventPublisher eventPublisher, WriteBehindProperties properties) {
+        this.serverRepository = serverRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.statusCache = statusCache;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.stripes = new Stripe[Math.max(1, properties.stripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Writing status changes behind every {} ({})", properties.flushInterval(), properties.durability());
+        long interval = Math.max(1, properties.flushInterval().toMillis());
+        executor.scheduleWithFixedDelay(this::scheduledFlush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Accepts a status change and returns the server as it will be once flushed. Repeating the
+     * current status is a no-op, as on the synchronous path.
+     */
+    public Server transition(Long id, ServerStatus target) {
+        Stripe stripe = stripeOf(id);
+        Server loaded = null;
+        long loadedAfterFlushes = -1;
+        Server result;
+        CompletableFuture<Void> flushed;
+        while (true) {
+            synchronized (stripe) {
+                Pending entry = stripe.pending.get(id);
+                Pending inFlight = stripe.flushing.get(id);
+                if (entry == null) {
+                    if (inFlight != null) {
+                        entry = new Pending(inFlight.snapshot.withStatus(inFlight.status, inFlight.writtenVersion()));
+                    } else if (loaded != null && loadedAfterFlushes == stripe.flushes) {
+                        entry = new Pending(loaded);
+                    }
+                }
+                if (entry != null) {
+                    if (entry.status == target) {
+                        result = entry.events.isEmpty() ? entry.snapshot : entry.snapshot.withStatus(target, entry.writtenVersion());
+                        // The status is only durable once the buffered write carrying it, if any, is
+                        flushed = !entry.events.isEmpty() ? entry.written : inFlight != null ? inFlight.written : null;
+                        break;
+                    }
+                    if (!entry.status.canTransitionTo(target)) {
+                        throw new IllegalStateException("Cannot change server status from " + entry.status + " to " + target);
+                    }
+                    entry.events.add(ServerChangeEvent.statusChanged(id, entry.snapshot.getName(), entry.status, target));
+                    entry.status = target;
+                    stripe.pending.putIfAbsent(id, entry);
+                    accepted.incrementAndGet();
+                    result = entry.snapshot.withStatus(target, entry.writtenVersion());
+                    flushed = entry.written;
+                    break;
+                }
+                loadedAfterFlushes = stripe.flushes;
+            }
+            // Loaded outside the lock; retried if a flush of this stripe committed meanwhile
+            loaded = serverRepository.findById(id)
+                    .orElseThrow(() -> new ServerNotFoundException(id));
+        }
+        if (flushed != null && properties.durability() == WriteBehindProperties.Durability.COMMITTED) {
+            try {
+                flushed.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Status of a server including buffered changes, or null when nothing is buffered for it.
+     */
+    public ServerStatus status(Long id) {
+        Buffered buffered = buffered(id);
+        return buffered == null ? null : buffered.status();
+    }
+
+    /**
+     * Status and version a server will have once its buffered changes are written, or null when
+     * nothing is buffered for it.
+     */
+    public Buffered buffered(Long id) {
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            Pending entry = stripe.pending.get(id);
+            if (entry == null) {
+                entry = stripe.flushing.get(id);
+            }
+            return entry == null ? null : new Buffered(entry.status, entry.writtenVersion());
+        }
+    }
+
+    public record Buffered(ServerStatus status, long version) {}
+
+    /**
+     * Writes everything buffered so far. Called before any operation that must see the database
+     * in its final state.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushBatch();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushBatch() {
+        List<Pending> batch = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.flushing = stripe.pending;
+                stripe.pending = new HashMap<>();
+                batch.addAll(stripe.flushing.values());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(transaction -> write(batch));
+        } catch (RuntimeException e) {
+            // The requeued changes are acknowledged by the flush that writes them
+            requeue();
+            throw e;
+        }
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.flushing = Map.of();
+                stripe.flushes++;
+            }
+        }
+        for (Pending entry : batch) {
+            if (entry.conflict) {
+                entry.written.completeExceptionally(new OptimisticLockingFailureException("Server "
+                        + entry.snapshot.getId() + " was changed by another writer; its status change to "
+                        + entry.status + " was dropped"));
+            } else {
+                entry.written.complete(null);
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Pending entry : batch) {
+            rows.add(new Object[] {entry.status.name(), entry.snapshot.getId(), entry.version});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(
+                "update servers set status = ?, version = version + 1 where id = ? and version = ?", rows);
+        for (int i = 0; i < counts.length; i++) {
+            Pending entry = batch.get(i);
+            Long id = entry.snapshot.getId();
+            // Decided again by every attempt, since a failed flush is retried
+            entry.conflict = counts[i] == 0;
+            if (entry.conflict) {
+                conflicts.incrementAndGet();
+                statusCache.evictAfterCommit(id);
+                log.warn("Dropped {} buffered status change(s) of server {}: it is no longer at version {}",
+                        entry.events.size(), id, entry.version);
+                continue;
+            }
+            written.incrementAndGet();
+            statusCache.putAfterCommit(id, entry.status, entry.writtenVersion());
+            entry.events.forEach(eventPublisher::publishEvent);
+        }
+    }
+
+    // Puts a failed flush back in front of whatever was buffered since
+    private void requeue() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Map<Long, Pending> merged = new HashMap<>(stripe.flushing);
+                stripe.pending.forEach((id, newer) -> {
+                    Pending older = merged.get(id);
+                    if (older == null) {
+                        merged.put(id, newer);
+                    } else {
+                        older.events.addAll(newer.events);
+                        older.status = newer.status;
+                        older.written.whenComplete((result, error) -> {
+                            if (error == null) {
+                                newer.written.complete(null);
+                            } else {
+                                newer.written.completeExceptionally(error);
+                            }
+                        });
+                    }
+                });
+                stripe.pending = merged;
+                stripe.flushing = Map.of();
+                stripe.flushes++;
+            }
+        }
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // An exception would cancel the fixed-delay schedule; the next flush retries
+            log.warn("Status write-behind flush failed", e);
+        }
+    }
+
+    private Stripe stripeOf(Long id) {
+        return stripes[Math.floorMod(Long.hashCode(id) * 0x9E3779B9, stripes.length)];
+    }
+
+    int pendingCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.pending.size();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("server.write_behind.pending", this, StatusWriteBuffer::pendingCount)
+                .description("Servers with buffered status changes")
+                .register(registry);
+        FunctionCounter.builder("server.write_behind.changes", accepted, AtomicLong::get)
+                .description("Status changes accepted into the write-behind buffer")
+                .register(registry);
+        FunctionCounter.builder("server.write_behind.writes", written, AtomicLong::get)
+                .description("Row updates written by write-behind flushes")
+                .register(registry);
+        FunctionCounter.builder("server.write_behind.conflicts", conflicts, AtomicLong::get)
+                .description("Buffered servers dropped because their row changed outside the buffer")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+}
@@ -0,0 +1,22 @@
+package com.td.server_management_td.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "server-management.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10ms") Duration flushInterval,
+        @DefaultValue("16") int stripes,
+        @DefaultValue("BUFFERED") Durability durability) {
+
+    public enum Durability {
+        // Acknowledged once buffered: a crash loses up to one flush interval of accepted changes
+        BUFFERED,
+        // Acknowledged once the flush holding the change has committed: nothing acknowledged is lost,
+        // at the cost of waiting up to one flush interval
+        COMMITTED
+    }
+}
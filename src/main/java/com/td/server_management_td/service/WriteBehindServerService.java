@@ -0,0 +1,190 @@
+package com.td.server_management_td.service;
+
+import com.td.server_management_td.dto.BulkOperationResult;
+import com.td.server_management_td.dto.BulkServerRequest;
+import com.td.server_management_td.dto.ServerDelta;
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.fleet.FleetVersion;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * {@link ServerService} that routes unversioned start, stop and status changes through the
+ * {@link StatusWriteBuffer}, so a server flapping between states costs one row write per flush
+ * instead of one per request. Reads never wait for a flush: servers they return carry their buffered
+ * status and version, while filters, counts, the fleet version and deltas see the database and may
+ * lag by up to one {@code flush-interval}. Renames, deletes, bulk operations and version-checked
+ * writes flush the buffer first and then run on {@link ServerServiceImpl}, so they always act on the
+ * latest accepted status.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "server-management.write-behind", name = "enabled", havingValue = "true")
+// Transactions are opened by the delegate and the buffer, never around a buffered change
+@Transactional(propagation = Propagation.SUPPORTS)
+public class WriteBehindServerService implements ServerService {
+
+    private final ServerService delegate;
+    private final StatusWriteBuffer buffer;
+
+    public WriteBehindServerService(@Qualifier("serverServiceImpl") ServerService delegate, StatusWriteBuffer buffer) {
+        this.delegate = delegate;
+        this.buffer = buffer;
+    }
+
+    @Override
+    public List<ServerSummary> listServers(Long after, int limit) {
+        return delegate.listServers(after, limit).stream().map(this::overlay).toList();
+    }
+
+    @Override
+    public List<ServerSummary> searchServers(ServerSearchCriteria criteria, String after, int limit) {
+        return delegate.searchServers(criteria, after, limit).stream().map(this::overlay).toList();
+    }
+
+    @Override
+    public void streamServers(Consumer<Server> consumer) {
+        delegate.streamServers(server -> consumer.accept(overlay(server)));
+    }
+
+    @Override
+    public Optional<ServerIdentity> findServerByName(String name) {
+        return delegate.findServerByName(name).map(this::overlay);
+    }
+
+    @Override
+    public Optional<ServerIdentity> findServerByIpAddress(String ipAddress) {
+        return delegate.findServerByIpAddress(ipAddress).map(this::overlay);
+    }
+
+    @Override
+    public List<ServerIdentity> findServersByNamePrefix(String namePrefix, int limit) {
+        return delegate.findServersByNamePrefix(namePrefix, limit).stream().map(this::overlay).toList();
+    }
+
+    @Override
+    public Map<ServerStatus, Long> countServersByStatus() {
+        return delegate.countServersByStatus();
+    }
+
+    @Override
+    public Server createServer(Server server) {
+        return delegate.createServer(server);
+    }
+
+    @Override
+    public Server renameServer(Long id, String newName, Long expectedVersion) {
+        buffer.flush();
+        return delegate.renameServer(id, newName, expectedVersion);
+    }
+
+    @Override
+    public Server renameServer(Long id, String newName) {
+        return renameServer(id, newName, null);
+    }
+
+    @Override
+    public ServerStatus getServerStatus(Long id) {
+        ServerStatus buffered = buffer.status(id);
+        return buffered != null ? buffered : delegate.getServerStatus(id);
+    }
+
+    @Override
+    public Server startServer(Long id, Long expectedVersion) {
+        return transitionServer(id, ServerStatus.RUNNING, expectedVersion);
+    }
+
+    @Override
+    public Server startServer(Long id) {
+        return transitionServer(id, ServerStatus.RUNNING, null);
+    }
+
+    @Override
+    public Server stopServer(Long id, Long expectedVersion) {
+        return transitionServer(id, ServerStatus.STOPPED, expectedVersion);
+    }
+
+    @Override
+    public Server stopServer(Long id) {
+        return transitionServer(id, ServerStatus.STOPPED, null);
+    }
+
+    @Override
+    public Server transitionServer(Long id, ServerStatus target, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return buffer.transition(id, target);
+        }
+        // The version to compare against is only known once buffered changes are written
+        buffer.flush();
+        return delegate.transitionServer(id, target, expectedVersion);
+    }
+
+    @Override
+    public void deleteServer(Long id, Long expectedVersion) {
+        buffer.flush();
+        delegate.deleteServer(id, expectedVersion);
+    }
+
+    @Override
+    public void deleteServer(Long id) {
+        deleteServer(id, null);
+    }
+
+    @Override
+    public BulkOperationResult startServers(BulkServerRequest request) {
+        buffer.flush();
+        return delegate.startServers(request);
+    }
+
+    @Override
+    public BulkOperationResult stopServers(BulkServerRequest request) {
+        buffer.flush();
+        return delegate.stopServers(request);
+    }
+
+    @Override
+    public BulkOperationResult deleteServers(BulkServerRequest request) {
+        buffer.flush();
+        return delegate.deleteServers(request);
+    }
+
+    @Override
+    public FleetVersion.Snapshot fleetVersion() {
+        return delegate.fleetVersion();
+    }
+
+    @Override
+    public ServerDelta changesSince(long version) {
+        return delegate.changesSince(version);
+    }
+
+    private ServerSummary overlay(ServerSummary server) {
+        StatusWriteBuffer.Buffered buffered = buffer.buffered(server.id());
+        return buffered == null ? server : new ServerSummary(server.id(), server.name(), server.ipAddress(),
+                buffered.status(), buffered.version(), server.health(), server.lastSeenAt());
+    }
+
+    private ServerIdentity overlay(ServerIdentity server) {
+        ServerStatus buffered = buffer.status(server.id());
+        return buffered == null ? server
+                : new ServerIdentity(server.id(), server.name(), server.ipAddress(), buffered);
+    }
+
+    private Server overlay(Server server) {
+        StatusWriteBuffer.Buffered buffered = buffer.buffered(server.getId());
+        return buffered == null ? server : server.withStatus(buffered.status(), buffered.version());
+    }
+}
@@ -0,0 +1,55 @@
+package com.td.server_management_td.shard;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread works on, read by {@link ShardRoutingDataSource} whenever a connection is
+ * taken. It has to be set before a transaction starts: the transaction keeps the connection it
+ * began with. Threads that never set it use shard 0.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Calls {@code work} on {@code shard} and restores the previous shard afterwards.
+     */
+    public static <T> T call(int shard, Callable<T> work) throws Exception {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static <T> T get(int shard, Supplier<T> work) {
+        try {
+            return call(shard, work::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void run(int shard, Runnable work) {
+        get(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
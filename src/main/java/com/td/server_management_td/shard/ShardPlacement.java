@@ -0,0 +1,43 @@
+package com.td.server_management_td.shard;
+
+import com.td.server_management_td.model.Ipv4Range;
+import com.td.server_management_td.model.Server;
+
+/**
+ * Chooses the shard a new server is stored on. Declare a bean of this type to replace the
+ * placement selected by {@code server-management.sharding.placement}.
+ */
+@FunctionalInterface
+public interface ShardPlacement {
+
+    /**
+     * Shard between 0 and {@code shards - 1} for {@code server}, which is about to be created with
+     * {@code id} (a {@link SnowflakeIdGenerator} id without shard bits).
+     */
+    int shardFor(Server server, long id, int shards);
+
+    /**
+     * Spreads servers evenly by a hash of their id.
+     */
+    static ShardPlacement byId() {
+        return (server, id, shards) -> Math.floorMod(mix(id), shards);
+    }
+
+    /**
+     * Keeps every server of a site together: IPv4 addresses are placed by their /16 network,
+     * anything else by the whole address. One address always maps to the same shard, so the
+     * unique constraint on {@code ip_address} still holds fleet-wide.
+     */
+    static ShardPlacement bySite() {
+        return (server, id, shards) -> {
+            Long address = Ipv4Range.toNumeric(server.getIpAddress());
+            long key = address != null ? address >>> 16 : server.getIpAddress().hashCode();
+            return Math.floorMod(mix(key), shards);
+        };
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32);
+    }
+}
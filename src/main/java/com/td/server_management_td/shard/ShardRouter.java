@@ -0,0 +1,47 @@
+package com.td.server_management_td.shard;
+
+import com.td.server_management_td.model.Server;
+
+/**
+ * Knows how many shards there are, which one holds a given server id, and where a new server goes.
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+    private final SnowflakeIdGenerator ids;
+    private final ShardPlacement placement;
+
+    public ShardRouter(int shardCount, SnowflakeIdGenerator ids, ShardPlacement placement) {
+        if (shardCount < 1 || shardCount > SnowflakeIdGenerator.MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + SnowflakeIdGenerator.MAX_SHARDS + " shards are supported");
+        }
+        this.shardCount = shardCount;
+        this.ids = ids;
+        this.placement = placement;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Shard holding {@code id}, or -1 when the id cannot exist in this fleet.
+     */
+    public int shardOf(long id) {
+        int shard = SnowflakeIdGenerator.shardOf(id);
+        return shard < shardCount ? shard : -1;
+    }
+
+    /**
+     * Gives {@code server} a new id and returns the shard it has to be stored on.
+     */
+    public int assignId(Server server) {
+        long id = ids.next();
+        int shard = placement.shardFor(server, id, shardCount);
+        if (shard < 0 || shard >= shardCount) {
+            throw new IllegalStateException("Shard placement chose shard " + shard + " of " + shardCount);
+        }
+        server.setId(SnowflakeIdGenerator.withShard(id, shard));
+        return shard;
+    }
+}
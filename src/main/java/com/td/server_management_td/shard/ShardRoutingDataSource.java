@@ -0,0 +1,58 @@
+package com.td.server_management_td.shard;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The application's single {@link DataSource}, handing out connections of the shard in
+ * {@link ShardContext}. JPA, Spring Data and {@code JdbcTemplate} all run on it unchanged.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        // An unknown shard is a routing bug, never a reason to write to shard 0
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    /**
+     * Number of shards behind {@code dataSource}, which is 1 unless it routes between shards.
+     * Work for every shard is run once per shard inside {@link ShardContext}.
+     */
+    public static int shardCount(DataSource dataSource) {
+        return dataSource instanceof ShardRoutingDataSource routing ? routing.shards.size() : 1;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    // The shard pools are not beans of their own, so nothing else would close them
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
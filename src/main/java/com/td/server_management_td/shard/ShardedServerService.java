@@ -0,0 +1,353 @@
+package com.td.server_management_td.shard;
+
+import com.td.server_management_td.dto.BulkOperationResult;
+import com.td.server_management_td.dto.BulkServerRequest;
+import com.td.server_management_td.dto.ServerDelta;
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.fleet.FleetVersion;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.service.DuplicateServerException;
+import com.td.server_management_td.service.ServerNotFoundException;
+import com.td.server_management_td.service.ServerService;
+import com.td.server_management_td.service.ServerServiceImpl;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * {@link ServerService} over sharded storage. A new server is given a {@link SnowflakeIdGenerator}
+ * id naming its shard, so every operation on an id runs on exactly one shard. Lists, searches,
+ * deltas and bulk operations run on every shard in parallel: each shard answers the full page, and
+ * the pages are merged in the requested order and cut to the limit. Paging cursors therefore work
+ * exactly as unsharded.
+ *
+ * <p>The unique indexes only cover a shard, so creating or renaming a server first checks the
+ * other shards for its name and address. The check is not atomic with the insert: two servers with
+ * the same name created at the same moment on different shards can both succeed, and lookups then
+ * answer the lowest id. A bulk operation commits per shard, and {@link #streamServers} is ordered
+ * by id within each shard, shard after shard.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "server-management.sharding", name = "enabled", havingValue = "true")
+// A caller's transaction would pin the delegate to that transaction's shard; each shard call starts its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ShardedServerService implements ServerService, DisposableBean {
+
+    private final ServerService delegate;
+    private final ShardRouter router;
+    private final ExecutorService executor;
+
+    public ShardedServerService(@Qualifier("serverServiceImpl") ServerService delegate, ShardRouter router,
+                                ShardingProperties properties) {
+        this.delegate = delegate;
+        this.router = router;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.fanOutThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public List<ServerSummary> listServers(Long after, int limit) {
+        return merge(onEveryShard(shard -> delegate.listServers(after, limit)), Comparator.comparing(ServerSummary::id), limit);
+    }
+
+    @Override
+    public List<ServerSummary> searchServers(ServerSearchCriteria criteria, String after, int limit) {
+        return merge(onEveryShard(shard -> delegate.searchServers(criteria, after, limit)),
+                criteria.sortField().comparator(criteria.direction()), limit);
+    }
+
+    @Override
+    public void streamServers(Consumer<Server> consumer) {
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            ShardContext.run(shard, () -> delegate.streamServers(consumer));
+        }
+    }
+
+    // Uniqueness across shards is checked rather than enforced: should two servers share a value, the lowest id wins
+
+    @Override
+    public Optional<ServerIdentity> findServerByName(String name) {
+        return first(onEveryShard(shard -> delegate.findServerByName(name)));
+    }
+
+    @Override
+    public Optional<ServerIdentity> findServerByIpAddress(String ipAddress) {
+        return first(onEveryShard(shard -> delegate.findServerByIpAddress(ipAddress)));
+    }
+
+    @Override
+    public List<ServerIdentity> findServersByNamePrefix(String namePrefix, int limit) {
+        return merge(onEveryShard(shard -> delegate.findServersByNamePrefix(namePrefix, limit)),
+                Comparator.comparing(ServerIdentity::id), limit);
+    }
+
+    @Override
+    public Map<ServerStatus, Long> countServersByStatus() {
+        Map<ServerStatus, Long> counts = new EnumMap<>(ServerStatus.class);
+        for (Map<ServerStatus, Long> shardCounts : onEveryShard(shard -> delegate.countServersByStatus())) {
+            shardCounts.forEach((status, count) -> counts.merge(status, count, Long::sum));
+        }
+        return counts;
+    }
+
+    @Override
+    public Server createServer(Server server) {
+        int shard = router.assignId(server);
+        checkUniqueElsewhere(shard, server.getName(), server.getIpAddress());
+        return ShardContext.get(shard, () -> delegate.createServer(server));
+    }
+
+    @Override
+    public Server renameServer(Long id, String newName, Long expectedVersion) {
+        int shard = router.shardOf(id);
+        if (shard >= 0) {
+            checkUniqueElsewhere(shard, newName, null);
+        }
+        return onShardOf(id, () -> delegate.renameServer(id, newName, expectedVersion));
+    }
+
+    @Override
+    public Server renameServer(Long id, String newName) {
+        return renameServer(id, newName, null);
+    }
+
+    @Override
+    public ServerStatus getServerStatus(Long id) {
+        return onShardOf(id, () -> delegate.getServerStatus(id));
+    }
+
+    @Override
+    public Server startServer(Long id, Long expectedVersion) {
+        return onShardOf(id, () -> delegate.startServer(id, expectedVersion));
+    }
+
+    @Override
+    public Server startServer(Long id) {
+        return startServer(id, null);
+    }
+
+    @Override
+    public Server stopServer(Long id, Long expectedVersion) {
+        return onShardOf(id, () -> delegate.stopServer(id, expectedVersion));
+    }
+
+    @Override
+    public Server stopServer(Long id) {
+        return stopServer(id, null);
+    }
+
+    @Override
+    public Server transitionServer(Long id, ServerStatus target, Long expectedVersion) {
+        return onShardOf(id, () -> delegate.transitionServer(id, target, expectedVersion));
+    }
+
+    @Override
+    public void deleteServer(Long id, Long expectedVersion) {
+        onShardOf(id, () -> {
+            delegate.deleteServer(id, expectedVersion);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteServer(Long id) {
+        deleteServer(id, null);
+    }
+
+    @Override
+    public BulkOperationResult startServers(BulkServerRequest request) {
+        return bulk(request, delegate::startServers);
+    }
+
+    @Override
+    public BulkOperationResult stopServers(BulkServerRequest request) {
+        return bulk(request, delegate::stopServers);
+    }
+
+    @Override
+    public BulkOperationResult deleteServers(BulkServerRequest request) {
+        return bulk(request, delegate::deleteServers);
+    }
+
+    @Override
+    public FleetVersion.Snapshot fleetVersion() {
+        return delegate.fleetVersion();
+    }
+
+    @Override
+    public ServerDelta changesSince(long version) {
+        // Taken first, like the delegate does, so no change up to it can be missed on any shard
+        long current = delegate.fleetVersion().version();
+        List<ServerSummary> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (ServerDelta delta : onEveryShard(shard -> delegate.changesSince(version))) {
+            if (delta.reset()) {
+                return ServerDelta.reset(current);
+            }
+            changed.addAll(delta.changed());
+            deleted.addAll(delta.deleted());
+        }
+        if (changed.size() + deleted.size() > ServerServiceImpl.MAX_DELTA_SIZE) {
+            return ServerDelta.reset(current);
+        }
+        return new ServerDelta(current, false, changed, deleted);
+    }
+
+    private BulkOperationResult bulk(BulkServerRequest request, Function<BulkServerRequest, BulkOperationResult> operation) {
+        List<BulkOperationResult> results;
+        List<BulkOperationResult.Failure> unknown = new ArrayList<>();
+        if (request.ids() != null && request.status() == null && request.namePrefix() == null) {
+            // Each shard only gets its own ids; ids no shard can hold are reported as the delegate would
+            Map<Integer, List<Long>> byShard = new HashMap<>();
+            for (Long id : new LinkedHashSet<>(request.ids())) {
+                int shard = id == null ? -1 : router.shardOf(id);
+                if (shard < 0) {
+                    unknown.add(new BulkOperationResult.Failure(id, "Server not found with id: " + id));
+                } else {
+                    byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(id);
+                }
+            }
+            results = onEveryShard(shard -> byShard.containsKey(shard)
+                    ? operation.apply(BulkServerRequest.ofIds(byShard.get(shard)))
+                    : new BulkOperationResult(List.of(), List.of()));
+        } else {
+            results = onEveryShard(shard -> operation.apply(request));
+        }
+        List<Long> succeeded = new ArrayList<>();
+        List<BulkOperationResult.Failure> failed = new ArrayList<>(unknown);
+        for (BulkOperationResult result : results) {
+            succeeded.addAll(result.succeeded());
+            failed.addAll(result.failed());
+        }
+        return new BulkOperationResult(succeeded, failed);
+    }
+
+    // The shard itself is left to its unique indexes
+    private void checkUniqueElsewhere(int shard, String name, String ipAddress) {
+        for (DuplicateServerException duplicate : onEveryShard(other -> {
+            if (other == shard) {
+                return null;
+            }
+            if (name != null && delegate.findServerByName(name).isPresent()) {
+                return new DuplicateServerException("name", name);
+            }
+            if (ipAddress != null && delegate.findServerByIpAddress(ipAddress).isPresent()) {
+                return new DuplicateServerException("ipAddress", ipAddress);
+            }
+            return null;
+        })) {
+            if (duplicate != null) {
+                throw duplicate;
+            }
+        }
+    }
+
+    private static Optional<ServerIdentity> first(List<Optional<ServerIdentity>> found) {
+        return found.stream().flatMap(Optional::stream).min(Comparator.comparing(ServerIdentity::id));
+    }
+
+    private <T> T onShardOf(Long id, Supplier<T> work) {
+        int shard = router.shardOf(id);
+        if (shard < 0) {
+            throw new ServerNotFoundException(id);
+        }
+        return ShardContext.get(shard, work);
+    }
+
+    private <T> List<T> onEveryShard(IntFunction<T> work) {
+        if (router.shardCount() == 1) {
+            return Collections.singletonList(ShardContext.get(0, () -> work.apply(0)));
+        }
+        List<Future<T>> futures = new ArrayList<>(router.shardCount());
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int target = shard;
+            futures.add(executor.submit(() -> ShardContext.call(target, () -> work.apply(target))));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the shards", e);
+        }
+        return results;
+    }
+
+    /**
+     * Merges lists that are each sorted by {@code order} into the first {@code limit} elements overall.
+     */
+    static <T> List<T> merge(List<List<T>> sorted, Comparator<T> order, int limit) {
+        if (sorted.size() == 1) {
+            return sorted.get(0);
+        }
+        // Heads of the remaining lists: {list index, position}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(sorted.size(),
+                (a, b) -> order.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+        for (int list = 0; list < sorted.size(); list++) {
+            if (!sorted.get(list).isEmpty()) {
+                heads.add(new int[] {list, 0});
+            }
+        }
+        List<T> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<T> list = sorted.get(head[0]);
+            merged.add(list.get(head[1]));
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
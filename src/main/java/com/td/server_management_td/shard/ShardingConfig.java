@@ -0,0 +1,67 @@
+package com.td.server_management_td.shard;
+
+import com.td.server_management_td.service.WriteBehindProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single datasource with one Hikari pool per {@code server-management.sharding.urls}
+ * entry behind a {@link ShardRoutingDataSource}. Every shard is brought to the latest
+ * {@code db/migration} schema before JPA starts, whatever {@code spring.flyway.enabled} says, so
+ * shards never depend on Hibernate's schema update (which only sees shard 0).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "server-management.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource dataSource(ShardingProperties properties, DataSourceProperties dataSourceProperties,
+                                             WriteBehindProperties writeBehind, Environment environment) {
+        if (properties.urls().isEmpty()) {
+            throw new IllegalStateException("server-management.sharding.urls must list one JDBC URL per shard");
+        }
+        if (writeBehind.enabled()) {
+            throw new IllegalStateException("server-management.write-behind cannot be combined with sharding");
+        }
+        String[] locations = environment.getProperty("spring.flyway.locations", String[].class,
+                new String[] {"classpath:db/migration"});
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : properties.urls()) {
+            HikariDataSource shard = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(shard));
+            shard.setPoolName("shard-" + shards.size());
+            Flyway.configure().dataSource(shard).locations(locations).load().migrate();
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ShardPlacement shardPlacement(ShardingProperties properties) {
+        return switch (properties.placement()) {
+            case ID -> ShardPlacement.byId();
+            case SITE -> ShardPlacement.bySite();
+        };
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties, ShardPlacement placement) {
+        return new ShardRouter(properties.urls().size(), new SnowflakeIdGenerator(properties.node()), placement);
+    }
+}
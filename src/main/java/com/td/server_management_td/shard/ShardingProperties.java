@@ -0,0 +1,24 @@
+package com.td.server_management_td.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "server-management.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        // One JDBC URL per shard, in shard order; credentials and pool settings come from spring.datasource
+        @DefaultValue List<String> urls,
+        @DefaultValue("ID") Placement placement,
+        // Distinguishes application instances sharing the shards, so their ids never collide
+        @DefaultValue("0") int node,
+        @DefaultValue("16") int fanOutThreads) {
+
+    public enum Placement {
+        // Hash of the server id: even spread, lists always fan out
+        ID,
+        // IPv4 /16 network of the server: a site lives on one shard
+        SITE
+    }
+}
@@ -0,0 +1,10 @@
+create table servers (
+    id bigint generated by default as identity,
+    ip_address varchar(255) not null,
+    name varchar(255) not null,
+    status enum ('RUNNING', 'STARTING', 'STOPPED', 'STOPPING') not null,
+    version bigint,
+    primary key (id),
+    constraint uk_servers_name unique (name),
+    constraint uk_servers_ip_address unique (ip_address)
+);
@@ -0,0 +1,11 @@
+alter table servers add column ip_numeric bigint;
+
+update servers
+set ip_numeric = cast(regexp_substr(ip_address, '[0-9]+', 1, 1) as bigint) * 16777216
+               + cast(regexp_substr(ip_address, '[0-9]+', 1, 2) as bigint) * 65536
+               + cast(regexp_substr(ip_address, '[0-9]+', 1, 3) as bigint) * 256
+               + cast(regexp_substr(ip_address, '[0-9]+', 1, 4) as bigint)
+where regexp_like(ip_address, '^(25[0-5]|2[0-4][0-9]|1?[0-9]?[0-9])(\.(25[0-5]|2[0-4][0-9]|1?[0-9]?[0-9])){3}$');
+
+create index idx_servers_status_id on servers (status, id);
+create index idx_servers_ip_numeric on servers (ip_numeric);
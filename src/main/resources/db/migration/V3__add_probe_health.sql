@@ -0,0 +1,3 @@
+-- Written by the probe engine (server-management.probe.*); null until a server is first probed
+alter table servers add column health enum ('REACHABLE', 'UNREACHABLE');
+alter table servers add column last_seen_at timestamp(6) with time zone;
@@ -0,0 +1,22 @@
+-- Append-only log of status transitions: from_status is null on creation, to_status on deletion
+create table server_status_history (
+    id bigint generated by default as identity,
+    server_id bigint not null,
+    changed_at timestamp(6) with time zone not null,
+    from_status enum ('RUNNING', 'STARTING', 'STOPPED', 'STOPPING'),
+    to_status enum ('RUNNING', 'STARTING', 'STOPPED', 'STOPPING'),
+    primary key (id)
+);
+
+create index idx_status_history_server_time on server_status_history (server_id, changed_at);
+create index idx_status_history_time on server_status_history (changed_at);
+
+-- Hourly fleet-wide rollup of server_status_history, written once an hour has passed
+create table fleet_status_hourly (
+    hour_start timestamp(6) with time zone not null,
+    status enum ('RUNNING', 'STARTING', 'STOPPED', 'STOPPING') not null,
+    servers_at_start bigint not null,
+    server_millis bigint not null,
+    cumulative_millis bigint not null,
+    primary key (hour_start, status)
+);
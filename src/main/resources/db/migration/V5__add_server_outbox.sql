@@ -0,0 +1,9 @@
+-- Server change events awaiting delivery by the outbox relay; rows are deleted once delivered
+create table server_outbox (
+    id bigint generated by default as identity,
+    server_id bigint not null,
+    event_type enum ('CREATED', 'RENAMED', 'STATUS_CHANGED', 'DELETED') not null,
+    payload varchar(2000) not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
@@ -0,0 +1,11 @@
+-- Fleet version of the last change to each server; 0 for rows that predate change tracking
+alter table servers add column change_version bigint default 0 not null;
+create index idx_servers_change_version on servers (change_version);
+
+-- Deleted servers with the fleet version of their deletion, so deltas can report them
+create table server_tombstones (
+    server_id bigint not null,
+    change_version bigint not null,
+    primary key (server_id)
+);
+create index idx_server_tombstones_change_version on server_tombstones (change_version);
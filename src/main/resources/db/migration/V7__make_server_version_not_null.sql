@@ -0,0 +1,4 @@
+-- Rows written without a version (plain SQL imports) start at 0 instead of null, which optimistic locking cannot compare
+update servers set version = 0 where version is null;
+alter table servers alter column version set default 0;
+alter table servers alter column version set not null;
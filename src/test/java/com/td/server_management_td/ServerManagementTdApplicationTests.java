@@ -1,13 +1,83 @@
 package com.td.server_management_td;
 
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSortField;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.service.DuplicateServerException;
+import com.td.server_management_td.service.ServerService;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 class ServerManagementTdApplicationTests {
 
+	@Autowired
+	private ServerService serverService;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void unversionedOverloadsRunInATransaction() {
+		// Given
+		Server server = serverService.createServer(new Server(null, "Overload Server", "10.9.9.9", null));
+
+		// When
+		serverService.renameServer(server.getId(), "Overload Server Renamed");
+		serverService.startServer(server.getId());
+		serverService.stopServer(server.getId());
+		serverService.deleteServer(server.getId());
+
+		// Then
+		assertEquals(0, serverService.listServers(server.getId() - 1, 1).stream()
+				.filter(remaining -> remaining.id().equals(server.getId()))
+				.count());
+	}
+
+	@Test
+	void uniqueConstraintViolationsAreReportedPerField() {
+		// Given
+		Server existing = serverService.createServer(new Server(null, "Unique Server", "10.9.9.20", null));
+		Server other = serverService.createServer(new Server(null, "Other Server", "10.9.9.21", null));
+
+		// When
+		DuplicateServerException name = assertThrows(DuplicateServerException.class,
+				() -> serverService.createServer(new Server(null, "Unique Server", "10.9.9.22", null)));
+		DuplicateServerException ipAddress = assertThrows(DuplicateServerException.class,
+				() -> serverService.createServer(new Server(null, "Third Server", "10.9.9.20", null)));
+		DuplicateServerException rename = assertThrows(DuplicateServerException.class,
+				() -> serverService.renameServer(other.getId(), existing.getName()));
+
+		// Then
+		assertEquals("name", name.getField());
+		assertEquals("ipAddress", ipAddress.getField());
+		assertEquals("10.9.9.20", ipAddress.getValue());
+		assertEquals("name", rename.getField());
+	}
+
+	@Test
+	void searchReturnsSortedSummaries() {
+		// Given
+		serverService.createServer(new Server(null, "Search Server A", "10.9.9.10", null));
+		serverService.createServer(new Server(null, "Search Server B", "10.9.9.11", null));
+		ServerSearchCriteria criteria = new ServerSearchCriteria(null, "Search Server", null, ServerSortField.NAME, Sort.Direction.DESC);
+
+		// When
+		List<ServerSummary> found = serverService.searchServers(criteria, null, 10);
+
+		// Then
+		assertEquals(List.of("Search Server B", "Search Server A"), found.stream().map(ServerSummary::name).toList());
+		assertEquals(ServerStatus.STOPPED, found.get(0).status());
+	}
+
 }
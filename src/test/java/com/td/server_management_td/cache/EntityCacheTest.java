@@ -0,0 +1,163 @@
+package com.td.server_management_td.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.metrics.HibernateStatementCounter;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.service.ServerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:entity-cache;DB_CLOSE_DELAY=-1",
+        "server-management.entity-cache.enabled=true",
+        "server-management.entity-cache.maximum-entities=500",
+        "server-management.seed-data.enabled=false"
+})
+class EntityCacheTest {
+
+    @Autowired
+    private ServerRepository serverRepository;
+
+    @Autowired
+    private ServerService serverService;
+
+    @Autowired
+    private HibernateStatementCounter statementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ServerCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private CacheManager entityCacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void repeatedLookupsAreAnsweredWithoutStatements() {
+        // Given
+        Server server = serverService.createServer(new Server(null, "cache-lookup", "10.20.0.1", null));
+        serverRepository.findById(server.getId());
+        serverRepository.findByIpAddress("10.20.0.1");
+        serverRepository.findByName("cache-lookup");
+
+        // When & Then
+        assertEquals(0, statements(() -> serverRepository.findById(server.getId()).orElseThrow()));
+        assertEquals(0, statements(() -> serverRepository.findByIpAddress("10.20.0.1").orElseThrow()));
+        assertEquals(0, statements(() -> serverRepository.findByName("cache-lookup").orElseThrow()));
+    }
+
+    @Test
+    void listPagesAreCachedUntilServersChange() {
+        // Given
+        Server server = serverService.createServer(new Server(null, "cache-list", "10.20.0.2", null));
+        long after = server.getId() - 1;
+        serverService.listServers(after, 10);
+
+        // When
+        int cachedStatements = statements(() -> serverService.listServers(after, 10));
+        serverService.startServer(server.getId());
+        List<ServerSummary> page = serverService.listServers(after, 10);
+
+        // Then
+        assertEquals(0, cachedStatements);
+        assertEquals(ServerStatus.RUNNING, page.get(0).status());
+    }
+
+    @Test
+    void writesBypassingHibernateAreEvictedOnCommit() {
+        // Given
+        Server server = serverService.createServer(new Server(null, "cache-jdbc", "10.20.0.3", null));
+        long after = server.getId() - 1;
+        serverRepository.findById(server.getId());
+        serverService.listServers(after, 10);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("update servers set name = 'cache-jdbc-renamed' where id = ?", server.getId());
+            cacheInvalidator.evictAfterCommit(List.of(server.getId()));
+        });
+        String renamed = serverRepository.findById(server.getId()).orElseThrow().getName();
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("update servers set status = 'RUNNING' where id = ?", server.getId());
+            eventPublisher.publishEvent(ServerChangeEvent.statusChanged(server.getId(), null,
+                    ServerStatus.STOPPED, ServerStatus.RUNNING));
+        });
+
+        // Then
+        assertEquals("cache-jdbc-renamed", renamed);
+        assertEquals(ServerStatus.RUNNING, serverRepository.findById(server.getId()).orElseThrow().getStatus());
+        assertEquals(ServerStatus.RUNNING, serverService.listServers(after, 10).get(0).status());
+    }
+
+    @Test
+    void rolledBackWritesKeepTheCache() {
+        // Given
+        Server server = serverService.createServer(new Server(null, "cache-rollback", "10.20.0.4", null));
+        serverRepository.findById(server.getId());
+
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            cacheInvalidator.evictAfterCommit(List.of(server.getId()));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(0, statements(() -> serverRepository.findById(server.getId()).orElseThrow()));
+    }
+
+    @Test
+    void regionsAreBoundedAndReportMetrics() {
+        // Given
+        serverService.createServer(new Server(null, "cache-metrics", "10.20.0.5", null));
+
+        // When
+        serverRepository.findByIpAddress("10.20.0.5");
+        serverRepository.findByIpAddress("10.20.0.5");
+
+        // Then
+        CaffeineConfiguration<?, ?> entities = entityCacheManager.getCache(Server.CACHE_REGION)
+                .getConfiguration(CaffeineConfiguration.class);
+        assertEquals(OptionalLong.of(500), entities.getMaximumSize());
+        assertTrue(entityCacheManager.getCache(EntityCacheConfig.QUERY_RESULTS_REGION)
+                .getConfiguration(CaffeineConfiguration.class).getMaximumSize().isPresent());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", Server.CACHE_REGION).functionCounter());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", Server.CACHE_REGION, "result", "hit").functionCounter().count() > 0);
+    }
+
+    private int statements(Supplier<?> read) {
+        statementCounter.start();
+        read.get();
+        return statementCounter.stop();
+    }
+}
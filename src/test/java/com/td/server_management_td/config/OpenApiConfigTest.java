@@ -0,0 +1,38 @@
+package com.td.server_management_td.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "server-management.api-docs.lazy=true")
+@AutoConfigureMockMvc
+class OpenApiConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    void apiDocsAreBuiltOnFirstRequest() throws Exception {
+        // Given
+        assertFalse(beanFactory.containsSingleton("publicApi"));
+        assertFalse(beanFactory.containsSingleton("multipleOpenApiResource"));
+
+        // When & Then
+        mockMvc.perform(get("/v3/api-docs/server-management"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.info.title").value("Server Management API"));
+        assertTrue(beanFactory.containsSingleton("publicApi"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.td.server_management_td.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(5), 100, clock);
+
+    private static final String START = IdempotencyStore.fingerprint("PUT", "/api/servers/1/start", (Object) null);
+    private static final String DELETE = IdempotencyStore.fingerprint("DELETE", "/api/servers/1", (Object) null);
+
+    @Test
+    void testSameKeyAndScopeIsExecutedOnce() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        ResponseEntity<Integer> first = store.execute("key", START, () -> ResponseEntity.ok(calls.incrementAndGet()));
+        ResponseEntity<Integer> second = store.execute("key", START, () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        // Then
+        assertEquals(1, calls.get());
+        assertEquals(1, second.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void testKeyReusedForAnotherRequestIsRefused() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        store.execute("key", START, () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        // When
+        IdempotencyKeyReusedException reused = assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("key", IdempotencyStore.fingerprint("PUT", "/api/servers/1/stop", (Object) null),
+                        () -> ResponseEntity.ok(calls.incrementAndGet())));
+        ResponseEntity<Integer> renamed = store.execute("other", IdempotencyStore.fingerprint("PUT", "/api/servers/1/rename", "a", null),
+                () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        // Then
+        assertEquals(2, calls.get());
+        assertEquals(2, renamed.getBody());
+        assertEquals("Idempotency-Key 'key' was already used for a different request", reused.getMessage());
+        assertNotEquals(IdempotencyStore.fingerprint("PUT", "/api/servers/1/rename", "a", null),
+                IdempotencyStore.fingerprint("PUT", "/api/servers/1/rename", "b", null));
+    }
+
+    @Test
+    void testFailedAttemptIsNotRemembered() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        assertThrows(IllegalStateException.class, () -> store.execute("key", DELETE, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+        store.execute("key", DELETE, () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        // Then
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testErrorIsRethrownAndReleasesTheKey() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        assertThrows(OutOfMemoryError.class, () -> store.execute("key", DELETE, () -> {
+            calls.incrementAndGet();
+            throw new OutOfMemoryError("boom");
+        }));
+        store.execute("key", DELETE, () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        // Then
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testExpiredKeyRunsAgain() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        store.execute("key", START, () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        // When
+        clock.advance(Duration.ofMinutes(6));
+        store.execute("key", START, () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        // Then
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testFinishedEntriesAreBoundedButRunningOnesAreKept() {
+        // Given
+        IdempotencyStore small = new IdempotencyStore(Duration.ofMinutes(5), 2, clock);
+        AtomicLong sizeWhileRunning = new AtomicLong();
+
+        // When
+        small.execute("running", START, () -> {
+            for (String key : List.of("a", "b", "c")) {
+                small.execute(key, DELETE, () -> ResponseEntity.ok(key));
+            }
+            sizeWhileRunning.set(small.size());
+            return ResponseEntity.ok("running");
+        });
+
+        // Then
+        assertEquals(3, sizeWhileRunning.get());
+        assertEquals(2, small.size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.td.server_management_td.controller;
+
+import com.td.server_management_td.inventory.ImportJob;
+import com.td.server_management_td.inventory.InventoryExporter;
+import com.td.server_management_td.inventory.InventoryFormat;
+import com.td.server_management_td.inventory.InventoryImporter;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.service.ServerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(InventoryController.class)
+@Import(InventoryExporter.class)
+class InventoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private InventoryImporter inventoryImporter;
+
+    @MockBean
+    private ServerService serverService;
+
+    @Test
+    void testImportServersStartsAJob() throws Exception {
+        // Given
+        ImportJob job = mock(ImportJob.class);
+        when(job.id()).thenReturn("job-1");
+        when(job.status()).thenReturn(new ImportJob.Status("job-1", InventoryFormat.CSV, ImportJob.State.QUEUED,
+                20, 0, 0, 0, 0, List.of(), false, null, Instant.now(), null, null));
+        when(inventoryImporter.submit(eq(InventoryFormat.CSV), any())).thenReturn(job);
+
+        // When & Then
+        mockMvc.perform(post("/api/servers/import")
+                        .contentType("text/csv")
+                        .content("web-1,10.0.0.1\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/api/servers/import/job-1")))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+    }
+
+    @Test
+    void testImportWithUnsupportedContentTypeIsRejected() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/servers/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<servers/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(inventoryImporter);
+    }
+
+    @Test
+    void testGetUnknownImportJob() throws Exception {
+        // Given
+        when(inventoryImporter.findJob("missing")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/servers/import/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Import job not found with id: missing"));
+    }
+
+    @Test
+    void testExportServersAsCsv() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<Server> consumer = invocation.getArgument(0);
+            consumer.accept(new Server(1L, "Server 1", "192.168.1.1", ServerStatus.STOPPED));
+            consumer.accept(new Server(2L, "Server \"2\", east", "192.168.1.2", ServerStatus.RUNNING));
+            return null;
+        }).when(serverService).streamServers(any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/servers/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"servers.csv\""))
+                .andExpect(content().string("""
+                        id,name,ipAddress,status
+                        1,Server 1,192.168.1.1,STOPPED
+                        2,"Server ""2"", east",192.168.1.2,RUNNING
+                        """));
+    }
+}
@@ -1,27 +1,59 @@
 package com.td.server_management_td.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.td.server_management_td.dto.BulkOperationResult;
+import com.td.server_management_td.dto.BulkServerRequest;
+import com.td.server_management_td.dto.ServerDelta;
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSortField;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.event.SequencedServerEvent;
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.event.ServerEventBroadcaster;
+import com.td.server_management_td.event.ServerEventFilter;
+import com.td.server_management_td.fleet.FleetVersion;
+import com.td.server_management_td.model.Ipv4Range;
 import com.td.server_management_td.model.Server;
 import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.service.DuplicateServerException;
+import com.td.server_management_td.service.ServerNotFoundException;
 import com.td.server_management_td.service.ServerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ServerController.class)
+@Import(IdempotencyStore.class)
 class ServerControllerTest {
 
     @Autowired
@@ -30,9 +62,14 @@ class ServerControllerTest {
     @MockBean
     private ServerService serverService;
 
+    @MockBean
+    private ServerEventBroadcaster eventBroadcaster;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    private static final FleetVersion.Snapshot FLEET_VERSION = new FleetVersion.Snapshot(5, Instant.parse("2026-10-01T12:00:00Z"));
+
     private Server testServer;
 
     @BeforeEach
@@ -42,27 +79,247 @@ class ServerControllerTest {
         testServer.setName("Test Server");
         testServer.setIpAddress("192.168.1.100");
         testServer.setStatus(ServerStatus.STOPPED);
+        when(serverService.fleetVersion()).thenReturn(FLEET_VERSION);
     }
 
     @Test
     void testListServers() throws Exception {
         // Given
-        Server server1 = new Server(1L, "Server 1", "192.168.1.1", ServerStatus.STOPPED);
-        Server server2 = new Server(2L, "Server 2", "192.168.1.2", ServerStatus.RUNNING);
-        List<Server> servers = Arrays.asList(server1, server2);
-        when(serverService.listServers()).thenReturn(servers);
+        ServerSummary server1 = summary(1L, "Server 1", "192.168.1.1", ServerStatus.STOPPED);
+        ServerSummary server2 = summary(2L, "Server 2", "192.168.1.2", ServerStatus.RUNNING);
+        List<ServerSummary> servers = Arrays.asList(server1, server2);
+        when(serverService.listServers(null, 100)).thenReturn(servers);
 
         // When & Then
         mockMvc.perform(get("/api/servers"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("Link"))
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].name").value("Server 1"))
                 .andExpect(jsonPath("$[1].id").value(2))
                 .andExpect(jsonPath("$[1].status").value("RUNNING"));
 
-        verify(serverService, times(1)).listServers();
+        verify(serverService, times(1)).listServers(null, 100);
+    }
+
+    @Test
+    void testListServersFullPageLinksToNextPage() throws Exception {
+        // Given
+        ServerSummary server3 = summary(3L, "Server 3", "192.168.1.3", ServerStatus.STOPPED);
+        ServerSummary server4 = summary(4L, "Server 4", "192.168.1.4", ServerStatus.STOPPED);
+        when(serverService.listServers(2L, 2)).thenReturn(List.of(server3, server4));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers").param("after", "2").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", containsString("after=4&limit=2")))
+                .andExpect(jsonPath("$[1].id").value(4));
+    }
+
+    @Test
+    void testListServersWithFiltersSearchesAndLinksBySortCursor() throws Exception {
+        // Given
+        ServerSearchCriteria criteria = new ServerSearchCriteria(ServerStatus.RUNNING, "web", Ipv4Range.parseCidr("10.0.0.0/8"),
+                ServerSortField.NAME, Sort.Direction.DESC);
+        ServerSummary server = summary(7L, "web-7", "10.0.0.7", ServerStatus.RUNNING);
+        when(serverService.searchServers(criteria, null, 1)).thenReturn(List.of(server));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers")
+                        .param("status", "RUNNING")
+                        .param("namePrefix", "web")
+                        .param("cidr", "10.0.0.0/8")
+                        .param("sort", "name,desc")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", containsString("after=7:web-7")))
+                .andExpect(jsonPath("$[0].id").value(7));
+
+        verify(serverService, never()).listServers(any(), anyInt());
+    }
+
+    @Test
+    void testListServersInColumnsKeepsPagingLinks() throws Exception {
+        // Given
+        when(serverService.listServers(null, 2)).thenReturn(List.of(
+                summary(1L, "Server 1", "192.168.1.1", ServerStatus.STOPPED),
+                summary(2L, "Server 2", "192.168.1.2", ServerStatus.RUNNING)));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers").param("layout", "columnar").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", containsString("after=2&limit=2")))
+                .andExpect(jsonPath("$.id[0]").value(1))
+                .andExpect(jsonPath("$.id[1]").value(2))
+                .andExpect(jsonPath("$.name[1]").value("Server 2"))
+                .andExpect(jsonPath("$.status[1]").value("RUNNING"));
+    }
+
+    @Test
+    void testListServersAsCborDecodesToTheJsonShape() throws Exception {
+        // Given
+        when(serverService.listServers(null, 100)).thenReturn(List.of(summary(1L, "Server 1", "192.168.1.1", ServerStatus.STOPPED)));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/servers").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        // Then
+        JsonNode servers = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(1, servers.get(0).get("id").asLong());
+        assertEquals("Server 1", servers.get(0).get("name").asText());
+        assertEquals("STOPPED", servers.get(0).get("status").asText());
+    }
+
+    @Test
+    void testListServersIsTaggedWithTheFleetVersion() throws Exception {
+        // Given
+        when(serverService.listServers(null, 100)).thenReturn(List.of(summary(1L, "Server 1", "192.168.1.1", ServerStatus.STOPPED)));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"5\""))
+                .andExpect(header().string("Last-Modified", "Thu, 01 Oct 2026 12:00:00 GMT"));
+    }
+
+    @Test
+    void testListServersIsNotModifiedWhileTheFleetVersionMatches() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/servers").header("If-None-Match", "W/\"5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/servers").header("If-Modified-Since", "Thu, 01 Oct 2026 12:00:00 GMT"))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/servers").header("If-None-Match", "W/\"4\""))
+                .andExpect(status().isOk());
+
+        verify(serverService, times(1)).listServers(null, 100);
+    }
+
+    @Test
+    void testListServerChangesSinceAVersion() throws Exception {
+        // Given
+        when(serverService.changesSince(3L)).thenReturn(new ServerDelta(5, false,
+                List.of(summary(2L, "Server 2", "192.168.1.2", ServerStatus.RUNNING)), List.of(9L)));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers").param("since", "3").param("layout", "columnar"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"5\""))
+                .andExpect(jsonPath("$.version").value(5))
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.changed[0].id").value(2))
+                .andExpect(jsonPath("$.changed[0].status").value("RUNNING"))
+                .andExpect(jsonPath("$.deleted[0]").value(9));
+
+        verify(serverService, never()).listServers(any(), anyInt());
+    }
+
+    @Test
+    void testListServersWithInvalidCidrIsRejected() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/servers").param("cidr", "10.0.0.0/33"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(serverService);
+    }
+
+    @Test
+    void testLookupServers() throws Exception {
+        // Given
+        ServerIdentity server = new ServerIdentity(1L, "web-1", "10.0.0.1", ServerStatus.RUNNING);
+        when(serverService.findServerByName("web-1")).thenReturn(Optional.of(server));
+        when(serverService.findServerByIpAddress("10.0.0.2")).thenReturn(Optional.empty());
+        when(serverService.findServersByNamePrefix("web-", 10)).thenReturn(List.of(server));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers/lookup").param("name", "web-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.ipAddress").value("10.0.0.1"))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+        mockMvc.perform(get("/api/servers/lookup").param("ipAddress", "10.0.0.2"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Server not found with IP address: 10.0.0.2"));
+        mockMvc.perform(get("/api/servers/lookup").param("namePrefix", "web-").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("web-1"));
+    }
+
+    @Test
+    void testCountServersByStatus() throws Exception {
+        // Given
+        Map<ServerStatus, Long> counts = new EnumMap<>(ServerStatus.class);
+        for (ServerStatus status : ServerStatus.values()) {
+            counts.put(status, 0L);
+        }
+        counts.put(ServerStatus.RUNNING, 3L);
+        when(serverService.countServersByStatus()).thenReturn(counts);
+
+        // When & Then
+        mockMvc.perform(get("/api/servers/counts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.RUNNING").value(3))
+                .andExpect(jsonPath("$.STOPPED").value(0));
+    }
+
+    @Test
+    void testStreamServers() throws Exception {
+        // Given
+        Server server1 = new Server(1L, "Server 1", "192.168.1.1", ServerStatus.STOPPED);
+        Server server2 = new Server(2L, "Server 2", "192.168.1.2", ServerStatus.RUNNING);
+        doAnswer(invocation -> {
+            Consumer<Server> consumer = invocation.getArgument(0);
+            consumer.accept(server1);
+            consumer.accept(server2);
+            return null;
+        }).when(serverService).streamServers(any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/servers/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(server1) + "\n"
+                                + objectMapper.writeValueAsString(server2) + "\n"));
+    }
+
+    @Test
+    void testSubscribeToEventsResumesFromLastEventId() throws Exception {
+        // Given
+        when(eventBroadcaster.emitterTimeout()).thenReturn(Duration.ofMinutes(1));
+        ServerChangeEvent change = ServerChangeEvent.statusChanged(1L, "Server 1", ServerStatus.STOPPED, ServerStatus.RUNNING);
+        when(eventBroadcaster.subscribe(eq(new ServerEventFilter(ServerStatus.RUNNING, null)), eq(41L), any()))
+                .thenAnswer(invocation -> {
+                    ServerEventBroadcaster.EventSink sink = invocation.getArgument(2);
+                    sink.send(new SequencedServerEvent(42L, change));
+                    sink.close();
+                    return (ServerEventBroadcaster.Subscription) () -> { };
+                });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/servers/events")
+                        .param("status", "RUNNING")
+                        .header("Last-Event-ID", "41"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("id:42")))
+                .andExpect(content().string(containsString("event:STATUS_CHANGED")))
+                .andExpect(content().string(containsString("\"previousStatus\":\"STOPPED\"")));
     }
 
     @Test
@@ -93,6 +350,23 @@ class ServerControllerTest {
         verify(serverService, times(1)).createServer(any(Server.class));
     }
 
+    @Test
+    void testIdempotencyKeyReusedWithAnotherBodyIsUnprocessable() throws Exception {
+        // Given
+        when(serverService.createServer(any(Server.class))).thenReturn(new Server(8L, "First", "192.168.1.201", ServerStatus.STOPPED));
+        mockMvc.perform(post("/api/servers").header("Idempotency-Key", "def-456")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"First\", \"ipAddress\": \"192.168.1.201\"}"))
+                .andExpect(status().isCreated());
+
+        // When & Then
+        mockMvc.perform(post("/api/servers").header("Idempotency-Key", "def-456")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"Second\", \"ipAddress\": \"192.168.1.202\"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.type").value("/problems/idempotency-key-reused"));
+
+        verify(serverService, times(1)).createServer(any(Server.class));
+    }
+
     @Test
     void testCreateServerWithValidationError() throws Exception {
         // Given
@@ -114,7 +388,7 @@ class ServerControllerTest {
         // Given
         String newName = "Renamed Server";
         testServer.setName(newName);
-        when(serverService.renameServer(eq(1L), eq(newName))).thenReturn(testServer);
+        when(serverService.renameServer(eq(1L), eq(newName), isNull())).thenReturn(testServer);
 
         // When & Then
         mockMvc.perform(put("/api/servers/1/rename")
@@ -124,7 +398,7 @@ class ServerControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.name").value(newName));
 
-        verify(serverService, times(1)).renameServer(1L, newName);
+        verify(serverService, times(1)).renameServer(1L, newName, null);
     }
 
     @Test
@@ -141,11 +415,24 @@ class ServerControllerTest {
         verify(serverService, times(1)).getServerStatus(1L);
     }
 
+    @Test
+    void testGetServerStatusIsNotModifiedWhileTheStatusMatches() throws Exception {
+        // Given
+        when(serverService.getServerStatus(1L)).thenReturn(ServerStatus.RUNNING);
+
+        // When & Then
+        mockMvc.perform(get("/api/servers/1/status").header("If-None-Match", "\"RUNNING\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/servers/1/status").header("If-None-Match", "\"STOPPED\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"RUNNING\""));
+    }
+
     @Test
     void testStartServer() throws Exception {
         // Given
         testServer.setStatus(ServerStatus.RUNNING);
-        when(serverService.startServer(1L)).thenReturn(testServer);
+        when(serverService.startServer(1L, null)).thenReturn(testServer);
 
         // When & Then
         mockMvc.perform(put("/api/servers/1/start"))
@@ -154,14 +441,14 @@ class ServerControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.status").value("RUNNING"));
 
-        verify(serverService, times(1)).startServer(1L);
+        verify(serverService, times(1)).startServer(1L, null);
     }
 
     @Test
     void testStopServer() throws Exception {
         // Given
         testServer.setStatus(ServerStatus.STOPPED);
-        when(serverService.stopServer(1L)).thenReturn(testServer);
+        when(serverService.stopServer(1L, null)).thenReturn(testServer);
 
         // When & Then
         mockMvc.perform(put("/api/servers/1/stop"))
@@ -170,19 +457,176 @@ class ServerControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.status").value("STOPPED"));
 
-        verify(serverService, times(1)).stopServer(1L);
+        verify(serverService, times(1)).stopServer(1L, null);
     }
 
     @Test
     void testDeleteServer() throws Exception {
         // Given
-        doNothing().when(serverService).deleteServer(1L);
+        doNothing().when(serverService).deleteServer(1L, null);
 
         // When & Then
         mockMvc.perform(delete("/api/servers/1"))
                 .andExpect(status().isNoContent());
 
-        verify(serverService, times(1)).deleteServer(1L);
+        verify(serverService, times(1)).deleteServer(1L, null);
     }
-}
 
+    @Test
+    void testStartServersInBulk() throws Exception {
+        // Given
+        BulkOperationResult result = new BulkOperationResult(List.of(1L, 2L),
+                List.of(new BulkOperationResult.Failure(3L, "Server not found with id: 3")));
+        when(serverService.startServers(BulkServerRequest.ofIds(List.of(1L, 2L, 3L)))).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(post("/api/servers/bulk/start")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1, 2, 3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded[1]").value(2))
+                .andExpect(jsonPath("$.failed[0].id").value(3))
+                .andExpect(jsonPath("$.failed[0].reason").value("Server not found with id: 3"));
+    }
+
+    @Test
+    void testDeleteServersInBulkByStatus() throws Exception {
+        // Given
+        when(serverService.deleteServers(BulkServerRequest.ofStatus(ServerStatus.STOPPED)))
+                .thenReturn(new BulkOperationResult(List.of(4L), List.of()));
+
+        // When & Then
+        mockMvc.perform(post("/api/servers/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"STOPPED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded[0]").value(4))
+                .andExpect(jsonPath("$.failed").isEmpty());
+    }
+
+    @Test
+    void testStartServerWithIfMatchReturnsNewETag() throws Exception {
+        // Given
+        testServer.setStatus(ServerStatus.RUNNING);
+        testServer.setVersion(4L);
+        when(serverService.startServer(1L, 3L)).thenReturn(testServer);
+
+        // When & Then
+        mockMvc.perform(put("/api/servers/1/start").header("If-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void testStopServerWithStaleIfMatchReturnsPreconditionFailed() throws Exception {
+        // Given
+        when(serverService.stopServer(1L, 2L))
+                .thenThrow(new OptimisticLockingFailureException("Server 1 is at version 3, expected 2"));
+
+        // When & Then
+        mockMvc.perform(put("/api/servers/1/stop").header("If-Match", "W/\"2\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
+    @Test
+    void testConnectionPoolExhaustionReturnsServiceUnavailable() throws Exception {
+        // Given
+        when(serverService.getServerStatus(1L))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available, request timed out"));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers/1/status"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
+    @Test
+    void testMissingServerReturnsNotFoundProblem() throws Exception {
+        // Given
+        when(serverService.getServerStatus(99L)).thenThrow(new ServerNotFoundException(99L));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers/99/status"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.type").value("/problems/not-found"))
+                .andExpect(jsonPath("$.title").value("Not Found"))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("Server not found with id: 99"))
+                .andExpect(jsonPath("$.instance").value("/api/servers/99/status"));
+    }
+
+    @Test
+    void testDuplicateNameReturnsConflict() throws Exception {
+        // Given
+        when(serverService.createServer(any(Server.class))).thenThrow(new DuplicateServerException("name", "Web Server"));
+
+        // When & Then
+        mockMvc.perform(post("/api/servers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Web Server\",\"ipAddress\":\"10.0.0.1\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.field").value("name"))
+                .andExpect(jsonPath("$.detail").value("A server with name 'Web Server' already exists"));
+    }
+
+    @Test
+    void testMistypedParameterReturnsBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/servers").param("since", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void testMalformedIfMatchIsRejected() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/api/servers/1/start").header("If-Match", "\"abc\""))
+                .andExpect(status().isBadRequest());
+
+        verify(serverService, never()).startServer(any(), any());
+    }
+
+    @Test
+    void testTransitionServer() throws Exception {
+        // Given
+        testServer.setStatus(ServerStatus.STARTING);
+        when(serverService.transitionServer(1L, ServerStatus.STARTING, null)).thenReturn(testServer);
+
+        // When & Then
+        mockMvc.perform(put("/api/servers/1/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"STARTING\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("STARTING"));
+    }
+
+    @Test
+    void testCreateServerWithIdempotencyKeyIsAppliedOnce() throws Exception {
+        // Given
+        Server createdServer = new Server(7L, "New Server", "192.168.1.200", ServerStatus.STOPPED);
+        when(serverService.createServer(any(Server.class))).thenReturn(createdServer);
+        String body = "{\"name\": \"New Server\", \"ipAddress\": \"192.168.1.200\"}";
+
+        // When & Then
+        mockMvc.perform(post("/api/servers").header("Idempotency-Key", "abc-123")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        mockMvc.perform(post("/api/servers").header("Idempotency-Key", "abc-123")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(7));
+
+        verify(serverService, times(1)).createServer(any(Server.class));
+    }
+
+    private static ServerSummary summary(Long id, String name, String ipAddress, ServerStatus status) {
+        return new ServerSummary(id, name, ipAddress, status, 0L, null, null);
+    }
+}
@@ -0,0 +1,76 @@
+package com.td.server_management_td.controller;
+
+import com.td.server_management_td.history.StatusHistory;
+import com.td.server_management_td.history.UptimeReport;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.model.StatusTransition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StatusHistoryController.class)
+class StatusHistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StatusHistory statusHistory;
+
+    @Test
+    void testGetTimelineParsesTheWindow() throws Exception {
+        // Given
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-02-01T00:00:00Z");
+        when(statusHistory.timeline(7L, from, to, 50)).thenReturn(List.of(
+                new StatusTransition(1L, 7L, from.plusSeconds(60), null, ServerStatus.STOPPED)));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers/7/history")
+                        .param("from", "2026-01-01T00:00:00Z")
+                        .param("to", "2026-02-01T00:00:00Z")
+                        .param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].toStatus").value("STOPPED"))
+                .andExpect(jsonPath("$[0].fromStatus").doesNotExist());
+    }
+
+    @Test
+    void testGetFleetUptimeDefaultsToTheLastThirtyDays() throws Exception {
+        // Given
+        when(statusHistory.fleetUptime(any(), any())).thenAnswer(invocation -> new UptimeReport(
+                invocation.getArgument(0), invocation.getArgument(1), Map.of(ServerStatus.RUNNING, 3600.0), 1.0));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers/uptime"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.secondsByStatus.RUNNING").value(3600.0))
+                .andExpect(jsonPath("$.uptime").value(1.0));
+        verify(statusHistory).fleetUptime(argThat(from -> Duration.between(from, Instant.now()).toDays() == 30), any());
+    }
+
+    @Test
+    void testGetServerUptimeWithAnEmptyWindowIsRejected() throws Exception {
+        // Given
+        when(statusHistory.serverUptime(eq(7L), any(), any())).thenThrow(new IllegalArgumentException("'from' must be before 'to'"));
+
+        // When & Then
+        mockMvc.perform(get("/api/servers/7/uptime")
+                        .param("from", "2026-02-01T00:00:00Z")
+                        .param("to", "2026-01-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,233 @@
+package com.td.server_management_td.event;
+
+import com.td.server_management_td.model.ServerStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerEventBroadcasterTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    void testSubscriberReceivesMatchingEventsInOrder() {
+        // Given
+        ServerEventBroadcaster broadcaster = broadcaster(16, 16, EventStreamProperties.OverflowPolicy.DROP_OLDEST, DIRECT);
+        RecordingSink sink = new RecordingSink();
+        broadcaster.subscribe(new ServerEventFilter(ServerStatus.RUNNING, null), null, sink);
+
+        // When
+        broadcaster.publish(ServerChangeEvent.statusChanged(1L, "web-1", ServerStatus.STOPPED, ServerStatus.RUNNING));
+        broadcaster.publish(ServerChangeEvent.created(2L, "web-2", "10.0.0.2", ServerStatus.STOPPED));
+        broadcaster.publish(ServerChangeEvent.statusChanged(1L, "web-1", ServerStatus.RUNNING, ServerStatus.STOPPING));
+
+        // Then
+        assertEquals(List.of(1L, 3L), sink.sequences());
+        assertFalse(sink.closed);
+    }
+
+    @Test
+    void testResumeReplaysRetainedEventsAfterLastSequence() {
+        // Given
+        ServerEventBroadcaster broadcaster = broadcaster(16, 16, EventStreamProperties.OverflowPolicy.DROP_OLDEST, DIRECT);
+        for (long id = 1; id <= 5; id++) {
+            broadcaster.publish(ServerChangeEvent.created(id, "srv-" + id, "10.0.0." + id, ServerStatus.STOPPED));
+        }
+        RecordingSink sink = new RecordingSink();
+
+        // When
+        broadcaster.subscribe(ServerEventFilter.ALL, 3L, sink);
+        broadcaster.publish(ServerChangeEvent.deleted(1L, ServerStatus.STOPPED));
+
+        // Then
+        assertEquals(List.of(4L, 5L, 6L), sink.sequences());
+        assertTrue(sink.resets.isEmpty());
+    }
+
+    @Test
+    void testResumeReplaysMoreEventsThanTheSubscriberBufferHolds() {
+        // Given
+        QueuedExecutor executor = new QueuedExecutor();
+        ServerEventBroadcaster broadcaster = broadcaster(2, 16, EventStreamProperties.OverflowPolicy.DROP_OLDEST, executor);
+        for (long id = 1; id <= 10; id++) {
+            broadcaster.publish(ServerChangeEvent.created(id, "srv-" + id, "10.0.0." + id, ServerStatus.STOPPED));
+        }
+        RecordingSink sink = new RecordingSink();
+
+        // When
+        broadcaster.subscribe(ServerEventFilter.ALL, 3L, sink);
+        broadcaster.publish(ServerChangeEvent.deleted(1L, ServerStatus.STOPPED));
+        executor.runAll();
+
+        // Then
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L), sink.sequences());
+        assertTrue(sink.resets.isEmpty());
+    }
+
+    @Test
+    void testReplayOverwrittenBeforeItIsSentEndsInReset() {
+        // Given
+        QueuedExecutor executor = new QueuedExecutor();
+        ServerEventBroadcaster broadcaster = broadcaster(2, 4, EventStreamProperties.OverflowPolicy.DROP_OLDEST, executor);
+        for (long id = 1; id <= 4; id++) {
+            broadcaster.publish(ServerChangeEvent.created(id, "srv-" + id, "10.0.0." + id, ServerStatus.STOPPED));
+        }
+        RecordingSink sink = new RecordingSink();
+        broadcaster.subscribe(ServerEventFilter.ALL, 0L, sink);
+
+        // When
+        for (long id = 5; id <= 8; id++) {
+            broadcaster.publish(ServerChangeEvent.created(id, "srv-" + id, "10.0.0." + id, ServerStatus.STOPPED));
+        }
+        executor.runAll();
+
+        // Then
+        assertEquals(List.of("reset 4", "reset 6", "event 7", "event 8"), sink.received);
+    }
+
+    @Test
+    void testResumeBeyondReplayWindowSendsReset() {
+        // Given
+        ServerEventBroadcaster broadcaster = broadcaster(16, 4, EventStreamProperties.OverflowPolicy.DROP_OLDEST, DIRECT);
+        for (long id = 1; id <= 10; id++) {
+            broadcaster.publish(ServerChangeEvent.created(id, "srv-" + id, "10.0.0." + id, ServerStatus.STOPPED));
+        }
+        RecordingSink sink = new RecordingSink();
+
+        // When
+        broadcaster.subscribe(ServerEventFilter.ALL, 2L, sink);
+
+        // Then
+        assertEquals(List.of(10L), sink.resets);
+        assertTrue(sink.events.isEmpty());
+    }
+
+    @Test
+    void testSlowSubscriberDropsOldestEvents() {
+        // Given
+        QueuedExecutor executor = new QueuedExecutor();
+        ServerEventBroadcaster broadcaster = broadcaster(2, 16, EventStreamProperties.OverflowPolicy.DROP_OLDEST, executor);
+        RecordingSink sink = new RecordingSink();
+        broadcaster.subscribe(ServerEventFilter.ALL, null, sink);
+
+        // When
+        for (long id = 1; id <= 4; id++) {
+            broadcaster.publish(ServerChangeEvent.created(id, "srv-" + id, "10.0.0." + id, ServerStatus.STOPPED));
+        }
+        executor.runAll();
+
+        // Then
+        assertEquals(List.of("reset 2", "event 3", "event 4"), sink.received);
+        assertEquals(1, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void testSlowSubscriberIsDisconnectedWhenConfigured() {
+        // Given
+        QueuedExecutor executor = new QueuedExecutor();
+        ServerEventBroadcaster broadcaster = broadcaster(2, 16, EventStreamProperties.OverflowPolicy.DISCONNECT, executor);
+        RecordingSink sink = new RecordingSink();
+        broadcaster.subscribe(ServerEventFilter.ALL, null, sink);
+
+        // When
+        for (long id = 1; id <= 3; id++) {
+            broadcaster.publish(ServerChangeEvent.created(id, "srv-" + id, "10.0.0." + id, ServerStatus.STOPPED));
+        }
+        executor.runAll();
+
+        // Then
+        assertTrue(sink.closed);
+        assertTrue(sink.events.isEmpty());
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void testSubscriberStuckInAWriteIsDisconnected() throws Exception {
+        // Given
+        ServerEventBroadcaster broadcaster = new ServerEventBroadcaster(new EventStreamProperties(
+                16, 16, EventStreamProperties.OverflowPolicy.DROP_OLDEST, Duration.ofMinutes(1), 1, Duration.ofMillis(50)));
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        RecordingSink stuck = new RecordingSink() {
+            @Override
+            public void send(SequencedServerEvent event) {
+                sending.countDown();
+                try {
+                    // A client that stopped reading: the write blocks until it is interrupted
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        };
+        broadcaster.subscribe(ServerEventFilter.ALL, null, stuck);
+        broadcaster.publish(ServerChangeEvent.created(1L, "web-1", "10.0.0.1", ServerStatus.STOPPED));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        // When
+        Thread.sleep(100);
+        broadcaster.evictStuckSubscribers();
+
+        // Then
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(stuck.closed);
+        assertEquals(0, broadcaster.subscriberCount());
+        broadcaster.destroy();
+    }
+
+    private static ServerEventBroadcaster broadcaster(int bufferSize, int replaySize,
+                                                      EventStreamProperties.OverflowPolicy policy, Executor executor) {
+        return new ServerEventBroadcaster(
+                new EventStreamProperties(bufferSize, replaySize, policy, Duration.ofMinutes(1), 1, Duration.ofMinutes(1)), executor);
+    }
+
+    private static class RecordingSink implements ServerEventBroadcaster.EventSink {
+        private final List<SequencedServerEvent> events = new ArrayList<>();
+        private final List<Long> resets = new ArrayList<>();
+        private final List<String> received = new ArrayList<>();
+        private volatile boolean closed;
+
+        @Override
+        public void send(SequencedServerEvent event) {
+            events.add(event);
+            received.add("event " + event.sequence());
+        }
+
+        @Override
+        public void sendReset(long currentSequence) {
+            resets.add(currentSequence);
+            received.add("reset " + currentSequence);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<Long> sequences() {
+            return events.stream().map(SequencedServerEvent::sequence).toList();
+        }
+    }
+
+    private static class QueuedExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+}
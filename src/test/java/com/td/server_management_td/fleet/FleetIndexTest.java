@@ -0,0 +1,144 @@
+package com.td.server_management_td.fleet;
+
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.model.ServerStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetIndexTest {
+
+    @Test
+    void testLookupsByNameAddressAndId() {
+        // Given
+        FleetIndex index = new FleetIndex();
+
+        // When
+        index.put(1, "web-1", "10.0.0.1", ServerStatus.RUNNING);
+        index.put(2, "db-1", "db-1.example.com", ServerStatus.STOPPED);
+
+        // Then
+        assertEquals(1, index.findByName("web-1"));
+        assertEquals(2, index.findByName("db-1"));
+        assertEquals(1, index.findByIpAddress("10.0.0.1"));
+        assertEquals(2, index.findByIpAddress("db-1.example.com"));
+        assertEquals(FleetIndex.NOT_FOUND, index.findByName("web-2"));
+        assertEquals(FleetIndex.NOT_FOUND, index.findByIpAddress("10.0.0.2"));
+        assertEquals(ServerStatus.RUNNING, index.findStatus(1));
+        assertEquals(new ServerIdentity(2L, "db-1", "db-1.example.com", ServerStatus.STOPPED), index.get(2));
+        assertNull(index.get(3));
+    }
+
+    @Test
+    void testAddressesAreMatchedExactlyAsWritten() {
+        // Given
+        FleetIndex index = new FleetIndex();
+
+        // When
+        index.put(1, "a", "10.0.0.1", ServerStatus.STOPPED);
+        index.put(2, "b", "010.0.0.1", ServerStatus.STOPPED);
+        index.put(3, "c", "fe80::1", ServerStatus.STOPPED);
+
+        // Then
+        assertEquals(1, index.findByIpAddress("10.0.0.1"));
+        assertEquals(2, index.findByIpAddress("010.0.0.1"));
+        assertEquals(3, index.findByIpAddress("fe80::1"));
+        assertEquals("010.0.0.1", index.get(2).ipAddress());
+        assertEquals("10.0.0.1", index.get(1).ipAddress());
+    }
+
+    @Test
+    void testNamesOutsideLatin1RoundTrip() {
+        // Given
+        FleetIndex index = new FleetIndex();
+
+        // When
+        index.put(1, "サーバー-1", "10.0.0.1", ServerStatus.STOPPED);
+        index.put(2, "café", "10.0.0.2", ServerStatus.STOPPED);
+
+        // Then
+        assertEquals(1, index.findByName("サーバー-1"));
+        assertEquals(2, index.findByName("café"));
+        assertEquals("サーバー-1", index.get(1).name());
+        assertEquals("café", index.get(2).name());
+        assertEquals(FleetIndex.NOT_FOUND, index.findByName("サーバー-2"));
+    }
+
+    @Test
+    void testRenameStatusChangeAndRemoveKeepCountsAndLookups() {
+        // Given
+        FleetIndex index = new FleetIndex();
+        index.put(1, "web-1", "10.0.0.1", ServerStatus.STOPPED);
+        index.put(2, "web-2", "10.0.0.2", ServerStatus.STOPPED);
+
+        // When
+        index.rename(1, "api-1");
+        index.setStatus(2, ServerStatus.RUNNING);
+        index.remove(1);
+
+        // Then
+        assertEquals(FleetIndex.NOT_FOUND, index.findByName("web-1"));
+        assertEquals(FleetIndex.NOT_FOUND, index.findByName("api-1"));
+        assertEquals(FleetIndex.NOT_FOUND, index.findByIpAddress("10.0.0.1"));
+        assertEquals(2, index.findByIpAddress("10.0.0.2"));
+        assertEquals(0, index.count(ServerStatus.STOPPED));
+        assertEquals(1, index.count(ServerStatus.RUNNING));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testMatchesAMapThroughGrowthAndCompaction() {
+        // Given
+        FleetIndex index = new FleetIndex();
+        Map<Long, String> names = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(7);
+
+        // When
+        for (int n = 0; n < 50_000; n++) {
+            long id = random.nextLong(1, 5_000);
+            int operation = random.nextInt(4);
+            if (operation == 0) {
+                index.remove(id);
+                names.remove(id);
+            } else if (operation == 1 && names.containsKey(id)) {
+                String name = "renamed-" + n;
+                index.rename(id, name);
+                names.put(id, name);
+            } else {
+                String name = "srv-" + n;
+                index.put(id, name, "10." + (id >> 16) + "." + ((id >> 8) & 0xFF) + "." + (id & 0xFF), ServerStatus.STOPPED);
+                names.put(id, name);
+            }
+        }
+
+        // Then
+        assertEquals(names.size(), index.size());
+        assertEquals(names.size(), index.count(ServerStatus.STOPPED));
+        for (long id = 1; id < 5_000; id++) {
+            String name = names.get(id);
+            String address = "10." + (id >> 16) + "." + ((id >> 8) & 0xFF) + "." + (id & 0xFF);
+            if (name == null) {
+                assertNull(index.get(id));
+                assertEquals(FleetIndex.NOT_FOUND, index.findByIpAddress(address));
+            } else {
+                assertEquals(id, index.findByName(name));
+                assertEquals(id, index.findByIpAddress(address));
+            }
+        }
+    }
+
+    @Test
+    void testCanonicalIpv4() {
+        assertEquals(0x0A000001L, FleetIndex.canonicalIpv4("10.0.0.1"));
+        assertEquals(0xFFFFFFFFL, FleetIndex.canonicalIpv4("255.255.255.255"));
+        assertEquals(-1, FleetIndex.canonicalIpv4("010.0.0.1"));
+        assertEquals(-1, FleetIndex.canonicalIpv4("10.0.0.256"));
+        assertEquals(-1, FleetIndex.canonicalIpv4("10.0.0"));
+        assertEquals(-1, FleetIndex.canonicalIpv4("10.0.0.1."));
+        assertEquals(-1, FleetIndex.canonicalIpv4("host.example.com"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.td.server_management_td.fleet;
+
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.metrics.HibernateStatementCounter;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.repository.StatusCount;
+import com.td.server_management_td.service.ServerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fleet-index;DB_CLOSE_DELAY=-1",
+        "server-management.fleet-index.enabled=true",
+        "server-management.seed-data.enabled=false"
+})
+class FleetIndexerTest {
+
+    @Autowired
+    private FleetIndexer fleetIndexer;
+
+    @Autowired
+    private ServerService serverService;
+
+    @Autowired
+    private ServerRepository serverRepository;
+
+    @Autowired
+    private HibernateStatementCounter statementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testLoadReadsEveryRow() {
+        // Given
+        jdbcTemplate.update("insert into servers (name, ip_address, status, version) values ('fleet-jdbc', 'fleet-jdbc.example.com', 'RUNNING', 0)");
+
+        // When
+        fleetIndexer.load();
+
+        // Then
+        ServerIdentity server = serverService.findServerByIpAddress("fleet-jdbc.example.com").orElseThrow();
+        assertEquals("fleet-jdbc", server.name());
+        assertEquals(ServerStatus.RUNNING, server.status());
+    }
+
+    @Test
+    void testServiceWritesAreFollowedAndLookupsIssueNoStatements() {
+        // Given
+        Server server = serverService.createServer(new Server(null, "fleet-web", "10.30.0.1", null));
+
+        // When
+        serverService.renameServer(server.getId(), "fleet-api");
+        serverService.startServer(server.getId());
+        Optional<ServerIdentity> byName = lookup(() -> serverService.findServerByName("fleet-api"));
+        Optional<ServerIdentity> byAddress = lookup(() -> serverService.findServerByIpAddress("10.30.0.1"));
+        Optional<ServerIdentity> oldName = lookup(() -> serverService.findServerByName("fleet-web"));
+
+        // Then
+        assertEquals(Optional.of(new ServerIdentity(server.getId(), "fleet-api", "10.30.0.1", ServerStatus.RUNNING)), byName);
+        assertEquals(byName, byAddress);
+        assertTrue(oldName.isEmpty());
+        serverService.stopServer(server.getId());
+        serverService.deleteServer(server.getId());
+        assertTrue(serverService.findServerByIpAddress("10.30.0.1").isEmpty());
+    }
+
+    @Test
+    void testPrefixSearchAndCountsMatchTheDatabase() {
+        // Given
+        for (int n = 1; n <= 3; n++) {
+            serverService.createServer(new Server(null, "fleet-prefix-" + n, "10.30.1." + n, null));
+        }
+
+        // When
+        List<ServerIdentity> page = serverService.findServersByNamePrefix("fleet-prefix-", 2);
+        Map<ServerStatus, Long> counts = serverService.countServersByStatus();
+
+        // Then
+        assertEquals(List.of("fleet-prefix-1", "fleet-prefix-2"), page.stream().map(ServerIdentity::name).toList());
+        for (StatusCount count : serverRepository.countGroupedByStatus()) {
+            assertEquals(count.getCount(), counts.get(count.getStatus()));
+        }
+        assertTrue(fleetIndexer.index().memoryBytes() > 0);
+    }
+
+    private Optional<ServerIdentity> lookup(Supplier<Optional<ServerIdentity>> lookup) {
+        statementCounter.start();
+        Optional<ServerIdentity> result = lookup.get();
+        assertEquals(0, statementCounter.stop());
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+package com.td.server_management_td.fleet;
+
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: versions are stamped when a transaction commits
+@DataJpaTest
+@Import(FleetVersion.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FleetVersionTest {
+
+    @Autowired
+    private FleetVersion fleetVersion;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ServerRepository serverRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        serverRepository.deleteAll();
+        jdbcTemplate.update("delete from server_tombstones");
+    }
+
+    @Test
+    void testEachCommittedTransactionStampsOneNewVersion() {
+        // Given
+        Server web = serverRepository.save(new Server(null, "web", "10.0.0.1", ServerStatus.STOPPED));
+        Server db = serverRepository.save(new Server(null, "db", "10.0.0.2", ServerStatus.STOPPED));
+        long start = fleetVersion.current().version();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ServerChangeEvent.statusChanged(web.getId(), "web", ServerStatus.STOPPED, ServerStatus.RUNNING));
+            eventPublisher.publishEvent(ServerChangeEvent.renamed(db.getId(), "db-1", ServerStatus.STOPPED));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ServerChangeEvent.deleted(db.getId(), ServerStatus.STOPPED));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(ServerChangeEvent.deleted(db.getId(), ServerStatus.STOPPED)));
+
+        // Then
+        // The rolled back transaction never takes a version
+        assertEquals(start + 2, fleetVersion.current().version());
+        assertEquals(start + 1, changeVersion(web));
+        assertEquals(List.of(db.getId()), jdbcTemplate.queryForList(
+                "select server_id from server_tombstones where change_version = ?", Long.class, start + 2));
+    }
+
+    @Test
+    void testVersionDoesNotPassATransactionStillCommitting() {
+        // Given
+        Server first = serverRepository.save(new Server(null, "first", "10.0.0.3", ServerStatus.STOPPED));
+        Server second = serverRepository.save(new Server(null, "second", "10.0.0.4", ServerStatus.STOPPED));
+        long start = fleetVersion.current().version();
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicLong seenWhileCommitting = new AtomicLong();
+
+        // When
+        outer.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ServerChangeEvent.renamed(first.getId(), "first", ServerStatus.STOPPED));
+            // Runs after the outer transaction took its version: a later version commits first
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    inner.executeWithoutResult(innerStatus ->
+                            eventPublisher.publishEvent(ServerChangeEvent.renamed(second.getId(), "second", ServerStatus.STOPPED)));
+                    seenWhileCommitting.set(fleetVersion.current().version());
+                }
+            });
+        });
+
+        // Then
+        assertEquals(start, seenWhileCommitting.get());
+        assertEquals(start + 2, changeVersion(second));
+        assertEquals(start + 2, fleetVersion.current().version());
+    }
+
+    private long changeVersion(Server server) {
+        return jdbcTemplate.queryForObject("select change_version from servers where id = ?", Long.class, server.getId());
+    }
+}
@@ -0,0 +1,161 @@
+package com.td.server_management_td.history;
+
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.model.StatusTransition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: history rows are only written when a transaction commits
+@DataJpaTest
+@Import({StatusHistory.class, StatusHistoryRecorder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatusHistoryTest {
+
+    @Autowired
+    private StatusHistory statusHistory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Five hours ago on the hour, so the first hours are rolled up and the window ends in the current one
+    private final Instant base = StatusHistory.floorHour(Instant.now()).minus(Duration.ofHours(5));
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from server_status_history");
+        jdbcTemplate.update("delete from fleet_status_hourly");
+    }
+
+    @Test
+    void testTransitionsAreRecordedWhenTheTransactionCommits() {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ServerChangeEvent.created(1L, "web-1", "10.0.0.1", ServerStatus.STOPPED));
+            eventPublisher.publishEvent(ServerChangeEvent.renamed(1L, "web-one", ServerStatus.STOPPED));
+            eventPublisher.publishEvent(ServerChangeEvent.statusChanged(1L, "web-one", ServerStatus.STOPPED, ServerStatus.STARTING));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ServerChangeEvent.deleted(1L, ServerStatus.STARTING));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        List<StatusTransition> timeline = statusHistory.timeline(1L, Instant.now().minusSeconds(60), Instant.now().plusSeconds(60), 10);
+        assertEquals(2, timeline.size());
+        assertNull(timeline.get(0).getFromStatus());
+        assertEquals(ServerStatus.STOPPED, timeline.get(0).getToStatus());
+        assertEquals(ServerStatus.STOPPED, timeline.get(1).getFromStatus());
+        assertEquals(ServerStatus.STARTING, timeline.get(1).getToStatus());
+    }
+
+    @Test
+    void testNestedTransactionKeepsItsOwnRows() {
+        // Given
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // When
+        outer.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ServerChangeEvent.created(2L, "web-2", "10.0.0.2", ServerStatus.STOPPED));
+            inner.executeWithoutResult(innerStatus -> {
+                eventPublisher.publishEvent(ServerChangeEvent.statusChanged(2L, "web-2", ServerStatus.STOPPED, ServerStatus.STARTING));
+                innerStatus.setRollbackOnly();
+            });
+            eventPublisher.publishEvent(ServerChangeEvent.deleted(2L, ServerStatus.STOPPED));
+        });
+
+        // Then
+        List<StatusTransition> timeline = statusHistory.timeline(2L, Instant.now().minusSeconds(60), Instant.now().plusSeconds(60), 10);
+        // The rolled back change is neither written nor carried into the outer transaction
+        assertEquals(2, timeline.size());
+        assertEquals(ServerStatus.STOPPED, timeline.get(0).getToStatus());
+        assertEquals(ServerStatus.STOPPED, timeline.get(1).getFromStatus());
+    }
+
+    @Test
+    void testServerUptimeStartsFromTheStatusInEffectAtTheWindowStart() {
+        // Given
+        givenHistory();
+
+        // When
+        UptimeReport report = statusHistory.serverUptime(1L, at(60), at(240));
+
+        // Then
+        assertEquals(5400.0, report.secondsByStatus().get(ServerStatus.RUNNING));
+        assertEquals(5400.0, report.secondsByStatus().get(ServerStatus.STOPPED));
+        assertEquals(0.5, report.uptime());
+    }
+
+    @Test
+    void testFleetUptimeCombinesHourlyRollupsWithPartialHours() {
+        // Given
+        givenHistory();
+
+        // When
+        UptimeReport beforeRollup = statusHistory.fleetUptime(at(45), at(240));
+        statusHistory.rollUp();
+        UptimeReport first = statusHistory.fleetUptime(at(45), at(240));
+        UptimeReport withinOneHour = statusHistory.fleetUptime(at(90), at(105));
+
+        // Then
+        // server 1: STOPPED 15 min, RUNNING 90 min, STOPPED 90 min; server 2: RUNNING 150 min
+        assertEquals(14400.0, first.secondsByStatus().get(ServerStatus.RUNNING));
+        assertEquals(6300.0, first.secondsByStatus().get(ServerStatus.STOPPED));
+        assertEquals(0.0, first.secondsByStatus().get(ServerStatus.STARTING));
+        assertEquals(240.0 / 345, first.uptime(), 1e-9);
+        assertEquals(first, beforeRollup);
+        assertEquals(1800.0, withinOneHour.secondsByStatus().get(ServerStatus.RUNNING));
+        Long rolledHours = jdbcTemplate.queryForObject("select count(distinct hour_start) from fleet_status_hourly", Long.class);
+        assertTrue(rolledHours >= 4);
+    }
+
+    @Test
+    void testWindowMustNotBeEmpty() {
+        assertThrows(IllegalArgumentException.class, () -> statusHistory.fleetUptime(at(60), at(60)));
+    }
+
+    private void givenHistory() {
+        insert(1L, 30, null, ServerStatus.STOPPED);
+        insert(1L, 60, ServerStatus.STOPPED, ServerStatus.RUNNING);
+        insert(1L, 150, ServerStatus.RUNNING, ServerStatus.STOPPED);
+        insert(2L, 75, null, ServerStatus.RUNNING);
+        insert(2L, 225, ServerStatus.RUNNING, null);
+    }
+
+    private void insert(long serverId, int minutes, ServerStatus from, ServerStatus to) {
+        jdbcTemplate.update("insert into server_status_history (server_id, changed_at, from_status, to_status) values (?, ?, ?, ?)",
+                serverId, at(minutes).atOffset(ZoneOffset.UTC), from == null ? null : from.name(), to == null ? null : to.name());
+    }
+
+    private Instant at(int minutes) {
+        return base.plus(Duration.ofMinutes(minutes));
+    }
+}
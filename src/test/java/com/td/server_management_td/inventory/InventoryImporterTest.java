@@ -0,0 +1,138 @@
+package com.td.server_management_td.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.event.ServerChangeType;
+import com.td.server_management_td.model.Ipv4Range;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.service.ServerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+class InventoryImporterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ServerRepository serverRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+    private InventoryImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        // Batches of two so the files below span several batches; jobs run on the calling thread
+        importer = new InventoryImporter(jdbcTemplate, transactionManager, mock(ServerService.class), eventPublisher, new ObjectMapper(),
+                Runnable::run, new ImportProperties(2, 1000, 100));
+    }
+
+    @Test
+    void testCsvImportReportsDuplicatesAndInvalidLinesPerRow() throws IOException {
+        // Given
+        serverRepository.saveAndFlush(new Server(null, "Existing", "10.0.0.1", ServerStatus.RUNNING));
+        String csv = """
+                id,name,ipAddress,status
+                1,web-1,10.0.0.10,RUNNING
+                2,"web,""2""\",10.0.0.11,STOPPED
+
+                3,Existing,10.0.0.12,STOPPED
+                4,web-4,10.0.0.1,STOPPED
+                5,web-1,10.0.0.13,STOPPED
+                6,,10.0.0.14,STOPPED
+                7,"broken,10.0.0.15,STOPPED
+                8,web-8,fe80::8,STOPPED
+                """;
+
+        // When
+        ImportJob.Status status = importer.submit(InventoryFormat.CSV, stream(csv)).status();
+
+        // Then
+        assertEquals(ImportJob.State.COMPLETED, status.state());
+        assertEquals(8, status.processed());
+        assertEquals(3, status.imported());
+        assertEquals(5, status.rejected());
+        assertEquals(status.bytesTotal(), status.bytesRead());
+        assertEquals(List.of(
+                new ImportJob.RowError(5, "Existing", "10.0.0.12", "A server named 'Existing' already exists"),
+                new ImportJob.RowError(6, "web-4", "10.0.0.1", "IP address 10.0.0.1 is already in use"),
+                new ImportJob.RowError(7, "web-1", "10.0.0.13", "A server named 'web-1' already exists"),
+                new ImportJob.RowError(8, "", "10.0.0.14", "Server name is required"),
+                new ImportJob.RowError(9, null, null, "Unterminated quoted field")), status.errors());
+
+        Server imported = serverRepository.findByName("web-1").orElseThrow();
+        assertEquals(ServerStatus.STOPPED, imported.getStatus());
+        assertEquals(Ipv4Range.toNumeric("10.0.0.10"), imported.getIpNumeric());
+        assertTrue(serverRepository.findByName("web,\"2\"").isPresent());
+        assertNull(serverRepository.findByName("web-8").orElseThrow().getIpNumeric());
+
+        ArgumentCaptor<ServerChangeEvent> events = ArgumentCaptor.forClass(ServerChangeEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(event -> event.type() == ServerChangeType.CREATED));
+        for (ServerChangeEvent event : events.getAllValues()) {
+            assertEquals(serverRepository.findByName(event.name()).orElseThrow().getId(), event.serverId());
+        }
+    }
+
+    @Test
+    void testNdjsonImportSkipsMalformedLines() throws IOException {
+        // Given
+        String ndjson = """
+                {"name":"db-1","ipAddress":"10.1.0.1"}
+                {"name":"db-2",
+                {"id":7,"name":"db-3","ipAddress":"10.1.0.3","status":"RUNNING","version":4}
+                {"name":"db-4"}
+                """;
+
+        // When
+        ImportJob.Status status = importer.submit(InventoryFormat.NDJSON, stream(ndjson)).status();
+
+        // Then
+        assertEquals(ImportJob.State.COMPLETED, status.state());
+        assertEquals(2, status.imported());
+        assertEquals(List.of(2L, 4L), status.errors().stream().map(ImportJob.RowError::line).toList());
+        assertTrue(status.errors().get(0).reason().startsWith("Invalid JSON"));
+        assertEquals("IP address is required", status.errors().get(1).reason());
+        assertTrue(serverRepository.findByName("db-3").isPresent());
+    }
+
+    @Test
+    void testReportedErrorsAreCapped() throws IOException {
+        // Given
+        importer = new InventoryImporter(jdbcTemplate, transactionManager, mock(ServerService.class), eventPublisher, new ObjectMapper(),
+                Runnable::run, new ImportProperties(2, 2, 100));
+
+        // When
+        ImportJob.Status status = importer.submit(InventoryFormat.CSV, stream(",a\n,b\n,c\n")).status();
+
+        // Then
+        assertEquals(3, status.rejected());
+        assertEquals(2, status.errors().size());
+        assertTrue(status.errorsTruncated());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,98 @@
+package com.td.server_management_td.metrics;
+
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.repository.StatusCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServerStatusCountersTest {
+
+    @Mock
+    private ServerRepository serverRepository;
+
+    @Mock
+    private DataSource dataSource;
+
+    @InjectMocks
+    private ServerStatusCounters counters;
+
+    @Test
+    void testCountsAreLoadedOnceAndMaintainedFromEvents() {
+        // Given
+        when(serverRepository.countGroupedByStatus())
+                .thenReturn(List.of(count(ServerStatus.STOPPED, 3), count(ServerStatus.RUNNING, 1)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        counters.bindTo(registry);
+        counters.initialize();
+
+        // When
+        counters.onServerChange(ServerChangeEvent.created(5L, "New Server", "10.0.0.5", ServerStatus.STOPPED));
+        counters.onServerChange(ServerChangeEvent.statusChanged(1L, "Web Server 1", ServerStatus.STOPPED, ServerStatus.RUNNING));
+        counters.onServerChange(ServerChangeEvent.renamed(2L, "Renamed", ServerStatus.RUNNING));
+        counters.onServerChange(ServerChangeEvent.deleted(3L, ServerStatus.STOPPED));
+
+        // Then
+        assertEquals(2, counters.count(ServerStatus.STOPPED));
+        assertEquals(2, counters.count(ServerStatus.RUNNING));
+        assertEquals(2.0, registry.get("servers").tag("status", "RUNNING").gauge().value());
+        verify(serverRepository, times(1)).countGroupedByStatus();
+    }
+
+    @Test
+    void testEventsBeforeInitializationAreNotCountedTwice() {
+        // Given
+        counters.onServerChange(ServerChangeEvent.created(1L, "Early Server", "10.0.0.1", ServerStatus.STOPPED));
+        when(serverRepository.countGroupedByStatus()).thenReturn(List.of(count(ServerStatus.STOPPED, 1)));
+
+        // When
+        counters.initialize();
+
+        // Then
+        assertEquals(1, counters.count(ServerStatus.STOPPED));
+    }
+
+    @Test
+    void testEventsDuringInitializationAreAppliedAfterTheLoad() {
+        // Given
+        when(serverRepository.countGroupedByStatus()).thenAnswer(invocation -> {
+            // Committed after the query read the table
+            counters.onServerChange(ServerChangeEvent.created(2L, "Late Server", "10.0.0.2", ServerStatus.STOPPED));
+            counters.onServerChange(ServerChangeEvent.statusChanged(1L, "Early Server", ServerStatus.STOPPED, ServerStatus.STARTING));
+            return List.of(count(ServerStatus.STOPPED, 1));
+        });
+
+        // When
+        counters.initialize();
+
+        // Then
+        assertEquals(1, counters.count(ServerStatus.STOPPED));
+        assertEquals(1, counters.count(ServerStatus.STARTING));
+    }
+
+    private static StatusCount count(ServerStatus status, long count) {
+        return new StatusCount() {
+            @Override
+            public ServerStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
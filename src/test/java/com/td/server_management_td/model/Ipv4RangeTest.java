@@ -0,0 +1,40 @@
+package com.td.server_management_td.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Ipv4RangeTest {
+
+    @Test
+    void testToNumeric() {
+        assertEquals(0L, Ipv4Range.toNumeric("0.0.0.0"));
+        assertEquals(167772161L, Ipv4Range.toNumeric("10.0.0.1"));
+        assertEquals(4294967295L, Ipv4Range.toNumeric("255.255.255.255"));
+    }
+
+    @Test
+    void testNonIpv4AddressesHaveNoNumericForm() {
+        assertNull(Ipv4Range.toNumeric("256.0.0.1"));
+        assertNull(Ipv4Range.toNumeric("10.0.0"));
+        assertNull(Ipv4Range.toNumeric("10.0.0.1.2"));
+        assertNull(Ipv4Range.toNumeric("10..0.1"));
+        assertNull(Ipv4Range.toNumeric("fe80::1"));
+        assertNull(Ipv4Range.toNumeric("server.example.com"));
+    }
+
+    @Test
+    void testParseCidrMasksHostBits() {
+        assertEquals(new Ipv4Range(Ipv4Range.toNumeric("10.2.0.0"), Ipv4Range.toNumeric("10.2.255.255")),
+                Ipv4Range.parseCidr("10.2.3.4/16"));
+        assertEquals(new Ipv4Range(0L, 4294967295L), Ipv4Range.parseCidr("1.2.3.4/0"));
+        assertEquals(new Ipv4Range(167772161L, 167772161L), Ipv4Range.parseCidr("10.0.0.1"));
+    }
+
+    @Test
+    void testInvalidCidrIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Ipv4Range.parseCidr("10.0.0.0/33"));
+        assertThrows(IllegalArgumentException.class, () -> Ipv4Range.parseCidr("10.0.0.0/x"));
+        assertThrows(IllegalArgumentException.class, () -> Ipv4Range.parseCidr("10.0.0/8"));
+    }
+}
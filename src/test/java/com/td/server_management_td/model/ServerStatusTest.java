@@ -0,0 +1,40 @@
+package com.td.server_management_td.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerStatusTest {
+
+    @Test
+    void testStableStatesCanBeChangedDirectly() {
+        assertTrue(ServerStatus.STOPPED.canTransitionTo(ServerStatus.RUNNING));
+        assertTrue(ServerStatus.RUNNING.canTransitionTo(ServerStatus.STOPPED));
+    }
+
+    @Test
+    void testTransitionalStates() {
+        assertTrue(ServerStatus.STOPPED.canTransitionTo(ServerStatus.STARTING));
+        assertTrue(ServerStatus.STARTING.canTransitionTo(ServerStatus.RUNNING));
+        assertTrue(ServerStatus.RUNNING.canTransitionTo(ServerStatus.STOPPING));
+        assertTrue(ServerStatus.STOPPING.canTransitionTo(ServerStatus.STOPPED));
+        assertFalse(ServerStatus.STOPPED.canTransitionTo(ServerStatus.STOPPING));
+        assertFalse(ServerStatus.RUNNING.canTransitionTo(ServerStatus.STARTING));
+    }
+
+    @Test
+    void testNoStateTransitionsToItself() {
+        for (ServerStatus status : ServerStatus.values()) {
+            assertFalse(status.canTransitionTo(status));
+        }
+    }
+
+    @Test
+    void testSourcesOfListStableStatesFirst() {
+        assertEquals(List.of(ServerStatus.STOPPED, ServerStatus.STARTING, ServerStatus.STOPPING),
+                ServerStatus.sourcesOf(ServerStatus.RUNNING));
+        assertEquals(List.of(ServerStatus.RUNNING), ServerStatus.sourcesOf(ServerStatus.STOPPING));
+    }
+}
@@ -0,0 +1,184 @@
+package com.td.server_management_td.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.event.ServerChangeType;
+import com.td.server_management_td.model.ServerStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: outbox rows are only written when a transaction commits
+@DataJpaTest(properties = "server-management.outbox.enabled=true")
+@Import(OutboxWriter.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final RecordingOutboxSink sink = new RecordingOutboxSink();
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from server_outbox");
+    }
+
+    @Test
+    void testCommittedChangesAreRelayedInOrderAndRolledBackOnesNever() throws Exception {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ServerChangeEvent.created(1L, "web-1", "10.0.0.1", ServerStatus.STOPPED));
+            eventPublisher.publishEvent(ServerChangeEvent.statusChanged(1L, "web-1", ServerStatus.STOPPED, ServerStatus.RUNNING));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ServerChangeEvent.deleted(1L, ServerStatus.RUNNING));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(ServerChangeEvent.created(2L, "web-2", "10.0.0.2", ServerStatus.STOPPED)));
+        OutboxRelay relay = relay(500);
+
+        // When
+        int relayed = relay.relayBatch();
+
+        // Then
+        assertEquals(3, relayed);
+        List<OutboxMessage> messages = sink.messages();
+        assertEquals(List.of(ServerChangeType.CREATED, ServerChangeType.STATUS_CHANGED, ServerChangeType.CREATED),
+                messages.stream().map(OutboxMessage::type).toList());
+        assertEquals(List.of(1L, 1L, 2L), messages.stream().map(OutboxMessage::serverId).toList());
+        assertTrue(messages.get(0).id() < messages.get(1).id());
+        ServerChangeEvent event = objectMapper.readValue(messages.get(1).payload(), ServerChangeEvent.class);
+        assertEquals(ServerStatus.STOPPED, event.previousStatus());
+        assertEquals(ServerStatus.RUNNING, event.status());
+        assertEquals(0, pending());
+        assertEquals(Duration.ZERO, relay.lag());
+    }
+
+    @Test
+    void testRolledBackNestedTransactionWritesNoMessage() {
+        // Given
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // When
+        outer.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ServerChangeEvent.created(1L, "web-1", "10.0.0.1", ServerStatus.STOPPED));
+            inner.executeWithoutResult(innerStatus -> {
+                eventPublisher.publishEvent(ServerChangeEvent.statusChanged(1L, "web-1", ServerStatus.STOPPED, ServerStatus.RUNNING));
+                innerStatus.setRollbackOnly();
+            });
+        });
+
+        // Then
+        assertEquals(List.of("CREATED"), jdbcTemplate.queryForList("select event_type from server_outbox", String.class));
+    }
+
+    @Test
+    void testFailedBatchIsKeptAndRedelivered() throws Exception {
+        // Given
+        eventPublisher.publishEvent(ServerChangeEvent.created(1L, "web-1", "10.0.0.1", ServerStatus.STOPPED));
+        sink.failNext(1);
+        OutboxRelay relay = relay(500);
+
+        // When
+        assertThrows(IllegalStateException.class, relay::relayBatch);
+        long pendingAfterFailure = pending();
+        boolean lagging = relay.lag().compareTo(Duration.ZERO) > 0;
+        int relayed = relay.relayBatch();
+
+        // Then
+        assertEquals(1, pendingAfterFailure);
+        assertTrue(lagging);
+        assertEquals(1, relayed);
+        assertEquals(1, sink.messages().size());
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void testBatchesAreBoundedAndBackoffIsCapped() throws Exception {
+        // Given
+        for (long id = 1; id <= 3; id++) {
+            eventPublisher.publishEvent(ServerChangeEvent.created(id, "web-" + id, "10.0.0." + id, ServerStatus.STOPPED));
+        }
+        OutboxRelay relay = relay(2);
+
+        // When
+        int first = relay.relayBatch();
+        int second = relay.relayBatch();
+
+        // Then
+        assertEquals(2, first);
+        assertEquals(1, second);
+        assertEquals(500, OutboxRelay.backoffMillis(Duration.ofMillis(500), Duration.ofSeconds(30), 1));
+        assertEquals(2000, OutboxRelay.backoffMillis(Duration.ofMillis(500), Duration.ofSeconds(30), 3));
+        assertEquals(30000, OutboxRelay.backoffMillis(Duration.ofMillis(500), Duration.ofSeconds(30), 100));
+    }
+
+    @Test
+    void testFileSinkAppendsOneJsonLinePerMessage(@TempDir Path directory) throws Exception {
+        // Given
+        Path file = directory.resolve("outbox/events.ndjson");
+        FileOutboxSink fileSink = new FileOutboxSink(new OutboxProperties(true, OutboxProperties.Sink.FILE, file,
+                500, Duration.ofMillis(500), Duration.ofSeconds(30)), objectMapper);
+        OutboxMessage message = new OutboxMessage(7, 1, ServerChangeType.CREATED,
+                "{\"type\":\"CREATED\",\"serverId\":1}", Instant.parse("2026-01-01T00:00:00Z"));
+
+        // When
+        fileSink.deliver(List.of(message));
+        fileSink.deliver(List.of(message));
+        fileSink.destroy();
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        Map<?, ?> line = objectMapper.readValue(lines.get(0), Map.class);
+        assertEquals(7, line.get("id"));
+        assertEquals(Map.of("type", "CREATED", "serverId", 1), line.get("payload"));
+    }
+
+    private OutboxRelay relay(int batchSize) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("recordingSink", sink));
+        return new OutboxRelay(jdbcTemplate, beanFactory.getBeanProvider(OutboxSink.class), new OutboxProperties(
+                true, OutboxProperties.Sink.NONE, Path.of("unused"), batchSize, Duration.ofMillis(500), Duration.ofSeconds(30)));
+    }
+
+    private long pending() {
+        return jdbcTemplate.queryForObject("select count(*) from server_outbox", Long.class);
+    }
+}
@@ -0,0 +1,31 @@
+package com.td.server_management_td.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-process {@link OutboxSink} for tests: keeps every delivered message and fails the next
+ * {@link #failNext(int)} deliveries.
+ */
+class RecordingOutboxSink implements OutboxSink {
+
+    private final List<OutboxMessage> messages = new ArrayList<>();
+    private int failures;
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> batch) {
+        if (failures > 0) {
+            failures--;
+            throw new IllegalStateException("Sink unavailable");
+        }
+        messages.addAll(batch);
+    }
+
+    synchronized void failNext(int deliveries) {
+        failures = deliveries;
+    }
+
+    synchronized List<OutboxMessage> messages() {
+        return List.copyOf(messages);
+    }
+}
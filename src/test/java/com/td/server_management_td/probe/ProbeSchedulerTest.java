@@ -0,0 +1,114 @@
+package com.td.server_management_td.probe;
+
+import com.td.server_management_td.cache.ServerCacheInvalidator;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerHealth;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ProbeSchedulerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ServerRepository serverRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ServerSocketChannel listener;
+    private ProbeScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Bound to 127.0.0.1 only, so the same port on 127.0.0.2 refuses connections
+        listener = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0), 64);
+        int port = ((InetSocketAddress) listener.getLocalAddress()).getPort();
+        scheduler = new ProbeScheduler(jdbcTemplate, transactionManager, new ProbeProperties(
+                true, List.of(port), Duration.ofMillis(50), 0.1, Duration.ofSeconds(1), Duration.ofSeconds(1),
+                16, 1000, Duration.ZERO), new ServerCacheInvalidator(entityManagerFactory));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        scheduler.destroy();
+        listener.close();
+    }
+
+    @Test
+    void testProbesRecordHealthAndLastSeenWithoutBumpingVersion() throws Exception {
+        // Given
+        Server up = serverRepository.saveAndFlush(new Server(null, "Up", "127.0.0.1", ServerStatus.STOPPED));
+        Server down = serverRepository.saveAndFlush(new Server(null, "Down", "127.0.0.2", ServerStatus.RUNNING));
+        serverRepository.saveAndFlush(new Server(null, "Named", "host.example.com", ServerStatus.STOPPED));
+
+        // When
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while ((health(up) == null || health(down) == null) && System.nanoTime() < deadline) {
+            scheduler.tick();
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertEquals(2, scheduler.targetCount());
+        assertEquals("REACHABLE", health(up));
+        assertEquals("UNREACHABLE", health(down));
+        Map<String, Object> upRow = row(up);
+        assertNotNull(upRow.get("LAST_SEEN_AT"));
+        assertEquals(0L, upRow.get("VERSION"));
+        assertNull(row(down).get("LAST_SEEN_AT"));
+        assertEquals(ServerStatus.RUNNING, serverRepository.findById(down.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testBackoffDoublesPerFailureUpToTheCap() {
+        // Given
+        Duration interval = Duration.ofSeconds(60);
+        Duration maxBackoff = Duration.ofMinutes(30);
+
+        // Then
+        assertEquals(Duration.ofSeconds(60).toNanos(), ProbeScheduler.nextDelayNanos(interval, maxBackoff, 0.1, 0, 0.5));
+        assertEquals(Duration.ofSeconds(240).toNanos(), ProbeScheduler.nextDelayNanos(interval, maxBackoff, 0.1, 2, 0.5));
+        assertEquals(Duration.ofMinutes(30).toNanos(), ProbeScheduler.nextDelayNanos(interval, maxBackoff, 0.1, 100, 0.5));
+        assertEquals(Duration.ofSeconds(54).toNanos(), ProbeScheduler.nextDelayNanos(interval, maxBackoff, 0.1, 0, 0.0));
+    }
+
+    @Test
+    void testOnlyIpLiteralsAreProbed() {
+        assertNotNull(ProbeScheduler.parseLiteral("10.0.0.1"));
+        assertNotNull(ProbeScheduler.parseLiteral("fe80::1"));
+        assertNull(ProbeScheduler.parseLiteral("host.example.com"));
+        assertNull(ProbeScheduler.parseLiteral(null));
+    }
+
+    private String health(Server server) {
+        Object health = row(server).get("HEALTH");
+        return health == null ? null : health.toString();
+    }
+
+    private Map<String, Object> row(Server server) {
+        return jdbcTemplate.queryForMap("select health, last_seen_at, version from servers where id = ?", server.getId());
+    }
+}
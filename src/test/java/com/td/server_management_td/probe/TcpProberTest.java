@@ -0,0 +1,102 @@
+package com.td.server_management_td.probe;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TcpProberTest {
+
+    private ServerSocketChannel listener;
+    private Thread acceptor;
+    private TcpProber prober;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        listener = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        acceptor = new Thread(() -> {
+            while (listener.isOpen()) {
+                try (SocketChannel ignored = listener.accept()) {
+                    // Accept and close, like a service that is up
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        prober = new TcpProber(64, Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        prober.close();
+        listener.close();
+    }
+
+    @Test
+    void testListeningPortIsReachable() throws Exception {
+        // When
+        boolean reachable = prober.probe((InetSocketAddress) listener.getLocalAddress()).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(reachable);
+    }
+
+    @Test
+    void testClosedPortIsUnreachable() throws Exception {
+        // Given
+        int closedPort;
+        try (ServerSocketChannel closed = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            closedPort = ((InetSocketAddress) closed.getLocalAddress()).getPort();
+        }
+
+        // When
+        boolean reachable = prober.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(), closedPort)).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(reachable);
+        assertEquals(0, prober.backlog());
+    }
+
+    @Test
+    void testProbesBeyondTheInFlightLimitAreQueuedAndAllComplete() throws Exception {
+        // Given
+        InetSocketAddress address = (InetSocketAddress) listener.getLocalAddress();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            results.add(prober.probe(address));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(results.stream().allMatch(CompletableFuture::join));
+        assertEquals(0, prober.backlog());
+    }
+
+    @Test
+    void testProbesAfterCloseFailFast() throws Exception {
+        // Given
+        prober.close();
+
+        // When
+        boolean reachable = prober.probe((InetSocketAddress) listener.getLocalAddress()).get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(reachable);
+    }
+}
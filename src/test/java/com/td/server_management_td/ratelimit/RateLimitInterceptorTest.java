@@ -0,0 +1,99 @@
+package com.td.server_management_td.ratelimit;
+
+import com.td.server_management_td.controller.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class RateLimitInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger pendingConnections = new AtomicInteger();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(
+                new TokenBuckets(64, 2, 0.01), new TokenBuckets(64, 1, 0.01),
+                pendingConnections::get, 5, registry);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StubController())
+                .addInterceptors(interceptor)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testClientOverItsLimitGets429WithRetryAfter() throws Exception {
+        // Given
+        mockMvc.perform(put("/api/servers/1/start")).andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(put("/api/servers/1/start"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+                .andExpect(jsonPath("$.status").value(429));
+        assertEquals(1, rejected("rate_limit", "mutation"));
+    }
+
+    @Test
+    void testReadsAndMutationsAreLimitedSeparately() throws Exception {
+        // Given
+        mockMvc.perform(put("/api/servers/1/start")).andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/api/servers")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/servers")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/servers")).andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/servers").with(request -> {
+            request.setRemoteAddr("10.0.0.9");
+            return request;
+        })).andExpect(status().isOk());
+        assertEquals(1, rejected("rate_limit", "read"));
+    }
+
+    @Test
+    void testLoadIsShedWhileConnectionsAreAwaited() throws Exception {
+        // Given
+        pendingConnections.set(6);
+
+        // When & Then
+        mockMvc.perform(get("/api/servers"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        assertEquals(1, rejected("overload", "read"));
+
+        pendingConnections.set(5);
+        mockMvc.perform(get("/api/servers")).andExpect(status().isOk());
+    }
+
+    private double rejected(String reason, String endpoint) {
+        return registry.get("server.requests.rejected").tag("reason", reason).tag("endpoint", endpoint).counter().count();
+    }
+
+    @RestController
+    static class StubController {
+
+        @GetMapping("/api/servers")
+        String list() {
+            return "[]";
+        }
+
+        @PutMapping("/api/servers/1/start")
+        String start() {
+            return "{}";
+        }
+    }
+}
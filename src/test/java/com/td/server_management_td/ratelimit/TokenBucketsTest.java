@@ -0,0 +1,75 @@
+package com.td.server_management_td.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketsTest {
+
+    private final AtomicLong nanoTime = new AtomicLong(-5_000_000_000L);
+
+    @Test
+    void testBurstThenRefillAtRate() {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(16, 3, 10, nanoTime::get);
+
+        // When
+        Duration first = buckets.tryAcquire("10.0.0.1");
+        Duration second = buckets.tryAcquire("10.0.0.1");
+        Duration third = buckets.tryAcquire("10.0.0.1");
+        Duration refused = buckets.tryAcquire("10.0.0.1");
+        nanoTime.addAndGet(Duration.ofMillis(100).toNanos());
+        Duration refilled = buckets.tryAcquire("10.0.0.1");
+
+        // Then
+        assertEquals(Duration.ZERO, first);
+        assertEquals(Duration.ZERO, second);
+        assertEquals(Duration.ZERO, third);
+        assertEquals(Duration.ofMillis(100), refused);
+        assertEquals(Duration.ZERO, refilled);
+        assertEquals(Duration.ofMillis(100), buckets.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    void testIdleBucketRefillsOnlyToCapacity() {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(16, 2, 1, nanoTime::get);
+        nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        // When
+        int granted = 0;
+        while (buckets.tryAcquire("10.0.0.1").isZero()) {
+            granted++;
+        }
+
+        // Then
+        assertEquals(2, granted);
+    }
+
+    @Test
+    void testClientsHaveSeparateBuckets() {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(1 << 16, 1, 1, nanoTime::get);
+
+        // When
+        Duration first = buckets.tryAcquire("10.0.0.1");
+        Duration other = buckets.tryAcquire("10.0.0.2");
+
+        // Then
+        assertEquals(Duration.ZERO, first);
+        assertEquals(Duration.ZERO, other);
+        assertFalse(buckets.tryAcquire("10.0.0.1").isZero());
+    }
+
+    @Test
+    void testTableSizeIsRoundedUpToAPowerOfTwo() {
+        // When & Then
+        assertEquals(1024, new TokenBuckets(1000, 1, 1).size());
+        assertEquals(1024, new TokenBuckets(1024, 1, 1).size());
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(16, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(16, 1, 0));
+    }
+}
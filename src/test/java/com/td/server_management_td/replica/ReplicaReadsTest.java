@@ -0,0 +1,140 @@
+package com.td.server_management_td.replica;
+
+import com.td.server_management_td.dto.ServerDelta;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.service.ServerService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A primary and two replicas, all in-memory H2. Replication is stood in for by copying the tables on demand,
+// and lag checks run only when a test calls them
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-reads-primary;DB_CLOSE_DELAY=-1",
+        "server-management.replicas.enabled=true",
+        "server-management.replicas.urls=" + ReplicaReadsTest.REPLICA_0 + "," + ReplicaReadsTest.REPLICA_1,
+        "server-management.replicas.max-lag=1h",
+        "server-management.replicas.lag-check-interval=1h",
+        "server-management.seed-data.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReplicaReadsTest {
+
+    static final String REPLICA_0 = "jdbc:h2:mem:replica-reads-0;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_1 = "jdbc:h2:mem:replica-reads-1;DB_CLOSE_DELAY=-1";
+    private static final List<String> TABLES = List.of("servers", "server_tombstones");
+
+    static {
+        for (String url : List.of(REPLICA_0, REPLICA_1)) {
+            Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        }
+    }
+
+    @Autowired
+    private ServerService serverService;
+
+    @Autowired
+    private ReplicaRoutingDataSource routing;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        TABLES.forEach(table -> new JdbcTemplate(routing.getPrimary()).update("delete from " + table));
+        replicate();
+    }
+
+    @Test
+    void testReadOnlyTransactionsReadTheReplicas() {
+        // Given
+        replicate();
+        Server server = serverService.createServer(new Server(null, "replicated", "10.7.0.1", null));
+
+        // When
+        List<Long> beforeReplication = serverService.listServers(null, 10).stream().map(summary -> summary.id()).toList();
+        replicate();
+        List<Long> afterReplication = serverService.listServers(null, 10).stream().map(summary -> summary.id()).toList();
+
+        // Then
+        assertEquals(List.of(), beforeReplication);
+        assertEquals(List.of(server.getId()), afterReplication);
+    }
+
+    @Test
+    void testClientReadsItsOwnWritesFromThePrimary() throws Exception {
+        // Given
+        replicate();
+
+        // When
+        mockMvc.perform(post("/api/servers").with(client("10.0.0.1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"mine\",\"ipAddress\":\"10.7.0.2\"}"))
+                .andExpect(status().isCreated());
+
+        // Then
+        mockMvc.perform(get("/api/servers").with(client("10.0.0.1")))
+                .andExpect(jsonPath("$[0].name").value("mine"));
+        mockMvc.perform(get("/api/servers").with(client("10.0.0.2")))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void testDeltasWaitForAReplicaThatHasEveryChange() {
+        // Given
+        replicate();
+        long from = serverService.fleetVersion().version();
+        Server server = serverService.createServer(new Server(null, "delta", "10.7.0.3", null));
+
+        // When
+        ServerDelta delta = serverService.changesSince(from);
+
+        // Then
+        assertEquals(List.of(server.getId()), delta.changed().stream().map(summary -> summary.id()).toList());
+        assertEquals(0, routing.replicas().stream().filter(replica -> replica.appliedVersion >= delta.version()).count());
+    }
+
+    private static RequestPostProcessor client(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    // Copies the primary's tables to every replica, then lets the lag monitor see them
+    private void replicate() {
+        JdbcTemplate primary = new JdbcTemplate(routing.getPrimary());
+        for (Replica replica : routing.replicas()) {
+            JdbcTemplate target = new JdbcTemplate(replica.dataSource);
+            for (String table : TABLES) {
+                target.update("delete from " + table);
+                for (Map<String, Object> row : primary.queryForList("select * from " + table)) {
+                    target.update("insert into " + table + " (" + String.join(", ", row.keySet()) + ") values ("
+                            + row.keySet().stream().map(column -> "?").collect(Collectors.joining(", ")) + ")",
+                            row.values().toArray());
+                }
+            }
+        }
+        lagMonitor.check();
+    }
+}
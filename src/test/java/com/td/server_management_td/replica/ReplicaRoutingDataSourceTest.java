@@ -0,0 +1,170 @@
+package com.td.server_management_td.replica;
+
+import com.td.server_management_td.replica.ReplicaProperties.Balancing;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void testReadsGoToThePrimaryUntilReplicasHaveBeenChecked() throws Exception {
+        // Given
+        ReplicaRoutingDataSource routing = routing(Balancing.ROUND_ROBIN, database("primary-a"), database("replica-a"));
+
+        // When & Then
+        assertEquals("primary-a", databaseOf(routing));
+        caughtUp(routing, 5);
+        assertEquals("replica-a", databaseOf(routing));
+    }
+
+    @Test
+    void testRoundRobinSkipsReplicasThatLagOrMissTheRequiredVersion() throws Exception {
+        // Given
+        ReplicaRoutingDataSource routing = routing(Balancing.ROUND_ROBIN, database("primary-b"),
+                database("replica-b0"), database("replica-b1"), database("replica-b2"));
+        caughtUp(routing, 10);
+        routing.replicas().get(2).lagNanos = Duration.ofSeconds(2).toNanos();
+        routing.replicas().get(1).appliedVersion = 7;
+
+        // When
+        List<String> reads = new ArrayList<>();
+        for (int n = 0; n < 4; n++) {
+            reads.add(databaseOf(routing));
+        }
+        String atVersion8 = ReplicaContext.atLeast(8, () -> databaseOf(routing));
+        String pinned = ReplicaContext.onPrimary(() -> databaseOf(routing));
+
+        // Then
+        assertEquals(2, reads.stream().filter("replica-b0"::equals).count());
+        assertEquals(2, reads.stream().filter("replica-b1"::equals).count());
+        assertEquals("replica-b0", atVersion8);
+        assertEquals("primary-b", pinned);
+    }
+
+    @Test
+    void testLeastConnectionsPrefersTheIdlerReplica() throws Exception {
+        // Given
+        ReplicaRoutingDataSource routing = routing(Balancing.LEAST_CONNECTIONS, database("primary-c"),
+                pool("replica-c0"), pool("replica-c1"));
+        caughtUp(routing, 1);
+
+        // When
+        try (Connection busy = routing.replicas().get(0).dataSource.getConnection()) {
+            // Then
+            assertEquals("replica-c1", databaseOf(routing));
+        }
+    }
+
+    @Test
+    void testFailedReplicaIsPausedAndReadsFailOver() throws Exception {
+        // Given
+        JdbcDataSource gone = new JdbcDataSource();
+        gone.setURL("jdbc:h2:mem:replica-d-gone;IFEXISTS=TRUE");
+        ReplicaRoutingDataSource routing = routing(Balancing.ROUND_ROBIN, database("primary-d"), gone, database("replica-d1"));
+        caughtUp(routing, 1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        routing.bindTo(registry);
+
+        // When
+        List<String> reads = new ArrayList<>();
+        for (int n = 0; n < 4; n++) {
+            reads.add(databaseOf(routing));
+        }
+
+        // Then
+        assertEquals(List.of("replica-d1", "replica-d1", "replica-d1", "replica-d1"), reads);
+        assertTrue(routing.replicas().get(0).isPaused(System.nanoTime()));
+        assertEquals(1.0, registry.get("server.replica.failovers").tag("replica", "replica-0").functionCounter().count());
+        assertEquals(4.0, registry.get("server.replica.connections").tag("target", "replica-1").functionCounter().count());
+    }
+
+    @Test
+    void testConnectionsWithCredentialsAreRoutedLikeAnyOther() throws Exception {
+        // Given
+        ReplicaRoutingDataSource routing = routing(Balancing.ROUND_ROBIN, database("primary-e"), database("replica-e"));
+        caughtUp(routing, 1);
+
+        // When
+        String read;
+        try (Connection connection = routing.getConnection("sa", "")) {
+            read = connection.getMetaData().getURL();
+        }
+        String written;
+        try (Connection connection = ReplicaContext.onPrimary(() -> connect(routing, "sa", ""))) {
+            written = connection.getMetaData().getURL();
+        }
+
+        // Then
+        assertTrue(read.startsWith("jdbc:h2:mem:replica-e"));
+        assertTrue(written.startsWith("jdbc:h2:mem:primary-e"));
+    }
+
+    @Test
+    void testPoolsThatRefuseCredentialsAreNotPaused() {
+        // Given
+        ReplicaRoutingDataSource routing = routing(Balancing.ROUND_ROBIN, database("primary-f"), pool("replica-f"));
+        caughtUp(routing, 1);
+
+        // When & Then
+        assertThrows(SQLFeatureNotSupportedException.class, () -> routing.getConnection("sa", ""));
+        assertFalse(routing.replicas().get(0).isPaused(System.nanoTime()));
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) {
+        try {
+            return dataSource.getConnection(username, password);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ReplicaRoutingDataSource routing(Balancing balancing, DataSource primary, DataSource... replicas) {
+        return new ReplicaRoutingDataSource(primary, List.of(replicas), balancing, Duration.ofSeconds(1), Duration.ofMinutes(1));
+    }
+
+    private static void caughtUp(ReplicaRoutingDataSource routing, long version) {
+        routing.replicas().forEach(replica -> replica.appliedVersion = version);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private DataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        pools.add(pool);
+        return pool;
+    }
+
+    private static String databaseOf(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            String url = connection.getMetaData().getURL();
+            return url.substring("jdbc:h2:mem:".length(), url.indexOf(';') < 0 ? url.length() : url.indexOf(';'));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.td.server_management_td.repository;
+
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Hibernate validates the mapping against the schema built by the migrations, so a migration that
+// drifts from the entity fails this test instead of the first production start
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private ServerRepository serverRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testMigrationsAreAppliedAndMatchTheEntity() {
+        // Then
+        assertNotNull(flyway.info().current());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void testMigratedSchemaRoundTripsAServer() {
+        // Given
+        Server server = serverRepository.saveAndFlush(new Server(null, "Migrated Server", "10.1.1.1", ServerStatus.STOPPED));
+
+        // When
+        Optional<Server> updated = serverRepository.compareAndSetStatusReturning(server.getId(), ServerStatus.STOPPED, ServerStatus.RUNNING, 0L);
+
+        // Then
+        assertEquals(1L, updated.orElseThrow().getVersion());
+        assertEquals(ServerStatus.RUNNING, serverRepository.findVersionedStatusById(server.getId()).orElseThrow().status());
+    }
+
+    @Test
+    void testRowsWrittenWithoutAVersionStartAtZero() {
+        // When
+        jdbcTemplate.update("insert into servers (name, ip_address, status) values ('Plain Row', '10.1.1.4', 'STOPPED')");
+
+        // Then
+        assertEquals(0L, jdbcTemplate.queryForObject("select version from servers where name = 'Plain Row'", Long.class));
+        assertThrows(DataIntegrityViolationException.class, () ->
+                jdbcTemplate.update("update servers set version = null where name = 'Plain Row'"));
+    }
+
+    @Test
+    void testMigratedSchemaEnforcesUniqueNames() {
+        // Given
+        serverRepository.saveAndFlush(new Server(null, "Unique Server", "10.1.1.2", ServerStatus.STOPPED));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () ->
+                serverRepository.saveAndFlush(new Server(null, "Unique Server", "10.1.1.3", ServerStatus.STOPPED)));
+    }
+}
@@ -1,15 +1,24 @@
 package com.td.server_management_td.repository;
 
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSortField;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.model.Ipv4Range;
 import com.td.server_management_td.model.Server;
 import com.td.server_management_td.model.ServerStatus;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +53,22 @@ class ServerRepositoryTest {
         assertEquals(ServerStatus.STOPPED, saved.getStatus());
     }
 
+    @Test
+    void testSaveServerKeepsAssignedId() {
+        // Given
+        testServer.setId(1L << 40);
+        Server generated = serverRepository.save(new Server(null, "Generated Server", "192.168.1.101", ServerStatus.STOPPED));
+
+        // When
+        Server saved = serverRepository.saveAndFlush(testServer);
+        entityManager.clear();
+
+        // Then
+        assertEquals(1L << 40, saved.getId());
+        assertTrue(serverRepository.findById(1L << 40).isPresent());
+        assertTrue(generated.getId() < 1L << 40);
+    }
+
     @Test
     void testFindById() {
         // Given
@@ -95,6 +120,17 @@ class ServerRepositoryTest {
         assertEquals("192.168.1.100", found.get().getIpAddress());
     }
 
+    @Test
+    void testFindVersionedStatusById() {
+        // Given
+        Server saved = entityManager.persistAndFlush(testServer);
+
+        // When & Then
+        assertEquals(Optional.of(new VersionedStatus(ServerStatus.STOPPED, saved.getVersion())),
+                serverRepository.findVersionedStatusById(saved.getId()));
+        assertEquals(Optional.empty(), serverRepository.findVersionedStatusById(999L));
+    }
+
     @Test
     void testFindAll() {
         // Given
@@ -110,6 +146,42 @@ class ServerRepositoryTest {
         assertEquals(2, servers.size());
     }
 
+    @Test
+    void testFindSummariesByIdGreaterThanReturnsKeysetPageOfUnmanagedRows() {
+        // Given
+        Server server1 = entityManager.persistAndFlush(new Server(null, "Server 1", "192.168.1.1", ServerStatus.STOPPED));
+        Server server2 = entityManager.persistAndFlush(new Server(null, "Server 2", "192.168.1.2", ServerStatus.STOPPED));
+        Server server3 = entityManager.persistAndFlush(new Server(null, "Server 3", "192.168.1.3", ServerStatus.STOPPED));
+
+        // When
+        entityManager.clear();
+        List<ServerSummary> firstPage = serverRepository.findSummariesByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        List<ServerSummary> secondPage = serverRepository.findSummariesByIdGreaterThanOrderByIdAsc(
+                firstPage.get(firstPage.size() - 1).id(), Limit.of(2));
+
+        // Then
+        assertEquals(List.of(server1.getId(), server2.getId()), firstPage.stream().map(ServerSummary::id).toList());
+        assertEquals(List.of(server3.getId()), secondPage.stream().map(ServerSummary::id).toList());
+        assertEquals(ServerSummary.of(server1), firstPage.get(0));
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testStreamAllOrderedById() {
+        // Given
+        Server server1 = entityManager.persistAndFlush(new Server(null, "Server 1", "192.168.1.1", ServerStatus.STOPPED));
+        Server server2 = entityManager.persistAndFlush(new Server(null, "Server 2", "192.168.1.2", ServerStatus.RUNNING));
+
+        // When
+        List<Long> ids;
+        try (Stream<Server> servers = serverRepository.streamAllByOrderByIdAsc()) {
+            ids = servers.map(Server::getId).toList();
+        }
+
+        // Then
+        assertEquals(List.of(server1.getId(), server2.getId()), ids);
+    }
+
     @Test
     void testDeleteServer() {
         // Given
@@ -139,5 +211,172 @@ class ServerRepositoryTest {
         assertEquals("Updated Name", updated.getName());
         assertEquals(ServerStatus.RUNNING, updated.getStatus());
     }
-}
 
+    @Test
+    void testCompareAndSetStatusByIdInOnlyUpdatesRowsInSourceState() {
+        // Given
+        Server stopped = entityManager.persistAndFlush(new Server(null, "Server 1", "192.168.1.1", ServerStatus.STOPPED));
+        Server running = entityManager.persistAndFlush(new Server(null, "Server 2", "192.168.1.2", ServerStatus.RUNNING));
+
+        // When
+        int updated = serverRepository.compareAndSetStatusByIdIn(
+                List.of(stopped.getId(), running.getId()), ServerStatus.STOPPED, ServerStatus.RUNNING);
+
+        // Then
+        assertEquals(1, updated);
+        Server reloaded = serverRepository.findById(stopped.getId()).orElseThrow();
+        assertEquals(ServerStatus.RUNNING, reloaded.getStatus());
+        assertEquals(1L, reloaded.getVersion());
+    }
+
+    @Test
+    void testDeleteByIdInAndStatusOnlyDeletesStoppedServers() {
+        // Given
+        Server stopped = entityManager.persistAndFlush(new Server(null, "Server 1", "192.168.1.1", ServerStatus.STOPPED));
+        Server running = entityManager.persistAndFlush(new Server(null, "Server 2", "192.168.1.2", ServerStatus.RUNNING));
+
+        // When
+        int deleted = serverRepository.deleteByIdInAndStatus(List.of(stopped.getId(), running.getId()), ServerStatus.STOPPED);
+
+        // Then
+        assertEquals(1, deleted);
+        assertFalse(serverRepository.existsById(stopped.getId()));
+        assertTrue(serverRepository.existsById(running.getId()));
+    }
+
+    @Test
+    void testCompareAndSetStatusMatchesOnlyExpectedSourceAndVersion() {
+        // Given
+        Server saved = entityManager.persistAndFlush(testServer);
+
+        // When
+        Optional<Server> staleVersion = serverRepository.compareAndSetStatusReturning(saved.getId(), ServerStatus.STOPPED, ServerStatus.RUNNING, 7L);
+        Optional<Server> started = serverRepository.compareAndSetStatusReturning(saved.getId(), ServerStatus.STOPPED, ServerStatus.RUNNING, 0L);
+        Optional<Server> startedAgain = serverRepository.compareAndSetStatusReturning(saved.getId(), ServerStatus.STOPPED, ServerStatus.RUNNING, null);
+
+        // Then
+        assertTrue(staleVersion.isEmpty());
+        assertTrue(startedAgain.isEmpty());
+        assertEquals(ServerStatus.RUNNING, started.orElseThrow().getStatus());
+        assertEquals(1L, started.get().getVersion());
+        assertEquals(testServer.getName(), started.get().getName());
+        Server reloaded = serverRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(ServerStatus.RUNNING, reloaded.getStatus());
+        assertEquals(1L, reloaded.getVersion());
+    }
+
+    @Test
+    void testUpdateNameById() {
+        // Given
+        Server saved = entityManager.persistAndFlush(testServer);
+
+        // When
+        Optional<Server> updated = serverRepository.updateNameByIdReturning(saved.getId(), "Renamed Server", null);
+
+        // Then
+        assertEquals("Renamed Server", updated.orElseThrow().getName());
+        assertEquals(1L, updated.get().getVersion());
+        assertEquals("Renamed Server", serverRepository.findById(saved.getId()).orElseThrow().getName());
+        assertTrue(serverRepository.updateNameByIdReturning(999L, "Ghost", null).isEmpty());
+        assertTrue(serverRepository.updateNameByIdReturning(saved.getId(), "Stale", 0L).isEmpty());
+    }
+
+    @Test
+    void testDeleteByIdAndStatusKeepsRunningServer() {
+        // Given
+        testServer.setStatus(ServerStatus.RUNNING);
+        Server saved = entityManager.persistAndFlush(testServer);
+
+        // When
+        int deleted = serverRepository.deleteByIdAndStatus(saved.getId(), ServerStatus.STOPPED, null);
+
+        // Then
+        assertEquals(0, deleted);
+        assertTrue(serverRepository.existsById(saved.getId()));
+    }
+
+    @Test
+    void testSearchFiltersByStatusAndCidrRange() {
+        // Given
+        entityManager.persist(new Server(null, "web-1", "10.2.0.1", ServerStatus.RUNNING));
+        entityManager.persist(new Server(null, "web-2", "10.2.255.254", ServerStatus.RUNNING));
+        entityManager.persist(new Server(null, "web-3", "10.3.0.1", ServerStatus.RUNNING));
+        entityManager.persist(new Server(null, "db-1", "10.2.0.2", ServerStatus.STOPPED));
+        entityManager.flush();
+        ServerSearchCriteria criteria = new ServerSearchCriteria(ServerStatus.RUNNING, null,
+                Ipv4Range.parseCidr("10.2.0.0/16"), ServerSortField.ID, Sort.Direction.ASC);
+
+        // When
+        List<Server> found = serverRepository.findAll(ServerSpecifications.matching(criteria));
+
+        // Then
+        assertEquals(List.of("web-1", "web-2"), found.stream().map(Server::getName).sorted().toList());
+    }
+
+    @Test
+    void testSearchNamePrefixTreatsWildcardsLiterally() {
+        // Given
+        entityManager.persist(new Server(null, "web_1", "10.0.0.1", ServerStatus.STOPPED));
+        entityManager.persist(new Server(null, "webX1", "10.0.0.2", ServerStatus.STOPPED));
+        entityManager.flush();
+        ServerSearchCriteria criteria = new ServerSearchCriteria(null, "web_", null, null, null);
+
+        // When
+        List<Server> found = serverRepository.findAll(ServerSpecifications.matching(criteria));
+
+        // Then
+        assertEquals(1, found.size());
+        assertEquals("web_1", found.get(0).getName());
+    }
+
+    @Test
+    void testKeysetPagingByNameDescendingBreaksTiesById() {
+        // Given
+        for (String name : List.of("a", "b", "c", "d", "e")) {
+            entityManager.persist(new Server(null, name, "10.0.1." + name.charAt(0), ServerStatus.STOPPED));
+        }
+        entityManager.flush();
+        Sort sort = Sort.by(Sort.Direction.DESC, "name").and(Sort.by(Sort.Direction.DESC, "id"));
+        Specification<Server> all = ServerSpecifications.matching(ServerSearchCriteria.DEFAULT);
+
+        // When
+        List<Server> first = serverRepository.findBy(all, query -> query.sortBy(sort).limit(2).all());
+        ServerSortField.Cursor cursor = ServerSortField.NAME.parseCursor(ServerSortField.NAME.cursorOf(ServerSummary.of(first.get(1))));
+        List<Server> second = serverRepository.findBy(
+                all.and(ServerSpecifications.after(ServerSortField.NAME, Sort.Direction.DESC, cursor)),
+                query -> query.sortBy(sort).limit(2).all());
+
+        // Then
+        assertEquals(List.of("e", "d"), first.stream().map(Server::getName).toList());
+        assertEquals(List.of("c", "b"), second.stream().map(Server::getName).toList());
+    }
+
+    @Test
+    void testIpNumericIsDerivedOnlyForIpv4Addresses() {
+        // Given
+        Server ipv4 = entityManager.persistAndFlush(new Server(null, "v4", "10.0.0.1", ServerStatus.STOPPED));
+        Server hostname = entityManager.persistAndFlush(new Server(null, "host", "db.internal", ServerStatus.STOPPED));
+
+        // Then
+        assertEquals(167772161L, ipv4.getIpNumeric());
+        assertNull(hostname.getIpNumeric());
+    }
+
+    @Test
+    void testSearchQueriesUseIndexesInsteadOfTableScans() {
+        // Each filter must be answered by an index; H2 reports a full scan as "tableScan"
+        assertIndexed("select * from servers where status = 'RUNNING' and id > 100 order by id limit 100",
+                "IDX_SERVERS_STATUS_ID");
+        assertIndexed("select * from servers where ip_numeric between 167903232 and 167968767 order by id limit 100",
+                "IDX_SERVERS_IP_NUMERIC");
+        assertIndexed("select * from servers where name like 'web-%' order by name limit 100", "");
+    }
+
+    private void assertIndexed(String sql, String expectedIndex) {
+        String plan = String.valueOf(entityManager.getEntityManager()
+                .createNativeQuery("explain " + sql)
+                .getSingleResult());
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.toUpperCase().contains(expectedIndex), plan);
+    }
+}
@@ -1,21 +1,46 @@
 package com.td.server_management_td.service;
 
+import com.td.server_management_td.dto.BulkOperationResult;
+import com.td.server_management_td.dto.BulkServerRequest;
+import com.td.server_management_td.dto.ServerDelta;
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.event.ServerChangeEvent;
+import com.td.server_management_td.event.ServerChangeType;
+import com.td.server_management_td.fleet.FleetIndex;
+import com.td.server_management_td.fleet.FleetIndexer;
+import com.td.server_management_td.fleet.FleetVersion;
 import com.td.server_management_td.model.Server;
 import com.td.server_management_td.model.ServerStatus;
 import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.repository.ServerStatusView;
+import com.td.server_management_td.repository.ServerTombstoneRepository;
+import com.td.server_management_td.repository.VersionedStatus;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +49,24 @@ class ServerServiceImplTest {
     @Mock
     private ServerRepository serverRepository;
 
+    @Mock
+    private ServerTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FleetVersion fleetVersion;
+
+    @Mock
+    private FleetIndexer fleetIndexer;
+
+    @Spy
+    private ServerStatusCache statusCache = new ServerStatusCache(new StatusCacheProperties(1000, Duration.ofMinutes(5)));
+
     @InjectMocks
     private ServerServiceImpl serverService;
 
@@ -41,18 +84,103 @@ class ServerServiceImplTest {
     @Test
     void testListServers() {
         // Given
-        Server server1 = new Server(1L, "Server 1", "192.168.1.1", ServerStatus.STOPPED);
-        Server server2 = new Server(2L, "Server 2", "192.168.1.2", ServerStatus.RUNNING);
-        List<Server> servers = Arrays.asList(server1, server2);
-        when(serverRepository.findAll()).thenReturn(servers);
+        ServerSummary server1 = new ServerSummary(1L, "Server 1", "192.168.1.1", ServerStatus.STOPPED, 0L, null, null);
+        ServerSummary server2 = new ServerSummary(2L, "Server 2", "192.168.1.2", ServerStatus.RUNNING, 0L, null, null);
+        List<ServerSummary> servers = Arrays.asList(server1, server2);
+        when(serverRepository.findSummariesByIdGreaterThanOrderByIdAsc(0L, Limit.of(50))).thenReturn(servers);
 
         // When
-        List<Server> result = serverService.listServers();
+        List<ServerSummary> result = serverService.listServers(null, 50);
 
         // Then
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(serverRepository, times(1)).findAll();
+        verify(serverRepository, times(1)).findSummariesByIdGreaterThanOrderByIdAsc(0L, Limit.of(50));
+        verify(serverRepository, never()).findAll();
+    }
+
+    @Test
+    void testListServersAfterCursor() {
+        // Given
+        ServerSummary server3 = new ServerSummary(3L, "Server 3", "192.168.1.3", ServerStatus.STOPPED, 0L, null, null);
+        when(serverRepository.findSummariesByIdGreaterThanOrderByIdAsc(2L, Limit.of(10))).thenReturn(List.of(server3));
+
+        // When
+        List<ServerSummary> result = serverService.listServers(2L, 10);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).id());
+    }
+
+    @Test
+    void testListServersRejectsInvalidLimit() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> serverService.listServers(null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> serverService.listServers(null, ServerServiceImpl.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(serverRepository);
+    }
+
+    @Test
+    void testChangesSince() {
+        // Given
+        ServerSummary changed = new ServerSummary(3L, "Server 3", "192.168.1.3", ServerStatus.RUNNING, 2L, null, null);
+        when(fleetVersion.current()).thenReturn(new FleetVersion.Snapshot(9, Instant.EPOCH));
+        when(serverRepository.findSummariesByChangeVersionGreaterThanOrderByChangeVersionAscIdAsc(eq(5L), any(Limit.class)))
+                .thenReturn(List.of(changed));
+        when(tombstoneRepository.findServerIdsDeletedAfter(eq(5L), any(Limit.class))).thenReturn(List.of(4L));
+
+        // When
+        ServerDelta delta = serverService.changesSince(5);
+
+        // Then
+        assertEquals(new ServerDelta(9, false, List.of(changed), List.of(4L)), delta);
+    }
+
+    @Test
+    void testChangesSinceUnknownVersionResets() {
+        // Given
+        when(fleetVersion.current()).thenReturn(new FleetVersion.Snapshot(9, Instant.EPOCH));
+
+        // When & Then
+        assertEquals(ServerDelta.reset(9), serverService.changesSince(0));
+        assertEquals(ServerDelta.reset(9), serverService.changesSince(10));
+        verifyNoInteractions(serverRepository, tombstoneRepository);
+    }
+
+    @Test
+    void testChangesSinceTooManyChangesResets() {
+        // Given
+        when(fleetVersion.current()).thenReturn(new FleetVersion.Snapshot(9, Instant.EPOCH));
+        when(serverRepository.findSummariesByChangeVersionGreaterThanOrderByChangeVersionAscIdAsc(eq(1L), any(Limit.class)))
+                .thenReturn(Collections.nCopies(ServerServiceImpl.MAX_DELTA_SIZE,
+                        new ServerSummary(3L, "Server 3", "192.168.1.3", ServerStatus.RUNNING, 2L, null, null)));
+        when(tombstoneRepository.findServerIdsDeletedAfter(eq(1L), any(Limit.class))).thenReturn(List.of(4L));
+
+        // When
+        ServerDelta delta = serverService.changesSince(1);
+
+        // Then
+        assertTrue(delta.reset());
+        assertEquals(9, delta.version());
+    }
+
+    @Test
+    void testStreamServers() {
+        // Given
+        Server server1 = new Server(1L, "Server 1", "192.168.1.1", ServerStatus.STOPPED);
+        Server server2 = new Server(2L, "Server 2", "192.168.1.2", ServerStatus.RUNNING);
+        when(serverRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(server1, server2));
+
+        // When
+        List<Server> streamed = new ArrayList<>();
+        serverService.streamServers(streamed::add);
+
+        // Then
+        assertEquals(List.of(server1, server2), streamed);
+        verify(entityManager).detach(server1);
+        verify(entityManager).detach(server2);
     }
 
     @Test
@@ -61,7 +189,7 @@ class ServerServiceImplTest {
         Server newServer = new Server();
         newServer.setName("New Server");
         newServer.setIpAddress("192.168.1.200");
-        when(serverRepository.save(any(Server.class))).thenAnswer(invocation -> {
+        when(serverRepository.saveAndFlush(any(Server.class))).thenAnswer(invocation -> {
             Server server = invocation.getArgument(0);
             server.setId(1L);
             return server;
@@ -74,118 +202,202 @@ class ServerServiceImplTest {
         assertNotNull(result);
         assertEquals(ServerStatus.STOPPED, result.getStatus());
         assertEquals("New Server", result.getName());
-        verify(serverRepository, times(1)).save(any(Server.class));
+        verify(serverRepository, times(1)).saveAndFlush(any(Server.class));
     }
 
     @Test
     void testRenameServer() {
         // Given
         String newName = "Renamed Server";
-        when(serverRepository.findById(1L)).thenReturn(Optional.of(testServer));
-        when(serverRepository.save(any(Server.class))).thenReturn(testServer);
+        testServer.setName(newName);
+        when(serverRepository.updateNameByIdReturning(1L, newName, null)).thenReturn(Optional.of(testServer));
 
         // When
         Server result = serverService.renameServer(1L, newName);
 
         // Then
         assertNotNull(result);
-        assertEquals(newName, testServer.getName());
-        verify(serverRepository, times(1)).findById(1L);
-        verify(serverRepository, times(1)).save(testServer);
+        assertEquals(newName, result.getName());
+        verify(serverRepository, times(1)).updateNameByIdReturning(1L, newName, null);
+        verify(serverRepository, never()).findById(any());
+        verify(serverRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void testRenameServerNotFound() {
         // Given
+        when(serverRepository.updateNameByIdReturning(999L, "New Name", null)).thenReturn(Optional.empty());
         when(serverRepository.findById(999L)).thenReturn(Optional.empty());
 
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        ServerNotFoundException exception = assertThrows(ServerNotFoundException.class, () -> {
             serverService.renameServer(999L, "New Name");
         });
         assertTrue(exception.getMessage().contains("Server not found"));
         verify(serverRepository, times(1)).findById(999L);
-        verify(serverRepository, never()).save(any());
+        verify(serverRepository, never()).saveAndFlush(any());
     }
 
     @Test
-    void testGetServerStatus() {
+    void testRenameServerDeletedConcurrentlyIsNotFound() {
         // Given
+        testServer.setVersion(3L);
+        when(serverRepository.updateNameByIdReturning(1L, "New Name", 3L)).thenReturn(Optional.empty());
+        // Read at the expected version, as the delete had not committed yet
         when(serverRepository.findById(1L)).thenReturn(Optional.of(testServer));
 
+        // When & Then
+        assertThrows(ServerNotFoundException.class, () -> serverService.renameServer(1L, "New Name", 3L));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testGetServerStatus() {
+        // Given
+        when(serverRepository.findVersionedStatusById(1L)).thenReturn(Optional.of(new VersionedStatus(ServerStatus.STOPPED, 0L)));
+
         // When
         ServerStatus status = serverService.getServerStatus(1L);
+        ServerStatus cached = serverService.getServerStatus(1L);
 
         // Then
         assertEquals(ServerStatus.STOPPED, status);
-        verify(serverRepository, times(1)).findById(1L);
+        assertEquals(ServerStatus.STOPPED, cached);
+        verify(serverRepository, times(1)).findVersionedStatusById(1L);
+        verify(serverRepository, never()).findById(any());
     }
 
     @Test
     void testGetServerStatusNotFound() {
         // Given
-        when(serverRepository.findById(999L)).thenReturn(Optional.empty());
+        when(serverRepository.findVersionedStatusById(999L)).thenReturn(Optional.empty());
 
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        ServerNotFoundException exception = assertThrows(ServerNotFoundException.class, () -> {
             serverService.getServerStatus(999L);
         });
         assertTrue(exception.getMessage().contains("Server not found"));
-        verify(serverRepository, times(1)).findById(999L);
+        verify(serverRepository, times(1)).findVersionedStatusById(999L);
+    }
+
+    @Test
+    void testGetServerStatusServedFromCacheAfterStart() {
+        // Given
+        when(serverRepository.compareAndSetStatusReturning(1L, ServerStatus.STOPPED, ServerStatus.RUNNING, null))
+                .thenReturn(Optional.of(testServer));
+        serverService.startServer(1L);
+
+        // When
+        ServerStatus status = serverService.getServerStatus(1L);
+
+        // Then
+        assertEquals(ServerStatus.RUNNING, status);
+        verify(serverRepository, never()).findVersionedStatusById(any());
+    }
+
+    @Test
+    void testDeleteServerEvictsCachedStatus() {
+        // Given
+        when(serverRepository.findVersionedStatusById(1L)).thenReturn(Optional.of(new VersionedStatus(ServerStatus.STOPPED, 0L)), Optional.empty());
+        when(serverRepository.deleteByIdAndStatus(1L, ServerStatus.STOPPED, null)).thenReturn(1);
+        serverService.getServerStatus(1L);
+
+        // When
+        serverService.deleteServer(1L);
+
+        // Then
+        assertThrows(ServerNotFoundException.class, () -> serverService.getServerStatus(1L));
     }
 
     @Test
     void testStartServer() {
         // Given
-        when(serverRepository.findById(1L)).thenReturn(Optional.of(testServer));
-        when(serverRepository.save(any(Server.class))).thenReturn(testServer);
+        when(serverRepository.compareAndSetStatusReturning(1L, ServerStatus.STOPPED, ServerStatus.RUNNING, null)).thenAnswer(invocation -> {
+            testServer.setStatus(ServerStatus.RUNNING);
+            return Optional.of(testServer);
+        });
 
         // When
         Server result = serverService.startServer(1L);
 
         // Then
         assertNotNull(result);
-        assertEquals(ServerStatus.RUNNING, testServer.getStatus());
-        verify(serverRepository, times(1)).findById(1L);
-        verify(serverRepository, times(1)).save(testServer);
+        assertEquals(ServerStatus.RUNNING, result.getStatus());
+        verify(serverRepository, times(1)).compareAndSetStatusReturning(1L, ServerStatus.STOPPED, ServerStatus.RUNNING, null);
+        verify(serverRepository, never()).saveAndFlush(any());
+        ArgumentCaptor<ServerChangeEvent> event = ArgumentCaptor.forClass(ServerChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ServerChangeType.STATUS_CHANGED, event.getValue().type());
+        assertEquals(ServerStatus.STOPPED, event.getValue().previousStatus());
+        assertEquals(ServerStatus.RUNNING, event.getValue().status());
     }
 
     @Test
-    void testStopServer() {
+    void testStartServerAlreadyRunningIsIdempotent() {
         // Given
         testServer.setStatus(ServerStatus.RUNNING);
         when(serverRepository.findById(1L)).thenReturn(Optional.of(testServer));
-        when(serverRepository.save(any(Server.class))).thenReturn(testServer);
+
+        // When
+        Server result = serverService.startServer(1L);
+
+        // Then
+        assertEquals(ServerStatus.RUNNING, result.getStatus());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testStartServerNotFound() {
+        // Given
+        when(serverRepository.findById(999L)).thenReturn(Optional.empty());
+
+        // When & Then
+        ServerNotFoundException exception = assertThrows(ServerNotFoundException.class, () -> serverService.startServer(999L));
+        assertTrue(exception.getMessage().contains("Server not found"));
+    }
+
+    @Test
+    void testStopServer() {
+        // Given
+        testServer.setStatus(ServerStatus.RUNNING);
+        when(serverRepository.compareAndSetStatusReturning(1L, ServerStatus.RUNNING, ServerStatus.STOPPED, null)).thenAnswer(invocation -> {
+            testServer.setStatus(ServerStatus.STOPPED);
+            return Optional.of(testServer);
+        });
 
         // When
         Server result = serverService.stopServer(1L);
 
         // Then
         assertNotNull(result);
-        assertEquals(ServerStatus.STOPPED, testServer.getStatus());
-        verify(serverRepository, times(1)).findById(1L);
-        verify(serverRepository, times(1)).save(testServer);
+        assertEquals(ServerStatus.STOPPED, result.getStatus());
+        verify(serverRepository, times(1)).compareAndSetStatusReturning(1L, ServerStatus.RUNNING, ServerStatus.STOPPED, null);
+        verify(serverRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void testDeleteServerWhenStopped() {
         // Given
         testServer.setStatus(ServerStatus.STOPPED);
-        when(serverRepository.findById(1L)).thenReturn(Optional.of(testServer));
-        doNothing().when(serverRepository).delete(testServer);
+        when(serverRepository.deleteByIdAndStatus(1L, ServerStatus.STOPPED, null)).thenReturn(1);
 
         // When
         assertDoesNotThrow(() -> serverService.deleteServer(1L));
 
         // Then
-        verify(serverRepository, times(1)).findById(1L);
-        verify(serverRepository, times(1)).delete(testServer);
+        verify(serverRepository, times(1)).deleteByIdAndStatus(1L, ServerStatus.STOPPED, null);
+        verify(serverRepository, never()).findById(any());
+        ArgumentCaptor<ServerChangeEvent> event = ArgumentCaptor.forClass(ServerChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ServerChangeType.DELETED, event.getValue().type());
+        assertEquals(1L, event.getValue().serverId());
     }
 
     @Test
     void testDeleteServerWhenRunning() {
         // Given
         testServer.setStatus(ServerStatus.RUNNING);
+        when(serverRepository.deleteByIdAndStatus(1L, ServerStatus.STOPPED, null)).thenReturn(0);
         when(serverRepository.findById(1L)).thenReturn(Optional.of(testServer));
 
         // When & Then
@@ -194,21 +406,191 @@ class ServerServiceImplTest {
         });
         assertTrue(exception.getMessage().contains("Cannot delete a running server"));
         verify(serverRepository, times(1)).findById(1L);
-        verify(serverRepository, never()).delete(any());
+        verify(serverRepository, never()).delete(any(Server.class));
     }
 
     @Test
     void testDeleteServerNotFound() {
         // Given
+        when(serverRepository.deleteByIdAndStatus(999L, ServerStatus.STOPPED, null)).thenReturn(0);
         when(serverRepository.findById(999L)).thenReturn(Optional.empty());
 
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        ServerNotFoundException exception = assertThrows(ServerNotFoundException.class, () -> {
             serverService.deleteServer(999L);
         });
         assertTrue(exception.getMessage().contains("Server not found"));
         verify(serverRepository, times(1)).findById(999L);
-        verify(serverRepository, never()).delete(any());
+        verify(serverRepository, never()).delete(any(Server.class));
+    }
+
+    @Test
+    void testStartServerWithStaleVersionFails() {
+        // Given
+        testServer.setVersion(5L);
+        when(serverRepository.findById(1L)).thenReturn(Optional.of(testServer));
+
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () -> serverService.startServer(1L, 4L));
+        verify(serverRepository, times(1)).compareAndSetStatusReturning(1L, ServerStatus.STOPPED, ServerStatus.RUNNING, 4L);
+    }
+
+    @Test
+    void testTransitionServerToStartingFromStopped() {
+        // Given
+        when(serverRepository.compareAndSetStatusReturning(1L, ServerStatus.STOPPED, ServerStatus.STARTING, 0L)).thenAnswer(invocation -> {
+            testServer.setStatus(ServerStatus.STARTING);
+            return Optional.of(testServer);
+        });
+
+        // When
+        Server result = serverService.transitionServer(1L, ServerStatus.STARTING, 0L);
+
+        // Then
+        assertEquals(ServerStatus.STARTING, result.getStatus());
+    }
+
+    @Test
+    void testTransitionServerRejectsIllegalTransition() {
+        // Given
+        when(serverRepository.findById(1L)).thenReturn(Optional.of(testServer));
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> serverService.transitionServer(1L, ServerStatus.STOPPING, null));
+        assertTrue(exception.getMessage().contains("from STOPPED to STOPPING"));
+    }
+
+    @Test
+    void testDeleteServerWithStaleVersionFails() {
+        // Given
+        testServer.setVersion(2L);
+        when(serverRepository.findById(1L)).thenReturn(Optional.of(testServer));
+
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () -> serverService.deleteServer(1L, 1L));
+    }
+
+    @Test
+    void testStartServersByIdsReportsMissingIds() {
+        // Given
+        when(serverRepository.findByIdIn(List.of(1L, 2L, 999L)))
+                .thenReturn(List.of(view(1L, ServerStatus.STOPPED), view(2L, ServerStatus.RUNNING)));
+        when(serverRepository.compareAndSetStatusByIdIn(List.of(1L), ServerStatus.STOPPED, ServerStatus.RUNNING)).thenReturn(1);
+
+        // When
+        BulkOperationResult result = serverService.startServers(BulkServerRequest.ofIds(List.of(1L, 2L, 999L)));
+
+        // Then
+        assertEquals(List.of(1L, 2L), result.succeeded());
+        assertEquals(1, result.failed().size());
+        assertEquals(999L, result.failed().get(0).id());
+        assertTrue(result.failed().get(0).reason().contains("Server not found"));
+        verify(serverRepository, times(1)).compareAndSetStatusByIdIn(List.of(1L), ServerStatus.STOPPED, ServerStatus.RUNNING);
+        verify(serverRepository, never()).saveAndFlush(any());
+        // Server 2 was already running, so only server 1 produces a change event
+        ArgumentCaptor<ServerChangeEvent> event = ArgumentCaptor.forClass(ServerChangeEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().serverId());
+        assertEquals(ServerStatus.STOPPED, event.getValue().previousStatus());
+    }
+
+    @Test
+    void testStopServersByNamePrefix() {
+        // Given
+        when(serverRepository.findByNameStartingWith("web-"))
+                .thenReturn(List.of(view(1L, ServerStatus.RUNNING), view(2L, ServerStatus.RUNNING)));
+        when(serverRepository.compareAndSetStatusByIdIn(List.of(1L, 2L), ServerStatus.RUNNING, ServerStatus.STOPPED)).thenReturn(2);
+
+        // When
+        BulkOperationResult result = serverService.stopServers(BulkServerRequest.ofNamePrefix("web-"));
+
+        // Then
+        assertEquals(List.of(1L, 2L), result.succeeded());
+        assertTrue(result.failed().isEmpty());
+    }
+
+    @Test
+    void testDeleteServersByStatusSkipsRunningServers() {
+        // Given
+        when(serverRepository.findByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(view(1L, ServerStatus.STOPPED), view(2L, ServerStatus.RUNNING)));
+        when(serverRepository.deleteByIdInAndStatus(List.of(1L), ServerStatus.STOPPED)).thenReturn(1);
+
+        // When
+        BulkOperationResult result = serverService.deleteServers(BulkServerRequest.ofIds(List.of(1L, 2L)));
+
+        // Then
+        assertEquals(List.of(1L), result.succeeded());
+        assertEquals(1, result.failed().size());
+        assertEquals(2L, result.failed().get(0).id());
+        assertTrue(result.failed().get(0).reason().contains("Cannot delete a running server"));
+    }
+
+    @Test
+    void testBulkRequestRequiresExactlyOneSelector() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> serverService.startServers(new BulkServerRequest(List.of(1L), ServerStatus.STOPPED, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> serverService.stopServers(new BulkServerRequest(null, null, null)));
+        verifyNoInteractions(serverRepository);
+    }
+
+    @Test
+    void testLookupsAreAnsweredByTheFleetIndexOnceLoaded() {
+        // Given
+        FleetIndex index = new FleetIndex();
+        index.put(1L, "web-1", "10.0.0.1", ServerStatus.RUNNING);
+        index.put(2L, "web-2", "10.0.0.2", ServerStatus.STOPPED);
+        when(fleetIndexer.index()).thenReturn(index);
+        ServerIdentity web2 = new ServerIdentity(2L, "web-2", "10.0.0.2", ServerStatus.STOPPED);
+        when(serverRepository.findIdentitiesByNameStartingWithOrderByIdAsc("web-", Limit.of(10))).thenReturn(List.of(web2));
+
+        // When
+        Optional<ServerIdentity> byName = serverService.findServerByName("web-1");
+        Optional<ServerIdentity> byAddress = serverService.findServerByIpAddress("10.0.0.3");
+        List<ServerIdentity> byPrefix = serverService.findServersByNamePrefix("web-", 10);
+
+        // Then
+        assertEquals(Optional.of(new ServerIdentity(1L, "web-1", "10.0.0.1", ServerStatus.RUNNING)), byName);
+        assertTrue(byAddress.isEmpty());
+        // Prefix searches stay on the database's index on name
+        assertEquals(List.of(web2), byPrefix);
+        assertEquals(1L, serverService.countServersByStatus().get(ServerStatus.RUNNING));
+        assertEquals(0L, serverService.countServersByStatus().get(ServerStatus.STARTING));
+        verify(serverRepository).findIdentitiesByNameStartingWithOrderByIdAsc("web-", Limit.of(10));
+        verifyNoMoreInteractions(serverRepository);
+    }
+
+    @Test
+    void testLookupsGoToTheRepositoryWithoutTheFleetIndex() {
+        // Given
+        ServerIdentity server = new ServerIdentity(1L, "web-1", "10.0.0.1", ServerStatus.RUNNING);
+        when(serverRepository.findIdentityByName("web-1")).thenReturn(Optional.of(server));
+        when(serverRepository.findIdentitiesByNameStartingWithOrderByIdAsc("web-", Limit.of(10))).thenReturn(List.of(server));
+
+        // When
+        Optional<ServerIdentity> byName = serverService.findServerByName("web-1");
+        List<ServerIdentity> byPrefix = serverService.findServersByNamePrefix("web-", 10);
+
+        // Then
+        assertEquals(Optional.of(server), byName);
+        assertEquals(List.of(server), byPrefix);
+        assertThrows(IllegalArgumentException.class, () -> serverService.findServersByNamePrefix(" ", 10));
     }
-}
 
+    private static ServerStatusView view(Long id, ServerStatus status) {
+        return new ServerStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public ServerStatus getStatus() {
+                return status;
+            }
+        };
+    }
+}
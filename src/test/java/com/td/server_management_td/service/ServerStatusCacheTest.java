@@ -0,0 +1,85 @@
+package com.td.server_management_td.service;
+
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.VersionedStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerStatusCacheTest {
+
+    private final ServerStatusCache cache = new ServerStatusCache(new StatusCacheProperties(1000, Duration.ofMinutes(5)));
+
+    @Test
+    void testOlderWriteCommittedLastDoesNotOverwriteNewerOne() {
+        // Given
+        cache.putAfterCommit(1L, ServerStatus.RUNNING, 2L);
+
+        // When
+        cache.putAfterCommit(1L, ServerStatus.STARTING, 1L);
+
+        // Then
+        assertEquals(ServerStatus.RUNNING, cache.peek(1L));
+    }
+
+    @Test
+    void testNewerWriteReplacesLoadedStatus() {
+        // Given
+        cache.get(1L, id -> Optional.of(new VersionedStatus(ServerStatus.STOPPED, 4L)));
+
+        // When
+        cache.putAfterCommit(1L, ServerStatus.STARTING, 3L);
+        cache.putAfterCommit(1L, ServerStatus.STARTING, 5L);
+
+        // Then
+        assertEquals(ServerStatus.STARTING, cache.get(1L, id -> fail("loaded again")));
+    }
+
+    @Test
+    void testWriteDoesNotWaitForALoadOfTheSameServer() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ServerStatus> load = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return Optional.of(new VersionedStatus(ServerStatus.STOPPED, 1L));
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture.runAsync(() -> cache.putAfterCommit(1L, ServerStatus.STARTING, 2L)).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        // Then
+        assertEquals(ServerStatus.STOPPED, load.get(5, TimeUnit.SECONDS));
+        assertEquals(ServerStatus.STARTING, cache.peek(1L));
+    }
+
+    @Test
+    void testLoadOverlappingAnEvictionIsNotCached() {
+        // When
+        ServerStatus loaded = cache.get(1L, id -> {
+            cache.evictAfterCommit(1L);
+            return Optional.of(new VersionedStatus(ServerStatus.RUNNING, 3L));
+        });
+
+        // Then
+        assertEquals(ServerStatus.RUNNING, loaded);
+        assertNull(cache.peek(1L));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.td.server_management_td.service;
+
+import com.td.server_management_td.history.StatusHistoryRecorder;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.repository.ServerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: the buffer writes in its own transactions
+@DataJpaTest
+@Import(StatusHistoryRecorder.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatusWriteBufferTest {
+
+    @Autowired
+    private ServerRepository serverRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ServerStatusCache statusCache = new ServerStatusCache(new StatusCacheProperties(1000, Duration.ofMinutes(5)));
+
+    private StatusWriteBuffer buffer;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (buffer != null) {
+            buffer.destroy();
+        }
+        jdbcTemplate.update("delete from server_status_history");
+        serverRepository.deleteAll();
+    }
+
+    @Test
+    void testFlappingIsReadBackBeforeFlushAndWrittenOnceWithFullHistory() {
+        // Given
+        buffer = buffer(WriteBehindProperties.Durability.BUFFERED);
+        Server server = serverRepository.saveAndFlush(new Server(null, "Flapper", "10.0.0.1", ServerStatus.STOPPED));
+
+        // When
+        buffer.transition(server.getId(), ServerStatus.RUNNING);
+        buffer.transition(server.getId(), ServerStatus.STOPPED);
+        Server last = buffer.transition(server.getId(), ServerStatus.RUNNING);
+
+        // Then
+        assertEquals(ServerStatus.RUNNING, buffer.status(server.getId()));
+        assertEquals(ServerStatus.RUNNING, last.getStatus());
+        assertEquals(1L, last.getVersion());
+        assertEquals(ServerStatus.STOPPED, serverRepository.findById(server.getId()).orElseThrow().getStatus());
+
+        buffer.flush();
+
+        Server stored = serverRepository.findById(server.getId()).orElseThrow();
+        assertEquals(ServerStatus.RUNNING, stored.getStatus());
+        assertEquals(1L, stored.getVersion());
+        assertNull(buffer.status(server.getId()));
+        assertEquals(ServerStatus.RUNNING, statusCache.peek(server.getId()));
+        assertEquals(List.of("RUNNING", "STOPPED", "RUNNING"), jdbcTemplate.queryForList(
+                "select to_status from server_status_history where server_id = ? order by id", String.class, server.getId()));
+    }
+
+    @Test
+    void testIllegalAndRepeatedTransitionsAreCheckedAgainstBufferedStatus() {
+        // Given
+        buffer = buffer(WriteBehindProperties.Durability.BUFFERED);
+        Server server = serverRepository.saveAndFlush(new Server(null, "Checked", "10.0.0.2", ServerStatus.STOPPED));
+        buffer.transition(server.getId(), ServerStatus.STARTING);
+
+        // When
+        Server repeated = buffer.transition(server.getId(), ServerStatus.STARTING);
+        IllegalStateException rejected = assertThrows(IllegalStateException.class,
+                () -> buffer.transition(server.getId(), ServerStatus.STOPPING));
+        ServerNotFoundException missing = assertThrows(ServerNotFoundException.class,
+                () -> buffer.transition(-1L, ServerStatus.RUNNING));
+
+        // Then
+        assertEquals(ServerStatus.STARTING, repeated.getStatus());
+        assertEquals("Cannot change server status from STARTING to STOPPING", rejected.getMessage());
+        assertEquals("Server not found with id: -1", missing.getMessage());
+    }
+
+    @Test
+    void testChangesBehindTheBufferAreConflictsAndNotOverwritten() {
+        // Given
+        buffer = buffer(WriteBehindProperties.Durability.BUFFERED);
+        Server server = serverRepository.saveAndFlush(new Server(null, "Contended", "10.0.0.3", ServerStatus.STOPPED));
+        buffer.transition(server.getId(), ServerStatus.RUNNING);
+        jdbcTemplate.update("update servers set status = 'STARTING', version = version + 1 where id = ?", server.getId());
+
+        // When
+        buffer.flush();
+
+        // Then
+        assertEquals(ServerStatus.STARTING, serverRepository.findById(server.getId()).orElseThrow().getStatus());
+        assertNull(buffer.status(server.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from server_status_history where server_id = ?", Integer.class, server.getId()));
+    }
+
+    @Test
+    void testStopAndStartBehindTheBufferFailsCommittedCallers() throws Exception {
+        // Given
+        buffer = buffer(WriteBehindProperties.Durability.COMMITTED);
+        Server server = serverRepository.saveAndFlush(new Server(null, "Restarted", "10.0.0.5", ServerStatus.RUNNING));
+        CompletableFuture<Server> stopped = CompletableFuture.supplyAsync(() -> buffer.transition(server.getId(), ServerStatus.STOPPED));
+        while (buffer.status(server.getId()) == null) {
+            Thread.sleep(10);
+        }
+        // Back to the status the buffered entry started from, at a later version
+        jdbcTemplate.update("update servers set status = 'STOPPED', version = version + 1 where id = ?", server.getId());
+        jdbcTemplate.update("update servers set status = 'RUNNING', version = version + 1 where id = ?", server.getId());
+
+        // When
+        buffer.flush();
+
+        // Then
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> stopped.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OptimisticLockingFailureException.class, failed.getCause());
+        Server stored = serverRepository.findById(server.getId()).orElseThrow();
+        assertEquals(ServerStatus.RUNNING, stored.getStatus());
+        assertEquals(2L, stored.getVersion());
+    }
+
+    @Test
+    void testCommittedDurabilityWaitsForTheFlush() throws Exception {
+        // Given
+        buffer = buffer(WriteBehindProperties.Durability.COMMITTED);
+        Server server = serverRepository.saveAndFlush(new Server(null, "Durable", "10.0.0.4", ServerStatus.STOPPED));
+
+        // When
+        CompletableFuture<Server> started = CompletableFuture.supplyAsync(() -> buffer.transition(server.getId(), ServerStatus.RUNNING));
+
+        // Then
+        assertThrows(TimeoutException.class, () -> started.get(200, TimeUnit.MILLISECONDS));
+        while (buffer.status(server.getId()) == null) {
+            Thread.sleep(10);
+        }
+        buffer.flush();
+        assertEquals(ServerStatus.RUNNING, started.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(ServerStatus.RUNNING, serverRepository.findById(server.getId()).orElseThrow().getStatus());
+    }
+
+    // The flusher thread is never started, so each test decides when to flush
+    private StatusWriteBuffer buffer(WriteBehindProperties.Durability durability) {
+        return new StatusWriteBuffer(serverRepository, jdbcTemplate, transactionManager, statusCache, eventPublisher,
+                new WriteBehindProperties(true, Duration.ofHours(1), 4, durability));
+    }
+}
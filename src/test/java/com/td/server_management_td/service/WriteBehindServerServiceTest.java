@@ -0,0 +1,62 @@
+package com.td.server_management_td.service;
+
+import com.td.server_management_td.dto.ServerIdentity;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.model.ServerStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindServerServiceTest {
+
+    @Mock
+    private ServerService delegate;
+
+    @Mock
+    private StatusWriteBuffer buffer;
+
+    @InjectMocks
+    private WriteBehindServerService service;
+
+    @Test
+    void testListShowsBufferedStatusWithoutFlushing() {
+        // Given
+        ServerSummary buffered = new ServerSummary(1L, "Buffered", "10.0.0.1", ServerStatus.STOPPED, 3L, null, null);
+        ServerSummary written = new ServerSummary(2L, "Written", "10.0.0.2", ServerStatus.STOPPED, 5L, null, null);
+        when(delegate.listServers(null, 10)).thenReturn(List.of(buffered, written));
+        when(buffer.buffered(1L)).thenReturn(new StatusWriteBuffer.Buffered(ServerStatus.STARTING, 4L));
+
+        // When
+        List<ServerSummary> servers = service.listServers(null, 10);
+
+        // Then
+        assertEquals(List.of(
+                new ServerSummary(1L, "Buffered", "10.0.0.1", ServerStatus.STARTING, 4L, null, null),
+                written), servers);
+        verify(buffer, never()).flush();
+    }
+
+    @Test
+    void testLookupShowsBufferedStatusWithoutFlushing() {
+        // Given
+        when(delegate.findServerByName("Buffered"))
+                .thenReturn(Optional.of(new ServerIdentity(1L, "Buffered", "10.0.0.1", ServerStatus.STOPPED)));
+        when(buffer.status(1L)).thenReturn(ServerStatus.STARTING);
+
+        // When
+        Optional<ServerIdentity> found = service.findServerByName("Buffered");
+
+        // Then
+        assertEquals(Optional.of(new ServerIdentity(1L, "Buffered", "10.0.0.1", ServerStatus.STARTING)), found);
+        verify(buffer, never()).flush();
+    }
+}
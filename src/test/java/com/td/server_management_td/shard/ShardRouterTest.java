@@ -0,0 +1,64 @@
+package com.td.server_management_td.shard;
+
+import com.td.server_management_td.model.Server;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+    @Test
+    void testIdPlacementSpreadsServersAndEncodesTheShard() {
+        // Given
+        ShardRouter router = new ShardRouter(4, new SnowflakeIdGenerator(0), ShardPlacement.byId());
+        int[] servers = new int[4];
+
+        // When
+        for (int n = 0; n < 4_000; n++) {
+            Server server = new Server(null, "server-" + n, "10.0.0.1", null);
+            int shard = router.assignId(server);
+            servers[shard]++;
+
+            // Then
+            assertEquals(shard, router.shardOf(server.getId()));
+        }
+        for (int count : servers) {
+            assertTrue(count > 800, "uneven spread: " + count);
+        }
+    }
+
+    @Test
+    void testSitePlacementKeepsANetworkTogether() {
+        // Given
+        ShardRouter router = new ShardRouter(8, new SnowflakeIdGenerator(0), ShardPlacement.bySite());
+        Set<Integer> shards = new HashSet<>();
+
+        // When
+        int site = router.assignId(new Server(null, "a", "10.20.0.1", null));
+        for (int n = 0; n < 256; n++) {
+            shards.add(router.assignId(new Server(null, "b" + n, "10.20." + n + ".9", null)));
+        }
+        int host = router.assignId(new Server(null, "c", "db.example.com", null));
+
+        // Then
+        assertEquals(Set.of(site), shards);
+        assertEquals(host, router.assignId(new Server(null, "d", "db.example.com", null)));
+    }
+
+    @Test
+    void testIdsOfShardsBeyondTheFleetAreUnknown() {
+        // Given
+        ShardRouter router = new ShardRouter(2, new SnowflakeIdGenerator(0), ShardPlacement.byId());
+        long id = SnowflakeIdGenerator.withShard(new SnowflakeIdGenerator(0).next(), 5);
+
+        // When & Then
+        assertEquals(-1, router.shardOf(id));
+        assertEquals(0, router.shardOf(7L));
+        assertThrows(IllegalStateException.class,
+                () -> new ShardRouter(2, new SnowflakeIdGenerator(0), (server, raw, shards) -> shards)
+                        .assignId(new Server(null, "e", "10.0.0.2", null)));
+    }
+}
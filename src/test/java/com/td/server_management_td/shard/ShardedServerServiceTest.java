@@ -0,0 +1,212 @@
+package com.td.server_management_td.shard;
+
+import com.td.server_management_td.dto.BulkOperationResult;
+import com.td.server_management_td.dto.BulkServerRequest;
+import com.td.server_management_td.dto.ServerDelta;
+import com.td.server_management_td.dto.ServerSearchCriteria;
+import com.td.server_management_td.dto.ServerSortField;
+import com.td.server_management_td.dto.ServerSummary;
+import com.td.server_management_td.history.StatusHistory;
+import com.td.server_management_td.history.UptimeReport;
+import com.td.server_management_td.metrics.ServerStatusCounters;
+import com.td.server_management_td.model.Server;
+import com.td.server_management_td.model.ServerStatus;
+import com.td.server_management_td.model.StatusTransition;
+import com.td.server_management_td.repository.ServerRepository;
+import com.td.server_management_td.service.DuplicateServerException;
+import com.td.server_management_td.service.ServerNotFoundException;
+import com.td.server_management_td.service.ServerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Three in-memory H2 databases as shards
+@SpringBootTest(properties = {
+        "server-management.sharding.enabled=true",
+        "server-management.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+        "server-management.seed-data.enabled=false"
+})
+class ShardedServerServiceTest {
+
+    @Autowired
+    private ServerService serverService;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Autowired
+    private ServerRepository serverRepository;
+
+    @Autowired
+    private StatusHistory statusHistory;
+
+    @AfterEach
+    void tearDown() {
+        for (DataSource shard : dataSource.getShards()) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+            jdbcTemplate.update("delete from servers");
+            jdbcTemplate.update("delete from server_status_history");
+            jdbcTemplate.update("delete from fleet_status_hourly");
+        }
+    }
+
+    @Test
+    void testServersAreSpreadOverShardsAndReachedById() {
+        // Given
+        List<Server> servers = createServers(30);
+
+        // When
+        Server started = serverService.startServer(servers.get(0).getId());
+        Server renamed = serverService.renameServer(servers.get(1).getId(), "renamed", 0L);
+        serverService.deleteServer(servers.get(2).getId());
+
+        // Then
+        int total = 0;
+        for (DataSource shard : dataSource.getShards()) {
+            Integer count = new JdbcTemplate(shard).queryForObject("select count(*) from servers", Integer.class);
+            assertTrue(count > 0);
+            total += count;
+        }
+        assertEquals(29, total);
+        for (Server server : servers.subList(3, servers.size())) {
+            assertEquals(1, new JdbcTemplate(dataSource.getShards().get(SnowflakeIdGenerator.shardOf(server.getId())))
+                    .queryForObject("select count(*) from servers where id = ?", Integer.class, server.getId()));
+        }
+        assertEquals(ServerStatus.RUNNING, started.getStatus());
+        assertEquals(ServerStatus.RUNNING, serverService.getServerStatus(started.getId()));
+        assertEquals("renamed", renamed.getName());
+        assertThrows(ServerNotFoundException.class, () -> serverService.getServerStatus(servers.get(2).getId()));
+        assertThrows(ServerNotFoundException.class, () -> serverService.getServerStatus(
+                SnowflakeIdGenerator.withShard(servers.get(3).getId(), SnowflakeIdGenerator.MAX_SHARDS - 1)));
+    }
+
+    @Test
+    void testListPagesAreMergedInIdOrder() {
+        // Given
+        List<Long> ids = createServers(25).stream().map(Server::getId).sorted().toList();
+
+        // When
+        List<Long> listed = new ArrayList<>();
+        List<ServerSummary> page = serverService.listServers(null, 7);
+        while (!page.isEmpty()) {
+            page.forEach(server -> listed.add(server.id()));
+            page = serverService.listServers(page.get(page.size() - 1).id(), 7);
+        }
+
+        // Then
+        assertEquals(ids, listed);
+    }
+
+    @Test
+    void testSearchIsMergedInSortOrder() {
+        // Given
+        List<Server> servers = createServers(20);
+        serverService.startServers(BulkServerRequest.ofIds(servers.subList(0, 10).stream().map(Server::getId).toList()));
+        ServerSearchCriteria criteria = new ServerSearchCriteria(null, "server-1", null, ServerSortField.STATUS, Sort.Direction.DESC);
+
+        // When
+        List<ServerSummary> first = serverService.searchServers(criteria, null, 6);
+        List<ServerSummary> second = serverService.searchServers(criteria, ServerSortField.STATUS.cursorOf(first.get(5)), 6);
+
+        // Then
+        List<ServerSummary> expected = serverService.searchServers(new ServerSearchCriteria(null, "server-1", null, null, null), null, 100)
+                .stream()
+                .sorted(Comparator.comparing((ServerSummary server) -> server.status().name())
+                        .thenComparing(ServerSummary::id).reversed())
+                .toList();
+        assertEquals(11, expected.size());
+        assertEquals(expected.subList(0, 6), first);
+        assertEquals(expected.subList(6, 11), second);
+    }
+
+    @Test
+    void testBulkOperationsSplitIdsByShard() {
+        // Given
+        List<Long> ids = new ArrayList<>(createServers(12).stream().map(Server::getId).toList());
+        long foreign = SnowflakeIdGenerator.withShard(ids.get(0), SnowflakeIdGenerator.MAX_SHARDS - 1);
+        ids.add(foreign);
+        long deltaFrom = serverService.fleetVersion().version();
+
+        // When
+        BulkOperationResult result = serverService.startServers(BulkServerRequest.ofIds(ids));
+        ServerDelta delta = serverService.changesSince(deltaFrom);
+
+        // Then
+        assertEquals(12, result.succeeded().size());
+        assertEquals(List.of(foreign), result.failed().stream().map(BulkOperationResult.Failure::id).toList());
+        assertEquals(12, serverService.searchServers(
+                new ServerSearchCriteria(ServerStatus.RUNNING, null, null, null, null), null, 100).size());
+        assertFalse(delta.reset());
+        assertEquals(12, delta.changed().size());
+    }
+
+    @Test
+    void testNamesAndAddressesAreUniqueAcrossShards() {
+        // Given
+        List<Server> servers = createServers(30);
+
+        // When
+        DuplicateServerException name = assertThrows(DuplicateServerException.class,
+                () -> serverService.createServer(new Server(null, "server-7", "10.2.0.1", null)));
+        DuplicateServerException address = assertThrows(DuplicateServerException.class,
+                () -> serverService.createServer(new Server(null, "server-new", "10.1.7.1", null)));
+        DuplicateServerException renamed = assertThrows(DuplicateServerException.class,
+                () -> serverService.renameServer(servers.get(0).getId(), "server-1"));
+
+        // Then
+        assertEquals("name", name.getField());
+        assertEquals("ipAddress", address.getField());
+        assertEquals("name", renamed.getField());
+        assertEquals(30, serverService.listServers(null, 100).size());
+    }
+
+    @Test
+    void testCountsAndHistoryCoverEveryShard() throws InterruptedException {
+        // Given
+        Instant created = Instant.now();
+        List<Server> servers = createServers(30);
+        Server remote = servers.stream().filter(server -> SnowflakeIdGenerator.shardOf(server.getId()) > 0).findFirst().orElseThrow();
+        serverService.startServer(remote.getId());
+        Instant from = Instant.now();
+        Thread.sleep(50);
+        Instant to = Instant.now();
+
+        // When
+        ServerStatusCounters counters = new ServerStatusCounters(serverRepository, dataSource);
+        counters.initialize();
+        statusHistory.rollUp();
+        UptimeReport fleet = statusHistory.fleetUptime(from, to);
+        List<StatusTransition> timeline = statusHistory.timeline(remote.getId(), created, to, 10);
+
+        // Then
+        assertEquals(29, counters.count(ServerStatus.STOPPED));
+        assertEquals(1, counters.count(ServerStatus.RUNNING));
+        // Within a millisecond per server: timestamps are compared at millisecond precision
+        double window = Duration.between(from, to).toMillis() / 1000.0;
+        assertEquals(29 * window, fleet.secondsByStatus().get(ServerStatus.STOPPED), 0.03);
+        assertEquals(window, fleet.secondsByStatus().get(ServerStatus.RUNNING), 0.002);
+        assertEquals(List.of(ServerStatus.STOPPED, ServerStatus.RUNNING),
+                timeline.stream().map(StatusTransition::getToStatus).toList());
+    }
+
+    private List<Server> createServers(int count) {
+        List<Server> servers = new ArrayList<>();
+        for (int n = 0; n < count; n++) {
+            servers.add(serverService.createServer(new Server(null, "server-" + n, "10.1." + n + ".1", null)));
+        }
+        return servers;
+    }
+}
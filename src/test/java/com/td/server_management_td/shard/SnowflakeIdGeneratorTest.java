@@ -0,0 +1,69 @@
+package com.td.server_management_td.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private final AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH_MILLIS + 86_400_000L);
+
+    @Test
+    void testIdsStayUniqueAndIncreasingWithinAMillisecondAndWhenTheClockStepsBack() {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, clock::get);
+        Set<Long> ids = new HashSet<>();
+        long previous = 0;
+
+        // When & Then
+        for (int n = 0; n < 10_000; n++) {
+            if (n == 5_000) {
+                clock.addAndGet(-1_000);
+            }
+            long id = generator.next();
+            assertTrue(id > previous);
+            assertTrue(id >= SnowflakeIdGenerator.MIN_ID);
+            assertEquals(0, SnowflakeIdGenerator.shardOf(id));
+            assertTrue(ids.add(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void testNodesNeverCollide() {
+        // Given
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(0, clock::get);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(1, clock::get);
+
+        // When & Then
+        assertNotEquals(first.next(), second.next());
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODES));
+    }
+
+    @Test
+    void testShardIsEncodedInTheId() {
+        // Given
+        long id = new SnowflakeIdGenerator(15, clock::get).next();
+
+        // When
+        long onShard = SnowflakeIdGenerator.withShard(id, 42);
+
+        // Then
+        assertEquals(42, SnowflakeIdGenerator.shardOf(onShard));
+        assertEquals(SnowflakeIdGenerator.MAX_SHARDS - 1,
+                SnowflakeIdGenerator.shardOf(SnowflakeIdGenerator.withShard(id, SnowflakeIdGenerator.MAX_SHARDS - 1)));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.withShard(id, SnowflakeIdGenerator.MAX_SHARDS));
+    }
+
+    @Test
+    void testIdentityIdsLiveOnShardZero() {
+        // Given & When & Then
+        assertEquals(0, SnowflakeIdGenerator.shardOf(1));
+        assertEquals(0, SnowflakeIdGenerator.shardOf(0xFFFF_F000L));
+        assertEquals(0, SnowflakeIdGenerator.shardOf(SnowflakeIdGenerator.MIN_ID - 1));
+    }
+}